@@ -3,6 +3,9 @@
  */
 package it.unicam.cs.asdl2324.es10;
 
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
@@ -21,7 +24,61 @@ import java.util.Set;
  * La tabella ha una dimensione iniziale di default (16) e un fattore di
  * caricamento di defaut (0.75). Quando il fattore di bilanciamento effettivo
  * eccede quello di default la tabella viene raddoppiata e viene fatto un
- * riposizionamento di tutti gli elementi.
+ * riposizionamento di tutti gli elementi. Se si conosce in anticipo il numero
+ * di elementi da inserire lo si può passare al costruttore, che alloca subito
+ * una tabella sufficiente a contenerli senza raddoppi.
+ * 
+ * Di default la rimozione non dimezza mai la tabella; trimToSize() la riporta
+ * alla capacità minima sufficiente per gli elementi presenti. Se richiesto al
+ * costruttore, la tabella viene invece dimezzata automaticamente quando il
+ * fattore di bilanciamento scende sotto SHRINK_LOAD_FACTOR (un quarto di
+ * quello di default): dopo un dimezzamento il fattore è ancora lontano da
+ * entrambe le soglie, per cui alternare inserimenti e rimozioni vicino a una
+ * soglia non provoca una serie di ridimensionamenti.
+ * 
+ * Il riposizionamento può avvenire in due modi, scelti all'atto della
+ * creazione. Nella modalità di default tutti gli elementi vengono riposizionati
+ * in un'unica passata durante l'operazione che supera la soglia. Nella
+ * modalità incrementale, invece, la tabella vecchia resta in vita accanto a
+ * quella nuova e ogni add(), remove() e contains() successivo sposta al più
+ * REHASH_STEP liste di collisione dalla vecchia alla nuova, finché la vecchia
+ * non è vuota. In questo modo il costo del ridimensionamento è distribuito
+ * sulle operazioni e nessuna singola add() paga Θ(n). Durante la migrazione le
+ * ricerche consultano entrambe le tabelle.
+ * 
+ * Oltre che nelle liste di collisione, tutti i nodi sono collegati in una
+ * lista doppiamente concatenata in ordine di inserimento, che l'iteratore
+ * scorre: il costo di un'iterazione completa è quindi Θ(size) e non dipende
+ * dalla capacità della tabella né dalla migrazione in corso.
+ * 
+ * Le operazioni di massa addAll(), removeAll() e retainAll() sfruttano gli
+ * hash memorizzati quando l'altra collezione è anch'essa una
+ * CollisionListResizableHashTable; addAll() inoltre dimensiona la tabella in
+ * anticipo per il numero di elementi che il risultato conterrà di sicuro e,
+ * se le due tabelle usano la stessa istanza di funzione di hash primaria e
+ * hanno la stessa capacità, le fonde bucket per bucket.
+ * 
+ * Ogni nodo memorizza l'hashCode() completo del proprio elemento: in questo
+ * modo hashCode() viene chiamato una sola volta per ogni operazione e mai
+ * durante il raddoppio, e nella scansione di una lista di collisione equals()
+ * viene chiamato solo sui nodi con lo stesso hashCode().
+ * 
+ * Con una funzione di hash primaria inadeguata o con chiavi scelte ad arte una
+ * lista di collisione può diventare lunghissima. Quando supera
+ * TREEIFY_THRESHOLD nodi e i suoi elementi sono tutti della stessa classe, che
+ * implementa Comparable, la lista viene trasformata in un albero AVL ordinato
+ * per hashCode() e poi con compareTo(), per cui la ricerca in un bucket costa
+ * O(log n) anche nel caso peggiore. Quando, per rimozioni o per un
+ * ridimensionamento della tabella, l'albero scende a UNTREEIFY_THRESHOLD nodi
+ * torna ad essere una lista. Un bucket contiene quindi null, il primo nodo di
+ * una lista di collisione oppure un TreeBin.
+ * 
+ * Su richiesta (setStatisticsEnabled()) la tabella registra il numero di
+ * sonde di ogni contains(), add() e remove(), il numero e la durata dei
+ * ridimensionamenti e l'andamento del fattore di carico; getStatistics()
+ * ne restituisce una fotografia insieme all'istogramma delle lunghezze delle
+ * liste di collisione e HashTableMonitor la espone via JMX. Quando le
+ * statistiche sono disabilitate l'unico costo è il controllo stats != null.
  * 
  * @author Template: Luca Tesei, Implementazione: collettiva
  *
@@ -40,6 +97,52 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
      */
     private static final double LOAD_FACTOR = 0.75;
 
+    /*
+     * Fattore di bilanciamento sotto il quale, se richiesto, la tabella viene
+     * dimezzata.
+     */
+    private static final double SHRINK_LOAD_FACTOR = LOAD_FACTOR / 4;
+
+    /*
+     * Capacità massima della tabella, la più grande potenza di due
+     * rappresentabile come int.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /*
+     * Numero massimo di liste di collisione spostate dalla tabella vecchia a
+     * quella nuova ad ogni operazione, in modalità incrementale.
+     */
+    private static final int REHASH_STEP = 4;
+
+    /*
+     * Numero massimo di bucket vuoti della tabella vecchia visitati per ogni
+     * lista da spostare, per limitare il costo di un passo di migrazione
+     * quando la tabella vecchia è sparsa.
+     */
+    private static final int EMPTY_VISITS_PER_STEP = 10;
+
+    /*
+     * Lunghezza oltre la quale una lista di collisione viene trasformata in un
+     * albero, se i suoi elementi sono confrontabili.
+     */
+    private static final int TREEIFY_THRESHOLD = 8;
+
+    /*
+     * Numero di nodi al quale un albero torna ad essere una lista di
+     * collisione. E' minore di TREEIFY_THRESHOLD per non alternare le due
+     * rappresentazioni inserendo e rimuovendo lo stesso elemento.
+     */
+    private static final int UNTREEIFY_THRESHOLD = 6;
+
+    /*
+     * Numero di modifiche tra due campioni del fattore di carico e numero di
+     * campioni conservati, quando le statistiche sono abilitate.
+     */
+    private static final int LOAD_SAMPLE_INTERVAL = 1024;
+
+    private static final int LOAD_SAMPLES = 64;
+
     /*
      * Numero di elementi effettivamente presenti nella hash table in questo
      * momento. ATTENZIONE: questo valore è diverso dalla capacity, che è la
@@ -77,6 +180,43 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
      */
     private Object[] table;
 
+    /*
+     * Tabella precedente al raddoppio, non null solo in modalità incrementale
+     * mentre è in corso la migrazione dei suoi elementi in this.table. I
+     * bucket di indice minore di rehashIndex sono già stati svuotati.
+     */
+    private Object[] oldTable;
+
+    /*
+     * Indice del prossimo bucket di oldTable da spostare in this.table.
+     */
+    private int rehashIndex;
+
+    /*
+     * Indica se il raddoppio della tabella avviene in modo incrementale.
+     */
+    private final boolean incrementalResize;
+
+    /*
+     * Indica se la tabella viene dimezzata automaticamente quando il fattore
+     * di bilanciamento scende sotto SHRINK_LOAD_FACTOR.
+     */
+    private final boolean autoShrink;
+
+    /*
+     * Capacità con cui è stata creata la tabella. La tabella non viene mai
+     * dimezzata automaticamente sotto questa capacità e clear() la ripristina.
+     */
+    private final int initialCapacity;
+
+    /*
+     * Primo e ultimo nodo della lista, in ordine di inserimento, di tutti i
+     * nodi presenti. Usata dall'iteratore.
+     */
+    private Node<E> first;
+
+    private Node<E> last;
+
     /*
      * Funzion di hash primaria usata da questa hash table. Va inizializzata nel
      * costruttore all'atto di creazione dell'oggetto.
@@ -89,6 +229,23 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
      */
     private int modCount;
 
+    /*
+     * Contatori delle statistiche, null se le statistiche sono disabilitate.
+     */
+    private Statistics stats;
+
+    /*
+     * Bucket di noTreeifyTable la cui lista di collisione non ha potuto essere
+     * trasformata in albero. Aggiungere elementi a una lista di questo tipo
+     * non la rende trasformabile, per cui il tentativo, che costa
+     * O(L log L), non viene ripetuto ad ogni inserimento ma solo dopo che un
+     * elemento è stato eliminato dal bucket o che la tabella è stata
+     * sostituita. Entrambi i campi sono null finché nessun tentativo fallisce.
+     */
+    private BitSet noTreeify;
+
+    private Object[] noTreeifyTable;
+
     // I due metodi seguenti sono di comodo per gestire la capacity e la soglia
     // oltre la quale bisogna fare il resize.
 
@@ -105,15 +262,104 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         return (int) (getCurrentCapacity() * LOAD_FACTOR);
     }
 
+    /*
+     * Valore corrente soglia sotto la quale, se richiesto, si deve dimezzare la
+     * tabella, getCurrentCapacity * SHRINK_LOAD_FACTOR
+     */
+    private int getCurrentShrinkThreshold() {
+        return (int) (getCurrentCapacity() * SHRINK_LOAD_FACTOR);
+    }
+
+    /*
+     * La più piccola capacità, potenza di due non inferiore a INITIAL_CAPACITY,
+     * che può contenere n elementi senza superare LOAD_FACTOR.
+     */
+    private static int capacityFor(int n) {
+        int capacity = INITIAL_CAPACITY;
+        while(capacity < MAXIMUM_CAPACITY && (int) (capacity * LOAD_FACTOR) < n)
+            capacity *= 2;
+        return capacity;
+    }
+
     /**
      * Costruisce una Hash Table con capacità iniziale di default e fattore di
      * caricamento di default.
      */
     public CollisionListResizableHashTable(PrimaryHashFunction phf) {
+        this(phf, false);
+    }
+
+    /**
+     * Costruisce una Hash Table con capacità iniziale di default e fattore di
+     * caricamento di default, specificando la modalità di raddoppio.
+     * 
+     * @param phf
+     *                              la funzione di hash primaria da usare
+     * @param incrementalResize
+     *                              se true il riposizionamento degli elementi
+     *                              dopo un raddoppio è distribuito sulle
+     *                              operazioni successive, altrimenti è fatto
+     *                              in un'unica passata
+     */
+    public CollisionListResizableHashTable(PrimaryHashFunction phf,
+            boolean incrementalResize) {
+        this(phf, 0, incrementalResize, false);
+    }
+
+    /**
+     * Costruisce una Hash Table in grado di contenere il numero di elementi
+     * indicato senza dover essere raddoppiata.
+     * 
+     * @param phf
+     *                         la funzione di hash primaria da usare
+     * @param expectedSize
+     *                         il numero di elementi che si prevede di inserire
+     * @throws IllegalArgumentException
+     *                                      se expectedSize è negativo
+     */
+    public CollisionListResizableHashTable(PrimaryHashFunction phf,
+            int expectedSize) {
+        this(phf, expectedSize, false, false);
+    }
+
+    /**
+     * Costruisce una Hash Table in grado di contenere il numero di elementi
+     * indicato senza dover essere raddoppiata, specificando la modalità di
+     * ridimensionamento e se la tabella deve essere dimezzata automaticamente.
+     * 
+     * @param phf
+     *                              la funzione di hash primaria da usare
+     * @param expectedSize
+     *                              il numero di elementi che si prevede di
+     *                              inserire
+     * @param incrementalResize
+     *                              se true il riposizionamento degli elementi
+     *                              dopo un ridimensionamento è distribuito
+     *                              sulle operazioni successive, altrimenti è
+     *                              fatto in un'unica passata
+     * @param autoShrink
+     *                              se true la tabella viene dimezzata quando
+     *                              il fattore di bilanciamento scende sotto un
+     *                              quarto di quello di default
+     * @throws IllegalArgumentException
+     *                                      se expectedSize è negativo
+     */
+    public CollisionListResizableHashTable(PrimaryHashFunction phf,
+            int expectedSize, boolean incrementalResize, boolean autoShrink) {
+        if(expectedSize < 0)
+            throw new IllegalArgumentException("Numero di elementi previsto negativo.");
         this.phf = phf;
-        this.table = new Object[INITIAL_CAPACITY];
+        this.initialCapacity = capacityFor(expectedSize);
+        this.table = new Object[this.initialCapacity];
+        this.oldTable = null;
+        this.rehashIndex = 0;
+        this.incrementalResize = incrementalResize;
+        this.autoShrink = autoShrink;
+        this.first = null;
+        this.last = null;
         this.size = 0;
         this.modCount = 0;
+        this.stats = null;
     }
 
     @Override
@@ -143,22 +389,74 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         if(o == null) 
             throw new NullPointerException("Elemento inesistente.");
 
-        Node<E> temp; // sentinella
-        int index = this.phf.hash(o.hashCode(),this.getCurrentCapacity());
-        if((temp = (Node<E>) this.table[index]) != null) {
+        return this.containsHashed(o.hashCode(), o);
+    }
 
-            // scorro lista 
-            while(!(o.equals(temp.item)) && temp.next != null) temp = temp.next;
-            
-            // se non lo trovo
-            if(!(o.equals(temp.item))) 
-                return false;
-            // se lo trovo
-            else 
-                return true;
+    /*
+     * Realizza contains() per un elemento o di cui è già noto l'hashCode().
+     */
+    private boolean containsHashed(int hash, Object o) {
+
+        // se è in corso una migrazione ne eseguo un passo
+        if(this.oldTable != null)
+            this.rehashStep();
+
+        if(this.stats != null) {
+            this.stats.containsCount++;
+            this.stats.containsProbes += this.countProbes(hash, o);
         }
-        else 
-            return false;
+
+        // durante la migrazione l'elemento può trovarsi in una delle due tabelle
+        return this.findNode(this.table, hash, o) != null
+                || (this.oldTable != null && this.findNode(this.oldTable, hash, o) != null);
+    }
+
+    /*
+     * Numero di nodi esaminati cercando l'elemento o, con hashCode() pari a
+     * hash, prima nella tabella corrente e poi, se non trovato e se è in corso
+     * una migrazione, nella tabella vecchia. Usato solo per le statistiche.
+     */
+    private int countProbes(int hash, Object o) {
+        int probes = this.probes(this.table, hash, o);
+        if(this.oldTable != null && this.findNode(this.table, hash, o) == null)
+            probes += this.probes(this.oldTable, hash, o);
+        return probes;
+    }
+
+    /*
+     * Numero di nodi esaminati cercando l'elemento o, con hashCode() pari a
+     * hash, nel bucket che gli corrisponde nella tabella t.
+     */
+    private int probes(Object[] t, int hash, Object o) {
+        Object bucket = t[this.phf.hash(hash,t.length)];
+        if(bucket instanceof TreeBin)
+            return ((TreeBin<E>) bucket).probes(hash, o);
+        int probes = 0;
+        for(Node<E> temp = (Node<E>) bucket; temp != null; temp = temp.next) {
+            probes++;
+            if(temp.hash == hash && o.equals(temp.item))
+                break;
+        }
+        return probes;
+    }
+
+    /*
+     * Cerca l'elemento o, con hashCode() pari a hash, nella lista di
+     * collisione del bucket che gli corrisponde nella tabella t. Restituisce il
+     * nodo che lo contiene oppure null se non è presente.
+     */
+    private Node<E> findNode(Object[] t, int hash, Object o) {
+        Object bucket = t[this.phf.hash(hash,t.length)];
+        if(bucket instanceof TreeBin)
+            return ((TreeBin<E>) bucket).find(hash, o);
+
+        Node<E> temp = (Node<E>) bucket; // sentinella
+
+        // scorro lista, confrontando prima gli hash memorizzati
+        while(temp != null && !(temp.hash == hash && o.equals(temp.item)))
+            temp = temp.next;
+
+        return temp;
     }
 
     @Override
@@ -168,12 +466,25 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
 
     @Override
     public Object[] toArray() {
-        throw new UnsupportedOperationException("Operazione non supportata");
+        Object[] result = new Object[this.size];
+        int i = 0;
+        // scorro la lista di iterazione
+        for(Node<E> temp = this.first; temp != null; temp = temp.after)
+            result[i++] = temp.item;
+        return result;
     }
 
     @Override
     public <T> T[] toArray(T[] a) {
-        throw new UnsupportedOperationException("Operazione non supportata");
+        // se l'array passato non basta ne creo uno dello stesso tipo
+        if(a.length < this.size)
+            a = (T[]) Array.newInstance(a.getClass().getComponentType(), this.size);
+        int i = 0;
+        for(Node<E> temp = this.first; temp != null; temp = temp.after)
+            a[i++] = (T) temp.item;
+        if(a.length > this.size)
+            a[this.size] = null;
+        return a;
     }
 
     @Override
@@ -195,79 +506,283 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         if(e == null) 
             throw new NullPointerException("Elemento inesistente.");
 
-        // controllo se non presente
-        if(!(this.contains(e))) {
-
-            int index = this.phf.hash(e.hashCode(),this.getCurrentCapacity());
-            Node<E> temp = (Node<E>) this.table[index];
-
-            if(temp != null) {
-
-                Node<E> newElement = new Node<E>(e, temp.next);
-                temp.next = newElement;
+        return this.addHashed(e.hashCode(), e);
+    }
 
-            }
-            else
-                this.table[index] = new Node<E>(e, null);
+    /*
+     * Realizza add() per un elemento e di cui è già noto l'hashCode().
+     */
+    private boolean addHashed(int hash, E e) {
 
+        // se è in corso una migrazione ne eseguo un passo
+        if(this.oldTable != null) {
+            this.rehashStep();
+            // se presente nella parte non ancora migrata
+            if(this.oldTable != null && this.findNode(this.oldTable, hash, e) != null)
+                return false;
+        }
 
+        if(this.stats != null) {
+            this.stats.addCount++;
+            this.stats.addProbes += this.countProbes(hash, e);
         }
-        // se  presente
-        else {
+
+        int index = this.phf.hash(hash,this.getCurrentCapacity());
+        Node<E> node = this.putInBucket(this.table, index, hash, e);
+        if(node == null) // già presente
             return false;
-        }
+
+        // inserisco in coda alla lista di iterazione
+        this.linkLast(node);
 
         this.size++;
         this.modCount++;
+        if(this.stats != null)
+            this.stats.modified(this);
 
         // se la tabella ha superato la soglia del fattore di carico, estendo
-        if(this.size > this.getCurrentThreshold())
-            this.resize();
+        if(this.size > this.getCurrentThreshold() 
+                && this.getCurrentCapacity() < MAXIMUM_CAPACITY)
+            this.changeCapacity(this.getCurrentCapacity()*2);
 
         return true;
     }
 
     /*
-     * Raddoppia la tabella corrente e riposiziona tutti gli elementi. Da
-     * chiamare quando this.size diventa maggiore di getCurrentThreshold()
+     * Inserisce l'elemento e, con hashCode() pari a hash, nel bucket index
+     * della tabella t se non è già presente, con un'unica scansione della
+     * lista di collisione o un'unica ricerca nell'albero. Restituisce il nodo
+     * creato oppure null se l'elemento era già presente. Il nodo non viene
+     * aggiunto alla lista di iterazione.
+     */
+    private Node<E> putInBucket(Object[] t, int index, int hash, E e) {
+        Object bucket = t[index];
+
+        if(bucket instanceof TreeBin) {
+            TreeBin<E> bin = (TreeBin<E>) bucket;
+            if(bin.find(hash, e) != null)
+                return null;
+            Node<E> node = new Node<E>(hash, e, null);
+            this.putInBin(t, index, bin, node);
+            return node;
+        }
+
+        Node<E> head = (Node<E>) bucket;
+        int length = 0;
+        for(Node<E> temp = head; temp != null; temp = temp.next, length++)
+            if(temp.hash == hash && e.equals(temp.item))
+                return null;
+
+        // inserisco in testa alla lista di collisione
+        Node<E> node = new Node<E>(hash, e, head);
+        t[index] = node;
+        if(length >= TREEIFY_THRESHOLD)
+            this.treeifyBucket(t, index);
+        return node;
+    }
+
+    /*
+     * Posiziona nel bucket index della tabella t un nodo che sicuramente non
+     * vi è presente, trasformando la lista di collisione in albero se diventa
+     * troppo lunga. Usato durante il ridimensionamento.
+     */
+    private void placeNode(Object[] t, int index, Node<E> node) {
+        Object bucket = t[index];
+
+        if(bucket instanceof TreeBin) {
+            this.putInBin(t, index, (TreeBin<E>) bucket, node);
+            return;
+        }
+
+        node.next = (Node<E>) bucket;
+        t[index] = node;
+        if(bucket == null)
+            return;
+
+        // conto al più TREEIFY_THRESHOLD + 1 nodi
+        int length = 0;
+        for(Node<E> temp = node; temp != null && length <= TREEIFY_THRESHOLD; temp = temp.next)
+            length++;
+        if(length > TREEIFY_THRESHOLD)
+            this.treeifyBucket(t, index);
+    }
+
+    /*
+     * Inserisce il nodo nell'albero del bucket index della tabella t. Se il
+     * nodo non può essere ordinato rispetto agli altri, il bucket torna ad
+     * essere una lista di collisione.
+     */
+    private void putInBin(Object[] t, int index, TreeBin<E> bin, Node<E> node) {
+        if(!bin.add(node)) {
+            node.next = bin.toList();
+            t[index] = node;
+            this.markNoTreeify(t, index);
+        }
+    }
+
+    /*
+     * Trasforma in albero la lista di collisione del bucket index della
+     * tabella t, se i suoi elementi lo permettono. Non ritenta su un bucket
+     * per cui un tentativo precedente è fallito.
+     */
+    private void treeifyBucket(Object[] t, int index) {
+        if(t == this.noTreeifyTable && this.noTreeify.get(index))
+            return;
+        TreeBin<E> bin = TreeBin.treeify((Node<E>) t[index]);
+        if(bin != null)
+            t[index] = bin;
+        else
+            this.markNoTreeify(t, index);
+    }
+
+    /*
+     * Ricorda che la lista di collisione del bucket index della tabella t non
+     * può essere trasformata in albero. I bucket segnati di una tabella
+     * precedente vengono dimenticati.
+     */
+    private void markNoTreeify(Object[] t, int index) {
+        if(t != this.noTreeifyTable) {
+            this.noTreeifyTable = t;
+            this.noTreeify = new BitSet();
+        }
+        this.noTreeify.set(index);
+    }
+
+    /*
+     * Riporta a lista di collisione l'albero del bucket index della tabella t
+     * se è sceso a UNTREEIFY_THRESHOLD nodi.
+     */
+    private void untreeifyIfSmall(Object[] t, int index, TreeBin<E> bin) {
+        if(bin.count <= UNTREEIFY_THRESHOLD)
+            t[index] = bin.toList();
+    }
+
+    /*
+     * Il primo nodo della lista di collisione rappresentata da un bucket. Se il
+     * bucket è un albero, i suoi nodi vengono collegati in lista tramite il
+     * campo next senza modificare l'albero.
+     */
+    private static <E> Node<E> chainOf(Object bucket) {
+        if(bucket instanceof TreeBin)
+            return ((TreeBin<E>) bucket).toList();
+        return (Node<E>) bucket;
+    }
+
+    /*
+     * Porta la tabella alla capacità indicata, in un'unica passata o avviando
+     * una migrazione incrementale a seconda della modalità scelta alla
+     * creazione.
      */
-    private void resize() {
+    private void changeCapacity(int newCapacity) {
+        if(this.incrementalResize)
+            this.startResize(newCapacity);
+        else
+            this.resize(newCapacity);
+    }
+
+    /*
+     * Alloca una tabella della capacità indicata e vi riposiziona tutti gli
+     * elementi in un'unica passata. Da chiamare quando this.size diventa
+     * maggiore di getCurrentThreshold(), o minore di
+     * getCurrentShrinkThreshold(), oppure da trimToSize().
+     */
+    private void resize(int newCapacity) {
+
+        // termino un'eventuale migrazione in corso
+        if(this.oldTable != null)
+            this.completeResize();
+
+        long start = this.stats != null ? System.nanoTime() : 0;
 
         Object[] oldHash = this.table;
         int oldSize = this.getCurrentCapacity(); // salvo le vecchie dimensioni
         
-        this.table = new Object[this.getCurrentCapacity()*2]; // alloco una nuova tabella dalla dimensione doppia
-        Node<E> temp, next;
+        this.table = new Object[newCapacity]; // alloco la nuova tabella
 
+        for(int i=0; i<oldSize; i++) // scorro l'hash table
+            this.transfer(oldHash[i]);
 
-        for(int i=0; i<oldSize; i++) { // scorro l'hash table
+        if(this.stats != null)
+            this.stats.resized(this, System.nanoTime() - start);
+    }
 
-            temp = (Node<E>) oldHash[i]; // prendo l'elemento di indice
-            next = (Node<E>) oldHash[i];
-            
-            // scorro dal primo eventuale elemento l'intera lista di collisioni
-            while(temp != null){ 
-                
-                int hash = this.phf.hash(temp.item.hashCode(),this.getCurrentCapacity());
-                next = temp.next;
-                temp.next = null;
+    /*
+     * Avvia un ridimensionamento incrementale: la tabella corrente diventa la
+     * tabella vecchia da svuotare e viene allocata una nuova tabella della
+     * capacità indicata. Se una migrazione precedente non è ancora terminata,
+     * viene prima completata.
+     */
+    private void startResize(int newCapacity) {
+        if(this.oldTable != null)
+            this.completeResize();
+        this.oldTable = this.table;
+        this.rehashIndex = 0;
+        this.table = new Object[newCapacity];
+        if(this.stats != null)
+            this.stats.resized(this, 0);
+        this.rehashStep();
+    }
 
-                Node<E> bucket = (Node<E>) this.table[hash];
+    /*
+     * Sposta nella tabella corrente al più REHASH_STEP liste di collisione
+     * della tabella vecchia, visitando al più REHASH_STEP *
+     * EMPTY_VISITS_PER_STEP bucket vuoti. Quando la tabella vecchia è vuota la
+     * migrazione termina.
+     */
+    private void rehashStep() {
+        long start = this.stats != null ? System.nanoTime() : 0;
+        int moved = 0;
+        int emptyVisits = REHASH_STEP * EMPTY_VISITS_PER_STEP;
+        while(moved < REHASH_STEP && this.rehashIndex < this.oldTable.length) {
+            Object temp = this.oldTable[this.rehashIndex];
+            this.oldTable[this.rehashIndex++] = null;
+            if(temp != null) {
+                this.transfer(temp);
+                moved++;
+            }
+            else if(--emptyVisits == 0)
+                break;
+        }
+        if(this.rehashIndex == this.oldTable.length)
+            this.oldTable = null; // migrazione terminata
+        if(this.stats != null)
+            this.stats.resizeNanos += System.nanoTime() - start;
+    }
 
-                if(bucket != null) { // se l'indice non è libero
+    /*
+     * Sposta nella tabella corrente tutti gli elementi rimasti nella tabella
+     * vecchia.
+     */
+    private void completeResize() {
+        long start = this.stats != null ? System.nanoTime() : 0;
+        while(this.rehashIndex < this.oldTable.length) {
+            this.transfer(this.oldTable[this.rehashIndex]);
+            this.oldTable[this.rehashIndex++] = null;
+        }
+        this.oldTable = null;
+        if(this.stats != null)
+            this.stats.resizeNanos += System.nanoTime() - start;
+    }
 
-                    // attacco dopo la testa
-                    temp.next = bucket.next;
-                    bucket.next = temp;
+    /*
+     * Riposiziona nella tabella corrente tutti i nodi del bucket indicato
+     * (lista di collisione o albero), riusando i nodi stessi.
+     */
+    private void transfer(Object bucket) {
 
-                }
-                else   // altrimenti va nella posizione corrispondente al risultato della funzione hash
-                    this.table[hash] = temp;
-                
-                temp = next;
-            }
+        Node<E> temp = chainOf(bucket), next;
+        
+        // scorro dal primo eventuale elemento l'intera lista di collisioni
+        while(temp != null){ 
+            
+            int hash = this.phf.hash(temp.hash,this.getCurrentCapacity()); // hash memorizzato nel nodo
+            next = temp.next;
 
-        }        
+            // va nella posizione corrispondente al risultato della funzione hash
+            this.placeNode(this.table, hash, temp);
+            
+            temp = next;
+        }
 
     }
 
@@ -285,48 +800,283 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
          * eliminato dalla lista concatenata
          * 
          */
-        // ATTENZIONE: la rimozione, in questa implementazione, **non** comporta
-        // mai una resize "al ribasso", cioè un dimezzamento della tabella se si
-        // scende sotto il fattore di bilanciamento desiderato.
+        // ATTENZIONE: la rimozione comporta una resize "al ribasso", cioè un
+        // dimezzamento della tabella se si scende sotto SHRINK_LOAD_FACTOR,
+        // solo se richiesto all'atto della creazione.
 
         if(o == null) 
             throw new NullPointerException("Elemento inesistente.");
-        
+
+        return this.removeHashed(o.hashCode(), o);
+    }
+
+    /*
+     * Realizza remove() per un elemento o di cui è già noto l'hashCode().
+     */
+    private boolean removeHashed(int hash, Object o) {
+
+        // se è in corso una migrazione ne eseguo un passo
+        if(this.oldTable != null)
+            this.rehashStep();
+
+        if(this.stats != null) {
+            this.stats.removeCount++;
+            this.stats.removeProbes += this.countProbes(hash, o);
+        }
+
+        // durante la migrazione l'elemento può trovarsi in una delle due tabelle
+        Node<E> removed = this.removeFromBucket(this.table, hash, o);
+        if(removed == null && this.oldTable != null)
+            removed = this.removeFromBucket(this.oldTable, hash, o);
+
+        if(removed == null) // non presente
+            return false;
+
+        this.unlink(removed);
+        this.size--;
+        this.modCount++;
+        if(this.stats != null)
+            this.stats.modified(this);
+
+        this.shrinkIfSparse();
+
+        return true;
+    }
+
+    /*
+     * Se richiesto alla creazione e la tabella è troppo sparsa, la dimezza
+     * finché il fattore di bilanciamento non torna sopra SHRINK_LOAD_FACTOR o
+     * la capacità non torna quella di creazione.
+     */
+    private void shrinkIfSparse() {
+        if(!this.autoShrink)
+            return;
+        int capacity = this.getCurrentCapacity();
+        while(capacity > this.initialCapacity 
+                && this.size < (int) (capacity * SHRINK_LOAD_FACTOR))
+            capacity /= 2;
+        if(capacity != this.getCurrentCapacity())
+            this.changeCapacity(capacity);
+    }
+
+    /*
+     * Elimina un nodo presente nella tabella: dalla lista di collisione in cui
+     * si trova, cercandolo per identità, e dalla lista di iterazione.
+     */
+    private void deleteNode(Node<E> node) {
+        if(!this.unlinkFromBucket(this.table, node))
+            this.unlinkFromBucket(this.oldTable, node); // non ancora migrato
+        this.unlink(node);
+        this.size--;
+        this.modCount++;
+        if(this.stats != null)
+            this.stats.modified(this);
+    }
+
+    /*
+     * Elimina il nodo dalla lista di collisione del bucket che gli corrisponde
+     * nella tabella t. Restituisce false se il nodo non si trova in t.
+     */
+    private boolean unlinkFromBucket(Object[] t, Node<E> node) {
+        int index = this.phf.hash(node.hash,t.length);
+        if(t[index] instanceof TreeBin) {
+            TreeBin<E> bin = (TreeBin<E>) t[index];
+            if(bin.remove(node.hash, node.item) == null)
+                return false;
+            this.untreeifyIfSmall(t, index, bin);
+            return true;
+        }
+        Node<E> temp = (Node<E>) t[index];
+        Node<E> prec = null;
+        while(temp != null && temp != node) {
+            prec = temp;
+            temp = temp.next;
+        }
+        if(temp == null)
+            return false;
+        if(prec == null)
+            t[index] = temp.next;
+        else
+            prec.next = temp.next;
+        if(t == this.noTreeifyTable)
+            this.noTreeify.clear(index);
+        return true;
+    }
+
+    /*
+     * Elimina l'elemento o, con hashCode() pari a hash, dalla lista di
+     * collisione del bucket che gli corrisponde nella tabella t, se presente.
+     * Restituisce il nodo eliminato oppure null se non era presente.
+     */
+    private Node<E> removeFromBucket(Object[] t, int hash, Object o) {
+
         Node<E> temp; // sentinella
         Node<E> prec; // precedente di temp
 
-        // controllo se è presente
-        if(this.contains(o)) {
+        // salvo il valore con quell'hash (testa della lista di collisione)
+        int index = this.phf.hash(hash,t.length);
+        if(t[index] instanceof TreeBin) {
+            TreeBin<E> bin = (TreeBin<E>) t[index];
+            temp = bin.remove(hash, o);
+            if(temp != null)
+                this.untreeifyIfSmall(t, index, bin);
+            return temp;
+        }
+        temp = (Node<E>) t[index];
+        prec = null; // la testa non ha precedente
 
-            // salvo il valore con quell'hash (testa della lista di collisione)
-            int index = this.phf.hash(o.hashCode(),this.getCurrentCapacity());
-            temp = (Node<E>) this.table[index];
-            prec = temp; // il precedente coincide con la testa
+        // scorro lista collisioni finché non lo trovo
+        while(temp != null && !(temp.hash == hash && o.equals(temp.item))) {
+            prec = temp;
+            temp = temp.next;
+        }
 
-            // scorro lista collisioni, sapendo che prima o poi lo troverò
-            while(!(temp.item.equals(o))) {
-                prec = temp;
-                temp = temp.next;
-            }
+        if(temp == null) // non presente
+            return null;
+
+        if(prec == null) // è la testa della lista di collisione
+            t[index] = temp.next; // se era l'unico la cella hash diventa libera
+        // è un elemento della lista di collisioni
+        else 
+            prec.next = temp.next;
+
+        // senza l'elemento la lista potrebbe diventare trasformabile in albero
+        if(t == this.noTreeifyTable)
+            this.noTreeify.clear(index);
+
+        return temp;
+    }
+
+    /*
+     * Aggiunge il nodo in coda alla lista di iterazione.
+     */
+    private void linkLast(Node<E> node) {
+        node.before = this.last;
+        node.after = null;
+        if(this.last == null)
+            this.first = node; // lista vuota
+        else
+            this.last.after = node;
+        this.last = node;
+    }
+
+    /*
+     * Elimina il nodo dalla lista di iterazione.
+     */
+    private void unlink(Node<E> node) {
+        if(node.before == null)
+            this.first = node.after;
+        else
+            node.before.after = node.after;
+        if(node.after == null)
+            this.last = node.before;
+        else
+            node.after.before = node.before;
+        node.before = null;
+        node.after = null;
+    }
+
+    /**
+     * Riduce la capacità della tabella alla minima sufficiente a contenere gli
+     * elementi presenti senza superare il fattore di caricamento di default,
+     * terminando un'eventuale migrazione in corso. Gli elementi presenti non
+     * cambiano.
+     */
+    public void trimToSize() {
+        int capacity = capacityFor(this.size);
+        if(capacity != this.getCurrentCapacity() || this.oldTable != null)
+            this.resize(capacity);
+    }
+
+    /**
+     * Abilita o disabilita la raccolta delle statistiche. Abilitarle azzera i
+     * contatori; disabilitarle li scarta.
+     * 
+     * @param enabled
+     *                    true per abilitare le statistiche, false per
+     *                    disabilitarle
+     */
+    public void setStatisticsEnabled(boolean enabled) {
+        if(!enabled)
+            this.stats = null;
+        else if(this.stats == null)
+            this.stats = new Statistics();
+    }
 
-            if(this.table[index] == temp) { // è la testa della lista di collisione
-                if(temp.next == null) 
-                    this.table[index] = null; // cella hash libera
-                // primo elemento della lista delle collisioni diventa testa della cella hash
-                else 
-                    this.table[index] = temp.next; 
+    /**
+     * @return true se le statistiche sono abilitate
+     */
+    public boolean isStatisticsEnabled() {
+        return this.stats != null;
+    }
+
+    /**
+     * Restituisce una fotografia delle statistiche della tabella. I dati
+     * strutturali sono calcolati scorrendo tutti i bucket, per cui il costo è
+     * Θ(capacità); i contatori delle operazioni sono a zero se le statistiche
+     * sono disabilitate.
+     * 
+     * @return la fotografia delle statistiche
+     */
+    public HashTableStatistics getStatistics() {
+        return this.getStatistics(true);
+    }
+
+    /*
+     * Fotografia delle statistiche. Se structure è false i bucket non vengono
+     * scorsi e l'istogramma, la lunghezza massima e il numero di alberi
+     * valgono zero: il costo è quello della copia dei campioni del fattore di
+     * carico. Usata da HashTableMonitor per gli attributi economici.
+     * 
+     * La tabella non è thread-safe, ma questo metodo può essere chiamato da un
+     * thread di monitoraggio mentre un altro la modifica: legge una volta sola
+     * i riferimenti alle tabelle e ogni bucket, per cui non lancia eccezioni
+     * per una migrazione o una trasformazione in albero concorrenti, ma i
+     * valori restituiti sono in quel caso solo indicativi.
+     */
+    HashTableStatistics getStatistics(boolean structure) {
+        int[] histogram = new int[HashTableStatistics.HISTOGRAM_SIZE];
+        int[] summary = new int[2]; // lunghezza massima e numero di alberi
+        Object[] t = this.table;
+        if(structure) {
+            Object[] old = this.oldTable;
+            int from = this.rehashIndex;
+            this.addToHistogram(t, 0, histogram, summary);
+            if(old != null) // solo i bucket non ancora migrati
+                this.addToHistogram(old, from, histogram, summary);
+        }
+        Statistics st = this.stats;
+        if(st == null)
+            st = new Statistics();
+        return new HashTableStatistics(this.size, t.length,
+                histogram, summary[0], summary[1], st.containsCount,
+                st.containsProbes, st.addCount, st.addProbes, st.removeCount,
+                st.removeProbes, st.resizeCount, st.resizeNanos,
+                st.loadFactorHistory());
+    }
+
+    /*
+     * Aggiunge all'istogramma le lunghezze dei bucket di t a partire da from,
+     * aggiornando in summary la lunghezza massima e il numero di alberi. Ogni
+     * bucket è letto una volta sola e la scansione di una lista si ferma dopo
+     * size + 1 nodi, per tollerare modifiche concorrenti.
+     */
+    private void addToHistogram(Object[] t, int from, int[] histogram, int[] summary) {
+        for(int i = from; i < t.length; i++) {
+            Object bucket = t[i];
+            int length = 0;
+            if(bucket instanceof TreeBin) {
+                length = ((TreeBin<E>) bucket).count;
+                summary[1]++;
             }
-            // è un elemento della lista di collisioni
             else {
-                prec.next = temp.next;
+                int limit = this.size + 1;
+                for(Node<E> temp = (Node<E>) bucket; temp != null && length < limit; temp = temp.next)
+                    length++;
             }
-
-            this.size--;
-            this.modCount++;
-            return true;
+            histogram[Math.min(length, histogram.length - 1)]++;
+            summary[0] = Math.max(summary[0], length);
         }
-        else 
-            return false;
     }
 
     @Override
@@ -342,9 +1092,35 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
 
     }
 
+    /*
+     * Come HashMap.putMapEntries, dimensiona la tabella in anticipo solo per
+     * il numero di elementi che il risultato conterrà di sicuro, cioè il
+     * massimo tra le due dimensioni: se la tabella è vuota per tutta l'altra
+     * collezione, altrimenti solo se l'altra collezione da sola supera la
+     * soglia. Sommare le due dimensioni raddoppierebbe la capacità anche
+     * aggiungendo elementi già presenti, e la tabella non si riduce più.
+     */
     @Override
     public boolean addAll(Collection<? extends E> c) {
 
+        if(c == this)
+            return false;
+
+        int capacity = capacityFor(Math.max(this.size, c.size()));
+        if(capacity > this.getCurrentCapacity())
+            this.changeCapacity(capacity);
+
+        if(c instanceof CollisionListResizableHashTable) {
+            CollisionListResizableHashTable<? extends E> other = (CollisionListResizableHashTable<? extends E>) c;
+            if(this.canMergeBuckets(other))
+                return this.mergeBuckets(other);
+            // uso gli hash memorizzati nei nodi dell'altra tabella
+            boolean flag = false;
+            for(Node<? extends E> temp = other.first; temp != null; temp = temp.after)
+                if(this.addHashed(temp.hash, temp.item)) flag = true;
+            return flag;
+        }
+
         boolean flag = false;
         Iterator<?> thisIterator = c.iterator();
         // uso l'iterator di questa classe
@@ -355,15 +1131,91 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
 
     }
 
+    /*
+     * Due tabelle possono essere fuse bucket per bucket se un elemento
+     * finirebbe nello stesso bucket in entrambe: stessa istanza di funzione di
+     * hash primaria, stessa capacità e nessuna migrazione in corso. Non basta
+     * la stessa classe, perché PrimaryHashFunction può essere implementata da
+     * classi con stato, ad esempio con un seme, o da lambda che catturano
+     * valori diversi.
+     */
+    private boolean canMergeBuckets(CollisionListResizableHashTable<?> other) {
+        return this.oldTable == null && other.oldTable == null
+                && this.getCurrentCapacity() == other.getCurrentCapacity()
+                && this.phf == other.phf;
+    }
+
+    /*
+     * Aggiunge gli elementi dell'altra tabella scorrendo in parallelo i bucket
+     * con lo stesso indice: il bucket di ogni elemento è già noto e non serve
+     * calcolare né hashCode() né la funzione di hash primaria. Se alla fine la
+     * soglia è superata la tabella viene ridimensionata una sola volta per il
+     * numero effettivo di elementi.
+     */
+    private boolean mergeBuckets(CollisionListResizableHashTable<? extends E> other) {
+        int oldSize = this.size;
+        for(int i = 0; i < other.table.length; i++) {
+            for(Node<? extends E> temp = chainOf(other.table[i]); temp != null; temp = temp.next) {
+                Node<E> node = this.putInBucket(this.table, i, temp.hash, temp.item);
+                if(node != null) {
+                    this.linkLast(node);
+                    this.size++;
+                }
+            }
+        }
+        if(this.size == oldSize)
+            return false;
+        this.modCount++;
+        int capacity = capacityFor(this.size);
+        if(capacity > this.getCurrentCapacity())
+            this.changeCapacity(capacity);
+        return true;
+    }
+
     @Override
     public boolean retainAll(Collection<?> c) {
-        throw new UnsupportedOperationException("Operazione non supportata");
+
+        if(c == null)
+            throw new NullPointerException("Collezione inesistente.");
+
+        CollisionListResizableHashTable<?> other = c instanceof CollisionListResizableHashTable
+                ? (CollisionListResizableHashTable<?>) c : null;
+        boolean flag = false;
+        Node<E> temp = this.first;
+        // scorro la lista di iterazione eliminando i nodi non contenuti in c
+        while(temp != null) {
+            Node<E> next = temp.after;
+            boolean keep = other != null ? other.containsHashed(temp.hash, temp.item) : c.contains(temp.item);
+            if(!keep) {
+                this.deleteNode(temp);
+                flag = true;
+            }
+            temp = next;
+        }
+
+        this.shrinkIfSparse();
+        return flag;
+
     }
 
     @Override
     public boolean removeAll(Collection<?> c) {
 
+        if(c == this) {
+            boolean flag = this.size > 0;
+            this.clear();
+            return flag;
+        }
+
         boolean flag = false;
+        if(c instanceof CollisionListResizableHashTable) {
+            // uso gli hash memorizzati nei nodi dell'altra tabella
+            CollisionListResizableHashTable<?> other = (CollisionListResizableHashTable<?>) c;
+            for(Node<?> temp = other.first; temp != null; temp = temp.after)
+                if(this.removeHashed(temp.hash, temp.item)) flag = true;
+            return flag;
+        }
+
         Iterator<?> thisIterator = c.iterator();
         // uso l'iterator di questa classe
         while (thisIterator.hasNext()) 
@@ -375,10 +1227,19 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
 
     @Override
     public void clear() {
-        // Ritorno alla situazione iniziale
-        this.table = new Object[INITIAL_CAPACITY];
+        // Ritorno alla capacità di creazione, riusando la tabella se possibile
+        if(this.getCurrentCapacity() == this.initialCapacity)
+            Arrays.fill(this.table, null);
+        else
+            this.table = new Object[this.initialCapacity];
+        this.oldTable = null;
+        this.rehashIndex = 0;
+        this.noTreeify = null;
+        this.noTreeifyTable = null;
+        this.first = null;
+        this.last = null;
         this.size = 0;
-        this.modCount = 0;
+        this.modCount++;
     }
 
     /*
@@ -388,17 +1249,369 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
     protected static class Node<E> {
         protected E item;
 
+        /*
+         * hashCode() dell'elemento, calcolato una sola volta all'inserimento.
+         */
+        protected final int hash;
+
         protected Node<E> next;
 
+        /*
+         * Precedente e successivo nella lista di iterazione, in ordine di
+         * inserimento.
+         */
+        protected Node<E> before;
+
+        protected Node<E> after;
+
         /*
          * Crea un nodo "singolo" equivalente a una lista con un solo elemento.
          */
         Node(E item, Node<E> next) {
+            this(item.hashCode(), item, next);
+        }
+
+        /*
+         * Crea un nodo di cui è già noto l'hashCode() dell'elemento.
+         */
+        Node(int hash, E item, Node<E> next) {
+            this.hash = hash;
             this.item = item;
             this.next = next;
         }
     }
 
+    /*
+     * Contatori delle statistiche di una tabella. I campioni del fattore di
+     * carico sono in un buffer circolare di LOAD_SAMPLES elementi.
+     */
+    private static class Statistics {
+        private long containsCount;
+
+        private long containsProbes;
+
+        private long addCount;
+
+        private long addProbes;
+
+        private long removeCount;
+
+        private long removeProbes;
+
+        private long resizeCount;
+
+        private long resizeNanos;
+
+        private final double[] loadSamples = new double[LOAD_SAMPLES];
+
+        // numero totale di campioni registrati
+        private long samples;
+
+        // modifiche dall'ultimo campione
+        private int modifications;
+
+        /*
+         * Registra una modifica della tabella, campionando il fattore di
+         * carico ogni LOAD_SAMPLE_INTERVAL modifiche.
+         */
+        private void modified(CollisionListResizableHashTable<?> t) {
+            if(++this.modifications == LOAD_SAMPLE_INTERVAL) {
+                this.modifications = 0;
+                this.sample(t);
+            }
+        }
+
+        /*
+         * Registra un ridimensionamento e campiona il nuovo fattore di carico.
+         */
+        private void resized(CollisionListResizableHashTable<?> t, long nanos) {
+            this.resizeCount++;
+            this.resizeNanos += nanos;
+            this.sample(t);
+        }
+
+        private void sample(CollisionListResizableHashTable<?> t) {
+            this.loadSamples[(int) (this.samples++ % LOAD_SAMPLES)] = 
+                    (double) t.size / t.getCurrentCapacity();
+        }
+
+        /*
+         * I campioni conservati, dal più vecchio al più recente.
+         */
+        private double[] loadFactorHistory() {
+            long samples = this.samples;
+            int n = (int) Math.min(samples, LOAD_SAMPLES);
+            double[] history = new double[n];
+            for(int i = 0; i < n; i++)
+                history[i] = this.loadSamples[(int) ((samples - n + i) % LOAD_SAMPLES)];
+            return history;
+        }
+    }
+
+    /*
+     * Bucket trasformato in albero AVL. Gli elementi sono tutti della stessa
+     * classe, che implementa Comparable, e sono ordinati per hashCode() e, a
+     * parità di hashCode(), con compareTo(). Due elementi per cui compareTo()
+     * restituisce 0 senza essere uguali non possono stare nello stesso albero:
+     * in quel caso il bucket resta, o torna, una lista di collisione.
+     * 
+     * Gli elementi sono sempre contenuti negli oggetti Node della tabella, che
+     * restano nella lista di iterazione; l'albero è fatto di nodi propri che
+     * li puntano. Il campo next dei Node non è usato dall'albero e viene
+     * riscritto da toList(). Lo specificatore è protected solo per permettere
+     * i test JUnit.
+     */
+    protected static class TreeBin<E> {
+
+        /*
+         * Classe comune a tutti gli elementi dell'albero.
+         */
+        private final Class<?> comparableClass;
+
+        private TreeNode<E> root;
+
+        /*
+         * Numero di nodi dell'albero.
+         */
+        private int count;
+
+        private TreeBin(Class<?> comparableClass) {
+            this.comparableClass = comparableClass;
+            this.root = null;
+            this.count = 0;
+        }
+
+        /*
+         * Costruisce l'albero con i nodi della lista di collisione che inizia
+         * con head. Restituisce null se gli elementi non sono tutti della
+         * stessa classe Comparable o non possono essere ordinati.
+         */
+        private static <E> TreeBin<E> treeify(Node<E> head) {
+            if(!(head.item instanceof Comparable))
+                return null;
+            Class<?> c = head.item.getClass();
+            for(Node<E> temp = head.next; temp != null; temp = temp.next)
+                if(temp.item.getClass() != c)
+                    return null;
+            TreeBin<E> bin = new TreeBin<E>(c);
+            for(Node<E> temp = head; temp != null; temp = temp.next)
+                if(!bin.add(temp))
+                    return null;
+            return bin;
+        }
+
+        /*
+         * Confronta l'elemento o, con hashCode() pari a hash, con quello del
+         * nodo n. L'elemento o deve essere della classe comune.
+         */
+        private int compare(int hash, Object o, Node<E> n) {
+            if(hash != n.hash)
+                return hash < n.hash ? -1 : 1;
+            return ((Comparable<Object>) o).compareTo(n.item);
+        }
+
+        /*
+         * Cerca l'elemento o, con hashCode() pari a hash. Se o non è della
+         * classe comune l'albero viene visitato tutto, perché equals() potrebbe
+         * comunque considerarlo uguale a un elemento presente.
+         */
+        private Node<E> find(int hash, Object o) {
+            if(o.getClass() != this.comparableClass)
+                return findAny(this.root, hash, o);
+            TreeNode<E> temp = this.root;
+            while(temp != null) {
+                int cmp = this.compare(hash, o, temp.node);
+                if(cmp == 0)
+                    return o.equals(temp.node.item) ? temp.node : null;
+                temp = cmp < 0 ? temp.left : temp.right;
+            }
+            return null;
+        }
+
+        /*
+         * Numero di nodi visitati da find(hash, o).
+         */
+        private int probes(int hash, Object o) {
+            if(o.getClass() != this.comparableClass)
+                return this.count;
+            int probes = 0;
+            TreeNode<E> temp = this.root;
+            while(temp != null) {
+                probes++;
+                int cmp = this.compare(hash, o, temp.node);
+                if(cmp == 0)
+                    break;
+                temp = cmp < 0 ? temp.left : temp.right;
+            }
+            return probes;
+        }
+
+        private Node<E> findAny(TreeNode<E> t, int hash, Object o) {
+            if(t == null)
+                return null;
+            if(t.node.hash == hash && o.equals(t.node.item))
+                return t.node;
+            Node<E> found = this.findAny(t.left, hash, o);
+            return found != null ? found : this.findAny(t.right, hash, o);
+        }
+
+        /*
+         * Inserisce un nodo il cui elemento non è presente. Restituisce false,
+         * senza modificare l'albero, se l'elemento non è della classe comune o
+         * se compareTo() lo considera uguale a un elemento presente.
+         */
+        private boolean add(Node<E> node) {
+            if(node.item.getClass() != this.comparableClass)
+                return false;
+            int oldCount = this.count;
+            this.root = this.insert(this.root, node);
+            return this.count != oldCount;
+        }
+
+        private TreeNode<E> insert(TreeNode<E> t, Node<E> node) {
+            if(t == null) {
+                this.count++;
+                return new TreeNode<E>(node);
+            }
+            int cmp = this.compare(node.hash, node.item, t.node);
+            if(cmp == 0) // non ordinabile
+                return t;
+            if(cmp < 0)
+                t.left = this.insert(t.left, node);
+            else
+                t.right = this.insert(t.right, node);
+            return balance(t);
+        }
+
+        /*
+         * Elimina l'elemento o, con hashCode() pari a hash. Restituisce il nodo
+         * che lo conteneva oppure null se non era presente.
+         */
+        private Node<E> remove(int hash, Object o) {
+            Node<E> node = this.find(hash, o);
+            if(node == null)
+                return null;
+            this.root = this.delete(this.root, node);
+            this.count--;
+            return node;
+        }
+
+        private TreeNode<E> delete(TreeNode<E> t, Node<E> node) {
+            int cmp = this.compare(node.hash, node.item, t.node);
+            if(cmp < 0)
+                t.left = this.delete(t.left, node);
+            else if(cmp > 0)
+                t.right = this.delete(t.right, node);
+            else {
+                if(t.left == null)
+                    return t.right;
+                if(t.right == null)
+                    return t.left;
+                // sostituisco con il minimo del sottoalbero destro
+                TreeNode<E> min = t.right;
+                while(min.left != null)
+                    min = min.left;
+                t.node = min.node;
+                t.right = this.delete(t.right, min.node);
+            }
+            return balance(t);
+        }
+
+        /*
+         * Collega i nodi dell'albero, in ordine, tramite il campo next e
+         * restituisce il primo.
+         */
+        private Node<E> toList() {
+            return link(this.root, null);
+        }
+
+        private static <E> Node<E> link(TreeNode<E> t, Node<E> next) {
+            if(t == null)
+                return next;
+            t.node.next = link(t.right, next);
+            return link(t.left, t.node);
+        }
+
+        private static <E> int height(TreeNode<E> t) {
+            return t == null ? 0 : t.height;
+        }
+
+        private static <E> void updateHeight(TreeNode<E> t) {
+            t.height = 1 + Math.max(height(t.left), height(t.right));
+        }
+
+        private static <E> TreeNode<E> rotateRight(TreeNode<E> t) {
+            TreeNode<E> l = t.left;
+            t.left = l.right;
+            l.right = t;
+            updateHeight(t);
+            updateHeight(l);
+            return l;
+        }
+
+        private static <E> TreeNode<E> rotateLeft(TreeNode<E> t) {
+            TreeNode<E> r = t.right;
+            t.right = r.left;
+            r.left = t;
+            updateHeight(t);
+            updateHeight(r);
+            return r;
+        }
+
+        /*
+         * Ripristina il bilanciamento AVL nel nodo t, i cui sottoalberi sono
+         * bilanciati, e restituisce la nuova radice del sottoalbero.
+         */
+        private static <E> TreeNode<E> balance(TreeNode<E> t) {
+            updateHeight(t);
+            int factor = height(t.left) - height(t.right);
+            if(factor > 1) {
+                if(height(t.left.left) < height(t.left.right))
+                    t.left = rotateLeft(t.left);
+                return rotateRight(t);
+            }
+            if(factor < -1) {
+                if(height(t.right.right) < height(t.right.left))
+                    t.right = rotateRight(t.right);
+                return rotateLeft(t);
+            }
+            return t;
+        }
+
+        /*
+         * Only for JUnit testing purposes.
+         */
+        protected int getCount() {
+            return this.count;
+        }
+
+        /*
+         * Only for JUnit testing purposes.
+         */
+        protected int getHeight() {
+            return height(this.root);
+        }
+    }
+
+    /*
+     * Nodo di un TreeBin, che punta al Node della tabella che contiene
+     * l'elemento.
+     */
+    private static class TreeNode<E> {
+        private Node<E> node;
+
+        private TreeNode<E> left;
+
+        private TreeNode<E> right;
+
+        private int height;
+
+        private TreeNode(Node<E> node) {
+            this.node = node;
+            this.height = 1;
+        }
+    }
+
     /*
      * Classe che realizza un iteratore per questa hash table. L'ordine in cui
      * vengono restituiti gli oggetti presenti non è rilevante, ma ogni oggetto
@@ -413,9 +1626,6 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         private Node<E> lastRet; // ultimo elemento ritornato
         private Node<E> temp;    // sentinella
 
-        // intero per tenere traccia della posizione nella tabella
-        private int index; 
-
         // var di appoggio per le modifiche attese 
         private int numeroModificheAtteso; 
 
@@ -423,26 +1633,15 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
             // Salvo le modifiche
             this.numeroModificheAtteso = CollisionListResizableHashTable.this.modCount;
 
-            // se il n. di elementi è maggiore di 0
-            if(CollisionListResizableHashTable.this.size > 0) {
-                // trovo  la prima occorrenza nella tabella 
-                while(CollisionListResizableHashTable.this.table[this.index] == null 
-                    && this.index < CollisionListResizableHashTable.this.getCurrentCapacity()) this.index++;
-
-                this.temp = (Node <E>) CollisionListResizableHashTable.this.table[this.index];
-            }
-            // altrimenti i puntatori non sono inizializzati: questa assegnazione è possibile in quanto l'iteratore è failfast
-            else {
-                this.temp = null;
-                //this.next = null;
-            }
+            // parto dal primo nodo della lista di iterazione, null se vuota
+            this.temp = CollisionListResizableHashTable.this.first;
 
         }
 
         @Override
         public boolean hasNext() {
 
-            // Se il puntatore non è null o se le occorrenze non sono terminate
+            // Se il puntatore non è null
             return this.temp != null;
 
         }
@@ -459,19 +1658,8 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
                 
             lastRet = this.temp; // salvo il valore che verrà ritornato
 
-
-            // ha un successivo nella lista di collisioni
-            if(temp.next != null) 
-                this.temp = this.temp.next;
-            // non ha un successivo nella lista di collisioni
-            else {
-                // trovo  la prima occorrenza nella tabella 
-                while(++this.index < CollisionListResizableHashTable.this.getCurrentCapacity()
-                && CollisionListResizableHashTable.this.table[this.index] == null);
-                if(this.index < CollisionListResizableHashTable.this.getCurrentCapacity()) 
-                    temp = (Node <E>) CollisionListResizableHashTable.this.table[this.index]; // se è l'indice non ha superato la dim. della tabella
-                else temp = null; // altrimenti non ha un successore ed è l'unico elemento rimasto
-            } 
+            // passo al successivo in ordine di inserimento
+            this.temp = this.temp.after;
                 
             // ritorno il valore che inizialmente aveva la sentinella temp
             return this.lastRet.item; 
@@ -494,4 +1682,11 @@ public class CollisionListResizableHashTable<E> implements Set<E> {
         return this.phf;
     }
 
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected Object[] getOldTable() {
+        return this.oldTable;
+    }
+
 }
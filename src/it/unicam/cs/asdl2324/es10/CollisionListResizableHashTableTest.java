@@ -2,10 +2,14 @@ package it.unicam.cs.asdl2324.es10;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.ConcurrentModificationException;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 
@@ -505,4 +509,857 @@ class CollisionListResizableHashTableTest {
         assertFalse(hasThrown);
     }
 
+    @Test
+    void incremental_testShouldResizeLazily() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, true);
+        for (int i = 1; i <= 12; i++)
+            table.add(i);
+        int tableLengthBeforeAdd = table.getTable().length;
+        assertNull(table.getOldTable());
+        table.add(13);
+        assertEquals(tableLengthBeforeAdd * 2, table.getTable().length);
+        // la migrazione è iniziata ma non è terminata
+        assertNotNull(table.getOldTable());
+        for (int i = 1; i <= 13; i++)
+            assertTrue(table.contains(i));
+        assertFalse(table.contains(14));
+    }
+
+    @Test
+    void incremental_testMigrationCompletes() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash, true);
+        for (int i = 1; i <= 13; i++)
+            table.add(i);
+        assertNotNull(table.getOldTable());
+        int i = 100;
+        while (table.getOldTable() != null)
+            table.add(i++);
+        assertEquals(13 + i - 100, table.size());
+        for (int j = 1; j <= 13; j++)
+            assertTrue(table.contains(j));
+    }
+
+    @Test
+    void incremental_testRemoveDuringMigration() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, true);
+        for (int i = 1; i <= 13; i++)
+            table.add(i);
+        assertNotNull(table.getOldTable());
+        for (int i = 13; i >= 1; i--)
+            assertTrue(table.remove(i));
+        assertTrue(table.isEmpty());
+        for (int i = 1; i <= 13; i++)
+            assertFalse(table.contains(i));
+    }
+
+    @Test
+    void incremental_testIteratorDuringMigration() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, true);
+        for (int i = 1; i <= 13; i++)
+            table.add(i);
+        assertNotNull(table.getOldTable());
+        Set<Integer> found = new HashSet<Integer>();
+        Iterator<Integer> it = table.iterator();
+        while (it.hasNext())
+            assertTrue(found.add(it.next()));
+        assertEquals(13, found.size());
+    }
+
+    @Test
+    void incremental_testIteratorShouldFailFast() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, true);
+        for (int i = 1; i <= 13; i++)
+            table.add(i);
+        Iterator<Integer> it = table.iterator();
+        it.next();
+        table.add(42);
+        assertThrows(ConcurrentModificationException.class, () -> {
+            it.next();
+        });
+    }
+
+    @Test
+    void incremental_testRandomAgainstHashSet() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash, true);
+        Set<Integer> expected = new HashSet<Integer>();
+        Random r = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            int key = r.nextInt(5000);
+            if (r.nextInt(3) > 0)
+                assertEquals(expected.add(key), table.add(key));
+            else
+                assertEquals(expected.remove(key), table.remove(key));
+        }
+        assertEquals(expected.size(), table.size());
+        Set<Integer> found = new HashSet<Integer>();
+        for (Integer e : table)
+            assertTrue(found.add(e));
+        assertEquals(expected, found);
+    }
+
+    /*
+     * Chiave che conta le chiamate a hashCode(). Tutte le istanze collidono
+     * sullo stesso hashCode() se il valore è pari.
+     */
+    private static class CountingKey {
+        private static int hashCodeCalls = 0;
+
+        private final int value;
+
+        CountingKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            hashCodeCalls++;
+            return this.value % 2 == 0 ? 0 : this.value;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CountingKey
+                    && ((CountingKey) obj).value == this.value;
+        }
+    }
+
+    @Test
+    void divisionHash_testHashCodeCalledOncePerOperation() {
+        CollisionListResizableHashTable<CountingKey> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        CountingKey.hashCodeCalls = 0;
+        // 100 inserimenti comportano diversi raddoppi
+        for (int i = 0; i < 100; i++)
+            assertTrue(table.add(new CountingKey(i)));
+        assertEquals(100, CountingKey.hashCodeCalls);
+        CountingKey.hashCodeCalls = 0;
+        assertFalse(table.add(new CountingKey(42)));
+        assertTrue(table.contains(new CountingKey(42)));
+        assertFalse(table.contains(new CountingKey(142)));
+        assertTrue(table.remove(new CountingKey(42)));
+        assertFalse(table.remove(new CountingKey(42)));
+        assertEquals(5, CountingKey.hashCodeCalls);
+        assertEquals(99, table.size());
+        for (int i = 0; i < 100; i++)
+            assertEquals(i != 42, table.contains(new CountingKey(i)));
+    }
+
+    @Test
+    void divisionHash_testExpectedSizeConstructor() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, 1000);
+        int tableLength = table.getTable().length;
+        assertTrue(tableLength * 0.75 >= 1000);
+        assertTrue(tableLength / 2 * 0.75 < 1000);
+        int threshold = (int) (tableLength * 0.75);
+        for (int i = 0; i < threshold; i++)
+            table.add(i);
+        assertEquals(tableLength, table.getTable().length);
+        table.add(threshold);
+        assertEquals(tableLength * 2, table.getTable().length);
+    }
+
+    @Test
+    void divisionHash_testExpectedSizeConstructorNegative() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            new CollisionListResizableHashTable<Integer>(divisionHash, -1);
+        });
+    }
+
+    @Test
+    void divisionHash_testTrimToSize() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        for (int i = 0; i < 1000; i++)
+            table.add(i);
+        for (int i = 0; i < 990; i++)
+            table.remove(i);
+        // senza dimezzamento automatico la tabella resta grande
+        assertEquals(2048, table.getTable().length);
+        table.trimToSize();
+        assertEquals(16, table.getTable().length);
+        assertEquals(10, table.size());
+        for (int i = 990; i < 1000; i++)
+            assertTrue(table.contains(i));
+    }
+
+    @Test
+    void incremental_testTrimToSizeDuringMigration() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash, true);
+        for (int i = 1; i <= 13; i++)
+            table.add(i);
+        assertNotNull(table.getOldTable());
+        table.trimToSize();
+        assertNull(table.getOldTable());
+        assertEquals(32, table.getTable().length);
+        for (int i = 1; i <= 13; i++)
+            assertTrue(table.contains(i));
+    }
+
+    @Test
+    void divisionHash_testAutoShrink() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, 0, false, true);
+        for (int i = 0; i < 1000; i++)
+            table.add(i);
+        assertEquals(2048, table.getTable().length);
+        // sotto un quarto del fattore di carico la tabella viene dimezzata
+        for (int i = 0; i < 616; i++)
+            table.remove(i);
+        assertEquals(2048, table.getTable().length);
+        table.remove(616);
+        assertEquals(1024, table.getTable().length);
+        for (int i = 617; i < 1000; i++)
+            assertTrue(table.contains(i));
+        // isteresi: aggiunte e rimozioni alternate non ridimensionano
+        for (int i = 0; i < 100; i++) {
+            table.add(-1);
+            table.remove(-1);
+        }
+        assertEquals(1024, table.getTable().length);
+        for (int i = 617; i < 1000; i++)
+            table.remove(i);
+        assertEquals(16, table.getTable().length);
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    void incremental_testAutoShrink() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash, 0, true, true);
+        Set<Integer> expected = new HashSet<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            table.add(i);
+            expected.add(i);
+        }
+        for (int i = 0; i < 990; i++) {
+            assertTrue(table.remove(i));
+            expected.remove(i);
+        }
+        assertTrue(table.getTable().length <= 64);
+        Set<Integer> found = new HashSet<Integer>();
+        for (Integer e : table)
+            assertTrue(found.add(e));
+        assertEquals(expected, found);
+    }
+
+    @Test
+    void divisionHash_testClearKeepsExpectedCapacity() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, 100);
+        int tableLength = table.getTable().length;
+        for (int i = 0; i < 1000; i++)
+            table.add(i);
+        table.clear();
+        assertEquals(tableLength, table.getTable().length);
+        assertTrue(table.isEmpty());
+        assertFalse(table.iterator().hasNext());
+        assertFalse(table.contains(5));
+    }
+
+    @Test
+    void divisionHash_testIteratorAfterClearShouldFailFast() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.add(1);
+        table.add(2);
+        Iterator<Integer> it = table.iterator();
+        table.clear();
+        assertThrows(ConcurrentModificationException.class, () -> {
+            it.next();
+        });
+    }
+
+    @Test
+    void divisionHash_testIteratorInsertionOrder() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        for (int i = 100; i > 0; i--)
+            table.add(i);
+        table.remove(50);
+        Iterator<Integer> it = table.iterator();
+        for (int i = 100; i > 0; i--)
+            if (i != 50)
+                assertEquals(Integer.valueOf(i), it.next());
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    void divisionHash_testToArray() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertEquals(0, table.toArray().length);
+        for (int i = 10; i > 0; i--)
+            table.add(i);
+        Object[] expected = new Object[10];
+        for (int i = 0; i < 10; i++)
+            expected[i] = 10 - i;
+        // l'ordine è quello dell'iteratore
+        assertArrayEquals(expected, table.toArray());
+        Integer[] small = table.toArray(new Integer[0]);
+        assertArrayEquals(expected, small);
+        Integer[] big = new Integer[12];
+        Arrays.fill(big, -1);
+        assertSame(big, table.toArray(big));
+        assertNull(big[10]);
+        assertEquals(Integer.valueOf(-1), big[11]);
+    }
+
+    @Test
+    void divisionHash_testRetainAll() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        CollisionListResizableHashTable<Integer> other = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        for (int i = 0; i < 1000; i++) {
+            table.add(i);
+            other.add(2 * i);
+        }
+        assertTrue(table.retainAll(other));
+        assertEquals(500, table.size());
+        for (int i = 0; i < 1000; i++)
+            assertEquals(i % 2 == 0, table.contains(i));
+        assertFalse(table.retainAll(other));
+        // con una collezione qualsiasi
+        assertTrue(table.retainAll(List.of(0, 2, 3)));
+        assertEquals(2, table.size());
+        assertTrue(table.contains(0));
+        assertTrue(table.contains(2));
+        assertThrows(NullPointerException.class, () -> table.retainAll(null));
+    }
+
+    @Test
+    void divisionHash_testRetainAllDuringIncrementalResize() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, true);
+        int i = 0;
+        while (table.getOldTable() == null)
+            table.add(i++);
+        int n = i;
+        Set<Integer> odd = new HashSet<Integer>();
+        for (int j = 1; j < n; j += 2)
+            odd.add(j);
+        assertTrue(table.retainAll(odd));
+        assertEquals(odd.size(), table.size());
+        for (int j = 0; j < n; j++)
+            assertEquals(j % 2 == 1, table.contains(j));
+    }
+
+    @Test
+    void divisionHash_testRetainAllAutoShrink() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash, 0, false, true);
+        for (int i = 0; i < 10000; i++)
+            table.add(i);
+        table.retainAll(List.of(1, 2, 3));
+        assertEquals(3, table.size());
+        assertEquals(16, table.getTable().length);
+        for (int i = 1; i <= 3; i++)
+            assertTrue(table.contains(i));
+    }
+
+    @Test
+    void divisionHash_testAddAllBucketMerge() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        CollisionListResizableHashTable<Integer> other = new CollisionListResizableHashTable<>(
+                divisionHash);
+        for (int i = 0; i < 1000; i++)
+            other.add(i);
+        // stessa funzione di hash e, dopo il dimensionamento, stessa capacità
+        assertTrue(table.addAll(other));
+        assertEquals(other.getTable().length, table.getTable().length);
+        assertEquals(1000, table.size());
+        assertFalse(table.addAll(other));
+        for (int i = 0; i < 1000; i++)
+            assertTrue(table.contains(i));
+        int count = 0;
+        for (Integer x : table) {
+            assertTrue(other.contains(x));
+            count++;
+        }
+        assertEquals(1000, count);
+        assertFalse(table.addAll(table));
+    }
+
+    /*
+     * Funzione di hash con stato: istanze con semi diversi distribuiscono
+     * diversamente le stesse chiavi.
+     */
+    private static class SeededPrimaryHashFunction implements PrimaryHashFunction {
+        private final int seed;
+
+        SeededPrimaryHashFunction(int seed) {
+            this.seed = seed;
+        }
+
+        @Override
+        public int hash(int key, int m) {
+            return Math.floorMod((key ^ this.seed) * 0x9E3779B9, m);
+        }
+    }
+
+    @Test
+    void testAddAllSameClassDifferentSeed() {
+        // dimensionate per l'unione: la fusione non è seguita da un rehash
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                new SeededPrimaryHashFunction(1), 1000);
+        CollisionListResizableHashTable<Integer> other = new CollisionListResizableHashTable<>(
+                new SeededPrimaryHashFunction(12345), 1000);
+        for (int i = 0; i < 500; i++) {
+            table.add(i);
+            other.add(1000 + i);
+        }
+        assertEquals(table.getTable().length, other.getTable().length);
+        // stessa classe ma funzioni diverse: niente fusione per bucket
+        assertTrue(table.addAll(other));
+        assertEquals(1000, table.size());
+        for (int i = 0; i < 500; i++) {
+            assertTrue(table.contains(1000 + i));
+            assertFalse(table.add(1000 + i));
+        }
+        assertEquals(1000, table.size());
+        for (int i = 0; i < 500; i++)
+            assertTrue(table.remove(1000 + i));
+        assertEquals(500, table.size());
+    }
+
+    @Test
+    void divisionHash_testAddAllCachedHash() {
+        CollisionListResizableHashTable<CountingKey> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        CollisionListResizableHashTable<CountingKey> other = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        for (int i = 0; i < 100; i++) {
+            table.add(new CountingKey(i));
+            other.add(new CountingKey(50 + i));
+        }
+        CountingKey.hashCodeCalls = 0;
+        // funzioni di hash diverse: si usano gli hash memorizzati
+        assertTrue(table.addAll(other));
+        assertEquals(150, table.size());
+        assertTrue(table.removeAll(other));
+        assertEquals(50, table.size());
+        assertEquals(0, CountingKey.hashCodeCalls);
+    }
+
+    @Test
+    void multiplicationHash_testAddAllPresizing() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < 10000; i++)
+            list.add(i);
+        assertTrue(table.addAll(list));
+        assertEquals(10000, table.size());
+        // un solo ridimensionamento alla capacità finale
+        assertEquals(16384, table.getTable().length);
+        for (int i = 0; i < 10000; i++)
+            assertTrue(table.contains(i));
+    }
+
+    @Test
+    void divisionHash_testAddAllSubsetKeepsCapacity() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        CollisionListResizableHashTable<Integer> other = new CollisionListResizableHashTable<>(
+                divisionHash);
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < 1200; i++) {
+            table.add(i);
+            if (i % 2 == 0) {
+                other.add(i);
+                list.add(i);
+            }
+        }
+        int capacity = table.getTable().length;
+        assertEquals(2048, capacity);
+        // 1200 + 600 supererebbe la soglia, ma gli elementi sono già presenti
+        assertFalse(table.addAll(list));
+        assertFalse(table.addAll(other));
+        assertEquals(capacity, table.getTable().length);
+        assertEquals(1200, table.size());
+    }
+
+    @Test
+    void divisionHash_testAddAllBucketMergeGrows() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        CollisionListResizableHashTable<Integer> other = new CollisionListResizableHashTable<>(
+                divisionHash);
+        for (int i = 0; i < 700; i++) {
+            table.add(i);
+            other.add(700 + i);
+        }
+        assertEquals(1024, table.getTable().length);
+        assertEquals(1024, other.getTable().length);
+        // fusione per bucket, poi un solo ridimensionamento per 1400 elementi
+        assertTrue(table.addAll(other));
+        assertEquals(2048, table.getTable().length);
+        for (int i = 0; i < 1400; i++)
+            assertTrue(table.contains(i));
+    }
+
+    @Test
+    void divisionHash_testRemoveAllItself() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertFalse(table.removeAll(table));
+        for (int i = 0; i < 100; i++)
+            table.add(i);
+        assertTrue(table.removeAll(table));
+        assertTrue(table.isEmpty());
+    }
+
+    /*
+     * Chiave confrontabile con hashCode() costante: tutte le istanze finiscono
+     * nello stesso bucket, come in un attacco di hash flooding.
+     */
+    private static class CollidingKey implements Comparable<CollidingKey> {
+        private final int value;
+
+        CollidingKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CollidingKey
+                    && ((CollidingKey) obj).value == this.value;
+        }
+
+        @Override
+        public int compareTo(CollidingKey o) {
+            return Integer.compare(this.value, o.value);
+        }
+    }
+
+    /*
+     * Come CollidingKey ma non confrontabile.
+     */
+    private static class NonComparableCollidingKey {
+        private final int value;
+
+        NonComparableCollidingKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof NonComparableCollidingKey
+                    && ((NonComparableCollidingKey) obj).value == this.value;
+        }
+    }
+
+    /*
+     * Chiave in collisione per cui compareTo() restituisce sempre 0; conta le
+     * chiamate a compareTo().
+     */
+    private static class TiedKey implements Comparable<TiedKey> {
+        private static int compareToCalls = 0;
+
+        private final int value;
+
+        TiedKey(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof TiedKey && ((TiedKey) obj).value == this.value;
+        }
+
+        @Override
+        public int compareTo(TiedKey o) {
+            compareToCalls++;
+            return 0;
+        }
+    }
+
+    /*
+     * Numero di bucket della tabella che sono alberi.
+     */
+    private static int treeBins(Object[] table) {
+        int count = 0;
+        for (Object bucket : table)
+            if (bucket instanceof CollisionListResizableHashTable.TreeBin)
+                count++;
+        return count;
+    }
+
+    @Test
+    void divisionHash_testTreeifyLongChain() {
+        CollisionListResizableHashTable<CollidingKey> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        for (int i = 0; i < 8; i++)
+            table.add(new CollidingKey(i));
+        assertEquals(0, treeBins(table.getTable()));
+        // il nono elemento nella stessa lista la trasforma in albero
+        table.add(new CollidingKey(8));
+        assertEquals(1, treeBins(table.getTable()));
+        for (int i = 9; i < 1000; i++)
+            assertTrue(table.add(new CollidingKey(i)));
+        assertFalse(table.add(new CollidingKey(500)));
+        assertEquals(1000, table.size());
+        int index = divisionHash.hash(42, table.getTable().length);
+        CollisionListResizableHashTable.TreeBin<?> bin = (CollisionListResizableHashTable.TreeBin<?>) table
+                .getTable()[index];
+        assertEquals(1000, bin.getCount());
+        // un albero AVL di 1000 nodi ha altezza al più 1.44 log2(1000)
+        assertTrue(bin.getHeight() <= 14);
+        for (int i = 0; i < 1000; i++)
+            assertTrue(table.contains(new CollidingKey(i)));
+        assertFalse(table.contains(new CollidingKey(1000)));
+        // un oggetto di un'altra classe non è mai presente
+        assertFalse(table.contains("42"));
+    }
+
+    @Test
+    void multiplicationHash_testUntreeifyOnRemove() {
+        CollisionListResizableHashTable<CollidingKey> table = new CollisionListResizableHashTable<>(
+                multiplicationHash);
+        for (int i = 0; i < 100; i++)
+            table.add(new CollidingKey(i));
+        for (int i = 0; i < 93; i++) {
+            assertTrue(table.remove(new CollidingKey(i)));
+            assertEquals(1, treeBins(table.getTable()));
+        }
+        assertFalse(table.remove(new CollidingKey(0)));
+        // a UNTREEIFY_THRESHOLD nodi torna ad essere una lista
+        assertTrue(table.remove(new CollidingKey(93)));
+        assertEquals(0, treeBins(table.getTable()));
+        for (int i = 94; i < 100; i++)
+            assertTrue(table.contains(new CollidingKey(i)));
+        Iterator<CollidingKey> it = table.iterator();
+        for (int i = 94; i < 100; i++)
+            assertEquals(new CollidingKey(i), it.next());
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    void divisionHash_testTreeBinSurvivesResize() {
+        CollisionListResizableHashTable<Object> table = new CollisionListResizableHashTable<>(
+                divisionHash, 0, true, true);
+        // gli interi dispari non finiscono mai nel bucket delle chiavi in collisione
+        for (int i = 0; i < 200; i++) {
+            table.add(new CollidingKey(i));
+            table.add(2 * i + 1);
+        }
+        assertEquals(400, table.size());
+        // dopo i raddoppi le chiavi in collisione sono ancora in un albero
+        table.trimToSize();
+        assertEquals(1, treeBins(table.getTable()));
+        for (int i = 0; i < 200; i++) {
+            assertTrue(table.contains(new CollidingKey(i)));
+            assertTrue(table.contains(2 * i + 1));
+        }
+        // il dimezzamento automatico rimescola i bucket
+        for (int i = 0; i < 200; i++)
+            assertTrue(table.remove(2 * i + 1));
+        for (int i = 0; i < 195; i++)
+            assertTrue(table.remove(new CollidingKey(i)));
+        table.trimToSize();
+        assertEquals(5, table.size());
+        assertEquals(0, treeBins(table.getTable()));
+        for (int i = 195; i < 200; i++)
+            assertTrue(table.contains(new CollidingKey(i)));
+    }
+
+    @Test
+    void divisionHash_testNonComparableChainNotTreeified() {
+        CollisionListResizableHashTable<NonComparableCollidingKey> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        for (int i = 0; i < 100; i++)
+            assertTrue(table.add(new NonComparableCollidingKey(i)));
+        assertEquals(0, treeBins(table.getTable()));
+        for (int i = 0; i < 100; i++)
+            assertTrue(table.contains(new NonComparableCollidingKey(i)));
+    }
+
+    @Test
+    void divisionHash_testUntreeifiableChainNotRetried() {
+        // dimensionata in anticipo: un ridimensionamento ritenterebbe
+        CollisionListResizableHashTable<Object> table = new CollisionListResizableHashTable<>(
+                divisionHash, 100);
+        for (int i = 0; i < 9; i++)
+            table.add(new TiedKey(i));
+        assertEquals(0, treeBins(table.getTable()));
+        // dopo il primo tentativo fallito il bucket non viene più trasformato
+        TiedKey.compareToCalls = 0;
+        for (int i = 9; i < 100; i++)
+            assertTrue(table.add(new TiedKey(i)));
+        assertEquals(0, TiedKey.compareToCalls);
+        assertEquals(0, treeBins(table.getTable()));
+        // eliminare un elemento dal bucket permette un nuovo tentativo
+        assertTrue(table.remove(new TiedKey(0)));
+        assertTrue(table.add(new TiedKey(0)));
+        assertTrue(TiedKey.compareToCalls > 0);
+        for (int i = 0; i < 100; i++)
+            assertTrue(table.contains(new TiedKey(i)));
+    }
+
+    @Test
+    void divisionHash_testTreeifyAfterMixedClassRemoved() {
+        CollisionListResizableHashTable<Object> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.add(new NonComparableCollidingKey(0));
+        for (int i = 0; i < 20; i++)
+            table.add(new CollidingKey(i));
+        assertEquals(0, treeBins(table.getTable()));
+        assertTrue(table.remove(new NonComparableCollidingKey(0)));
+        // senza l'elemento di un'altra classe la lista diventa un albero
+        table.add(new CollidingKey(20));
+        assertEquals(1, treeBins(table.getTable()));
+        table.clear();
+        for (int i = 0; i < 20; i++)
+            table.add(new CollidingKey(i));
+        assertEquals(1, treeBins(table.getTable()));
+    }
+
+    @Test
+    void divisionHash_testMixedClassesInTreeBin() {
+        CollisionListResizableHashTable<Object> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        for (int i = 0; i < 20; i++)
+            table.add(new CollidingKey(i));
+        assertEquals(1, treeBins(table.getTable()));
+        // un elemento di un'altra classe nello stesso bucket lo riporta a lista
+        assertTrue(table.add(new NonComparableCollidingKey(0)));
+        assertEquals(0, treeBins(table.getTable()));
+        assertEquals(21, table.size());
+        for (int i = 0; i < 20; i++)
+            assertTrue(table.contains(new CollidingKey(i)));
+        assertTrue(table.contains(new NonComparableCollidingKey(0)));
+        assertTrue(table.remove(new NonComparableCollidingKey(0)));
+        assertTrue(table.remove(new CollidingKey(0)));
+        assertEquals(19, table.size());
+    }
+
+    @Test
+    void divisionHash_testRetainAllOnTreeBin() {
+        CollisionListResizableHashTable<CollidingKey> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        Set<CollidingKey> even = new HashSet<CollidingKey>();
+        for (int i = 0; i < 100; i++) {
+            table.add(new CollidingKey(i));
+            if (i % 2 == 0)
+                even.add(new CollidingKey(i));
+        }
+        assertTrue(table.retainAll(even));
+        assertEquals(50, table.size());
+        for (int i = 0; i < 100; i++)
+            assertEquals(i % 2 == 0, table.contains(new CollidingKey(i)));
+        CollisionListResizableHashTable<CollidingKey> copy = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertTrue(copy.addAll(table));
+        assertEquals(50, copy.size());
+        assertEquals(1, treeBins(copy.getTable()));
+    }
+
+    @Test
+    void divisionHash_testStatisticsDisabled() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        assertFalse(table.isStatisticsEnabled());
+        for (int i = 0; i < 100; i++)
+            table.add(i);
+        table.contains(5);
+        HashTableStatistics st = table.getStatistics();
+        // i dati strutturali ci sono sempre, i contatori no
+        assertEquals(100, st.getSize());
+        assertEquals(256, st.getCapacity());
+        assertEquals(100.0 / 256, st.getLoadFactor());
+        assertEquals(1, st.getMaxChainLength());
+        assertEquals(0, st.getAddCount());
+        assertEquals(0, st.getContainsCount());
+        assertEquals(0, st.getResizeCount());
+        assertEquals(0, st.getLoadFactorHistory().length);
+    }
+
+    @Test
+    void divisionHash_testStatisticsProbes() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.setStatisticsEnabled(true);
+        // 1, 17 e 33 finiscono nello stesso bucket di una tabella da 16
+        table.add(1);
+        table.add(17);
+        table.add(33);
+        assertTrue(table.contains(1)); // in fondo alla lista: 3 sonde
+        assertTrue(table.contains(33)); // in testa: 1 sonda
+        assertFalse(table.contains(49)); // assente: 3 sonde
+        assertTrue(table.remove(17)); // 2 sonde
+        HashTableStatistics st = table.getStatistics();
+        assertEquals(3, st.getAddCount());
+        assertEquals((0 + 1 + 2) / 3.0, st.getAverageAddProbes());
+        assertEquals(3, st.getContainsCount());
+        assertEquals((3 + 1 + 3) / 3.0, st.getAverageContainsProbes());
+        assertEquals(1, st.getRemoveCount());
+        assertEquals(2.0, st.getAverageRemoveProbes());
+        assertEquals(2, st.getMaxChainLength());
+        int[] histogram = st.getChainLengthHistogram();
+        assertEquals(HashTableStatistics.HISTOGRAM_SIZE, histogram.length);
+        assertEquals(15, histogram[0]);
+        assertEquals(1, histogram[2]);
+    }
+
+    @Test
+    void divisionHash_testStatisticsResizes() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.setStatisticsEnabled(true);
+        // 16 -> 32 -> ... -> 8192: 9 raddoppi
+        for (int i = 0; i < 5000; i++)
+            table.add(i);
+        HashTableStatistics st = table.getStatistics();
+        assertEquals(9, st.getResizeCount());
+        assertTrue(st.getResizeNanos() > 0);
+        double[] history = st.getLoadFactorHistory();
+        // un campione ogni 1024 modifiche e uno per ridimensionamento
+        assertEquals(9 + 4, history.length);
+        for (double lf : history)
+            assertTrue(lf > 0 && lf <= 0.75);
+        // disabilitando le statistiche i contatori vengono scartati
+        table.setStatisticsEnabled(false);
+        table.setStatisticsEnabled(true);
+        assertEquals(0, table.getStatistics().getResizeCount());
+    }
+
+    @Test
+    void divisionHash_testStatisticsTreeBin() {
+        CollisionListResizableHashTable<CollidingKey> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        table.setStatisticsEnabled(true);
+        for (int i = 0; i < 1000; i++)
+            table.add(new CollidingKey(i));
+        HashTableStatistics st = table.getStatistics();
+        assertEquals(1, st.getTreeBinCount());
+        assertEquals(1000, st.getMaxChainLength());
+        assertEquals(1, st.getChainLengthHistogram()[HashTableStatistics.HISTOGRAM_SIZE - 1]);
+        // la ricerca nell'albero visita al più la sua altezza
+        assertTrue(st.getAverageAddProbes() < 14);
+    }
+
 }
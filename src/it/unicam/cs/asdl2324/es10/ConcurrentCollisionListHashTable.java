@@ -0,0 +1,487 @@
+/**
+ *
+ */
+package it.unicam.cs.asdl2324.es10;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Realizza un insieme condivisibile tra più thread tramite una tabella hash
+ * con indirizzamento primario (la funzione di hash primario deve essere
+ * passata come parametro nel costruttore e deve implementare l'interface
+ * PrimaryHashFunction) e liste di collisione, come
+ * CollisionListResizableHashTable.
+ *
+ * Le scritture sono protette da un numero fisso (STRIPES) di lock, ognuno dei
+ * quali custodisce un intervallo contiguo di bucket della tabella: thread che
+ * modificano bucket di intervalli diversi non si bloccano a vicenda. Le letture
+ * (contains() e l'iteratore) non acquisiscono alcun lock: le teste dei bucket
+ * sono pubblicate tramite un AtomicReferenceArray e i puntatori next dei nodi
+ * sono volatile, per cui un lettore vede sempre una lista di collisione
+ * consistente.
+ *
+ * Il raddoppio della tabella è cooperativo. Il thread che supera la soglia
+ * acquisisce tutti i lock (bloccando le sole scritture), pubblica lo stato del
+ * raddoppio e ne esegue una parte; gli altri thread che nel frattempo vogliono
+ * scrivere, invece di restare in attesa, copiano anch'essi blocchi di bucket
+ * nella nuova tabella. I nodi vengono copiati e non spostati, quindi la
+ * tabella vecchia resta intatta e i lettori continuano a usarla finché la
+ * nuova non viene pubblicata.
+ *
+ * L'iteratore è debolmente consistente: non lancia mai
+ * ConcurrentModificationException, restituisce ogni elemento presente per
+ * tutta la durata dell'iterazione una e una sola volta e può restituire o meno
+ * gli elementi aggiunti o rimossi durante l'iterazione. Le operazioni che
+ * scorrono la tabella (toArray() e retainAll()) sono costruite sull'iteratore
+ * e hanno la stessa garanzia: non sono atomiche rispetto alle scritture
+ * concorrenti.
+ *
+ * La tabella non accetta elementi duplicati (individuati tramite il metodo
+ * equals()) e non accetta elementi null.
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class ConcurrentCollisionListHashTable<E> implements Set<E> {
+
+    /*
+     * Numero di lock che si spartiscono i bucket. E' una potenza di due.
+     */
+    private static final int STRIPES = 64;
+
+    /*
+     * La capacità iniziale. E' una potenza di due non inferiore a STRIPES, in
+     * modo che ogni lock custodisca almeno un bucket.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /*
+     * Fattore di bilanciamento di default. Tipico valore.
+     */
+    private static final double LOAD_FACTOR = 0.75;
+
+    /*
+     * Numero di bucket copiati alla volta da un thread durante il raddoppio.
+     */
+    private static final int TRANSFER_CHUNK = 64;
+
+    /*
+     * La tabella corrente. Il riferimento è volatile perché viene sostituito
+     * alla fine di ogni raddoppio.
+     */
+    private volatile AtomicReferenceArray<Node<E>> table;
+
+    /*
+     * Stato del raddoppio in corso, null se non c'è nessun raddoppio in corso.
+     */
+    private volatile Transfer<E> transfer;
+
+    /*
+     * I lock che custodiscono gli intervalli di bucket.
+     */
+    private final ReentrantLock[] locks;
+
+    /*
+     * Numero di elementi presenti nei bucket custoditi da ogni lock. Ogni
+     * contatore viene scritto solo tenendo il lock corrispondente.
+     */
+    private final AtomicIntegerArray counts;
+
+    /*
+     * Funzione di hash primaria usata da questa hash table.
+     */
+    private final PrimaryHashFunction phf;
+
+    /**
+     * Costruisce una Hash Table concorrente con capacità iniziale di default e
+     * fattore di caricamento di default.
+     *
+     * @param phf
+     *                la funzione di hash primaria da usare
+     * @throws NullPointerException
+     *                                  se la funzione di hash è nulla
+     */
+    public ConcurrentCollisionListHashTable(PrimaryHashFunction phf) {
+        if (phf == null)
+            throw new NullPointerException("Funzione di hash nulla.");
+        this.phf = phf;
+        this.table = new AtomicReferenceArray<Node<E>>(INITIAL_CAPACITY);
+        this.transfer = null;
+        this.locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++)
+            this.locks[i] = new ReentrantLock();
+        this.counts = new AtomicIntegerArray(STRIPES);
+    }
+
+    /*
+     * Indice del lock che custodisce il bucket index in una tabella di
+     * capacità capacity: i bucket sono divisi in STRIPES intervalli contigui.
+     */
+    private static int stripeOf(int index, int capacity) {
+        return index / (capacity / STRIPES);
+    }
+
+    /*
+     * Soglia oltre la quale si deve raddoppiare una tabella di capacità
+     * capacity.
+     */
+    private static int thresholdOf(int capacity) {
+        return (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Restituisce il numero di elementi presenti. In presenza di modifiche
+     * concorrenti il valore è una stima.
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < STRIPES; i++)
+            size += this.counts.get(i);
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null)
+            throw new NullPointerException("Elemento inesistente.");
+        int hash = o.hashCode();
+        // nessun lock: leggo la tabella pubblicata e ne scorro il bucket
+        AtomicReferenceArray<Node<E>> t = this.table;
+        Node<E> temp = t.get(this.phf.hash(hash, t.length()));
+        while (temp != null && !(temp.hash == hash && o.equals(temp.item)))
+            temp = temp.next;
+        return temp != null;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null)
+            throw new NullPointerException("Elemento inesistente.");
+        int hash = e.hashCode();
+        while (true) {
+            AtomicReferenceArray<Node<E>> t = this.lockBucketOf(hash);
+            if (t == null)
+                continue; // la tabella è cambiata, riprovo
+            int capacity = t.length();
+            int index = this.phf.hash(hash, capacity);
+            int stripe = stripeOf(index, capacity);
+            int stripeCount;
+            try {
+                Node<E> head = t.get(index);
+                for (Node<E> temp = head; temp != null; temp = temp.next)
+                    if (temp.hash == hash && e.equals(temp.item))
+                        return false;
+                // inserisco in testa: i lettori vedono la vecchia o la nuova
+                // testa, entrambe consistenti
+                t.set(index, new Node<E>(hash, e, head));
+                stripeCount = this.counts.get(stripe) + 1;
+                this.counts.set(stripe, stripeCount);
+            } finally {
+                this.locks[stripe].unlock();
+            }
+            // controllo la soglia globale solo se l'intervallo ha superato la
+            // sua quota
+            if (stripeCount > thresholdOf(capacity) / STRIPES
+                    && this.size() > thresholdOf(capacity))
+                this.resize(t);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null)
+            throw new NullPointerException("Elemento inesistente.");
+        int hash = o.hashCode();
+        while (true) {
+            AtomicReferenceArray<Node<E>> t = this.lockBucketOf(hash);
+            if (t == null)
+                continue; // la tabella è cambiata, riprovo
+            int capacity = t.length();
+            int index = this.phf.hash(hash, capacity);
+            int stripe = stripeOf(index, capacity);
+            try {
+                Node<E> prec = null;
+                Node<E> temp = t.get(index);
+                while (temp != null && !(temp.hash == hash && o.equals(temp.item))) {
+                    prec = temp;
+                    temp = temp.next;
+                }
+                if (temp == null)
+                    return false;
+                // un lettore fermo su temp prosegue comunque su temp.next
+                if (prec == null)
+                    t.set(index, temp.next);
+                else
+                    prec.next = temp.next;
+                this.counts.set(stripe, this.counts.get(stripe) - 1);
+                return true;
+            } finally {
+                this.locks[stripe].unlock();
+            }
+        }
+    }
+
+    /*
+     * Acquisisce il lock del bucket che corrisponde all'hash passato nella
+     * tabella corrente e restituisce la tabella. Se prima di aver acquisito il
+     * lock la tabella è stata sostituita da un raddoppio, rilascia il lock e
+     * restituisce null. Se è in corso un raddoppio, prima di mettersi in attesa
+     * del lock aiuta a completarlo.
+     */
+    private AtomicReferenceArray<Node<E>> lockBucketOf(int hash) {
+        Transfer<E> tr = this.transfer;
+        if (tr != null)
+            this.helpTransfer(tr);
+        AtomicReferenceArray<Node<E>> t = this.table;
+        int capacity = t.length();
+        ReentrantLock lock = this.locks[stripeOf(this.phf.hash(hash, capacity), capacity)];
+        lock.lock();
+        if (t != this.table) {
+            lock.unlock();
+            return null;
+        }
+        return t;
+    }
+
+    /*
+     * Raddoppia la tabella t se è ancora quella corrente e se la soglia è
+     * ancora superata. Tutti i lock vengono acquisiti in ordine crescente, per
+     * cui due thread che tentano il raddoppio non possono bloccarsi a vicenda.
+     */
+    private void resize(AtomicReferenceArray<Node<E>> t) {
+        for (int i = 0; i < STRIPES; i++)
+            this.locks[i].lock();
+        try {
+            if (t != this.table || this.size() <= thresholdOf(t.length()))
+                return; // un altro thread ha già raddoppiato
+            Transfer<E> tr = new Transfer<E>(t,
+                    new AtomicReferenceArray<Node<E>>(t.length() * 2));
+            this.transfer = tr;
+            this.helpTransfer(tr);
+            // attendo i blocchi presi in carico dagli altri thread
+            while (tr.done.get() < t.length())
+                Thread.onSpinWait();
+            // ricalcolo i contatori degli intervalli sulla nuova tabella
+            int capacity = tr.next.length();
+            int[] newCounts = new int[STRIPES];
+            for (int i = 0; i < capacity; i++)
+                for (Node<E> temp = tr.next.get(i); temp != null; temp = temp.next)
+                    newCounts[stripeOf(i, capacity)]++;
+            for (int i = 0; i < STRIPES; i++)
+                this.counts.set(i, newCounts[i]);
+            this.table = tr.next;
+            this.transfer = null;
+        } finally {
+            for (int i = STRIPES - 1; i >= 0; i--)
+                this.locks[i].unlock();
+        }
+    }
+
+    /*
+     * Copia nella nuova tabella blocchi di TRANSFER_CHUNK bucket della tabella
+     * vecchia finché ce ne sono di non ancora presi in carico. Le scritture
+     * sono bloccate dal thread che ha avviato il raddoppio, quindi la tabella
+     * vecchia non cambia; più thread possono però inserire nello stesso bucket
+     * della nuova tabella, per cui l'inserimento avviene con compareAndSet.
+     */
+    private void helpTransfer(Transfer<E> tr) {
+        int capacity = tr.next.length();
+        int start;
+        while ((start = tr.nextChunk.getAndAdd(TRANSFER_CHUNK)) < tr.old.length()) {
+            int end = Math.min(start + TRANSFER_CHUNK, tr.old.length());
+            for (int i = start; i < end; i++) {
+                for (Node<E> temp = tr.old.get(i); temp != null; temp = temp.next) {
+                    int index = this.phf.hash(temp.hash, capacity);
+                    Node<E> head;
+                    do {
+                        head = tr.next.get(index);
+                    } while (!tr.next.compareAndSet(index, head,
+                            new Node<E>(temp.hash, temp.item, head)));
+                }
+            }
+            tr.done.addAndGet(end - start);
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /*
+     * Copia degli elementi restituiti dall'iteratore
+     */
+    private ArrayList<E> snapshot() {
+        ArrayList<E> list = new ArrayList<E>(this.size());
+        for (E e : this)
+            list.add(e);
+        return list;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return this.snapshot().toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return this.snapshot().toArray(a);
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c)
+            if (!this.contains(o))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        boolean flag = false;
+        for (E e : c)
+            if (this.add(e))
+                flag = true;
+        return flag;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null)
+            throw new NullPointerException("Collezione inesistente.");
+        boolean flag = false;
+        for (E e : this)
+            if (!c.contains(e) && this.remove(e))
+                flag = true;
+        return flag;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean flag = false;
+        for (Object o : c)
+            if (this.remove(o))
+                flag = true;
+        return flag;
+    }
+
+    /**
+     * Rimuove tutti gli elementi. Le letture concorrenti possono vedere la
+     * tabella precedente fino al termine dell'operazione.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < STRIPES; i++)
+            this.locks[i].lock();
+        try {
+            this.table = new AtomicReferenceArray<Node<E>>(INITIAL_CAPACITY);
+            for (int i = 0; i < STRIPES; i++)
+                this.counts.set(i, 0);
+        } finally {
+            for (int i = STRIPES - 1; i >= 0; i--)
+                this.locks[i].unlock();
+        }
+    }
+
+    /*
+     * Nodo di una lista di collisione. L'hash e l'elemento non cambiano mai;
+     * next è volatile perché viene modificato dalle rimozioni mentre altri
+     * thread scorrono la lista senza lock.
+     */
+    private static final class Node<E> {
+        private final int hash;
+
+        private final E item;
+
+        private volatile Node<E> next;
+
+        Node(int hash, E item, Node<E> next) {
+            this.hash = hash;
+            this.item = item;
+            this.next = next;
+        }
+    }
+
+    /*
+     * Stato condiviso di un raddoppio: la tabella da copiare, la nuova tabella,
+     * il primo bucket non ancora preso in carico e il numero di bucket già
+     * copiati.
+     */
+    private static final class Transfer<E> {
+        private final AtomicReferenceArray<Node<E>> old;
+
+        private final AtomicReferenceArray<Node<E>> next;
+
+        private final AtomicInteger nextChunk = new AtomicInteger(0);
+
+        private final AtomicInteger done = new AtomicInteger(0);
+
+        Transfer(AtomicReferenceArray<Node<E>> old,
+                AtomicReferenceArray<Node<E>> next) {
+            this.old = old;
+            this.next = next;
+        }
+    }
+
+    /*
+     * Iteratore debolmente consistente: scorre i bucket della tabella
+     * corrente al momento della creazione. Non supporta remove().
+     */
+    private class Itr implements Iterator<E> {
+
+        private final AtomicReferenceArray<Node<E>> t;
+
+        private Node<E> temp; // prossimo nodo da restituire
+
+        private int index; // bucket di temp
+
+        private Itr() {
+            this.t = ConcurrentCollisionListHashTable.this.table;
+            this.index = -1;
+            this.nextBucket();
+        }
+
+        /*
+         * Porta temp sulla testa del prossimo bucket non vuoto, oppure a null
+         */
+        private void nextBucket() {
+            this.temp = null;
+            while (this.temp == null && ++this.index < this.t.length())
+                this.temp = this.t.get(this.index);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.temp != null;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext())
+                throw new NoSuchElementException(
+                        "Richiesta di next quando hasNext è falso");
+            E item = this.temp.item;
+            this.temp = this.temp.next;
+            if (this.temp == null)
+                this.nextBucket();
+            return item;
+        }
+
+    }
+
+}
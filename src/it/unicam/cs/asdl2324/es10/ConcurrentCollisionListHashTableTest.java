@@ -0,0 +1,227 @@
+package it.unicam.cs.asdl2324.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe ConcurrentCollisionListHashTable
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+class ConcurrentCollisionListHashTableTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    /*
+     * Esegue il codice passato su n thread e attende che terminino, rilanciando
+     * il primo errore incontrato.
+     */
+    private static void runThreads(int n, ThreadBody body) throws Throwable {
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<Throwable>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < n; i++) {
+            final int id = i;
+            threads.add(new Thread(() -> {
+                try {
+                    body.run(id);
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }));
+        }
+        for (Thread t : threads)
+            t.start();
+        for (Thread t : threads)
+            t.join();
+        if (!errors.isEmpty())
+            throw errors.peek();
+    }
+
+    private interface ThreadBody {
+        void run(int id) throws Throwable;
+    }
+
+    @Test
+    final void testConstructorNull() {
+        assertThrows(NullPointerException.class,
+                () -> new ConcurrentCollisionListHashTable<Integer>(null));
+    }
+
+    @Test
+    void divisionHash_testAddContainsRemove() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                divisionHash);
+        assertTrue(table.isEmpty());
+        assertTrue(table.add(42));
+        assertFalse(table.add(42));
+        assertTrue(table.contains(42));
+        assertFalse(table.contains(10));
+        assertEquals(1, table.size());
+        assertTrue(table.remove(42));
+        assertFalse(table.remove(42));
+        assertFalse(table.contains(42));
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    void divisionHash_testNull() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                divisionHash);
+        assertThrows(NullPointerException.class, () -> table.add(null));
+        assertThrows(NullPointerException.class, () -> table.contains(null));
+        assertThrows(NullPointerException.class, () -> table.remove(null));
+    }
+
+    @Test
+    void divisionHash_testToArrayRetainAll() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                divisionHash);
+        for (int i = 0; i < 200; i++)
+            table.add(i);
+        Object[] array = table.toArray();
+        assertEquals(200, array.length);
+        Set<Object> seen = new HashSet<Object>();
+        for (Object o : array)
+            assertTrue(seen.add(o));
+        Integer[] typed = table.toArray(new Integer[0]);
+        assertEquals(200, typed.length);
+        Set<Integer> even = new HashSet<Integer>();
+        for (int i = 0; i < 400; i += 2)
+            even.add(i);
+        assertTrue(table.retainAll(even));
+        assertFalse(table.retainAll(even));
+        assertEquals(100, table.size());
+        for (int i = 0; i < 200; i++)
+            assertEquals(i % 2 == 0, table.contains(i));
+        assertThrows(NullPointerException.class, () -> table.retainAll(null));
+    }
+
+    @Test
+    void multiplicationHash_testConcurrentRetainAll() throws Throwable {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                multiplicationHash);
+        for (int i = 0; i < 20000; i++)
+            table.add(i);
+        Set<Integer> keep = new HashSet<Integer>();
+        for (int i = 0; i < 20000; i += 3)
+            keep.add(i);
+        // un thread filtra mentre gli altri aggiungono elementi da conservare
+        runThreads(4, id -> {
+            if (id == 0)
+                table.retainAll(keep);
+            else
+                for (int i = 20000 + id; i < 30000; i += 3)
+                    table.add(i);
+        });
+        for (int i = 0; i < 20000; i++)
+            assertEquals(i % 3 == 0, table.contains(i));
+    }
+
+    @Test
+    void multiplicationHash_testResize() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                multiplicationHash);
+        for (int i = 0; i < 10000; i++)
+            assertTrue(table.add(i));
+        assertEquals(10000, table.size());
+        for (int i = 0; i < 10000; i++)
+            assertTrue(table.contains(i));
+        assertFalse(table.contains(10000));
+    }
+
+    @Test
+    void divisionHash_testConcurrentAdd() throws Throwable {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                divisionHash);
+        // ogni thread inserisce un intervallo diverso e uno comune
+        runThreads(8, id -> {
+            for (int i = 0; i < 5000; i++) {
+                table.add(id * 5000 + i);
+                table.add(-i - 1);
+            }
+        });
+        assertEquals(8 * 5000 + 5000, table.size());
+        for (int i = 0; i < 8 * 5000; i++)
+            assertTrue(table.contains(i));
+        for (int i = 1; i <= 5000; i++)
+            assertTrue(table.contains(-i));
+    }
+
+    @Test
+    void multiplicationHash_testConcurrentAddRemove() throws Throwable {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                multiplicationHash);
+        runThreads(8, id -> {
+            for (int i = 0; i < 5000; i++)
+                assertTrue(table.add(id * 5000 + i));
+            for (int i = 0; i < 5000; i += 2)
+                assertTrue(table.remove(id * 5000 + i));
+        });
+        assertEquals(8 * 2500, table.size());
+        for (int i = 0; i < 8 * 5000; i++)
+            assertEquals(i % 2 == 1, table.contains(i));
+    }
+
+    @Test
+    void divisionHash_testConcurrentReadersDuringResize() throws Throwable {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                divisionHash);
+        for (int i = 0; i < 1000; i++)
+            table.add(i);
+        // i lettori devono sempre vedere gli elementi inseriti prima di
+        // partire, mentre gli scrittori provocano diversi raddoppi
+        runThreads(8, id -> {
+            if (id < 4) {
+                for (int i = 0; i < 20000; i++)
+                    table.add(1000 + id * 20000 + i);
+            } else {
+                for (int r = 0; r < 20; r++)
+                    for (int i = 0; i < 1000; i++)
+                        assertTrue(table.contains(i));
+            }
+        });
+        assertEquals(1000 + 4 * 20000, table.size());
+    }
+
+    @Test
+    void divisionHash_testIteratorWeaklyConsistent() throws Throwable {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                divisionHash);
+        for (int i = 0; i < 1000; i++)
+            table.add(i);
+        Iterator<Integer> it = table.iterator();
+        // modifiche durante l'iterazione non provocano eccezioni
+        for (int i = 1000; i < 5000; i++)
+            table.add(i);
+        Set<Integer> found = new HashSet<Integer>();
+        while (it.hasNext())
+            assertTrue(found.add(it.next()));
+        // gli elementi presenti dall'inizio sono tutti restituiti
+        for (int i = 0; i < 1000; i++)
+            assertTrue(found.contains(i));
+    }
+
+    @Test
+    void divisionHash_testClear() {
+        ConcurrentCollisionListHashTable<Integer> table = new ConcurrentCollisionListHashTable<>(
+                divisionHash);
+        for (int i = 0; i < 1000; i++)
+            table.add(i);
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertFalse(table.contains(5));
+        assertFalse(table.iterator().hasNext());
+    }
+
+}
@@ -0,0 +1,105 @@
+package it.unicam.cs.asdl2324.es10;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Collections;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Confronta il throughput di una CollisionListResizableHashTable protetta da
+ * un unico lock (Collections.synchronizedSet) con quello di una
+ * ConcurrentCollisionListHashTable al crescere del numero di thread. Ogni
+ * thread esegue OPERATIONS_PER_THREAD operazioni casuali su chiavi in
+ * [0, KEY_RANGE): il 10% add, il 10% remove e il resto contains. I dati, in
+ * operazioni al secondo, sono scritti sul file concurrenthashtable.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class ConcurrentHashTableEvaluationFramework {
+
+    /**
+     * Numeri di thread da provare
+     */
+    public static final int[] THREADS = { 1, 2, 4, 8, 16, 32 };
+
+    /**
+     * Numero di operazioni eseguite da ogni thread
+     */
+    public static final int OPERATIONS_PER_THREAD = 1_000_000;
+
+    /**
+     * Le chiavi sono scelte in [0, KEY_RANGE)
+     */
+    public static final int KEY_RANGE = 1 << 20;
+
+    public static void main(String[] args) throws InterruptedException {
+        String dirName = args.length > 0 ? args[0] : ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(
+                    new File(dirName + "/" + "concurrenthashtable.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "concurrenthashtable.csv");
+            System.exit(1);
+        }
+        o.println("Threads,SynchronizedOpsPerSec,ConcurrentOpsPerSec");
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        for (int n : THREADS) {
+            Set<Integer> sync = Collections.synchronizedSet(
+                    new CollisionListResizableHashTable<Integer>(phf));
+            Set<Integer> concurrent = new ConcurrentCollisionListHashTable<Integer>(
+                    phf);
+            // riempio per metà entrambe le tabelle
+            for (int k = 0; k < KEY_RANGE; k += 2) {
+                sync.add(k);
+                concurrent.add(k);
+            }
+            long syncOps = run(sync, n);
+            long concurrentOps = run(concurrent, n);
+            o.println(n + "," + syncOps + "," + concurrentOps);
+            System.out.println(n + " thread: synchronized " + syncOps
+                    + " op/s, concurrent " + concurrentOps + " op/s");
+        }
+        o.close();
+    } // end main
+
+    /*
+     * Esegue il carico di lavoro su n thread e restituisce le operazioni al
+     * secondo complessive
+     */
+    private static long run(Set<Integer> set, int n)
+            throws InterruptedException {
+        Thread[] threads = new Thread[n];
+        for (int i = 0; i < n; i++) {
+            final SplittableRandom random = new SplittableRandom(i);
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
+                    int key = random.nextInt(KEY_RANGE);
+                    int op = random.nextInt(10);
+                    if (op == 0)
+                        set.add(key);
+                    else if (op == 1)
+                        set.remove(key);
+                    else
+                        set.contains(key);
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread t : threads)
+            t.start();
+        for (Thread t : threads)
+            t.join();
+        long elapsed = System.nanoTime() - start;
+        return (long) n * OPERATIONS_PER_THREAD * 1_000_000_000L / elapsed;
+    }
+
+}
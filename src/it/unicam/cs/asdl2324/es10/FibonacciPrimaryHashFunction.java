@@ -0,0 +1,36 @@
+/**
+ * 
+ */
+package it.unicam.cs.asdl2324.es10;
+
+/**
+ * Implementa una funzione di hash primaria con il metodo della moltiplicazione
+ * usando solo aritmetica intera (Fibonacci hashing). La costante A = (sqrt(5) -
+ * 1) / 2 è rappresentata in virgola fissa su 32 bit (0x9E3779B9): il prodotto
+ * key * A troncato a 32 bit è la parte frazionaria di key * A, e moltiplicarlo
+ * per m prendendo i 32 bit alti del risultato a 64 bit equivale a calcolare
+ * floor(m * frac(key * A)) senza operazioni in virgola mobile.
+ * 
+ * Quando m è una potenza di due 2^p il risultato coincide con i p bit più
+ * significativi del prodotto, cioè (key * A) >>> (32 - p).
+ * 
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class FibonacciPrimaryHashFunction implements PrimaryHashFunction {
+
+    /*
+     * Parte frazionaria di (sqrt(5) - 1) / 2 in virgola fissa su 32 bit
+     */
+    private static final int A = 0x9E3779B9;
+
+    /* (non-Javadoc)
+     * @see it.unicam.cs.asdl2324.es10.PrimaryHashFunction#hash(int, int)
+     */
+    @Override
+    public int hash(int key, int m) {
+        int frac = key * A; // parte frazionaria di key * A, modulo 2^32
+        return (int) (((frac & 0xFFFFFFFFL) * m) >>> 32);
+    }
+
+}
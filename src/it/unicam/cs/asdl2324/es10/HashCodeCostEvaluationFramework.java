@@ -0,0 +1,134 @@
+package it.unicam.cs.asdl2324.es10;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Random;
+
+/**
+ * Misura quante volte CollisionListResizableHashTable chiama hashCode() sulle
+ * chiavi e quanto tempo impiega quando le chiavi sono stringhe lunghe il cui
+ * hash non è memorizzato. Per ogni dimensione vengono inserite n chiavi
+ * distinte, cercate n chiavi presenti e n assenti e rimosse tutte le chiavi;
+ * per ogni fase sono riportati il numero di chiamate a hashCode() e il tempo in
+ * nanosecondi. I dati sono scritti sul file hashcodecost.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente) e con le dimensioni da provare come parametri
+ * successivi (altrimenti si usano quelle di SIZES).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class HashCodeCostEvaluationFramework {
+
+    /**
+     * Dimensioni di default degli insiemi da generare
+     */
+    public static final int[] SIZES = { 10_000, 100_000, 1_000_000 };
+
+    /**
+     * Lunghezza delle stringhe usate come chiavi
+     */
+    public static final int KEY_LENGTH = 64;
+
+    /*
+     * Chiave che ricalcola ogni volta l'hash sui caratteri della stringa e
+     * conta le chiamate a hashCode().
+     */
+    private static class ExpensiveKey {
+
+        private static long hashCodeCalls = 0;
+
+        private final String value;
+
+        private ExpensiveKey(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            hashCodeCalls++;
+            int h = 0;
+            for (int i = 0; i < this.value.length(); i++)
+                h = 31 * h + this.value.charAt(i);
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof ExpensiveKey))
+                return false;
+            return this.value.equals(((ExpensiveKey) obj).value);
+        }
+    }
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int[] sizes = SIZES;
+        if (args.length > 1) {
+            sizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++)
+                sizes[i - 1] = Integer.parseInt(args[i]);
+        }
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "hashcodecost.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "hashcodecost.csv");
+            System.exit(1);
+        }
+        o.println("N,AddCalls,AddTns,ContainsCalls,ContainsTns,RemoveCalls,RemoveTns");
+        Random randomGenerator = new Random(42);
+        for (int n : sizes) {
+            // Genero chiavi presenti (pari) e assenti (dispari)
+            ExpensiveKey[] keys = new ExpensiveKey[n];
+            ExpensiveKey[] others = new ExpensiveKey[n];
+            for (int i = 0; i < n; i++) {
+                String prefix = randomString(randomGenerator);
+                keys[i] = new ExpensiveKey(prefix + (2 * i));
+                others[i] = new ExpensiveKey(prefix + (2 * i + 1));
+            }
+            CollisionListResizableHashTable<ExpensiveKey> table = new CollisionListResizableHashTable<ExpensiveKey>(
+                    new DivisionPrimaryHashFunction());
+            o.print(n + ",");
+
+            ExpensiveKey.hashCodeCalls = 0;
+            long start = System.nanoTime();
+            for (ExpensiveKey k : keys)
+                table.add(k);
+            o.print(ExpensiveKey.hashCodeCalls + "," + (System.nanoTime() - start) + ",");
+
+            ExpensiveKey.hashCodeCalls = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                table.contains(keys[i]);
+                table.contains(others[i]);
+            }
+            o.print(ExpensiveKey.hashCodeCalls + "," + (System.nanoTime() - start) + ",");
+
+            ExpensiveKey.hashCodeCalls = 0;
+            start = System.nanoTime();
+            for (ExpensiveKey k : keys)
+                table.remove(k);
+            o.println(ExpensiveKey.hashCodeCalls + "," + (System.nanoTime() - start));
+            System.out.println("Completata dimensione " + n);
+        }
+        o.close();
+    } // end main
+
+    /*
+     * Genera una stringa casuale di KEY_LENGTH caratteri alfabetici
+     */
+    private static String randomString(Random randomGenerator) {
+        StringBuilder sb = new StringBuilder(KEY_LENGTH);
+        for (int i = 0; i < KEY_LENGTH; i++)
+            sb.append((char) ('a' + randomGenerator.nextInt(26)));
+        return sb.toString();
+    }
+
+}
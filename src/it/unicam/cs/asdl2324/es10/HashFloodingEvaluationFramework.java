@@ -0,0 +1,133 @@
+package it.unicam.cs.asdl2324.es10;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+
+/**
+ * Simula un attacco di hash flooding su CollisionListResizableHashTable: le
+ * chiavi sono stringhe composte dai blocchi "Aa" e "BB", che hanno lo stesso
+ * hashCode(), per cui 2^k stringhe di k blocchi finiscono tutte nello stesso
+ * bucket qualunque sia la funzione di hash primaria. Le stesse chiavi vengono
+ * inserite e cercate (n presenti e n assenti) sia come String, confrontabili e
+ * quindi organizzate in un albero, sia avvolte in un oggetto non
+ * confrontabile, che resta in una lista di collisione. I tempi, in
+ * millisecondi, sono scritti sul file hashflooding.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente) e con i valori di k da provare come parametri
+ * successivi (altrimenti si usano quelli di BLOCKS).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class HashFloodingEvaluationFramework {
+
+    /**
+     * Numeri di default di blocchi per chiave: si generano 2^k chiavi
+     */
+    public static final int[] BLOCKS = { 8, 10, 12, 14 };
+
+    /*
+     * Chiave non confrontabile che avvolge una stringa.
+     */
+    private static class OpaqueKey {
+
+        private final String value;
+
+        private OpaqueKey(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof OpaqueKey
+                    && this.value.equals(((OpaqueKey) obj).value);
+        }
+    }
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int[] blocks = BLOCKS;
+        if (args.length > 1) {
+            blocks = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++)
+                blocks[i - 1] = Integer.parseInt(args[i]);
+        }
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "hashflooding.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "hashflooding.csv");
+            System.exit(1);
+        }
+        o.println("N,ListAddMs,ListContainsMs,TreeAddMs,TreeContainsMs");
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        for (int k : blocks) {
+            int n = 1 << k;
+            // le chiavi presenti terminano con "Aa", quelle assenti con "BB":
+            // hanno tutte lo stesso hashCode()
+            String[] keys = new String[n];
+            String[] others = new String[n];
+            for (int i = 0; i < n; i++) {
+                String s = collidingString(i, k);
+                keys[i] = s + "Aa";
+                others[i] = s + "BB";
+            }
+            o.print(n + ",");
+
+            CollisionListResizableHashTable<OpaqueKey> list = new CollisionListResizableHashTable<OpaqueKey>(
+                    phf);
+            OpaqueKey[] opaqueKeys = new OpaqueKey[n];
+            OpaqueKey[] opaqueOthers = new OpaqueKey[n];
+            for (int i = 0; i < n; i++) {
+                opaqueKeys[i] = new OpaqueKey(keys[i]);
+                opaqueOthers[i] = new OpaqueKey(others[i]);
+            }
+            long start = System.nanoTime();
+            for (OpaqueKey x : opaqueKeys)
+                list.add(x);
+            o.print((System.nanoTime() - start) / 1_000_000 + ",");
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                list.contains(opaqueKeys[i]);
+                list.contains(opaqueOthers[i]);
+            }
+            o.print((System.nanoTime() - start) / 1_000_000 + ",");
+
+            CollisionListResizableHashTable<String> tree = new CollisionListResizableHashTable<String>(
+                    phf);
+            start = System.nanoTime();
+            for (String x : keys)
+                tree.add(x);
+            o.print((System.nanoTime() - start) / 1_000_000 + ",");
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                tree.contains(keys[i]);
+                tree.contains(others[i]);
+            }
+            o.println((System.nanoTime() - start) / 1_000_000);
+
+            System.out.println("Completata dimensione " + n);
+        }
+        o.close();
+    } // end main
+
+    /*
+     * La stringa di k blocchi "Aa" o "BB" scelti in base ai bit di i
+     */
+    private static String collidingString(int i, int k) {
+        StringBuilder sb = new StringBuilder(2 * k + 2);
+        for (int b = 0; b < k; b++)
+            sb.append((i & (1 << b)) == 0 ? "Aa" : "BB");
+        return sb.toString();
+    }
+
+}
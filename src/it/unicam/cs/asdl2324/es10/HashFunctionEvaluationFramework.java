@@ -0,0 +1,110 @@
+package it.unicam.cs.asdl2324.es10;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Random;
+
+/**
+ * Confronta le funzioni di hash primarie disponibili su tre insiemi di N
+ * chiavi distribuite in una tabella di M bucket (M potenza di due):
+ * 
+ * - sequential: le chiavi 0, 1, ..., N-1;
+ * 
+ * - random: N chiavi casuali;
+ * 
+ * - adversarial: le chiavi i * 4096, che differiscono solo nei bit alti e che
+ * con il metodo della divisione finiscono tutte in M / 4096 bucket.
+ * 
+ * Per ogni funzione e insieme di chiavi sono riportati il numero di bucket
+ * vuoti, la lunghezza massima di una lista di collisione, il numero medio di
+ * confronti per una ricerca con successo (1 + somma di l*(l-1)/2 / N, dove l è
+ * la lunghezza di ogni lista) e il tempo medio in nanosecondi di una chiamata
+ * a hash(). I dati sono scritti sul file hashfunctions.csv.
+ * 
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come parametro di linea di comando. Se non è presente nessun parametro
+ * allora si assume la directory corrente.
+ * 
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class HashFunctionEvaluationFramework {
+
+    /**
+     * Numero di bucket della tabella
+     */
+    public static final int M = 1 << 20;
+
+    /**
+     * Numero di chiavi, pari a M * 0.75
+     */
+    public static final int N = 3 * (M / 4);
+
+    /**
+     * Numero di ripetizioni per la misura del tempo
+     */
+    public static final int TIMING_ROUNDS = 20;
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "hashfunctions.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "hashfunctions.csv");
+            System.exit(1);
+        }
+        PrimaryHashFunction[] functions = { new DivisionPrimaryHashFunction(),
+                new MultiplicationPrimaryHashFunction(),
+                new FibonacciPrimaryHashFunction(),
+                new Murmur3PrimaryHashFunction(),
+                new WyhashPrimaryHashFunction() };
+        // genero gli insiemi di chiavi
+        String[] keySetNames = { "sequential", "random", "adversarial" };
+        int[][] keySets = new int[3][N];
+        Random randomGenerator = new Random(42);
+        for (int i = 0; i < N; i++) {
+            keySets[0][i] = i;
+            keySets[1][i] = randomGenerator.nextInt();
+            keySets[2][i] = i << 12;
+        }
+        o.println("Function,Keys,EmptyBuckets,MaxChain,AvgProbes,NsPerHash");
+        for (PrimaryHashFunction phf : functions) {
+            String name = phf.getClass().getSimpleName();
+            for (int s = 0; s < keySets.length; s++) {
+                int[] keys = keySets[s];
+                int[] load = new int[M];
+                for (int k : keys)
+                    load[phf.hash(k, M)]++;
+                int empty = 0;
+                int max = 0;
+                long pairs = 0;
+                for (int l : load) {
+                    if (l == 0)
+                        empty++;
+                    max = Math.max(max, l);
+                    pairs += (long) l * (l - 1) / 2;
+                }
+                double avgProbes = 1 + (double) pairs / N;
+                // misura del tempo: la somma evita che il JIT elimini le
+                // chiamate
+                long sum = 0;
+                long start = System.nanoTime();
+                for (int r = 0; r < TIMING_ROUNDS; r++)
+                    for (int k : keys)
+                        sum += phf.hash(k, M);
+                double ns = (double) (System.nanoTime() - start)
+                        / ((long) TIMING_ROUNDS * N);
+                o.println(name + "," + keySetNames[s] + "," + empty + "," + max
+                        + "," + avgProbes + "," + ns);
+                System.out.println(name + " " + keySetNames[s] + ": vuoti "
+                        + empty + ", max " + max + ", confronti medi "
+                        + avgProbes + ", " + ns + " ns/hash (" + sum + ")");
+            }
+        }
+        o.close();
+    } // end main
+
+}
@@ -0,0 +1,224 @@
+package it.unicam.cs.asdl2324.es10;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Standard MBean che espone via JMX le statistiche di una
+ * CollisionListResizableHashTable.
+ *
+ * Gli attributi sono letti dal thread di JMX senza sincronizzazione mentre il
+ * thread proprietario della tabella può modificarla: i contatori (dimensione,
+ * capacità, sonde, ridimensionamenti, storia del fattore di carico) sono
+ * letti direttamente, in un tempo che non dipende dalla capacità, e sono
+ * indicativi; i dati strutturali (istogramma delle lunghezze, lunghezza
+ * massima, numero di alberi) richiedono una scansione Θ(capacità) di tutti i
+ * bucket e vengono quindi calcolati al più una volta ogni snapshotMillis
+ * millisecondi, per cui un aggiornamento di una console JMX scorre la tabella
+ * una volta sola. Se una scansione fallisce per una modifica concorrente
+ * resta valida la fotografia precedente.
+ *
+ * Un monitor registrato con register() tiene in vita la tabella finché non
+ * viene rimosso con unregister().
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class HashTableMonitor implements HashTableMonitorMBean {
+
+    /**
+     * Dominio dei nomi JMX usati da register()
+     */
+    public static final String DOMAIN = "it.unicam.cs.asdl2324.es10";
+
+    /**
+     * Durata di default, in millisecondi, della fotografia dei dati
+     * strutturali
+     */
+    public static final long DEFAULT_SNAPSHOT_MILLIS = 1_000;
+
+    private final CollisionListResizableHashTable<?> table;
+
+    private final long snapshotNanos;
+
+    // ultima fotografia dei dati strutturali e istante in cui è stata presa
+    private volatile HashTableStatistics snapshot;
+
+    private volatile long snapshotTime;
+
+    /**
+     * Crea il monitor di una tabella, con fotografie dei dati strutturali
+     * valide per DEFAULT_SNAPSHOT_MILLIS millisecondi.
+     *
+     * @param table
+     *                  la tabella da osservare
+     * @throws NullPointerException
+     *                                  se la tabella è nulla
+     */
+    public HashTableMonitor(CollisionListResizableHashTable<?> table) {
+        this(table, DEFAULT_SNAPSHOT_MILLIS);
+    }
+
+    /**
+     * Crea il monitor di una tabella.
+     *
+     * @param table
+     *                           la tabella da osservare
+     * @param snapshotMillis
+     *                           per quanti millisecondi riusare la
+     *                           fotografia dei dati strutturali, 0 per
+     *                           ricalcolarla ad ogni lettura
+     * @throws NullPointerException
+     *                                      se la tabella è nulla
+     * @throws IllegalArgumentException
+     *                                      se snapshotMillis è negativo
+     */
+    public HashTableMonitor(CollisionListResizableHashTable<?> table,
+            long snapshotMillis) {
+        if (table == null)
+            throw new NullPointerException("Tabella nulla.");
+        if (snapshotMillis < 0)
+            throw new IllegalArgumentException("Durata negativa.");
+        this.table = table;
+        this.snapshotNanos = snapshotMillis * 1_000_000;
+    }
+
+    /**
+     * Registra nel MBean server della piattaforma il monitor di una tabella,
+     * con nome DOMAIN:type=HashTable,name=name, abilitandone le statistiche.
+     *
+     * @param table
+     *                  la tabella da osservare
+     * @param name
+     *                  il nome con cui distinguere la tabella
+     * @return il nome JMX con cui il monitor è stato registrato
+     * @throws JMException
+     *                         se la registrazione non è possibile, ad esempio
+     *                         perché il nome è già usato
+     */
+    public static ObjectName register(CollisionListResizableHashTable<?> table,
+            String name) throws JMException {
+        ObjectName objectName = new ObjectName(
+                DOMAIN + ":type=HashTable,name=" + ObjectName.quote(name));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        table.setStatisticsEnabled(true);
+        server.registerMBean(new HashTableMonitor(table), objectName);
+        return objectName;
+    }
+
+    /**
+     * Rimuove dal MBean server della piattaforma un monitor registrato con
+     * register(), così che la tabella non sia più raggiungibile dal server.
+     * Le statistiche della tabella restano abilitate.
+     *
+     * @param objectName
+     *                       il nome restituito da register()
+     * @throws JMException
+     *                         se non c'è un MBean registrato con quel nome
+     */
+    public static void unregister(ObjectName objectName) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    }
+
+    /*
+     * Contatori correnti, senza scorrere i bucket
+     */
+    private HashTableStatistics counters() {
+        return this.table.getStatistics(false);
+    }
+
+    /*
+     * Fotografia dei dati strutturali, ricalcolata se più vecchia di
+     * snapshotNanos
+     */
+    private HashTableStatistics structure() {
+        HashTableStatistics s = this.snapshot;
+        long now = System.nanoTime();
+        if (s == null || now - this.snapshotTime >= this.snapshotNanos) {
+            try {
+                s = this.table.getStatistics(true);
+                this.snapshot = s;
+                this.snapshotTime = now;
+            } catch (RuntimeException e) {
+                // modifica concorrente: tengo la fotografia precedente
+                if (s == null)
+                    throw e;
+            }
+        }
+        return s;
+    }
+
+    @Override
+    public boolean isStatisticsEnabled() {
+        return this.table.isStatisticsEnabled();
+    }
+
+    @Override
+    public void setStatisticsEnabled(boolean enabled) {
+        this.table.setStatisticsEnabled(enabled);
+    }
+
+    @Override
+    public int getSize() {
+        return this.table.size();
+    }
+
+    @Override
+    public int getCapacity() {
+        return this.counters().getCapacity();
+    }
+
+    @Override
+    public double getLoadFactor() {
+        return this.counters().getLoadFactor();
+    }
+
+    @Override
+    public int getMaxChainLength() {
+        return this.structure().getMaxChainLength();
+    }
+
+    @Override
+    public int getTreeBinCount() {
+        return this.structure().getTreeBinCount();
+    }
+
+    @Override
+    public int[] getChainLengthHistogram() {
+        return this.structure().getChainLengthHistogram();
+    }
+
+    @Override
+    public double getAverageContainsProbes() {
+        return this.counters().getAverageContainsProbes();
+    }
+
+    @Override
+    public double getAverageAddProbes() {
+        return this.counters().getAverageAddProbes();
+    }
+
+    @Override
+    public double getAverageRemoveProbes() {
+        return this.counters().getAverageRemoveProbes();
+    }
+
+    @Override
+    public long getResizeCount() {
+        return this.counters().getResizeCount();
+    }
+
+    @Override
+    public long getResizeTimeMillis() {
+        return this.counters().getResizeNanos() / 1_000_000;
+    }
+
+    @Override
+    public double[] getLoadFactorHistory() {
+        return this.counters().getLoadFactorHistory();
+    }
+
+}
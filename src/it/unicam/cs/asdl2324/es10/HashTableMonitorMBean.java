@@ -0,0 +1,51 @@
+package it.unicam.cs.asdl2324.es10;
+
+/**
+ * Interfaccia di gestione JMX delle statistiche di una
+ * CollisionListResizableHashTable, realizzata da HashTableMonitor. I
+ * contatori sono letti ad ogni richiesta, l'istogramma, la lunghezza massima
+ * e il numero di alberi da una fotografia rinnovata periodicamente.
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public interface HashTableMonitorMBean {
+
+    /**
+     * @return true se la tabella sta raccogliendo le statistiche
+     */
+    public boolean isStatisticsEnabled();
+
+    /**
+     * Abilita o disabilita la raccolta delle statistiche della tabella.
+     *
+     * @param enabled
+     *                    true per abilitare le statistiche
+     */
+    public void setStatisticsEnabled(boolean enabled);
+
+    public int getSize();
+
+    public int getCapacity();
+
+    public double getLoadFactor();
+
+    public int getMaxChainLength();
+
+    public int getTreeBinCount();
+
+    public int[] getChainLengthHistogram();
+
+    public double getAverageContainsProbes();
+
+    public double getAverageAddProbes();
+
+    public double getAverageRemoveProbes();
+
+    public long getResizeCount();
+
+    public long getResizeTimeMillis();
+
+    public double[] getLoadFactorHistory();
+
+}
@@ -0,0 +1,90 @@
+package it.unicam.cs.asdl2324.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe HashTableMonitor
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+class HashTableMonitorTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    @Test
+    final void testConstructorNull() {
+        assertThrows(NullPointerException.class,
+                () -> new HashTableMonitor(null));
+    }
+
+    @Test
+    void divisionHash_testRegister() throws JMException {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        ObjectName name = HashTableMonitor.register(table, "test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertTrue(table.isStatisticsEnabled());
+            for (int i = 0; i < 100; i++)
+                table.add(i);
+            assertEquals(100, server.getAttribute(name, "Size"));
+            assertEquals(256, server.getAttribute(name, "Capacity"));
+            assertEquals(4L, server.getAttribute(name, "ResizeCount"));
+            assertEquals(1, server.getAttribute(name, "MaxChainLength"));
+            // lo stesso nome non può essere registrato due volte
+            assertThrows(JMException.class,
+                    () -> HashTableMonitor.register(table, "test"));
+        } finally {
+            HashTableMonitor.unregister(name);
+        }
+        assertFalse(server.isRegistered(name));
+        assertThrows(JMException.class, () -> HashTableMonitor.unregister(name));
+    }
+
+    @Test
+    void divisionHash_testSnapshot() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        HashTableMonitor cached = new HashTableMonitor(table, 60_000);
+        HashTableMonitor fresh = new HashTableMonitor(table, 0);
+        table.add(0);
+        assertEquals(1, cached.getMaxChainLength());
+        assertEquals(1, cached.getChainLengthHistogram()[1]);
+        // 0, 16, 32 finiscono nello stesso bucket di una tabella da 16
+        table.add(16);
+        table.add(32);
+        // istogramma e lunghezza massima restano quelli della fotografia
+        assertEquals(1, cached.getMaxChainLength());
+        assertEquals(1, cached.getChainLengthHistogram()[1]);
+        assertEquals(3, fresh.getMaxChainLength());
+        // i contatori sono sempre aggiornati
+        assertEquals(3, cached.getSize());
+        assertThrows(IllegalArgumentException.class,
+                () -> new HashTableMonitor(table, -1));
+    }
+
+    @Test
+    void divisionHash_testEnableDisable() {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<>(
+                divisionHash);
+        HashTableMonitor monitor = new HashTableMonitor(table);
+        assertFalse(monitor.isStatisticsEnabled());
+        monitor.setStatisticsEnabled(true);
+        assertTrue(table.isStatisticsEnabled());
+        table.add(1);
+        table.contains(1);
+        assertEquals(1.0, monitor.getAverageContainsProbes());
+        monitor.setStatisticsEnabled(false);
+        assertEquals(0.0, monitor.getAverageContainsProbes());
+    }
+
+}
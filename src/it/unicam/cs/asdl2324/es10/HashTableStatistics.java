@@ -0,0 +1,209 @@
+package it.unicam.cs.asdl2324.es10;
+
+import java.util.Arrays;
+
+/**
+ * Fotografia, immutabile, dello stato di una CollisionListResizableHashTable
+ * in un certo istante. I dati strutturali (dimensione, capacità, fattore di
+ * carico, istogramma delle lunghezze delle liste di collisione) sono sempre
+ * presenti; i contatori delle operazioni, dei ridimensionamenti e la storia
+ * del fattore di carico sono raccolti solo mentre le statistiche della tabella
+ * sono abilitate e valgono zero altrimenti.
+ *
+ * Il numero di sonde di un'operazione è il numero di nodi esaminati per
+ * trovare l'elemento o per stabilire che non è presente: i nodi della lista
+ * di collisione scorsi, oppure i nodi dell'albero visitati se il bucket è un
+ * TreeBin.
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public final class HashTableStatistics {
+
+    /**
+     * Numero di classi dell'istogramma delle lunghezze: la classe i conta i
+     * bucket con i elementi, l'ultima quelli con almeno HISTOGRAM_SIZE - 1
+     * elementi.
+     */
+    public static final int HISTOGRAM_SIZE = 17;
+
+    private final int size;
+
+    private final int capacity;
+
+    private final int[] chainLengthHistogram;
+
+    private final int maxChainLength;
+
+    private final int treeBinCount;
+
+    private final long containsCount;
+
+    private final long containsProbes;
+
+    private final long addCount;
+
+    private final long addProbes;
+
+    private final long removeCount;
+
+    private final long removeProbes;
+
+    private final long resizeCount;
+
+    private final long resizeNanos;
+
+    private final double[] loadFactorHistory;
+
+    HashTableStatistics(int size, int capacity, int[] chainLengthHistogram,
+            int maxChainLength, int treeBinCount, long containsCount,
+            long containsProbes, long addCount, long addProbes,
+            long removeCount, long removeProbes, long resizeCount,
+            long resizeNanos, double[] loadFactorHistory) {
+        this.size = size;
+        this.capacity = capacity;
+        this.chainLengthHistogram = chainLengthHistogram;
+        this.maxChainLength = maxChainLength;
+        this.treeBinCount = treeBinCount;
+        this.containsCount = containsCount;
+        this.containsProbes = containsProbes;
+        this.addCount = addCount;
+        this.addProbes = addProbes;
+        this.removeCount = removeCount;
+        this.removeProbes = removeProbes;
+        this.resizeCount = resizeCount;
+        this.resizeNanos = resizeNanos;
+        this.loadFactorHistory = loadFactorHistory;
+    }
+
+    /**
+     * @return il numero di elementi della tabella
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * @return il numero di bucket della tabella corrente
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * @return il fattore di carico, size / capacity
+     */
+    public double getLoadFactor() {
+        return (double) this.size / this.capacity;
+    }
+
+    /**
+     * @return una copia dell'istogramma delle lunghezze delle liste di
+     *         collisione, di HISTOGRAM_SIZE classi
+     */
+    public int[] getChainLengthHistogram() {
+        return this.chainLengthHistogram.clone();
+    }
+
+    /**
+     * @return il numero di elementi del bucket più affollato
+     */
+    public int getMaxChainLength() {
+        return this.maxChainLength;
+    }
+
+    /**
+     * @return il numero di bucket trasformati in albero
+     */
+    public int getTreeBinCount() {
+        return this.treeBinCount;
+    }
+
+    /**
+     * @return il numero di chiamate a contains() registrate
+     */
+    public long getContainsCount() {
+        return this.containsCount;
+    }
+
+    /**
+     * @return il numero di chiamate ad add() registrate
+     */
+    public long getAddCount() {
+        return this.addCount;
+    }
+
+    /**
+     * @return il numero di chiamate a remove() registrate
+     */
+    public long getRemoveCount() {
+        return this.removeCount;
+    }
+
+    /**
+     * @return il numero medio di sonde per contains(), 0 se non ce ne sono
+     *         state
+     */
+    public double getAverageContainsProbes() {
+        return average(this.containsProbes, this.containsCount);
+    }
+
+    /**
+     * @return il numero medio di sonde per add(), 0 se non ce ne sono state
+     */
+    public double getAverageAddProbes() {
+        return average(this.addProbes, this.addCount);
+    }
+
+    /**
+     * @return il numero medio di sonde per remove(), 0 se non ce ne sono
+     *         state
+     */
+    public double getAverageRemoveProbes() {
+        return average(this.removeProbes, this.removeCount);
+    }
+
+    private static double average(long total, long count) {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * @return il numero di ridimensionamenti della tabella registrati
+     */
+    public long getResizeCount() {
+        return this.resizeCount;
+    }
+
+    /**
+     * @return il tempo complessivo, in nanosecondi, speso a riposizionare gli
+     *         elementi nei ridimensionamenti
+     */
+    public long getResizeNanos() {
+        return this.resizeNanos;
+    }
+
+    /**
+     * @return una copia degli ultimi campioni del fattore di carico, dal più
+     *         vecchio al più recente
+     */
+    public double[] getLoadFactorHistory() {
+        return this.loadFactorHistory.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "HashTableStatistics [size=" + this.size + ", capacity="
+                + this.capacity + ", loadFactor=" + this.getLoadFactor()
+                + ", maxChainLength=" + this.maxChainLength
+                + ", treeBinCount=" + this.treeBinCount
+                + ", chainLengthHistogram="
+                + Arrays.toString(this.chainLengthHistogram)
+                + ", averageContainsProbes="
+                + this.getAverageContainsProbes() + ", averageAddProbes="
+                + this.getAverageAddProbes() + ", averageRemoveProbes="
+                + this.getAverageRemoveProbes() + ", resizeCount="
+                + this.resizeCount + ", resizeNanos=" + this.resizeNanos
+                + "]";
+    }
+
+}
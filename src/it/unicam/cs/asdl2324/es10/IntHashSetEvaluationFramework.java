@@ -0,0 +1,131 @@
+package it.unicam.cs.asdl2324.es10;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Random;
+
+/**
+ * Confronta CollisionListResizableHashTable<Integer> e
+ * IntOpenAddressingHashSet sugli stessi insiemi di interi casuali di
+ * dimensione crescente. Per ogni dimensione e per ogni tabella sono misurati i
+ * tempi in nanosecondi di inserimento di tutti gli elementi, di ricerca di
+ * tutti gli elementi presenti e di altrettanti elementi assenti e di
+ * rimozione di tutti gli elementi, oltre alla memoria heap occupata dalla
+ * tabella piena. I dati sono scritti sul file inthashset.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente) e con le dimensioni da provare come parametri
+ * successivi (altrimenti si usano quelle di SIZES). Per le dimensioni maggiori
+ * la tabella con liste di collisione richiede qualche GB di heap (-Xmx).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class IntHashSetEvaluationFramework {
+
+    /**
+     * Dimensioni di default degli insiemi da generare
+     */
+    public static final int[] SIZES = { 1_000_000, 10_000_000, 50_000_000 };
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int[] sizes = SIZES;
+        if (args.length > 1) {
+            sizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++)
+                sizes[i - 1] = Integer.parseInt(args[i]);
+        }
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "inthashset.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "inthashset.csv");
+            System.exit(1);
+        }
+        o.println("Table,N,AddTns,ContainsTns,RemoveTns,HeapBytes");
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        for (int n : sizes) {
+            // Genero le chiavi da inserire e le chiavi da cercare (in
+            // generale assenti) una volta sola per entrambe le tabelle
+            int[] keys = new int[n];
+            int[] others = new int[n];
+            Random randomGenerator = new Random(n);
+            for (int i = 0; i < n; i++) {
+                keys[i] = randomGenerator.nextInt();
+                others[i] = randomGenerator.nextInt();
+            }
+            System.out.println("Generate " + n + " chiavi");
+
+            // Tabella con liste di collisione
+            long before = usedHeap();
+            CollisionListResizableHashTable<Integer> chained = new CollisionListResizableHashTable<Integer>(
+                    phf);
+            long start = System.nanoTime();
+            for (int k : keys)
+                chained.add(k);
+            long addT = System.nanoTime() - start;
+            long heap = usedHeap() - before;
+            int found = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                if (chained.contains(keys[i]))
+                    found++;
+                if (chained.contains(others[i]))
+                    found++;
+            }
+            long containsT = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int k : keys)
+                chained.remove(k);
+            long removeT = System.nanoTime() - start;
+            o.println("CollisionListResizableHashTable," + n + "," + addT + ","
+                    + containsT + "," + removeT + "," + heap);
+            System.out.println("CollisionListResizableHashTable " + n
+                    + " completata (" + found + " trovati)");
+            chained = null;
+
+            // Tabella a indirizzamento aperto
+            before = usedHeap();
+            IntOpenAddressingHashSet open = new IntOpenAddressingHashSet(phf);
+            start = System.nanoTime();
+            for (int k : keys)
+                open.add(k);
+            addT = System.nanoTime() - start;
+            heap = usedHeap() - before;
+            found = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                if (open.contains(keys[i]))
+                    found++;
+                if (open.contains(others[i]))
+                    found++;
+            }
+            containsT = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int k : keys)
+                open.remove(k);
+            removeT = System.nanoTime() - start;
+            o.println("IntOpenAddressingHashSet," + n + "," + addT + ","
+                    + containsT + "," + removeT + "," + heap);
+            System.out.println("IntOpenAddressingHashSet " + n
+                    + " completata (" + found + " trovati)");
+            open = null;
+        }
+        o.close();
+    } // end main
+
+    /*
+     * Stima della memoria heap attualmente occupata, dopo aver richiesto un
+     * garbage collection
+     */
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+}
@@ -0,0 +1,468 @@
+/**
+ *
+ */
+package it.unicam.cs.asdl2324.es10;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+
+/**
+ * Realizza un insieme di interi tramite una tabella hash a indirizzamento
+ * aperto con scansione lineare. A differenza di
+ * {@code CollisionListResizableHashTable} gli elementi sono memorizzati
+ * direttamente in un array di {@code int}, senza allocare un nodo per ogni
+ * elemento e senza liste di collisione da scorrere.
+ *
+ * Come nella tabella con liste di collisione, la funzione di hash primaria
+ * deve essere passata come parametro nel costruttore e deve implementare
+ * l'interfaccia PrimaryHashFunction. La posizione di partenza della scansione
+ * di una chiave k è this.phf.hash(k, this.getCurrentCapacity()).
+ *
+ * Le celle vuote sono marcate con il valore sentinella EMPTY (zero). Poiché
+ * anche zero è un intero valido, la sua presenza nell'insieme è registrata a
+ * parte nella variabile containsEmpty.
+ *
+ * La cancellazione non usa marcatori di cella cancellata: gli elementi che
+ * seguono la cella liberata nello stesso blocco di celle occupate vengono
+ * spostati all'indietro quando la loro posizione di partenza lo consente
+ * (backward-shift deletion). In questo modo la lunghezza delle scansioni
+ * dipende solo dagli elementi effettivamente presenti.
+ *
+ * La tabella ha una dimensione iniziale di default (16) e un fattore di
+ * caricamento di default (0.75). Quando il fattore di bilanciamento effettivo
+ * eccede quello di default la tabella viene raddoppiata e viene fatto un
+ * riposizionamento di tutti gli elementi. Come in
+ * CollisionListResizableHashTable la capacità non supera MAXIMUM_CAPACITY
+ * (2^30 celle): raggiunta questa, add lancia IllegalStateException quando la
+ * tabella resterebbe senza celle vuote, necessarie perché le scansioni
+ * terminino.
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class IntOpenAddressingHashSet implements Set<Integer> {
+
+    /*
+     * La capacità iniziale. E' una potenza di due e quindi la capacità sarà
+     * sempre una potenza di due, in quanto ogni resize raddoppia la tabella.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Fattore di bilanciamento di default. Tipico valore.
+     */
+    private static final double LOAD_FACTOR = 0.75;
+
+    /*
+     * Capacità massima della tabella, la più grande potenza di due
+     * rappresentabile come int.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /*
+     * Valore sentinella che indica una cella vuota della tabella.
+     */
+    private static final int EMPTY = 0;
+
+    /*
+     * Numero di elementi effettivamente presenti nell'insieme, compreso
+     * l'eventuale valore EMPTY.
+     */
+    private int size;
+
+    /*
+     * La tabella vera e propria. Ogni cella contiene EMPTY oppure un elemento
+     * diverso da EMPTY.
+     */
+    private int[] table;
+
+    /*
+     * Indica se l'intero EMPTY appartiene all'insieme. Non può essere
+     * memorizzato nella tabella perché coincide con la sentinella.
+     */
+    private boolean containsEmpty;
+
+    /*
+     * Funzione di hash primaria usata da questa hash table. Va inizializzata
+     * nel costruttore all'atto di creazione dell'oggetto.
+     */
+    private final PrimaryHashFunction phf;
+
+    /*
+     * Capacità oltre la quale la tabella non viene più raddoppiata,
+     * MAXIMUM_CAPACITY salvo che nei test.
+     */
+    private final int maximumCapacity;
+
+    /*
+     * Contatore del numero di modifiche. Serve per rendere l'iterator
+     * fail-fast.
+     */
+    private int modCount;
+
+    /* Numero di celle della tabella corrente */
+    private int getCurrentCapacity() {
+        return this.table.length;
+    }
+
+    /*
+     * Valore corrente soglia oltre la quale si deve fare la resize,
+     * getCurrentCapacity * LOAD_FACTOR
+     */
+    private int getCurrentThreshold() {
+        return (int) (getCurrentCapacity() * LOAD_FACTOR);
+    }
+
+    /**
+     * Costruisce un insieme vuoto con capacità iniziale di default e fattore
+     * di caricamento di default.
+     *
+     * @param phf
+     *                la funzione di hash primaria da usare
+     * @throws NullPointerException
+     *                                  se la funzione di hash è nulla
+     */
+    public IntOpenAddressingHashSet(PrimaryHashFunction phf) {
+        this(phf, MAXIMUM_CAPACITY);
+    }
+
+    /*
+     * Only for JUnit testing purposes: permette di provare il riempimento
+     * della tabella con una capacità massima piccola, potenza di due non
+     * minore di INITIAL_CAPACITY.
+     */
+    IntOpenAddressingHashSet(PrimaryHashFunction phf, int maximumCapacity) {
+        if (phf == null)
+            throw new NullPointerException("Funzione di hash nulla.");
+        this.phf = phf;
+        this.maximumCapacity = maximumCapacity;
+        this.table = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.containsEmpty = false;
+        this.modCount = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Determina se l'intero passato appartiene all'insieme, senza allocare
+     * oggetti.
+     *
+     * @param key
+     *                l'intero da cercare
+     * @return true se l'intero è presente, false altrimenti
+     */
+    public boolean contains(int key) {
+        if (key == EMPTY)
+            return this.containsEmpty;
+        return this.indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null)
+            throw new NullPointerException("Elemento inesistente.");
+        if (!(o instanceof Integer))
+            return false;
+        return this.contains(((Integer) o).intValue());
+    }
+
+    /**
+     * Aggiunge l'intero passato all'insieme, senza allocare oggetti.
+     *
+     * @param key
+     *                l'intero da aggiungere
+     * @return true se l'intero è stato aggiunto, false se era già presente
+     * @throws IllegalStateException
+     *                                   se la tabella ha raggiunto la
+     *                                   capacità massima e ha una sola cella
+     *                                   vuota
+     */
+    public boolean add(int key) {
+        if (key == EMPTY) {
+            if (this.containsEmpty)
+                return false;
+            this.containsEmpty = true;
+        } else {
+            int mask = this.getCurrentCapacity() - 1;
+            int i = this.phf.hash(key, this.getCurrentCapacity());
+            // scorro il blocco di celle occupate fino a trovare la chiave o
+            // una cella vuota
+            while (this.table[i] != EMPTY) {
+                if (this.table[i] == key)
+                    return false;
+                i = (i + 1) & mask;
+            }
+            // resta sempre almeno una cella vuota, altrimenti le scansioni
+            // di una chiave assente non terminerebbero
+            int occupied = this.containsEmpty ? this.size - 1 : this.size;
+            if (occupied + 1 >= this.getCurrentCapacity())
+                throw new IllegalStateException("Tabella piena.");
+            this.table[i] = key;
+        }
+
+        this.size++;
+        this.modCount++;
+
+        // se la tabella ha superato la soglia del fattore di carico, estendo
+        if (this.size > this.getCurrentThreshold()
+                && this.getCurrentCapacity() < this.maximumCapacity)
+            this.resize();
+
+        return true;
+    }
+
+    @Override
+    public boolean add(Integer e) {
+        if (e == null)
+            throw new NullPointerException("Elemento inesistente.");
+        return this.add(e.intValue());
+    }
+
+    /**
+     * Rimuove l'intero passato dall'insieme, senza allocare oggetti.
+     *
+     * @param key
+     *                l'intero da rimuovere
+     * @return true se l'intero era presente ed è stato rimosso, false
+     *         altrimenti
+     */
+    public boolean remove(int key) {
+        if (key == EMPTY) {
+            if (!this.containsEmpty)
+                return false;
+            this.containsEmpty = false;
+        } else {
+            int i = this.indexOf(key);
+            if (i < 0)
+                return false;
+            this.shiftBack(i);
+        }
+        this.size--;
+        this.modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null)
+            throw new NullPointerException("Elemento inesistente.");
+        if (!(o instanceof Integer))
+            return false;
+        return this.remove(((Integer) o).intValue());
+    }
+
+    /*
+     * Restituisce la posizione nella tabella della chiave passata, diversa da
+     * EMPTY, oppure -1 se non è presente.
+     */
+    private int indexOf(int key) {
+        int mask = this.getCurrentCapacity() - 1;
+        int i = this.phf.hash(key, this.getCurrentCapacity());
+        while (this.table[i] != EMPTY) {
+            if (this.table[i] == key)
+                return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /*
+     * Libera la cella di posizione free e sposta all'indietro gli elementi
+     * successivi dello stesso blocco la cui posizione di partenza non si trova
+     * (ciclicamente) tra free e la loro posizione attuale. Al termine nessuna
+     * scansione attraversa una cella vuota che prima non c'era.
+     */
+    private void shiftBack(int free) {
+        int mask = this.getCurrentCapacity() - 1;
+        int j = free;
+        while (true) {
+            j = (j + 1) & mask;
+            int key = this.table[j];
+            if (key == EMPTY)
+                break;
+            int home = this.phf.hash(key, this.getCurrentCapacity());
+            // distanze cicliche dalla posizione di partenza
+            if (((j - home) & mask) >= ((j - free) & mask)) {
+                this.table[free] = key;
+                free = j;
+            }
+        }
+        this.table[free] = EMPTY;
+    }
+
+    /*
+     * Raddoppia la tabella corrente e riposiziona tutti gli elementi. Da
+     * chiamare quando this.size diventa maggiore di getCurrentThreshold()
+     */
+    private void resize() {
+        int[] oldTable = this.table;
+        this.table = new int[oldTable.length * 2];
+        int mask = this.getCurrentCapacity() - 1;
+        for (int key : oldTable) {
+            if (key != EMPTY) {
+                int i = this.phf.hash(key, this.getCurrentCapacity());
+                while (this.table[i] != EMPTY)
+                    i = (i + 1) & mask;
+                this.table[i] = key;
+            }
+        }
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new Itr();
+    }
+
+    /*
+     * Lista degli elementi nell'ordine dell'iteratore
+     */
+    private ArrayList<Integer> toList() {
+        ArrayList<Integer> list = new ArrayList<Integer>(this.size);
+        for (PrimitiveIterator.OfInt itr = this.iterator(); itr.hasNext();)
+            list.add(itr.nextInt());
+        return list;
+    }
+
+    @Override
+    public Object[] toArray() {
+        return this.toList().toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return this.toList().toArray(a);
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c)
+            if (!this.contains(o))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Integer> c) {
+        boolean flag = false;
+        for (Integer e : c)
+            if (this.add(e))
+                flag = true;
+        return flag;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        if (c == null)
+            throw new NullPointerException("Collezione inesistente.");
+        // raccolgo prima gli elementi da eliminare: la cancellazione sposta
+        // gli elementi della tabella e invaliderebbe l'iteratore
+        int[] remove = new int[this.size];
+        int n = 0;
+        for (PrimitiveIterator.OfInt itr = this.iterator(); itr.hasNext();) {
+            int key = itr.nextInt();
+            if (!c.contains(key))
+                remove[n++] = key;
+        }
+        for (int i = 0; i < n; i++)
+            this.remove(remove[i]);
+        return n > 0;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean flag = false;
+        for (Object o : c)
+            if (this.remove(o))
+                flag = true;
+        return flag;
+    }
+
+    @Override
+    public void clear() {
+        // Ritorno alla situazione iniziale
+        this.table = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.containsEmpty = false;
+        this.modCount++;
+    }
+
+    /*
+     * Iteratore fail-fast sugli elementi dell'insieme. Restituisce prima
+     * l'eventuale valore EMPTY e poi gli elementi della tabella nell'ordine
+     * delle celle. Il metodo nextInt() non alloca oggetti.
+     */
+    private class Itr implements PrimitiveIterator.OfInt {
+
+        // posizione della prossima cella da esaminare
+        private int index;
+
+        // true se il valore EMPTY deve ancora essere restituito
+        private boolean emptyPending;
+
+        // var di appoggio per le modifiche attese
+        private final int numeroModificheAtteso;
+
+        private Itr() {
+            this.numeroModificheAtteso = IntOpenAddressingHashSet.this.modCount;
+            this.emptyPending = IntOpenAddressingHashSet.this.containsEmpty;
+            this.index = 0;
+            this.advance();
+        }
+
+        /*
+         * Porta index sulla prima cella occupata a partire da quella corrente
+         */
+        private void advance() {
+            int[] t = IntOpenAddressingHashSet.this.table;
+            while (this.index < t.length && t[this.index] == EMPTY)
+                this.index++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.emptyPending
+                    || this.index < IntOpenAddressingHashSet.this.table.length;
+        }
+
+        @Override
+        public int nextInt() {
+            // controllo concorrenza
+            if (this.numeroModificheAtteso != IntOpenAddressingHashSet.this.modCount)
+                throw new ConcurrentModificationException(
+                        "Tabella modificata durante l'iterazione");
+            if (!hasNext())
+                throw new NoSuchElementException(
+                        "Richiesta di next quando hasNext è falso");
+            if (this.emptyPending) {
+                this.emptyPending = false;
+                return EMPTY;
+            }
+            int key = IntOpenAddressingHashSet.this.table[this.index++];
+            this.advance();
+            return key;
+        }
+
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected int[] getTable() {
+        return this.table;
+    }
+
+}
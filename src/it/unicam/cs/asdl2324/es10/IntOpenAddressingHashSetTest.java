@@ -0,0 +1,245 @@
+package it.unicam.cs.asdl2324.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe IntOpenAddressingHashSet
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+class IntOpenAddressingHashSetTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    final void testConstructorNull() {
+        assertThrows(NullPointerException.class,
+                () -> new IntOpenAddressingHashSet(null));
+    }
+
+    @Test
+    void divisionHash_testAddContains() {
+        IntOpenAddressingHashSet set = new IntOpenAddressingHashSet(divisionHash);
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.contains(42));
+        assertFalse(set.contains(10));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void multiplicationHash_testAddContains() {
+        IntOpenAddressingHashSet set = new IntOpenAddressingHashSet(
+                multiplicationHash);
+        assertTrue(set.add(-42));
+        assertFalse(set.add(-42));
+        assertTrue(set.contains(-42));
+        assertFalse(set.contains(42));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    void divisionHash_testFullAtMaximumCapacity() {
+        IntOpenAddressingHashSet set = new IntOpenAddressingHashSet(
+                divisionHash, 32);
+        // un raddoppio fino a 32 celle, poi la tabella si riempie
+        for (int k = 1; k <= 31; k++)
+            assertTrue(set.add(k));
+        assertEquals(32, set.getTable().length);
+        assertThrows(IllegalStateException.class, () -> set.add(100));
+        assertFalse(set.add(5));
+        // lo zero non occupa celle
+        assertTrue(set.add(0));
+        // le scansioni di una chiave assente terminano
+        assertFalse(set.contains(100));
+        assertFalse(set.remove(100));
+        // una cella liberata può essere riusata
+        assertTrue(set.remove(7));
+        assertTrue(set.add(100));
+        assertThrows(IllegalStateException.class, () -> set.add(7));
+        assertEquals(32, set.size());
+    }
+
+    @Test
+    void divisionHash_testToArrayRetainAll() {
+        IntOpenAddressingHashSet set = new IntOpenAddressingHashSet(divisionHash);
+        for (int i = 0; i < 100; i++)
+            set.add(i);
+        Object[] array = set.toArray();
+        assertEquals(100, array.length);
+        Set<Object> seen = new HashSet<Object>();
+        for (Object o : array)
+            assertTrue(seen.add(o));
+        Integer[] typed = set.toArray(new Integer[0]);
+        assertEquals(100, typed.length);
+        Set<Integer> even = new HashSet<Integer>();
+        for (int i = 0; i < 200; i += 2)
+            even.add(i);
+        assertTrue(set.retainAll(even));
+        assertFalse(set.retainAll(even));
+        assertEquals(50, set.size());
+        for (int i = 0; i < 100; i++)
+            assertEquals(i % 2 == 0, set.contains(i));
+        assertThrows(NullPointerException.class, () -> set.retainAll(null));
+    }
+
+    @Test
+    void divisionHash_testSentinel() {
+        IntOpenAddressingHashSet set = new IntOpenAddressingHashSet(divisionHash);
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+        Iterator<Integer> it = set.iterator();
+        assertEquals(Integer.valueOf(0), it.next());
+        assertFalse(it.hasNext());
+        assertTrue(set.remove(0));
+        assertFalse(set.remove(0));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void divisionHash_testNull() {
+        IntOpenAddressingHashSet set = new IntOpenAddressingHashSet(divisionHash);
+        assertThrows(NullPointerException.class, () -> set.add(null));
+        assertThrows(NullPointerException.class, () -> set.contains(null));
+        assertThrows(NullPointerException.class, () -> set.remove(null));
+    }
+
+    @Test
+    void divisionHash_testNotInteger() {
+        IntOpenAddressingHashSet set = new IntOpenAddressingHashSet(divisionHash);
+        set.add(42);
+        assertFalse(set.contains("42"));
+        assertFalse(set.remove(42L));
+    }
+
+    @Test
+    void divisionHash_testRemoveInCollisionBlock() {
+        IntOpenAddressingHashSet set = new IntOpenAddressingHashSet(divisionHash);
+        // tutti nella stessa posizione di partenza di una tabella da 16
+        set.add(1);
+        set.add(17);
+        set.add(33);
+        set.add(2);
+        assertTrue(set.remove(17));
+        assertTrue(set.contains(1));
+        assertTrue(set.contains(33));
+        assertTrue(set.contains(2));
+        assertFalse(set.contains(17));
+        assertTrue(set.remove(1));
+        assertTrue(set.contains(33));
+        assertTrue(set.contains(2));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    void divisionHash_testRemoveWrapAround() {
+        IntOpenAddressingHashSet set = new IntOpenAddressingHashSet(divisionHash);
+        // blocco che attraversa la fine della tabella da 16
+        set.add(15);
+        set.add(31);
+        set.add(47);
+        set.add(16);
+        assertTrue(set.remove(15));
+        assertTrue(set.contains(31));
+        assertTrue(set.contains(47));
+        assertTrue(set.contains(16));
+        assertTrue(set.remove(31));
+        assertTrue(set.contains(47));
+        assertTrue(set.contains(16));
+    }
+
+    @Test
+    void divisionHash_testShouldResize() {
+        IntOpenAddressingHashSet set = new IntOpenAddressingHashSet(divisionHash);
+        for (int i = 1; i <= 12; i++)
+            set.add(i);
+        int tableLengthBeforeAdd = set.getTable().length;
+        set.add(13);
+        assertEquals(tableLengthBeforeAdd * 2, set.getTable().length);
+    }
+
+    @Test
+    void divisionHash_testShouldNotResize() {
+        IntOpenAddressingHashSet set = new IntOpenAddressingHashSet(divisionHash);
+        for (int i = 1; i <= 11; i++)
+            set.add(i);
+        int tableLengthBeforeAdd = set.getTable().length;
+        set.add(12);
+        assertEquals(tableLengthBeforeAdd, set.getTable().length);
+    }
+
+    @Test
+    void multiplicationHash_testRandomAgainstHashSet() {
+        IntOpenAddressingHashSet set = new IntOpenAddressingHashSet(
+                multiplicationHash);
+        Set<Integer> expected = new HashSet<Integer>();
+        Random r = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            int key = r.nextInt(2000) - 1000;
+            if (r.nextBoolean())
+                assertEquals(expected.add(key), set.add(key));
+            else
+                assertEquals(expected.remove(key), set.remove(key));
+        }
+        assertEquals(expected.size(), set.size());
+        for (int key = -1000; key < 1000; key++)
+            assertEquals(expected.contains(key), set.contains(key));
+    }
+
+    @Test
+    void multiplicationHash_testIterator() {
+        IntOpenAddressingHashSet set = new IntOpenAddressingHashSet(
+                multiplicationHash);
+        Set<Integer> expected = new HashSet<Integer>();
+        for (int i = -50; i < 50; i++) {
+            set.add(i * 7);
+            expected.add(i * 7);
+        }
+        Set<Integer> found = new HashSet<Integer>();
+        PrimitiveIterator.OfInt it = set.iterator();
+        while (it.hasNext())
+            assertTrue(found.add(it.nextInt()));
+        assertEquals(expected, found);
+    }
+
+    @Test
+    void divisionHash_testIteratorShouldFailFast() {
+        IntOpenAddressingHashSet set = new IntOpenAddressingHashSet(divisionHash);
+        for (int i = 1; i <= 11; i++)
+            set.add(i);
+        Iterator<Integer> it = set.iterator();
+        it.next();
+        set.add(42);
+        assertThrows(ConcurrentModificationException.class, () -> {
+            it.next();
+        });
+    }
+
+    @Test
+    void divisionHash_testClear() {
+        IntOpenAddressingHashSet set = new IntOpenAddressingHashSet(divisionHash);
+        for (int i = 0; i < 100; i++)
+            set.add(i);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(50));
+        assertFalse(set.iterator().hasNext());
+    }
+
+}
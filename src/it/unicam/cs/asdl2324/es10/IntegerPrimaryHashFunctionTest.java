@@ -0,0 +1,111 @@
+package it.unicam.cs.asdl2324.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per le funzioni di hash primarie che usano solo
+ * aritmetica intera
+ * 
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+class IntegerPrimaryHashFunctionTest {
+
+    private PrimaryHashFunction[] functions = {
+            new FibonacciPrimaryHashFunction(),
+            new Murmur3PrimaryHashFunction(),
+            new WyhashPrimaryHashFunction() };
+
+    @Test
+    final void testRange() {
+        Random r = new Random(42);
+        int[] sizes = { 1, 7, 16, 100, 1024, 1 << 30, Integer.MAX_VALUE };
+        for (PrimaryHashFunction phf : functions)
+            for (int m : sizes)
+                for (int i = 0; i < 10000; i++) {
+                    int h = phf.hash(r.nextInt(), m);
+                    assertTrue(h >= 0 && h < m, phf.getClass().getSimpleName()
+                            + " fuori intervallo per m = " + m);
+                }
+    }
+
+    @Test
+    final void testExtremeKeys() {
+        int[] keys = { 0, 1, -1, Integer.MIN_VALUE, Integer.MAX_VALUE };
+        for (PrimaryHashFunction phf : functions)
+            for (int key : keys) {
+                int h = phf.hash(key, 16);
+                assertTrue(h >= 0 && h < 16);
+            }
+    }
+
+    @Test
+    final void testDeterministic() {
+        for (PrimaryHashFunction phf : functions)
+            for (int key = -1000; key < 1000; key++)
+                assertEquals(phf.hash(key, 1024), phf.hash(key, 1024));
+    }
+
+    @Test
+    final void testFibonacciPowerOfTwoIsShift() {
+        PrimaryHashFunction phf = new FibonacciPrimaryHashFunction();
+        Random r = new Random(42);
+        for (int p = 1; p < 31; p++)
+            for (int i = 0; i < 1000; i++) {
+                int key = r.nextInt();
+                assertEquals((key * 0x9E3779B9) >>> (32 - p),
+                        phf.hash(key, 1 << p));
+            }
+    }
+
+    @Test
+    final void testFibonacciAgreesWithMultiplication() {
+        // stessa costante del metodo della moltiplicazione, a meno di errori
+        // di arrotondamento della virgola mobile per chiavi grandi
+        PrimaryHashFunction fib = new FibonacciPrimaryHashFunction();
+        PrimaryHashFunction mul = new MultiplicationPrimaryHashFunction();
+        int agree = 0;
+        for (int key = 0; key < 10000; key++)
+            if (fib.hash(key, 1024) == mul.hash(key, 1024))
+                agree++;
+        assertTrue(agree > 9900);
+    }
+
+    @Test
+    final void testWyhashUnsignedProduct() {
+        // la riduzione usa il prodotto senza segno a 128 bit, come wyhash
+        PrimaryHashFunction phf = new WyhashPrimaryHashFunction();
+        BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        BigInteger p1 = new BigInteger("E7037ED1A0B428DB", 16);
+        Random r = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            int key = i < 5 ? new int[] { 0, 1, -1, Integer.MIN_VALUE,
+                    Integer.MAX_VALUE }[i] : r.nextInt();
+            long a = key ^ 0xA0761D6478BD642FL;
+            BigInteger product = BigInteger.valueOf(a).and(mask).multiply(p1);
+            long mixed = product.shiftRight(64).longValue()
+                    ^ product.longValue();
+            int h = (int) (mixed ^ (mixed >>> 32));
+            assertEquals((int) (((h & 0xFFFFFFFFL) * 1000) >>> 32),
+                    phf.hash(key, 1000));
+        }
+    }
+
+    @Test
+    final void testSequentialKeysSpread() {
+        // 1024 chiavi consecutive in 1024 bucket: nessun bucket sovraccarico
+        for (PrimaryHashFunction phf : functions) {
+            int[] load = new int[1024];
+            for (int key = 0; key < 1024; key++)
+                load[phf.hash(key << 10, 1024)]++;
+            for (int l : load)
+                assertTrue(l <= 8, phf.getClass().getSimpleName());
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+/**
+ * 
+ */
+package it.unicam.cs.asdl2324.es10;
+
+/**
+ * Implementa una funzione di hash primaria che rimescola i bit della chiave
+ * con il finalizzatore di MurmurHash3 (fmix32): due moltiplicazioni per
+ * costanti dispari alternate a shift e xor, per cui ogni bit della chiave
+ * influenza tutti i bit del risultato. Il valore rimescolato h viene poi
+ * ridotto all'intervallo [0, m) come i 32 bit alti di h * m, senza usare
+ * l'operatore %.
+ * 
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class Murmur3PrimaryHashFunction implements PrimaryHashFunction {
+
+    /* (non-Javadoc)
+     * @see it.unicam.cs.asdl2324.es10.PrimaryHashFunction#hash(int, int)
+     */
+    @Override
+    public int hash(int key, int m) {
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return (int) (((h & 0xFFFFFFFFL) * m) >>> 32);
+    }
+
+}
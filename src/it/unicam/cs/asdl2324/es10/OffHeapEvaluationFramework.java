@@ -0,0 +1,177 @@
+package it.unicam.cs.asdl2324.es10;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.SplittableRandom;
+
+/**
+ * Confronta CollisionListResizableHashTable<Long> e OffHeapLongHashSet sugli
+ * stessi insiemi di long casuali di dimensione crescente. Per ogni tabella
+ * sono misurati il tempo di inserimento di tutti gli elementi e di ricerca di
+ * tutti gli elementi presenti, la memoria heap e quella fuori dallo heap
+ * (ByteBuffer diretti) occupate dalla tabella piena, il numero e la durata
+ * complessiva delle garbage collection avvenute durante inserimenti e
+ * ricerche e la durata di una garbage collection completa richiesta con la
+ * tabella piena ancora in uso. I tempi sono in millisecondi e i dati sono
+ * scritti sul file offheap.csv.
+ *
+ * Le chiavi sono generate due volte dallo stesso seme invece di essere
+ * memorizzate in un array, che alle dimensioni maggiori occuperebbe a sua
+ * volta lo heap.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente) e con le dimensioni da provare come parametri
+ * successivi (altrimenti si usano quelle di SIZES). Con 100 milioni di chiavi
+ * la tabella con liste di collisione richiede circa 8 GB di heap (-Xmx),
+ * quella fuori dallo heap circa 2 GB di memoria diretta
+ * (-XX:MaxDirectMemorySize).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class OffHeapEvaluationFramework {
+
+    /**
+     * Dimensioni di default degli insiemi da generare
+     */
+    public static final int[] SIZES = { 10_000_000, 100_000_000 };
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int[] sizes = SIZES;
+        if (args.length > 1) {
+            sizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++)
+                sizes[i - 1] = Integer.parseInt(args[i]);
+        }
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "offheap.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "offheap.csv");
+            System.exit(1);
+        }
+        o.println("Table,N,AddMs,ContainsMs,HeapBytes,DirectBytes,GcCount,GcMs,FullGcMs");
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        for (int n : sizes) {
+            // Tabella con liste di collisione
+            long heapBefore = usedHeap();
+            long directBefore = usedDirect();
+            long gcCountBefore = gcCount();
+            long gcTimeBefore = gcTime();
+            CollisionListResizableHashTable<Long> chained = new CollisionListResizableHashTable<Long>(
+                    phf);
+            SplittableRandom random = new SplittableRandom(n);
+            long start = System.nanoTime();
+            for (int i = 0; i < n; i++)
+                chained.add(random.nextLong());
+            long addT = System.nanoTime() - start;
+            random = new SplittableRandom(n);
+            int found = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++)
+                if (chained.contains(random.nextLong()))
+                    found++;
+            long containsT = System.nanoTime() - start;
+            long gcCount = gcCount() - gcCountBefore;
+            long gcT = gcTime() - gcTimeBefore;
+            start = System.nanoTime();
+            long heap = usedHeap() - heapBefore;
+            long fullGcT = System.nanoTime() - start;
+            long direct = usedDirect() - directBefore;
+            // la tabella deve restare raggiungibile fino alle misure
+            Reference.reachabilityFence(chained);
+            o.println("CollisionListResizableHashTable," + n + ","
+                    + addT / 1_000_000 + "," + containsT / 1_000_000 + ","
+                    + heap + "," + direct + "," + gcCount + "," + gcT + ","
+                    + fullGcT / 1_000_000);
+            System.out.println("CollisionListResizableHashTable " + n
+                    + " completata (" + found + " trovati)");
+            chained = null;
+
+            // Tabella fuori dallo heap
+            heapBefore = usedHeap();
+            directBefore = usedDirect();
+            gcCountBefore = gcCount();
+            gcTimeBefore = gcTime();
+            OffHeapLongHashSet offHeap = new OffHeapLongHashSet(phf);
+            random = new SplittableRandom(n);
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++)
+                offHeap.add(random.nextLong());
+            addT = System.nanoTime() - start;
+            random = new SplittableRandom(n);
+            found = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < n; i++)
+                if (offHeap.contains(random.nextLong()))
+                    found++;
+            containsT = System.nanoTime() - start;
+            gcCount = gcCount() - gcCountBefore;
+            gcT = gcTime() - gcTimeBefore;
+            start = System.nanoTime();
+            heap = usedHeap() - heapBefore;
+            fullGcT = System.nanoTime() - start;
+            direct = usedDirect() - directBefore;
+            Reference.reachabilityFence(offHeap);
+            o.println("OffHeapLongHashSet," + n + "," + addT / 1_000_000 + ","
+                    + containsT / 1_000_000 + "," + heap + "," + direct + ","
+                    + gcCount + "," + gcT + "," + fullGcT / 1_000_000);
+            System.out.println("OffHeapLongHashSet " + n + " completata ("
+                    + found + " trovati)");
+            offHeap.close();
+        }
+        o.close();
+    } // end main
+
+    /*
+     * Stima della memoria heap attualmente occupata, dopo aver richiesto un
+     * garbage collection
+     */
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    /*
+     * Memoria attualmente occupata dai ByteBuffer diretti
+     */
+    private static long usedDirect() {
+        for (BufferPoolMXBean pool : ManagementFactory
+                .getPlatformMXBeans(BufferPoolMXBean.class))
+            if (pool.getName().equals("direct"))
+                return pool.getMemoryUsed();
+        return 0;
+    }
+
+    /*
+     * Numero complessivo di garbage collection dall'avvio
+     */
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory
+                .getGarbageCollectorMXBeans())
+            count += Math.max(0, gc.getCollectionCount());
+        return count;
+    }
+
+    /*
+     * Durata complessiva in millisecondi delle garbage collection dall'avvio
+     */
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory
+                .getGarbageCollectorMXBeans())
+            time += Math.max(0, gc.getCollectionTime());
+        return time;
+    }
+
+}
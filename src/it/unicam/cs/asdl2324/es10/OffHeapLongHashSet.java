@@ -0,0 +1,599 @@
+/**
+ *
+ */
+package it.unicam.cs.asdl2324.es10;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+
+/**
+ * Realizza un insieme di long tramite una tabella hash a indirizzamento aperto
+ * con scansione lineare, memorizzata fuori dallo heap in ByteBuffer diretti.
+ * La tabella non contiene riferimenti: il garbage collector non deve mai
+ * visitarla né spostarla, per cui anche insiemi di centinaia di milioni di
+ * chiavi non allungano le pause di garbage collection.
+ *
+ * Come nelle altre tabelle del package, la funzione di hash primaria deve
+ * essere passata come parametro nel costruttore e deve implementare
+ * l'interfaccia PrimaryHashFunction. La posizione di partenza della scansione
+ * di una chiave k è this.phf.hash(Long.hashCode(k), this.getCapacity()).
+ *
+ * Un singolo ByteBuffer non può superare i 2 GB, per cui la tabella è divisa
+ * in segmenti di al più SEGMENT_SLOTS celle da 8 byte; la cella i si trova nel
+ * segmento i / SEGMENT_SLOTS. Le celle vuote sono marcate con il valore
+ * sentinella EMPTY (zero) e la presenza di zero nell'insieme è registrata a
+ * parte in containsEmpty. La cancellazione sposta all'indietro gli elementi
+ * successivi (backward-shift deletion), come in IntOpenAddressingHashSet.
+ *
+ * Raggiunta la capacità massima (2^30 celle) la tabella non viene più
+ * raddoppiata e add lancia IllegalStateException quando resterebbe senza
+ * celle vuote.
+ *
+ * La memoria fuori dallo heap viene liberata esplicitamente da close(), e da
+ * ogni raddoppio per la tabella vecchia, senza attendere il garbage collector.
+ * Dopo close() ogni operazione lancia IllegalStateException.
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class OffHeapLongHashSet implements Set<Long>, AutoCloseable {
+
+    /*
+     * La capacità iniziale. E' una potenza di due e quindi la capacità sarà
+     * sempre una potenza di due, in quanto ogni resize raddoppia la tabella.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /*
+     * Fattore di bilanciamento di default. Tipico valore.
+     */
+    private static final double LOAD_FACTOR = 0.75;
+
+    /*
+     * Capacità massima della tabella, 8 GB fuori dallo heap.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /*
+     * Numero di celle di un segmento, 128 MB: log2 e maschera per ricavare
+     * segmento e posizione nel segmento di una cella.
+     */
+    private static final int SEGMENT_SHIFT = 24;
+
+    private static final int SEGMENT_SLOTS = 1 << SEGMENT_SHIFT;
+
+    private static final int SEGMENT_MASK = SEGMENT_SLOTS - 1;
+
+    /*
+     * Valore sentinella che indica una cella vuota della tabella.
+     */
+    private static final long EMPTY = 0L;
+
+    /*
+     * sun.misc.Unsafe e il suo metodo invokeCleaner(ByteBuffer), usati tramite
+     * reflection per liberare subito la memoria di un ByteBuffer diretto. Se
+     * non sono disponibili sono null e la memoria viene liberata dal garbage
+     * collector insieme al ByteBuffer.
+     */
+    private static Object unsafe;
+
+    private static Method invokeCleaner;
+
+    static {
+        try {
+            Class<?> c = Class.forName("sun.misc.Unsafe");
+            Field f = c.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            unsafe = f.get(null);
+            invokeCleaner = c.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+    }
+
+    /*
+     * Numero di elementi effettivamente presenti nell'insieme, compreso
+     * l'eventuale valore EMPTY.
+     */
+    private int size;
+
+    /*
+     * Numero di celle della tabella.
+     */
+    private int capacity;
+
+    /*
+     * I segmenti della tabella, null dopo close().
+     */
+    private ByteBuffer[] segments;
+
+    /*
+     * Indica se il long EMPTY appartiene all'insieme.
+     */
+    private boolean containsEmpty;
+
+    /*
+     * Funzione di hash primaria usata da questa hash table. Va inizializzata
+     * nel costruttore all'atto di creazione dell'oggetto.
+     */
+    private final PrimaryHashFunction phf;
+
+    /*
+     * Capacità oltre la quale la tabella non viene più raddoppiata,
+     * MAXIMUM_CAPACITY salvo che nei test.
+     */
+    private final int maximumCapacity;
+
+    /*
+     * Contatore del numero di modifiche. Serve per rendere l'iterator
+     * fail-fast.
+     */
+    private int modCount;
+
+    /*
+     * Valore corrente soglia oltre la quale si deve fare la resize,
+     * getCapacity * LOAD_FACTOR
+     */
+    private int getCurrentThreshold() {
+        return (int) (this.capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Costruisce un insieme vuoto con capacità iniziale di default e fattore
+     * di caricamento di default.
+     *
+     * @param phf
+     *                la funzione di hash primaria da usare
+     * @throws NullPointerException
+     *                                  se la funzione di hash è nulla
+     */
+    public OffHeapLongHashSet(PrimaryHashFunction phf) {
+        this(phf, 0);
+    }
+
+    /**
+     * Costruisce un insieme vuoto in grado di contenere il numero di elementi
+     * indicato senza dover raddoppiare la tabella.
+     *
+     * @param phf
+     *                         la funzione di hash primaria da usare
+     * @param expectedSize
+     *                         il numero di elementi che si prevede di inserire
+     * @throws NullPointerException
+     *                                      se la funzione di hash è nulla
+     * @throws IllegalArgumentException
+     *                                      se expectedSize è negativo
+     */
+    public OffHeapLongHashSet(PrimaryHashFunction phf, int expectedSize) {
+        this(phf, expectedSize, MAXIMUM_CAPACITY);
+    }
+
+    /*
+     * Only for JUnit testing purposes: permette di provare il riempimento
+     * della tabella con una capacità massima piccola, potenza di due non
+     * minore di INITIAL_CAPACITY.
+     */
+    OffHeapLongHashSet(PrimaryHashFunction phf, int expectedSize,
+            int maximumCapacity) {
+        if (phf == null)
+            throw new NullPointerException("Funzione di hash nulla.");
+        if (expectedSize < 0)
+            throw new IllegalArgumentException(
+                    "Numero di elementi previsto negativo.");
+        this.phf = phf;
+        this.maximumCapacity = maximumCapacity;
+        int capacity = INITIAL_CAPACITY;
+        while (capacity < maximumCapacity
+                && (int) (capacity * LOAD_FACTOR) < expectedSize)
+            capacity *= 2;
+        this.capacity = capacity;
+        this.segments = allocate(capacity);
+        this.size = 0;
+        this.containsEmpty = false;
+        this.modCount = 0;
+    }
+
+    /*
+     * Alloca i segmenti, azzerati, per una tabella della capacità indicata.
+     */
+    private static ByteBuffer[] allocate(int capacity) {
+        int n = Math.max(1, capacity >>> SEGMENT_SHIFT);
+        int slots = Math.min(capacity, SEGMENT_SLOTS);
+        ByteBuffer[] segments = new ByteBuffer[n];
+        for (int i = 0; i < n; i++)
+            segments[i] = ByteBuffer.allocateDirect(slots * Long.BYTES)
+                    .order(ByteOrder.nativeOrder());
+        return segments;
+    }
+
+    /*
+     * Libera subito la memoria dei segmenti, se possibile.
+     */
+    private static void free(ByteBuffer[] segments) {
+        if (invokeCleaner == null)
+            return;
+        try {
+            for (ByteBuffer b : segments)
+                invokeCleaner.invoke(unsafe, b);
+        } catch (ReflectiveOperationException e) {
+            // la memoria sarà liberata dal garbage collector
+        }
+    }
+
+    /*
+     * Contenuto della cella i della tabella rappresentata da segments.
+     */
+    private static long get(ByteBuffer[] segments, int i) {
+        return segments[i >>> SEGMENT_SHIFT]
+                .getLong((i & SEGMENT_MASK) << 3);
+    }
+
+    private static void set(ByteBuffer[] segments, int i, long key) {
+        segments[i >>> SEGMENT_SHIFT].putLong((i & SEGMENT_MASK) << 3, key);
+    }
+
+    /*
+     * Posizione di partenza della scansione della chiave in una tabella di
+     * capacità m.
+     */
+    private int home(long key, int m) {
+        return this.phf.hash(Long.hashCode(key), m);
+    }
+
+    private void ensureOpen() {
+        if (this.segments == null)
+            throw new IllegalStateException("Tabella chiusa.");
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Determina se il long passato appartiene all'insieme, senza allocare
+     * oggetti.
+     *
+     * @param key
+     *                il long da cercare
+     * @return true se il long è presente, false altrimenti
+     * @throws IllegalStateException
+     *                                   se l'insieme è stato chiuso
+     */
+    public boolean contains(long key) {
+        this.ensureOpen();
+        if (key == EMPTY)
+            return this.containsEmpty;
+        return this.indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null)
+            throw new NullPointerException("Elemento inesistente.");
+        if (!(o instanceof Long))
+            return false;
+        return this.contains(((Long) o).longValue());
+    }
+
+    /**
+     * Aggiunge il long passato all'insieme, senza allocare oggetti.
+     *
+     * @param key
+     *                il long da aggiungere
+     * @return true se il long è stato aggiunto, false se era già presente
+     * @throws IllegalStateException
+     *                                   se l'insieme è stato chiuso, o se la
+     *                                   tabella ha raggiunto la capacità
+     *                                   massima e ha una sola cella vuota
+     */
+    public boolean add(long key) {
+        this.ensureOpen();
+        if (key == EMPTY) {
+            if (this.containsEmpty)
+                return false;
+            this.containsEmpty = true;
+        } else {
+            int mask = this.capacity - 1;
+            int i = this.home(key, this.capacity);
+            // scorro il blocco di celle occupate fino a trovare la chiave o
+            // una cella vuota
+            long current;
+            while ((current = get(this.segments, i)) != EMPTY) {
+                if (current == key)
+                    return false;
+                i = (i + 1) & mask;
+            }
+            // resta sempre almeno una cella vuota, altrimenti le scansioni
+            // di una chiave assente non terminerebbero
+            int occupied = this.containsEmpty ? this.size - 1 : this.size;
+            if (occupied + 1 >= this.capacity)
+                throw new IllegalStateException("Tabella piena.");
+            set(this.segments, i, key);
+        }
+
+        this.size++;
+        this.modCount++;
+
+        // se la tabella ha superato la soglia del fattore di carico, estendo
+        if (this.size > this.getCurrentThreshold()
+                && this.capacity < this.maximumCapacity)
+            this.resize();
+
+        return true;
+    }
+
+    @Override
+    public boolean add(Long e) {
+        if (e == null)
+            throw new NullPointerException("Elemento inesistente.");
+        return this.add(e.longValue());
+    }
+
+    /**
+     * Rimuove il long passato dall'insieme, senza allocare oggetti.
+     *
+     * @param key
+     *                il long da rimuovere
+     * @return true se il long era presente ed è stato rimosso, false
+     *         altrimenti
+     * @throws IllegalStateException
+     *                                   se l'insieme è stato chiuso
+     */
+    public boolean remove(long key) {
+        this.ensureOpen();
+        if (key == EMPTY) {
+            if (!this.containsEmpty)
+                return false;
+            this.containsEmpty = false;
+        } else {
+            int i = this.indexOf(key);
+            if (i < 0)
+                return false;
+            this.shiftBack(i);
+        }
+        this.size--;
+        this.modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (o == null)
+            throw new NullPointerException("Elemento inesistente.");
+        if (!(o instanceof Long))
+            return false;
+        return this.remove(((Long) o).longValue());
+    }
+
+    /*
+     * Restituisce la posizione nella tabella della chiave passata, diversa da
+     * EMPTY, oppure -1 se non è presente.
+     */
+    private int indexOf(long key) {
+        int mask = this.capacity - 1;
+        int i = this.home(key, this.capacity);
+        long current;
+        while ((current = get(this.segments, i)) != EMPTY) {
+            if (current == key)
+                return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /*
+     * Libera la cella di posizione free e sposta all'indietro gli elementi
+     * successivi dello stesso blocco la cui posizione di partenza non si trova
+     * (ciclicamente) tra free e la loro posizione attuale.
+     */
+    private void shiftBack(int free) {
+        int mask = this.capacity - 1;
+        int j = free;
+        while (true) {
+            j = (j + 1) & mask;
+            long key = get(this.segments, j);
+            if (key == EMPTY)
+                break;
+            int home = this.home(key, this.capacity);
+            // distanze cicliche dalla posizione di partenza
+            if (((j - home) & mask) >= ((j - free) & mask)) {
+                set(this.segments, free, key);
+                free = j;
+            }
+        }
+        set(this.segments, free, EMPTY);
+    }
+
+    /*
+     * Raddoppia la tabella corrente, riposiziona tutti gli elementi e libera
+     * subito i segmenti vecchi. Da chiamare quando this.size diventa maggiore
+     * di getCurrentThreshold(). I nuovi segmenti e la nuova capacità vengono
+     * pubblicati solo dopo che l'allocazione è riuscita: se allocate lancia
+     * OutOfMemoryError la tabella resta quella vecchia, ancora valida.
+     */
+    private void resize() {
+        ByteBuffer[] oldSegments = this.segments;
+        int oldCapacity = this.capacity;
+        int newCapacity = oldCapacity * 2;
+        ByteBuffer[] newSegments = allocate(newCapacity);
+        int mask = newCapacity - 1;
+        for (int j = 0; j < oldCapacity; j++) {
+            long key = get(oldSegments, j);
+            if (key != EMPTY) {
+                int i = this.home(key, newCapacity);
+                while (get(newSegments, i) != EMPTY)
+                    i = (i + 1) & mask;
+                set(newSegments, i, key);
+            }
+        }
+        this.segments = newSegments;
+        this.capacity = newCapacity;
+        free(oldSegments);
+    }
+
+    /**
+     * Libera la memoria fuori dallo heap occupata dalla tabella. Dopo la
+     * chiusura ogni operazione sugli elementi lancia IllegalStateException;
+     * chiudere più volte non ha effetto.
+     */
+    @Override
+    public void close() {
+        if (this.segments == null)
+            return;
+        ByteBuffer[] oldSegments = this.segments;
+        this.segments = null;
+        this.size = 0;
+        this.containsEmpty = false;
+        this.modCount++;
+        free(oldSegments);
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        this.ensureOpen();
+        return new Itr();
+    }
+
+    @Override
+    public Object[] toArray() {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        for (Object o : c)
+            if (!this.contains(o))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Long> c) {
+        boolean flag = false;
+        for (Long e : c)
+            if (this.add(e))
+                flag = true;
+        return flag;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean flag = false;
+        for (Object o : c)
+            if (this.remove(o))
+                flag = true;
+        return flag;
+    }
+
+    @Override
+    public void clear() {
+        this.ensureOpen();
+        // Ritorno alla situazione iniziale: alloco prima i nuovi segmenti,
+        // così se l'allocazione fallisce quelli vecchi restano validi
+        ByteBuffer[] oldSegments = this.segments;
+        this.segments = allocate(INITIAL_CAPACITY);
+        this.capacity = INITIAL_CAPACITY;
+        this.size = 0;
+        this.containsEmpty = false;
+        this.modCount++;
+        free(oldSegments);
+    }
+
+    /*
+     * Iteratore fail-fast sugli elementi dell'insieme. Restituisce prima
+     * l'eventuale valore EMPTY e poi gli elementi della tabella nell'ordine
+     * delle celle. Il metodo nextLong() non alloca oggetti.
+     */
+    private class Itr implements PrimitiveIterator.OfLong {
+
+        // posizione della prossima cella da esaminare
+        private int index;
+
+        // true se il valore EMPTY deve ancora essere restituito
+        private boolean emptyPending;
+
+        // var di appoggio per le modifiche attese
+        private final int numeroModificheAtteso;
+
+        private Itr() {
+            this.numeroModificheAtteso = OffHeapLongHashSet.this.modCount;
+            this.emptyPending = OffHeapLongHashSet.this.containsEmpty;
+            this.index = 0;
+            this.advance();
+        }
+
+        /*
+         * Porta index sulla prima cella occupata a partire da quella corrente
+         */
+        private void advance() {
+            OffHeapLongHashSet s = OffHeapLongHashSet.this;
+            while (this.index < s.capacity
+                    && get(s.segments, this.index) == EMPTY)
+                this.index++;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.emptyPending
+                    || this.index < OffHeapLongHashSet.this.capacity;
+        }
+
+        @Override
+        public long nextLong() {
+            // controllo concorrenza
+            if (this.numeroModificheAtteso != OffHeapLongHashSet.this.modCount)
+                throw new ConcurrentModificationException(
+                        "Tabella modificata durante l'iterazione");
+            if (!hasNext())
+                throw new NoSuchElementException(
+                        "Richiesta di next quando hasNext è falso");
+            if (this.emptyPending) {
+                this.emptyPending = false;
+                return EMPTY;
+            }
+            long key = get(OffHeapLongHashSet.this.segments, this.index++);
+            this.advance();
+            return key;
+        }
+
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected int getCapacity() {
+        return this.capacity;
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected int getSegmentCount() {
+        return this.segments.length;
+    }
+
+}
@@ -0,0 +1,195 @@
+package it.unicam.cs.asdl2324.es10;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test JUnit per la classe OffHeapLongHashSet
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+class OffHeapLongHashSetTest {
+
+    private PrimaryHashFunction divisionHash = new DivisionPrimaryHashFunction();
+
+    private PrimaryHashFunction multiplicationHash = new MultiplicationPrimaryHashFunction();
+
+    @Test
+    final void testConstructorNull() {
+        assertThrows(NullPointerException.class,
+                () -> new OffHeapLongHashSet(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OffHeapLongHashSet(divisionHash, -1));
+    }
+
+    @Test
+    void divisionHash_testAddContainsRemove() {
+        try (OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash)) {
+            assertTrue(set.add(42L));
+            assertFalse(set.add(42L));
+            assertTrue(set.add(Long.MIN_VALUE));
+            assertTrue(set.contains(42L));
+            assertTrue(set.contains(Long.MIN_VALUE));
+            assertFalse(set.contains(10L));
+            assertFalse(set.contains(Integer.valueOf(42)));
+            assertEquals(2, set.size());
+            assertTrue(set.remove(42L));
+            assertFalse(set.remove(42L));
+            assertEquals(1, set.size());
+        }
+    }
+
+    @Test
+    void divisionHash_testSentinel() {
+        try (OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash)) {
+            assertFalse(set.contains(0L));
+            assertTrue(set.add(0L));
+            assertFalse(set.add(0L));
+            assertTrue(set.contains(0L));
+            assertEquals(1, set.size());
+            assertTrue(set.remove(0L));
+            assertFalse(set.contains(0L));
+            assertTrue(set.isEmpty());
+        }
+    }
+
+    @Test
+    void divisionHash_testFullAtMaximumCapacity() {
+        try (OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash, 0,
+                32)) {
+            // un raddoppio fino a 32 celle, poi la tabella si riempie
+            for (long k = 1; k <= 31; k++)
+                assertTrue(set.add(k));
+            assertThrows(IllegalStateException.class, () -> set.add(100L));
+            assertFalse(set.add(5L));
+            // lo zero non occupa celle
+            assertTrue(set.add(0L));
+            assertEquals(32, set.size());
+            // le scansioni di una chiave assente terminano
+            assertFalse(set.contains(100L));
+            assertFalse(set.remove(100L));
+            // una cella liberata può essere riusata
+            assertTrue(set.remove(7L));
+            assertTrue(set.add(100L));
+            assertTrue(set.contains(100L));
+            assertThrows(IllegalStateException.class, () -> set.add(7L));
+            assertEquals(32, set.size());
+        }
+    }
+
+    @Test
+    void divisionHash_testNull() {
+        try (OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash)) {
+            assertThrows(NullPointerException.class, () -> set.add(null));
+            assertThrows(NullPointerException.class, () -> set.contains(null));
+            assertThrows(NullPointerException.class, () -> set.remove(null));
+        }
+    }
+
+    @Test
+    void multiplicationHash_testRandomAgainstHashSet() {
+        Random random = new Random(7);
+        Set<Long> expected = new HashSet<Long>();
+        try (OffHeapLongHashSet set = new OffHeapLongHashSet(
+                multiplicationHash)) {
+            for (int i = 0; i < 100000; i++) {
+                // chiavi in un intervallo ristretto per avere collisioni
+                long key = random.nextInt(50000) * 0x1_0000_0001L;
+                if (random.nextBoolean())
+                    assertEquals(expected.add(key), set.add(key));
+                else
+                    assertEquals(expected.remove(key), set.remove(key));
+            }
+            assertEquals(expected.size(), set.size());
+            for (long key : expected)
+                assertTrue(set.contains(key));
+            Set<Long> found = new HashSet<Long>();
+            PrimitiveIterator.OfLong it = set.iterator();
+            while (it.hasNext())
+                assertTrue(found.add(it.nextLong()));
+            assertEquals(expected, found);
+        }
+    }
+
+    @Test
+    void divisionHash_testExpectedSize() {
+        try (OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash,
+                1000)) {
+            int capacity = set.getCapacity();
+            assertEquals(2048, capacity);
+            for (long i = 1; i <= 1000; i++)
+                set.add(i);
+            assertEquals(capacity, set.getCapacity());
+        }
+    }
+
+    @Test
+    void divisionHash_testMultipleSegments() {
+        // 2^25 celle occupano due segmenti
+        try (OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash,
+                20_000_000)) {
+            assertEquals(1 << 25, set.getCapacity());
+            assertEquals(2, set.getSegmentCount());
+            for (long i = 1; i <= 1000; i++) {
+                assertTrue(set.add(i));
+                assertTrue(set.add((1L << 24) + i));
+            }
+            for (long i = 1; i <= 1000; i++) {
+                assertTrue(set.contains((1L << 24) + i));
+                assertTrue(set.remove(i));
+            }
+            assertEquals(1000, set.size());
+        }
+    }
+
+    @Test
+    void divisionHash_testIteratorShouldFailFast() {
+        try (OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash)) {
+            set.add(1L);
+            set.add(2L);
+            PrimitiveIterator.OfLong it = set.iterator();
+            it.nextLong();
+            set.add(3L);
+            assertThrows(ConcurrentModificationException.class,
+                    () -> it.nextLong());
+        }
+    }
+
+    @Test
+    void divisionHash_testClose() {
+        OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash);
+        for (long i = 0; i < 1000; i++)
+            set.add(i);
+        set.close();
+        assertEquals(0, set.size());
+        assertThrows(IllegalStateException.class, () -> set.add(1L));
+        assertThrows(IllegalStateException.class, () -> set.contains(1L));
+        assertThrows(IllegalStateException.class, () -> set.remove(1L));
+        assertThrows(IllegalStateException.class, () -> set.iterator());
+        // chiudere di nuovo non ha effetto
+        set.close();
+    }
+
+    @Test
+    void divisionHash_testClear() {
+        try (OffHeapLongHashSet set = new OffHeapLongHashSet(divisionHash)) {
+            for (long i = 0; i < 1000; i++)
+                set.add(i);
+            set.clear();
+            assertTrue(set.isEmpty());
+            assertEquals(16, set.getCapacity());
+            assertFalse(set.contains(5L));
+            assertFalse(set.iterator().hasNext());
+            assertTrue(set.add(5L));
+        }
+    }
+
+}
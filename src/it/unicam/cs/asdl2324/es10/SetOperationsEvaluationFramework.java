@@ -0,0 +1,121 @@
+package it.unicam.cs.asdl2324.es10;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+
+/**
+ * Confronta unione e intersezione di due CollisionListResizableHashTable di n
+ * elementi, che condividono metà degli elementi, calcolate elemento per
+ * elemento (un add() o un contains() per ogni elemento, come farebbe un
+ * client con l'iteratore) e con le operazioni di massa addAll() e retainAll(),
+ * che sfruttano il dimensionamento preventivo, la fusione per bucket e gli
+ * hash memorizzati nei nodi. L'intersezione con retainAll() è eseguita sul
+ * posto su una copia di a preparata fuori dalla misura. Prima di ogni misura
+ * viene richiesta una garbage collection per ridurre il rumore. I tempi, in
+ * millisecondi, sono scritti sul file setoperations.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente) e con le dimensioni da provare come parametri
+ * successivi (altrimenti si usano quelle di SIZES).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class SetOperationsEvaluationFramework {
+
+    /**
+     * Dimensioni di default degli insiemi da generare
+     */
+    public static final int[] SIZES = { 1_000_000, 10_000_000 };
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int[] sizes = SIZES;
+        if (args.length > 1) {
+            sizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++)
+                sizes[i - 1] = Integer.parseInt(args[i]);
+        }
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "setoperations.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "setoperations.csv");
+            System.exit(1);
+        }
+        o.println("N,UnionLoopMs,UnionAddAllMs,IntersectionLoopMs,IntersectionRetainAllMs");
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        for (int n : sizes) {
+            // a contiene [0, n), b contiene [n/2, n/2 + n)
+            CollisionListResizableHashTable<Integer> a = new CollisionListResizableHashTable<Integer>(
+                    phf);
+            CollisionListResizableHashTable<Integer> b = new CollisionListResizableHashTable<Integer>(
+                    phf);
+            for (int i = 0; i < n; i++) {
+                a.add(i);
+                b.add(n / 2 + i);
+            }
+            o.print(n + ",");
+
+            // unione elemento per elemento
+            System.gc();
+            long start = System.nanoTime();
+            CollisionListResizableHashTable<Integer> result = new CollisionListResizableHashTable<Integer>(
+                    phf);
+            for (Integer x : a)
+                result.add(x);
+            for (Integer x : b)
+                result.add(x);
+            o.print((System.nanoTime() - start) / 1_000_000 + ",");
+            check(result.size(), n + n / 2);
+            result = null;
+
+            // unione con addAll()
+            System.gc();
+            start = System.nanoTime();
+            result = new CollisionListResizableHashTable<Integer>(phf);
+            result.addAll(a);
+            result.addAll(b);
+            o.print((System.nanoTime() - start) / 1_000_000 + ",");
+            check(result.size(), n + n / 2);
+            result = null;
+
+            // intersezione elemento per elemento
+            System.gc();
+            start = System.nanoTime();
+            result = new CollisionListResizableHashTable<Integer>(phf);
+            for (Integer x : a)
+                if (b.contains(x))
+                    result.add(x);
+            o.print((System.nanoTime() - start) / 1_000_000 + ",");
+            check(result.size(), n - n / 2);
+            result = null;
+
+            // intersezione con retainAll() su una copia di a, esclusa dalla misura
+            result = new CollisionListResizableHashTable<Integer>(phf);
+            result.addAll(a);
+            System.gc();
+            start = System.nanoTime();
+            result.retainAll(b);
+            o.println((System.nanoTime() - start) / 1_000_000);
+            check(result.size(), n - n / 2);
+            result = null;
+
+            System.out.println("Completata dimensione " + n);
+        }
+        o.close();
+    } // end main
+
+    /*
+     * Controlla che il risultato abbia la cardinalità attesa
+     */
+    private static void check(int size, int expected) {
+        if (size != expected)
+            throw new IllegalStateException("Risultato errato: " + size
+                    + " elementi invece di " + expected);
+    }
+
+}
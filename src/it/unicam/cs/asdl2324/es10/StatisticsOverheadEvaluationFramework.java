@@ -0,0 +1,95 @@
+package it.unicam.cs.asdl2324.es10;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Random;
+
+/**
+ * Misura il costo delle statistiche di CollisionListResizableHashTable:
+ * esegue lo stesso carico (n inserimenti, n ricerche di elementi presenti e n
+ * di elementi assenti, n rimozioni) con le statistiche disabilitate e
+ * abilitate, ripetendolo ROUNDS volte in modo alternato, e riporta per ogni
+ * giro i tempi in millisecondi. I dati sono scritti sul file
+ * statisticsoverhead.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente) e con la dimensione da provare come secondo parametro
+ * (altrimenti si usa SIZE).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class StatisticsOverheadEvaluationFramework {
+
+    /**
+     * Dimensione di default dell'insieme da generare
+     */
+    public static final int SIZE = 1_000_000;
+
+    /**
+     * Numero di giri per ciascuna configurazione
+     */
+    public static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : SIZE;
+        PrintStream o = null;
+        try {
+            o = new PrintStream(
+                    new File(dirName + "/" + "statisticsoverhead.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "statisticsoverhead.csv");
+            System.exit(1);
+        }
+        o.println("Round,DisabledMs,EnabledMs");
+        Integer[] keys = new Integer[n];
+        Integer[] others = new Integer[n];
+        Random randomGenerator = new Random(n);
+        for (int i = 0; i < n; i++) {
+            keys[i] = randomGenerator.nextInt();
+            others[i] = randomGenerator.nextInt();
+        }
+        PrimaryHashFunction phf = new DivisionPrimaryHashFunction();
+        for (int r = 0; r < ROUNDS; r++) {
+            long disabled = run(phf, keys, others, false);
+            long enabled = run(phf, keys, others, true);
+            o.println(r + "," + disabled + "," + enabled);
+            System.out.println("Giro " + r + ": disabilitate " + disabled
+                    + " ms, abilitate " + enabled + " ms");
+        }
+        o.close();
+    } // end main
+
+    /*
+     * Esegue il carico su una nuova tabella e restituisce il tempo impiegato
+     * in millisecondi
+     */
+    private static long run(PrimaryHashFunction phf, Integer[] keys,
+            Integer[] others, boolean statistics) {
+        CollisionListResizableHashTable<Integer> table = new CollisionListResizableHashTable<Integer>(
+                phf);
+        table.setStatisticsEnabled(statistics);
+        System.gc();
+        long start = System.nanoTime();
+        for (Integer k : keys)
+            table.add(k);
+        int found = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (table.contains(keys[i]))
+                found++;
+            if (table.contains(others[i]))
+                found++;
+        }
+        for (Integer k : keys)
+            table.remove(k);
+        long elapsed = System.nanoTime() - start;
+        if (found < keys.length)
+            throw new IllegalStateException("Elementi non trovati");
+        return elapsed / 1_000_000;
+    }
+
+}
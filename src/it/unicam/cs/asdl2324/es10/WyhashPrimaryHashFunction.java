@@ -0,0 +1,42 @@
+/**
+ * 
+ */
+package it.unicam.cs.asdl2324.es10;
+
+/**
+ * Implementa una funzione di hash primaria con il rimescolamento usato da
+ * wyhash: la chiave, combinata con una costante, viene moltiplicata per una
+ * seconda costante a 64 bit e il prodotto senza segno a 128 bit viene ridotto
+ * facendo lo xor tra la metà alta e la metà bassa. Math.multiplyHigh
+ * restituisce la metà alta del prodotto con segno, che viene corretta
+ * aggiungendo ciascun fattore quando l'altro è negativo. Il valore ottenuto, ripiegato su 32
+ * bit, viene poi ridotto all'intervallo [0, m) come i 32 bit alti di h * m,
+ * senza usare l'operatore %.
+ * 
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class WyhashPrimaryHashFunction implements PrimaryHashFunction {
+
+    /*
+     * Costanti di wyhash
+     */
+    private static final long P0 = 0xA0761D6478BD642FL;
+
+    private static final long P1 = 0xE7037ED1A0B428DBL;
+
+    /* (non-Javadoc)
+     * @see it.unicam.cs.asdl2324.es10.PrimaryHashFunction#hash(int, int)
+     */
+    @Override
+    public int hash(int key, int m) {
+        long a = key ^ P0;
+        // metà alta del prodotto senza segno
+        long hi = Math.multiplyHigh(a, P1) + ((a >> 63) & P1)
+                + ((P1 >> 63) & a);
+        long mixed = hi ^ (a * P1);
+        int h = (int) (mixed ^ (mixed >>> 32));
+        return (int) (((h & 0xFFFFFFFFL) * m) >>> 32);
+    }
+
+}
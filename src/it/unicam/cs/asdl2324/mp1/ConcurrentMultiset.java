@@ -0,0 +1,402 @@
+package it.unicam.cs.asdl2324.mp1;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Questa classe ConcurrentMultiset implementa l'interfaccia Multiset in modo
+ * che possa essere condivisa da più thread senza sincronizzazione esterna.
+ *
+ * Gli elementi distinti sono indicizzati da una ConcurrentHashMap che associa
+ * a ciascuno il suo Contatore di occorrenze. Il contatore è aggiornato con una
+ * compareAndSet su un valore base; se la compareAndSet fallisce, cioè se un
+ * altro thread sta aggiornando lo stesso elemento, il contatore si espande in
+ * un array di celle (sul modello di LongAdder) e da quel momento ogni thread
+ * aggiorna la cella che gli corrisponde. In questo modo gli elementi molto
+ * frequenti non concentrano tutti i thread su una sola compareAndSet, mentre
+ * gli elementi poco contesi occupano solo il contatore base.
+ *
+ * Le operazioni add sono atomiche: nessun aggiornamento va perso. Il numero di
+ * occorrenze precedenti che restituiscono è esatto finché l'elemento non è
+ * stato conteso; dopo l'espansione in celle è la somma letta immediatamente
+ * prima dell'aggiornamento e può non tenere conto di aggiornamenti concorrenti
+ * dello stesso elemento. Per lo stesso motivo con aggiornamenti concorrenti
+ * dello stesso elemento il controllo sul limite di Integer.MAX_VALUE
+ * occorrenze è approssimato. Le rimozioni e setCount, che si suppongono rare,
+ * sono serializzate per ogni elemento e non rendono mai negativo il numero di
+ * occorrenze.
+ *
+ * Un elemento le cui occorrenze scendono a zero resta nell'indice con il suo
+ * contatore, che viene riusato se l'elemento viene aggiunto di nuovo, ma non
+ * è più contenuto nel multinsieme. clear() sostituisce in blocco l'indice: le
+ * modifiche concorrenti a clear() si applicano al multinsieme precedente o a
+ * quello nuovo, mai in parte a entrambi.
+ *
+ * L'iteratore è debolmente consistente: non lancia mai
+ * ConcurrentModificationException, presenta in sequenza le occorrenze di ogni
+ * elemento secondo il numero letto quando l'iterazione lo raggiunge e può
+ * presentare o meno gli elementi aggiunti o rimossi durante l'iterazione.
+ * Come per MyMultiset le occorrenze non vengono espanse in memoria.
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ * @param <E>
+ *                il tipo degli elementi del multiset
+ */
+public class ConcurrentMultiset<E> implements Multiset<E> {
+
+    /*
+     * Numero di celle di un contatore espanso: la potenza di due non
+     * inferiore al numero di processori, almeno 2.
+     */
+    private static final int STRIPES = Math.max(2,
+            Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    /*
+     * Distanza, in long, tra due celle consecutive, in modo che ciascuna
+     * occupi una linea di cache diversa (64 byte).
+     */
+    private static final int PAD = 8;
+
+    /*
+     * L'indice corrente insieme al numero complessivo di occorrenze. Il
+     * riferimento è volatile perché viene sostituito da clear().
+     */
+    private volatile Stato<E> stato;
+
+    private static class Stato<E> {
+
+        // Indice degli elementi distinti
+        private final ConcurrentHashMap<E, Contatore> chiavi = new ConcurrentHashMap<E, Contatore>();
+
+        // Numero di elementi "virtuali" cioè che prende conto anche delle occorrenze di ogni elemento
+        private final LongAdder nElementi = new LongAdder();
+
+    }
+
+    /*
+     * Contatore delle occorrenze di un elemento: un valore base aggiornato con
+     * compareAndSet e, dopo il primo conflitto, un array di celle. Il numero
+     * di occorrenze è la somma del valore base e delle celle. Il lock
+     * implicito del contatore serializza rimozioni e setCount.
+     */
+    private static class Contatore {
+
+        private static final AtomicLongFieldUpdater<Contatore> BASE = AtomicLongFieldUpdater
+                .newUpdater(Contatore.class, "base");
+
+        private volatile long base;
+
+        // Celle del contatore espanso, null finché non c'è stato un conflitto
+        private volatile AtomicLongArray celle;
+
+        /*
+         * Aggiunge delta > 0 occorrenze, a meno che non si superino
+         * Integer.MAX_VALUE occorrenze. Se precedenti è true restituisce la
+         * somma letta immediatamente prima dell'aggiornamento, altrimenti la
+         * calcola solo se serve per il controllo sul limite
+         */
+        long incrementa(long delta, boolean precedenti) {
+            AtomicLongArray c = this.celle;
+            if(c == null) {
+                long b = this.base;
+                // senza celle il valore base è l'intero contatore
+                if(b + delta > Integer.MAX_VALUE)
+                    throw new IllegalArgumentException("Limite fisico per un intero di occorrenze raggiunto.");
+                if(BASE.compareAndSet(this, b, b + delta))
+                    return b;
+                c = this.espandi();
+            }
+            int i = cella();
+            long v = c.addAndGet(i, delta);
+            // finché nessuna cella supera la sua parte di quanto manca al limite,
+            // il limite non è superato e non serve sommare le celle
+            if(v > (Integer.MAX_VALUE - this.base) / STRIPES) {
+                long s = this.sum();
+                if(s > Integer.MAX_VALUE) {
+                    c.getAndAdd(i, -delta);
+                    throw new IllegalArgumentException("Limite fisico per un intero di occorrenze raggiunto.");
+                }
+                return s - delta;
+            }
+            return precedenti ? this.sum() - delta : 0;
+        }
+
+        /*
+         * Aggiunge delta, anche negativo, senza controlli
+         */
+        void aggiungi(long delta) {
+            while(true) {
+                AtomicLongArray c = this.celle;
+                if(c != null) {
+                    c.getAndAdd(cella(), delta);
+                    return;
+                }
+                long b = this.base;
+                if(BASE.compareAndSet(this, b, b + delta))
+                    return;
+            }
+        }
+
+        long sum() {
+            long s = this.base;
+            AtomicLongArray c = this.celle;
+            if(c != null)
+                for(int i = PAD; i < c.length(); i += PAD)
+                    s += c.get(i);
+            return s;
+        }
+
+        /*
+         * Crea le celle se nessun altro thread lo ha già fatto
+         */
+        private synchronized AtomicLongArray espandi() {
+            if(this.celle == null)
+                // una linea di cache libera prima della prima cella
+                this.celle = new AtomicLongArray((STRIPES + 1) * PAD);
+            return this.celle;
+        }
+
+        /*
+         * Posizione della cella del thread corrente
+         */
+        private static int cella() {
+            int h = System.identityHashCode(Thread.currentThread());
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            return ((h & (STRIPES - 1)) + 1) * PAD;
+        }
+
+    }
+
+    private class Itr implements Iterator<E> {
+
+        // iteratore debolmente consistente dell'indice
+        private final Iterator<Map.Entry<E, Contatore>> entries;
+
+        // elemento su cui si sta iterando
+        private E item;
+
+        // occorrenze ancora da restituire per item
+        private long occorrenza;
+
+        private Itr() {
+            this.entries = ConcurrentMultiset.this.stato.chiavi.entrySet().iterator();
+            this.avanza();
+        }
+
+        /*
+         * Passa al successivo elemento con almeno un'occorrenza, se esiste
+         */
+        private void avanza() {
+            while(this.entries.hasNext()) {
+                Map.Entry<E, Contatore> e = this.entries.next();
+                long n = e.getValue().sum();
+                if(n > 0) {
+                    this.item = e.getKey();
+                    this.occorrenza = n;
+                    return;
+                }
+            }
+            this.item = null;
+            this.occorrenza = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.occorrenza > 0;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) throw new NoSuchElementException("Richiesta di next quando hasNext è falso");
+
+            E ret = this.item;
+            if(--this.occorrenza == 0)
+                this.avanza();
+            return ret;
+        }
+
+    }
+
+    /**
+     * Crea un multiset vuoto.
+     */
+    public ConcurrentMultiset() {
+        this.stato = new Stato<E>();
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(this.stato.nElementi.sum(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int count(Object element) {
+
+        if(element == null)
+            throw new NullPointerException("Elemento inesistente.");
+
+        Contatore c = this.stato.chiavi.get(element);
+        return c == null ? 0 : toInt(c.sum());
+    }
+
+    @Override
+    public int add(E element, int occurrences) {
+        return toInt(this.incrementa(element, occurrences, true));
+    }
+
+    /*
+     * Non restituisce le occorrenze precedenti, per cui su un elemento conteso
+     * non deve sommare le celle del contatore
+     */
+    @Override
+    public void add(E element) {
+        this.incrementa(element, 1, false);
+    }
+
+    /*
+     * Aggiunge le occorrenze all'elemento, inserendolo nell'indice se serve
+     */
+    private long incrementa(E element, int occurrences, boolean precedenti) {
+
+        if(element == null)
+            throw new NullPointerException("Elemento inesistente.");
+        if(occurrences < 0)
+            throw new IllegalArgumentException("Numero di occorrenze negativo non consentito.");
+
+        Stato<E> s = this.stato;
+        Contatore c = s.chiavi.get(element);
+        // le occorrenze da aggiungere sono 0: non aggiungo il nuovo elemento
+        if(occurrences == 0)
+            return c == null ? 0 : c.sum();
+        if(c == null)
+            c = s.chiavi.computeIfAbsent(element, k -> new Contatore());
+
+        long oldOccorrenze = c.incrementa(occurrences, precedenti);
+        s.nElementi.add(occurrences);
+        return oldOccorrenze;
+    }
+
+    @Override
+    public int remove(Object element, int occurrences) {
+
+        if(element == null)
+            throw new NullPointerException("Elemento inesistente.");
+        if(occurrences < 0)
+            throw new IllegalArgumentException("Numero di occorrenze negativo non consentito.");
+
+        Stato<E> s = this.stato;
+        Contatore c = s.chiavi.get(element);
+        if(c == null)
+            return 0;
+        long oldOccorrenze;
+        synchronized(c) {
+            // le aggiunte concorrenti possono solo aumentare le occorrenze
+            oldOccorrenze = c.sum();
+            long rimosse = Math.min(occurrences, oldOccorrenze);
+            if(rimosse > 0) {
+                c.aggiungi(-rimosse);
+                s.nElementi.add(-rimosse);
+            }
+        }
+        return toInt(oldOccorrenze);
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        return this.remove(element, 1) > 0;
+    }
+
+    @Override
+    public int setCount(E element, int count) {
+
+        if(element == null)
+            throw new NullPointerException("Elemento inesistente.");
+        if(count < 0)
+            throw new IllegalArgumentException("Numero di occorrenze negativo non consentito.");
+
+        Stato<E> s = this.stato;
+        Contatore c = s.chiavi.get(element);
+        if(c == null) {
+            if(count == 0)
+                return 0;
+            c = s.chiavi.computeIfAbsent(element, k -> new Contatore());
+        }
+        long oldOccorrenze;
+        synchronized(c) {
+            oldOccorrenze = c.sum();
+            if(oldOccorrenze != count) {
+                c.aggiungi(count - oldOccorrenze);
+                s.nElementi.add(count - oldOccorrenze);
+            }
+        }
+        return toInt(oldOccorrenze);
+    }
+
+    @Override
+    public Set<E> elementSet() {
+
+        Set<E> retSet = new HashSet<E>(); // set di appoggio
+
+        for(Map.Entry<E, Contatore> e : this.stato.chiavi.entrySet())
+            if(e.getValue().sum() > 0)
+                retSet.add(e.getKey());
+
+        return retSet;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        return this.count(element) > 0;
+    }
+
+    @Override
+    public void clear() {
+        this.stato = new Stato<E>();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.stato.nElementi.sum() == 0;
+    }
+
+    /*
+     * Riporta nell'intervallo degli interi non negativi una somma di
+     * occorrenze: letta durante aggiornamenti concorrenti dello stesso
+     * elemento può uscirne
+     */
+    private static int toInt(long occorrenze) {
+        return (int) Math.max(0, Math.min(occorrenze, Integer.MAX_VALUE));
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     * Espande in celle il contatore di un elemento presente nell'indice
+     */
+    protected void stripe(E element) {
+        this.stato.chiavi.get(element).espandi();
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected boolean isStriped(E element) {
+        Contatore c = this.stato.chiavi.get(element);
+        return c != null && c.celle != null;
+    }
+
+}
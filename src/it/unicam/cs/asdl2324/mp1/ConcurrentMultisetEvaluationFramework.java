@@ -0,0 +1,156 @@
+package it.unicam.cs.asdl2324.mp1;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Misura la contesa sugli aggiornamenti di un multinsieme condiviso: OPS
+ * chiamate complessive ad add(E), ripartite tra un numero crescente di thread,
+ * su DISTINCT elementi estratti con una distribuzione di Zipf (l'elemento di
+ * rango r ha probabilità proporzionale a 1 / r^s), per cui pochi elementi
+ * ricevono la maggior parte degli aggiornamenti. Sono confrontati MyMultiset
+ * con ogni chiamata in un blocco synchronized e ConcurrentMultiset; per ogni
+ * configurazione sono riportati il tempo in millisecondi e il throughput in
+ * milioni di add() al secondo. I dati sono scritti sul file
+ * concurrentmultiset.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente), con l'esponente s come secondo parametro (altrimenti
+ * si usa ZIPF_EXPONENT) e con i numeri di thread da provare come parametri
+ * successivi (altrimenti si usano quelli di THREADS).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class ConcurrentMultisetEvaluationFramework {
+
+    /**
+     * Numeri di thread di default
+     */
+    public static final int[] THREADS = { 1, 4, 16, 64 };
+
+    /**
+     * Numero complessivo di aggiornamenti per ogni configurazione
+     */
+    public static final int OPS = 16_000_000;
+
+    /**
+     * Numero di elementi distinti
+     */
+    public static final int DISTINCT = 100_000;
+
+    /**
+     * Esponente di default della distribuzione di Zipf
+     */
+    public static final double ZIPF_EXPONENT = 1.0;
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        double s = args.length > 1 ? Double.parseDouble(args[1]) : ZIPF_EXPONENT;
+        int[] threads = THREADS;
+        if (args.length > 2) {
+            threads = new int[args.length - 2];
+            for (int i = 2; i < args.length; i++)
+                threads[i - 2] = Integer.parseInt(args[i]);
+        }
+        PrintStream o = null;
+        try {
+            o = new PrintStream(
+                    new File(dirName + "/" + "concurrentmultiset.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "concurrentmultiset.csv");
+            System.exit(1);
+        }
+        o.println("Multiset,Threads,Ops,Ms,Mops");
+        Integer[] keys = new Integer[DISTINCT];
+        for (int i = 0; i < DISTINCT; i++)
+            keys[i] = i;
+        // funzione di ripartizione della distribuzione di Zipf
+        double[] cdf = new double[DISTINCT];
+        double sum = 0;
+        for (int r = 0; r < DISTINCT; r++) {
+            sum += 1 / Math.pow(r + 1, s);
+            cdf[r] = sum;
+        }
+        // sequenza degli elementi, generata una volta sola fuori dalle misure
+        int[] sequence = new int[OPS];
+        SplittableRandom random = new SplittableRandom(OPS);
+        for (int i = 0; i < OPS; i++) {
+            int r = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            sequence[i] = r >= 0 ? r : Math.min(-r - 1, DISTINCT - 1);
+        }
+        for (int t : threads) {
+            MyMultiset<Integer> locked = new MyMultiset<Integer>();
+            long lockedT = run(t, keys, sequence, (k) -> {
+                synchronized (locked) {
+                    locked.add(k);
+                }
+            });
+            if (locked.size() != OPS)
+                throw new IllegalStateException("Aggiornamenti persi");
+            print(o, "MyMultiset synchronized", t, lockedT);
+            ConcurrentMultiset<Integer> concurrent = new ConcurrentMultiset<Integer>();
+            long concurrentT = run(t, keys, sequence, (k) -> concurrent.add(k));
+            if (concurrent.size() != OPS)
+                throw new IllegalStateException("Aggiornamenti persi");
+            print(o, "ConcurrentMultiset", t, concurrentT);
+        }
+        o.close();
+    } // end main
+
+    /*
+     * Operazione eseguita per ogni elemento della sequenza
+     */
+    private interface Update {
+        void add(Integer key);
+    }
+
+    /*
+     * Divide la sequenza in parti uguali tra t thread, li fa partire insieme e
+     * restituisce il tempo in nanosecondi fino al termine dell'ultimo
+     */
+    private static long run(int t, Integer[] keys, int[] sequence,
+            Update update) {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[t];
+        for (int i = 0; i < t; i++) {
+            final int from = (int) ((long) sequence.length * i / t);
+            final int to = (int) ((long) sequence.length * (i + 1) / t);
+            workers[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = from; j < to; j++)
+                    update.add(keys[sequence[j]]);
+            });
+            workers[i].start();
+        }
+        System.gc();
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            for (Thread w : workers)
+                w.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static void print(PrintStream o, String name, int t, long nanos) {
+        double mops = OPS * 1000.0 / nanos;
+        o.println(name + "," + t + "," + OPS + "," + nanos / 1_000_000 + ","
+                + mops);
+        System.out.println(name + " " + t + " thread: " + nanos / 1_000_000
+                + " ms, " + mops + " Mops/s");
+    }
+
+}
@@ -0,0 +1,208 @@
+package it.unicam.cs.asdl2324.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per ConcurrentMultiset
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class ConcurrentMultisetTest {
+
+    @Test
+    public void testNull() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        assertThrows(NullPointerException.class, () -> m.count(null));
+        assertThrows(NullPointerException.class, () -> m.add(null));
+        assertThrows(NullPointerException.class, () -> m.remove(null, 1));
+        assertThrows(NullPointerException.class, () -> m.setCount(null, 1));
+        assertThrows(NullPointerException.class, () -> m.contains(null));
+        assertThrows(IllegalArgumentException.class, () -> m.add(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> m.remove(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> m.setCount(1, -1));
+    }
+
+    @Test
+    public void testAddRemoveSetCount() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        assertTrue(m.isEmpty());
+        assertEquals(0, m.add(2, 0));
+        assertFalse(m.contains(2));
+        assertEquals(0, m.add(2, 3));
+        assertEquals(3, m.add(2, 4));
+        m.add(5);
+        assertEquals(8, m.size());
+        assertEquals(7, m.remove(2, 5));
+        assertEquals(2, m.count(2));
+        assertEquals(2, m.remove(2, 10));
+        assertFalse(m.contains(2));
+        assertFalse(m.remove(2));
+        assertEquals(0, m.setCount(2, 6));
+        assertEquals(6, m.setCount(2, 1));
+        assertEquals(1, m.setCount(5, 0));
+        assertFalse(m.contains(5));
+        assertEquals(1, m.size());
+        assertEquals(Set.of(2), m.elementSet());
+    }
+
+    @Test
+    public void testAddMoreThanMAX_VALUE() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        m.add(3, Integer.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> m.add(3, 1));
+        assertEquals(Integer.MAX_VALUE, m.count(3));
+    }
+
+    @Test
+    public void testClear() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        m.add(1, 3);
+        m.add(2);
+        m.clear();
+        assertTrue(m.isEmpty());
+        assertEquals(0, m.count(1));
+        assertFalse(m.iterator().hasNext());
+    }
+
+    @Test
+    public void testIterator() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        m.add(1, 3);
+        m.add(3, 2);
+        m.add(4, 2);
+        m.remove(4, 2);
+        Set<Integer> seen = new HashSet<Integer>();
+        Iterator<Integer> itr = m.iterator();
+        Integer prec = null;
+        int n = 0;
+        while (itr.hasNext()) {
+            Integer i = itr.next();
+            // le occorrenze dello stesso elemento sono consecutive
+            if (!i.equals(prec))
+                assertTrue(seen.add(i));
+            prec = i;
+            n++;
+        }
+        assertEquals(Set.of(1, 3), seen);
+        assertEquals(5, n);
+        assertThrows(NoSuchElementException.class, () -> itr.next());
+    }
+
+    @Test
+    public void testIteratorWeaklyConsistent() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        for (int i = 0; i < 100; i++)
+            m.add(i, 2);
+        Iterator<Integer> itr = m.iterator();
+        int n = 0;
+        // modifiche durante l'iterazione non lanciano eccezioni
+        while (itr.hasNext()) {
+            itr.next();
+            if (n++ == 10) {
+                m.add(1000);
+                m.remove(50, 2);
+                m.clear();
+            }
+        }
+        assertTrue(n >= 11);
+    }
+
+    @Test
+    public void testConcurrentAddHotKey() throws InterruptedException {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        int threads = 8;
+        int ops = 100000;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < ops; i++) {
+                    // un elemento conteso da tutti e uno per thread
+                    m.add(0);
+                    m.add(id + 1, 2);
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread w : workers)
+            w.join();
+        assertEquals(threads * ops, m.count(0));
+        for (int t = 0; t < threads; t++)
+            assertEquals(2 * ops, m.count(t + 1));
+        assertEquals(3 * threads * ops, m.size());
+    }
+
+    @Test
+    public void testConcurrentAddRemove() throws InterruptedException {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        int threads = 8;
+        int ops = 50000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final boolean remover = t % 2 == 1;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < ops; i++) {
+                    if (remover)
+                        m.remove(i % 4);
+                    else
+                        m.add(i % 4);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers)
+            w.join();
+        // le occorrenze non diventano mai negative e size è coerente
+        int total = 0;
+        for (int i = 0; i < 4; i++) {
+            assertTrue(m.count(i) >= 0);
+            total += m.count(i);
+        }
+        assertEquals(total, m.size());
+    }
+
+    @Test
+    public void testStriped() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        // senza conflitti il contatore resta un solo valore
+        for (int i = 0; i < 1000; i++)
+            assertEquals(i, m.add(7, 1));
+        assertFalse(m.isStriped(7));
+    }
+
+    @Test
+    public void testStripedCounter() {
+        ConcurrentMultiset<Integer> m = new ConcurrentMultiset<Integer>();
+        m.add(3, 5);
+        m.stripe(3);
+        assertTrue(m.isStriped(3));
+        assertEquals(5, m.add(3, 2));
+        m.add(3);
+        assertEquals(8, m.count(3));
+        assertEquals(8, m.remove(3, 6));
+        assertEquals(2, m.setCount(3, 10));
+        assertEquals(10, m.count(3));
+        assertEquals(10, m.add(3, Integer.MAX_VALUE - 10));
+        assertThrows(IllegalArgumentException.class, () -> m.add(3));
+        assertThrows(IllegalArgumentException.class, () -> m.add(3, 5));
+        assertEquals(Integer.MAX_VALUE, m.count(3));
+        assertEquals(Integer.MAX_VALUE, m.size());
+    }
+
+}
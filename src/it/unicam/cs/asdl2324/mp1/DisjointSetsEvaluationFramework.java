@@ -0,0 +1,100 @@
+package it.unicam.cs.asdl2324.mp1;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+
+/**
+ * Misura il costo complessivo di N makeSet seguite da N - 1 union che
+ * riducono N insiemi singoletto a un solo insieme, con LinkedListDisjointSets
+ * su elementi MyIntLinkedListDisjointSetElement. Le unioni seguono due schemi:
+ * <ul>
+ * <li>Balanced: gli insiemi vengono uniti a coppie di uguale dimensione,
+ * come in un torneo, per cui ogni union aggiorna metà dell'insieme
+ * risultante;</li>
+ * <li>RandomTree: l'elemento i-esimo di una permutazione casuale viene unito
+ * a uno casuale dei precedenti, come negli archi di un albero casuale.</li>
+ * </ul>
+ * Per ciascuno sono riportati i tempi in millisecondi di makeSet e delle
+ * union. I dati sono scritti sul file linkedlistdisjointsets.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente) e con il numero di elementi come secondo (altrimenti si
+ * usa N). Con il valore di default servono circa 2 GB di heap (-Xmx).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class DisjointSetsEvaluationFramework {
+
+    /**
+     * Numero di default di elementi
+     */
+    public static final int N = 10_000_000;
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : N;
+        PrintStream o = null;
+        try {
+            o = new PrintStream(
+                    new File(dirName + "/" + "linkedlistdisjointsets.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "linkedlistdisjointsets.csv");
+            System.exit(1);
+        }
+        o.println("Pattern,N,MakeSetMs,UnionMs");
+
+        // unioni a torneo
+        int[] pairs = new int[2 * (n - 1)];
+        int k = 0;
+        for (int step = 1; step < n; step *= 2)
+            for (int i = 0; i + step < n; i += 2 * step) {
+                pairs[k++] = i;
+                pairs[k++] = i + step;
+            }
+        run(o, "Balanced", n, pairs);
+
+        // archi di un albero casuale
+        SplittableRandom random = new SplittableRandom(n);
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            int j = random.nextInt(i + 1);
+            perm[i] = perm[j];
+            perm[j] = i;
+        }
+        for (int i = 1; i < n; i++) {
+            pairs[2 * (i - 1)] = perm[i];
+            pairs[2 * (i - 1) + 1] = perm[random.nextInt(i)];
+        }
+        run(o, "RandomTree", n, pairs);
+        o.close();
+    } // end main
+
+    private static void run(PrintStream o, String name, int n, int[] pairs) {
+        MyIntLinkedListDisjointSetElement[] elements = new MyIntLinkedListDisjointSetElement[n];
+        for (int i = 0; i < n; i++)
+            elements[i] = new MyIntLinkedListDisjointSetElement(i);
+        System.gc();
+        long start = System.nanoTime();
+        LinkedListDisjointSets ds = new LinkedListDisjointSets();
+        for (int i = 0; i < n; i++)
+            ds.makeSet(elements[i]);
+        long makeSetT = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < pairs.length; i += 2)
+            ds.union(elements[pairs[i]], elements[pairs[i + 1]]);
+        long unionT = System.nanoTime() - start;
+        if (ds.getCurrentRepresentatives().size() != 1
+                || ds.getCardinalityOfSetContaining(elements[0]) != n)
+            throw new IllegalStateException("Unioni non corrette");
+        o.println(name + "," + n + "," + makeSetT / 1_000_000 + ","
+                + unionT / 1_000_000);
+        System.out.println(name + " " + n + ": makeSet " + makeSetT / 1_000_000
+                + " ms, union " + unionT / 1_000_000 + " ms");
+    }
+
+}
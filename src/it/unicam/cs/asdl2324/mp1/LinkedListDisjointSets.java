@@ -18,6 +18,8 @@ import java.util.HashSet;
  * grande la testa della lista più piccola. A questo punto è possibile aggiornare tutti i riferimenti
  * al rappresentante ed attaccare alla coda della lista più piccola il resto della lista più grande, scorrendoù
  * la lista più piccola, pertanto l'intera operazione avrà costo Θ(min(x, y)).
+ * La coda della lista più piccola è trovata durante lo stesso scorrimento che aggiorna
+ * i riferimenti al rappresentante, per cui non serve mantenerne un puntatore.
  * 
  * 
  * @author Luca Tesei (template) CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it (implementazione)
@@ -0,0 +1,138 @@
+package it.unicam.cs.asdl2324.mp1;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.lang.ref.Reference;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * Confronta MyMultiset e OpenAddressingMultiset su un carico simile al
+ * conteggio delle frequenze delle parole di un testo: ADDS_PER_ELEMENT * d
+ * chiamate ad add(E) su d elementi distinti, scelti con una distribuzione
+ * sbilanciata (pochi elementi molto frequenti e molti rari), seguite da una
+ * chiamata a count per ogni elemento distinto e da una iterazione completa del
+ * multinsieme. Per ogni multinsieme sono riportati i tempi in millisecondi e
+ * la memoria heap occupata a multinsieme pieno. I dati sono scritti sul file
+ * multiset.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente) e con i numeri di elementi distinti da provare come
+ * parametri successivi (altrimenti si usano quelli di SIZES).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class MultisetEvaluationFramework {
+
+    /**
+     * Numeri di default di elementi distinti da generare
+     */
+    public static final int[] SIZES = { 100_000, 1_000_000, 5_000_000 };
+
+    /**
+     * Numero medio di occorrenze aggiunte per ogni elemento distinto
+     */
+    public static final int ADDS_PER_ELEMENT = 10;
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int[] sizes = SIZES;
+        if (args.length > 1) {
+            sizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++)
+                sizes[i - 1] = Integer.parseInt(args[i]);
+        }
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "multiset.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "multiset.csv");
+            System.exit(1);
+        }
+        o.println("Multiset,Distinct,Adds,AddMs,CountMs,IterateMs,HeapBytes");
+        for (int d : sizes) {
+            // elementi distinti, già creati per non misurare il boxing
+            Integer[] keys = new Integer[d];
+            Random randomGenerator = new Random(d);
+            for (int i = 0; i < d; i++)
+                keys[i] = mix(i);
+            // sequenza degli inserimenti: il quadrato di un uniforme favorisce
+            // gli indici bassi; i primi d inserimenti coprono tutti gli elementi
+            int[] sequence = new int[d * ADDS_PER_ELEMENT];
+            for (int i = 0; i < sequence.length; i++) {
+                double r = randomGenerator.nextDouble();
+                sequence[i] = i < d ? i : (int) (d * r * r);
+            }
+            run(o, "MyMultiset", new MyMultiset<Integer>(), keys, sequence);
+            run(o, "OpenAddressingMultiset",
+                    new OpenAddressingMultiset<Integer>(), keys, sequence);
+        }
+        o.close();
+    } // end main
+
+    /*
+     * Esegue il carico sul multinsieme vuoto passato e scrive una riga di
+     * risultati
+     */
+    private static void run(PrintStream o, String name,
+            Multiset<Integer> multiset, Integer[] keys, int[] sequence) {
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        for (int i : sequence)
+            multiset.add(keys[i]);
+        long addT = System.nanoTime() - start;
+        long total = 0;
+        start = System.nanoTime();
+        for (Integer k : keys)
+            total += multiset.count(k);
+        long countT = System.nanoTime() - start;
+        long iterated = 0;
+        start = System.nanoTime();
+        Iterator<Integer> itr = multiset.iterator();
+        while (itr.hasNext()) {
+            itr.next();
+            iterated++;
+        }
+        long iterateT = System.nanoTime() - start;
+        long heap = usedHeap() - heapBefore;
+        // il multinsieme deve restare raggiungibile fino alla misura
+        Reference.reachabilityFence(multiset);
+        if (total != sequence.length || iterated != sequence.length)
+            throw new IllegalStateException("Occorrenze non corrispondenti");
+        o.println(name + "," + keys.length + "," + sequence.length + ","
+                + addT / 1_000_000 + "," + countT / 1_000_000 + ","
+                + iterateT / 1_000_000 + "," + heap);
+        System.out.println(name + " " + keys.length + ": add "
+                + addT / 1_000_000 + " ms, count " + countT / 1_000_000
+                + " ms, iterazione " + iterateT / 1_000_000 + " ms, heap "
+                + heap + " byte");
+    }
+
+    /*
+     * Funzione biettiva sugli interi (il passo finale di MurmurHash3): gli
+     * elementi generati sono distinti ma sparsi su tutto l'intervallo
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /*
+     * Stima della memoria heap attualmente occupata, dopo aver richiesto un
+     * garbage collection
+     */
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+}
@@ -0,0 +1,93 @@
+package it.unicam.cs.asdl2324.mp1;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+
+/**
+ * Misura il percorso di inserimento di MyMultiset: per ogni dimensione n
+ * aggiunge n elementi distinti a un multinsieme vuoto e poi una seconda
+ * occorrenza di ciascuno, riportando il throughput delle due fasi in milioni
+ * di add() al secondo, la dimensione finale della tabella e la lunghezza
+ * media e massima delle liste di collisione non vuote. I dati sono scritti
+ * sul file multisetgrowth.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente) e con le dimensioni da provare come parametri
+ * successivi (altrimenti si usano quelle di SIZES). Con 10 milioni di
+ * elementi servono circa 2 GB di heap (-Xmx).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class MultisetGrowthEvaluationFramework {
+
+    /**
+     * Dimensioni di default degli insiemi da generare
+     */
+    public static final int[] SIZES = { 1_000_000, 10_000_000 };
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int[] sizes = SIZES;
+        if (args.length > 1) {
+            sizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++)
+                sizes[i - 1] = Integer.parseInt(args[i]);
+        }
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "multisetgrowth.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "multisetgrowth.csv");
+            System.exit(1);
+        }
+        o.println("N,NewAddMops,ExistingAddMops,TableSize,AvgChainLength,MaxChainLength");
+        for (int n : sizes) {
+            // elementi distinti, già creati per non misurare il boxing
+            Integer[] keys = new Integer[n];
+            for (int i = 0; i < n; i++)
+                keys[i] = mix(i);
+            MyMultiset<Integer> multiset = new MyMultiset<Integer>();
+            System.gc();
+            long start = System.nanoTime();
+            for (Integer k : keys)
+                multiset.add(k);
+            long newT = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (Integer k : keys)
+                multiset.add(k);
+            long existingT = System.nanoTime() - start;
+            if (multiset.size() != 2 * n)
+                throw new IllegalStateException("Occorrenze non corrispondenti");
+            double newMops = n * 1000.0 / newT;
+            double existingMops = n * 1000.0 / existingT;
+            o.println(n + "," + newMops + "," + existingMops + ","
+                    + multiset.getTableSize() + ","
+                    + multiset.getAverageChainLength() + ","
+                    + multiset.getMaxChainLength());
+            System.out.println(n + ": nuovi " + newMops + " Mops/s, presenti "
+                    + existingMops + " Mops/s, tabella "
+                    + multiset.getTableSize() + ", lista media "
+                    + multiset.getAverageChainLength() + ", massima "
+                    + multiset.getMaxChainLength());
+        }
+        o.close();
+    } // end main
+
+    /*
+     * Funzione biettiva sugli interi (il passo finale di MurmurHash3): gli
+     * elementi generati sono distinti ma sparsi su tutto l'intervallo
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+}
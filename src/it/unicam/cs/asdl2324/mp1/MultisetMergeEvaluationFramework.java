@@ -0,0 +1,115 @@
+package it.unicam.cs.asdl2324.mp1;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+
+/**
+ * Misura la fusione di SHARDS multinsiemi di SHARD_SIZE elementi distinti
+ * ciascuno, con da 1 a 10 occorrenze per elemento. Gli elementi di ogni parte
+ * sono una finestra di SHARD_SIZE elementi consecutivi di un universo di
+ * UNIVERSE elementi, spostata di UNIVERSE / SHARDS per ogni parte, per cui le
+ * parti si sovrappongono. Sono confrontati:
+ * <ul>
+ * <li>Loop: un multinsieme vuoto a cui si aggiungono, parte per parte, gli
+ * elementi di elementSet() con le occorrenze date da count();</li>
+ * <li>Merge: MyMultiset.merge su tutte le parti.</li>
+ * </ul>
+ * Per ciascuno sono riportati il tempo in millisecondi, il numero di elementi
+ * distinti e la dimensione finale della tabella. I dati sono scritti sul file
+ * multisetmerge.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente), con il numero di parti come secondo e il numero di
+ * elementi di ogni parte come terzo (altrimenti si usano SHARDS e
+ * SHARD_SIZE). Con i valori di default servono circa 4 GB di heap (-Xmx).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class MultisetMergeEvaluationFramework {
+
+    /**
+     * Numero di default di parti da fondere
+     */
+    public static final int SHARDS = 32;
+
+    /**
+     * Numero di default di elementi distinti di ogni parte
+     */
+    public static final int SHARD_SIZE = 1_000_000;
+
+    /**
+     * Rapporto tra la dimensione dell'universo e quella di una parte
+     */
+    public static final int UNIVERSE_FACTOR = 4;
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int shards = args.length > 1 ? Integer.parseInt(args[1]) : SHARDS;
+        int shardSize = args.length > 2 ? Integer.parseInt(args[2]) : SHARD_SIZE;
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "multisetmerge.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "multisetmerge.csv");
+            System.exit(1);
+        }
+        o.println("Method,Shards,ShardSize,Ms,Distinct,TableSize");
+        int universe = shardSize * UNIVERSE_FACTOR;
+        Integer[] keys = new Integer[universe];
+        for (int i = 0; i < universe; i++)
+            keys[i] = i;
+        SplittableRandom random = new SplittableRandom(shards);
+        @SuppressWarnings("unchecked")
+        MyMultiset<Integer>[] parts = (MyMultiset<Integer>[]) new MyMultiset<?>[shards];
+        long total = 0;
+        for (int s = 0; s < shards; s++) {
+            parts[s] = new MyMultiset<Integer>();
+            int from = (int) ((long) universe * s / shards);
+            for (int i = 0; i < shardSize; i++) {
+                int n = 1 + random.nextInt(10);
+                parts[s].add(keys[(from + i) % universe], n);
+                total += n;
+            }
+        }
+
+        // aggiunta elemento per elemento
+        System.gc();
+        long start = System.nanoTime();
+        MyMultiset<Integer> loop = new MyMultiset<Integer>();
+        for (MyMultiset<Integer> p : parts)
+            for (Integer k : p.elementSet())
+                loop.add(k, p.count(k));
+        long loopT = System.nanoTime() - start;
+        if (loop.size() != total)
+            throw new IllegalStateException("Occorrenze non corrispondenti");
+        print(o, "Loop", shards, shardSize, loopT, loop);
+        loop = null;
+
+        // fusione
+        System.gc();
+        start = System.nanoTime();
+        MyMultiset<Integer> merged = MyMultiset.merge(parts);
+        long mergeT = System.nanoTime() - start;
+        if (merged.size() != total)
+            throw new IllegalStateException("Occorrenze non corrispondenti");
+        print(o, "Merge", shards, shardSize, mergeT, merged);
+        o.close();
+    } // end main
+
+    private static void print(PrintStream o, String name, int shards,
+            int shardSize, long nanos, MyMultiset<Integer> m) {
+        int distinct = m.elementSet().size();
+        o.println(name + "," + shards + "," + shardSize + ","
+                + nanos / 1_000_000 + "," + distinct + ","
+                + m.getTableSize());
+        System.out.println(name + ": " + nanos / 1_000_000 + " ms, "
+                + distinct + " elementi distinti, tabella "
+                + m.getTableSize());
+    }
+
+}
@@ -4,8 +4,14 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Set;
 
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
 
 /**
  * Questa classe MyMultiset implementa tutte le funzionalità dell'interfaccia Multiset
@@ -27,15 +33,19 @@ import java.util.HashSet;
  * moltiplicazione: floor(m * (k*A-floor(k*A))) dove k è la chiave cioé l'hashCode generato 
  * dall'elemento E, e A è un valore consigliato dalla letturatura per rendere la funzione di hashing
  * uniforme e indipendente, pari a (sqrt(5) - 1)/2; ed m è la dimensione della tabella.
+ * Essendo m una potenza di 2 il calcolo è svolto sugli interi: si moltiplica k per 
+ * floor(2^32 * A) e si prendono i log2(m) bit più significativi del risultato.
  * 
  * La tabella è allocata di partenza con dimensione pari ad 8, 
  * ed è in grado di raddoppiare le sue dimensioni quando il fattore di carico 
- * supera un valore soglia pari a 0.75 (3/4 della tabella).
+ * supera un valore soglia pari a 0.75 (3/4 della tabella), cioè quando il numero di 
+ * elementi distinti supera la soglia calcolata a ogni ampliamento.
  * L'operazione di ampliamento è attuata dal metodo privato @extends:
  * e mantiene sempre un valore delle dimensioni pari a una
  * potenza di 2 come previsto dal metodo della moltiplicazione. 
  * L'operazione di rehashing e copia degli elementi nella nuova tabella ha 
- * pertanto un costo lineare pari a Θ(n).
+ * pertanto un costo lineare pari a Θ(n), che ripartito sugli inserimenti che 
+ * l'hanno reso necessario dà un costo ammortizzato costante.
  * 
  * Questa implementazione garantisce pertanto una notevole efficienza in termini di tempo 
  * per tutte le operazioni base dell'interfaccia.
@@ -43,6 +53,32 @@ import java.util.HashSet;
  *  pari a Θ(K), dove K è la dimensione dell'array.
  * K è inizialmente pari ad 8 e la funzione per l'estensione ha un costo lineare.
  * 
+ * Le interrogazioni sugli elementi più frequenti (topK, elementsWithCountAtLeast) usano 
+ * un indice delle frequenze: una lista doppiamente concatenata, ordinata per numero di 
+ * occorrenze, di gruppi (classe interna Frequenza), ognuno dei quali concatena gli elementi 
+ * con quel numero di occorrenze. L'indice viene costruito alla prima interrogazione, in un 
+ * tempo Θ(n log n) con n il numero di elementi distinti, e da quel momento è aggiornato da 
+ * add, remove, setCount: un elemento che cambia numero di occorrenze viene spostato nel 
+ * gruppo corrispondente scorrendo i gruppi a partire dal suo, per cui aggiungere o togliere 
+ * una occorrenza costa Θ(1) atteso. Un salto più ampio, con add(e, n) o setCount, e 
+ * l'inserimento di un elemento nuovo scorrono invece i gruppi attraversati, e costano nel caso 
+ * peggiore O(f) con f il numero di valori distinti di occorrenze. Un'interrogazione scorre 
+ * i gruppi dal più frequente e costa Θ(k) dove k è il numero di elementi restituiti, 
+ * indipendentemente da n.
+ * Gli Element non hanno campi per l'indice: i collegamenti di ogni elemento stanno in un 
+ * oggetto Voce, associato all'elemento da una IdentityHashMap creata solo alla prima 
+ * interrogazione. Un multinsieme che non viene mai interrogato occupa quindi per ogni 
+ * elemento distinto i soli 24 byte di un Element (con riferimenti compressi) e paga un 
+ * controllo su null per operazione; con l'indice attivo ogni elemento distinto costa in più 
+ * circa 32 byte per la Voce e da 8 a 16 byte per la sua posizione nella IdentityHashMap.
+ * 
+ * L'iteratore restituisce ogni elemento tante volte quante sono le sue occorrenze; per
+ * scorrere il multinsieme una volta per elemento distinto sono disponibili entryIterator,
+ * entrySet e forEachEntry, che restituiscono le coppie (elemento, occorrenze) scorrendo la 
+ * tabella, in un tempo Θ(m + n) con m la dimensione della tabella e n il numero di elementi 
+ * distinti. Gli elementi distinti non sono concatenati fra loro per non aggiungere due 
+ * riferimenti a ogni Element; poiché la tabella non si riduce con le rimozioni, dopo molte 
+ * rimozioni m può superare di molto n.
  * 
  * 
  * @author Luca Tesei (template) CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it (implementazione)
@@ -59,8 +95,15 @@ public class MyMultiset<E> implements Multiset<E> {
     // Dimensione di partenza della tabella hash
     private static final int DEFAULT_DIM = 8;
 
-    // Costante consigliata dalla letteratura per hash con metodo della moltiplicazione
-    private static final double A_VALUE = (Math.sqrt(5) - 1)/2;
+    // Dimensione massima della tabella hash
+    private static final int MAX_DIM = 1 << 30;
+
+    // Elementi di ogni multinsieme esaminati da merge per stimare gli elementi distinti
+    private static final int CAMPIONE_MERGE = 256;
+
+    // Costante consigliata dalla letteratura per hash con metodo della moltiplicazione,
+    // floor(2^32 * (sqrt(5) - 1)/2)
+    private static final int A_VALUE = 0x9E3779B9;
 
     // N. modifiche usato per l'iteratore fail-fast
     private int numeroModifiche; 
@@ -77,6 +120,41 @@ public class MyMultiset<E> implements Multiset<E> {
     // Dimensione attuale tabella
     private int msize; 
 
+    // Numero di elementi effettivi oltre il quale la tabella viene estesa
+    private int soglia;
+
+    // 32 - log2(msize), per il calcolo della chiave
+    private int shift;
+
+    // Voci dell'indice delle frequenze per ogni elemento, null finché l'indice non è costruito
+    private IdentityHashMap<Element<E>, Voce<E>> voci;
+
+    // Gruppi con meno e con più occorrenze dell'indice delle frequenze
+    private Frequenza<E> minima;
+    private Frequenza<E> massima;
+
+    /**
+     * Coppia (elemento, numero di occorrenze) restituita da entryIterator ed
+     * entrySet. Due coppie sono uguali se hanno elementi uguali e lo stesso
+     * numero di occorrenze.
+     *
+     * @param <E>
+     *                il tipo degli elementi del multiset
+     */
+    public interface Entry<E> {
+
+        /**
+         * @return l'elemento
+         */
+        E getElement();
+
+        /**
+         * @return il numero di occorrenze dell'elemento nel multinsieme
+         */
+        int getCount();
+
+    }
+
     private static class Element<E>{
 
         private E item;         // Elemento
@@ -94,6 +172,77 @@ public class MyMultiset<E> implements Multiset<E> {
 
     }
 
+    // Coppia immutabile restituita da EntryItr: fotografa l'Element al momento di next, per cui
+    // equals e hashCode non cambiano con le modifiche successive del multinsieme
+    private static final class Coppia<E> implements Entry<E>{
+
+        private final E item;         // Elemento
+        private final int occorrenze; // N. di occorrenze al momento della creazione
+
+        Coppia(E item, int occorrenze) {
+
+            this.item = item;
+            this.occorrenze = occorrenze;
+
+        }
+
+        @Override
+        public E getElement() {
+            return this.item;
+        }
+
+        @Override
+        public int getCount() {
+            return this.occorrenze;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Entry))
+                return false;
+            Entry<?> other = (Entry<?>) obj;
+            return this.occorrenze == other.getCount() && this.item.equals(other.getElement());
+        }
+
+        @Override
+        public int hashCode() {
+            return this.item.hashCode() ^ this.occorrenze;
+        }
+
+    }
+
+    private static class Frequenza<E>{
+
+        private final int occorrenze; // N. di occorrenze degli elementi del gruppo
+        private Voce<E> primo;        // Primo elemento del gruppo
+        private Frequenza<E> prec;    // Gruppo con meno occorrenze più vicino
+        private Frequenza<E> succ;    // Gruppo con più occorrenze più vicino
+
+        Frequenza(int occorrenze) {
+
+            this.occorrenze = occorrenze;
+
+        }
+
+    }
+
+    private static class Voce<E>{
+
+        private final Element<E> element; // Elemento dell'indice
+        private Frequenza<E> frequenza;   // Gruppo dell'elemento
+        private Voce<E> prec;             // Elemento precedente nel gruppo
+        private Voce<E> succ;             // Elemento successivo nel gruppo
+
+        Voce(Element<E> element) {
+
+            this.element = element;
+
+        }
+
+    }
+
     private class Itr implements Iterator<E> {
         
         private Element<E> lastRet; // ultimo elemento ritornato
@@ -190,6 +339,86 @@ public class MyMultiset<E> implements Multiset<E> {
 
     }
 
+    /*
+     * Iteratore sulle coppie (elemento, occorrenze): restituisce una Coppia
+     * per ogni Element della tabella, uno per elemento distinto
+     * 
+     */
+    private class EntryItr implements Iterator<Entry<E>> {
+
+        private Element<E> next;    // prossimo elemento da restituire
+        private int index;          // posizione di next nella tabella
+
+        // var di appoggio per le modifiche attese 
+        private int numeroModificheAtteso; 
+
+        private EntryItr() {
+            this.numeroModificheAtteso = MyMultiset.this.numeroModifiche;
+            this.index = -1;
+            this.avanza();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public Entry<E> next() {
+            // controllo concorrenza
+            if (this.numeroModificheAtteso != MyMultiset.this.numeroModifiche) {
+                throw new ConcurrentModificationException("Lista modificata durante l'iterazione");
+            }
+
+            // controllo hasNext()
+            if (!hasNext()) throw new NoSuchElementException("Richiesta di next quando hasNext è falso");
+
+            Element<E> ret = this.next;
+            // successivo nella lista di collisioni o primo della prossima lista non vuota
+            if(ret.next != null) this.next = ret.next;
+            else this.avanza();
+            return new Coppia<E>(ret.item, ret.occorrenze);
+        }
+
+        /*
+         * Porta next sul primo elemento della prima lista non vuota dopo index
+         * 
+         */
+        private void avanza() {
+            while(++this.index < MyMultiset.this.msize && MyMultiset.this.hashTable[this.index] == null);
+            this.next = this.index < MyMultiset.this.msize ? MyMultiset.this.hashTable[this.index] : null;
+        }
+
+    }
+
+    /*
+     * Vista delle coppie (elemento, occorrenze) basata su EntryItr
+     * 
+     */
+    private class EntrySet extends AbstractSet<Entry<E>> {
+
+        @Override
+        public Iterator<Entry<E>> iterator() {
+            return new EntryItr();
+        }
+
+        @Override
+        public int size() {
+            return MyMultiset.this.nElementiEffettivo;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if(!(o instanceof Entry))
+                return false;
+            Entry<?> entry = (Entry<?>) o;
+            if(entry.getElement() == null)
+                return false;
+            return entry.getCount() > 0 && MyMultiset.this.count(entry.getElement()) == entry.getCount();
+        }
+
+    }
+
     /**
      * Crea un multiset vuoto.
      */
@@ -199,7 +428,7 @@ public class MyMultiset<E> implements Multiset<E> {
         this.nElementi = 0;
         this.nElementiEffettivo = 0;
         this.numeroModifiche = 0;
-        this.msize = DEFAULT_DIM;
+        this.setMsize(DEFAULT_DIM);
 
     }
 
@@ -241,61 +470,44 @@ public class MyMultiset<E> implements Multiset<E> {
         if(occurrences < 0) 
             throw new IllegalArgumentException("Numero di occorrenze negativo non consentito.");
 
-        // se la tabella ha superato la soglia del fattore di carico, estendo
-        if((this.nElementiEffettivo/this.msize) > LOAD_FACTOR)
-            this.extend();
+        int hash = computeHash(element); // unico calcolo della chiave
+        Element<E> temp = this.hashTable[hash]; // sentinella
 
-        Element<E> temp; // sentinella
-        int oldOccorrenze = 0; // var di appoggio per le occorrenze precedenti
-        
-        // controllo se presente
-        if(this.contains(element)) {
+        // unica scansione della lista di collisioni
+        while(temp != null && !temp.item.equals(element)) temp = temp.next;
 
-            // se lo contiene so già che lo troverò
-            temp = this.hashTable[computeHash(element)];
+        // se presente
+        if(temp != null) {
 
-            // scorro lista collisioni
-            while(!(temp.item.equals(element)) && temp.next != null) temp = temp.next;
+            int oldOccorrenze = temp.occorrenze; // var di appoggio per le occorrenze precedenti
 
             // verifico che la dimensione non sia superiore alla soglia massima per un intero
-            if(!checkMax((long)temp.occorrenze + occurrences)) { 
-                oldOccorrenze = temp.occorrenze;
+            if(checkMax((long)temp.occorrenze + occurrences))
+                throw new IllegalArgumentException("Limite fisico per un intero di occorrenze raggiunto.");
+
+            if(occurrences != 0) { // se le occorrenze cambiano
                 temp.occorrenze += occurrences; // aumento di occurences il n. occorrenze dell'elemento
+                this.nElementi += occurrences;
+                this.numeroModifiche++;
+                if(this.voci != null) this.spostaFrequenza(temp);
             }
-            else throw new IllegalArgumentException("Limite fisico per un intero di occorrenze raggiunto.");
-
-            if(oldOccorrenze != temp.occorrenze) 
-                this.numeroModifiche++; // se le occorrenze sono cambiate
+            return oldOccorrenze;
 
         }
-        // se non presente
-        else {
 
-            if(occurrences == 0) return 0; // se le occorrenze da aggiungere sono 0 non aggiungo il nuovo elemento
-            if(this.hashTable[computeHash(element)] != null) {
-            
-                // se non supera il limite di occorrenze lo aggiungo immediatamente come slot dopo "la testa" nella lista di collisioni
-                if(!checkMax((long) occurrences)) {
-                    Element<E> newElement = new Element<E>(element, occurrences, this.hashTable[computeHash(element)].next);
-                    this.hashTable[computeHash(element)].next = newElement;
-                }
-                else throw new IllegalArgumentException("Limite fisico per un intero di occorrenze raggiunto.");
+        if(occurrences == 0) return 0; // se le occorrenze da aggiungere sono 0 non aggiungo il nuovo elemento
 
-            }
-            else {
+        // non presente: diventa la testa della lista di collisioni
+        this.hashTable[hash] = new Element<E>(element, occurrences, this.hashTable[hash]);
+        this.nElementi += occurrences;
+        this.numeroModifiche++;
+        if(this.voci != null) this.inserisciFrequenza(this.hashTable[hash]);
 
-                // verifico che la dimensione non sia superiore alla soglia massima per un intero
-                if(!checkMax(occurrences))
-                    this.hashTable[computeHash(element)] = new Element<E>(element, occurrences, null);
-                else throw new IllegalArgumentException("Limite fisico per un intero di occorrenze raggiunto.");
+        // se la tabella ha superato la soglia del fattore di carico, estendo
+        if(++this.nElementiEffettivo > this.soglia)
+            this.extend();
 
-            }
-            this.numeroModifiche++;
-            this.nElementiEffettivo++;
-        }
-            
-        this.nElementi += occurrences;
-        return oldOccorrenze;
+        return 0;
     }
 
     @Override
@@ -343,12 +555,17 @@ public class MyMultiset<E> implements Multiset<E> {
                 else {
                     prec.next = temp.next;
                 }
+                this.nElementiEffettivo--;
                 this.numeroModifiche++;
+                if(this.voci != null) this.scollegaFrequenza(temp);
             }
             // se vanno solo diminuite le occorrenze
             else {
                 temp.occorrenze -= occurrences;
-                if(oldOccorrenze != temp.occorrenze) this.numeroModifiche++;
+                if(oldOccorrenze != temp.occorrenze) {
+                    this.numeroModifiche++;
+                    if(this.voci != null) this.spostaFrequenza(temp);
+                }
             }
 
             // Se l'elemento è stato rimosso rimuovo solo le "vecchie" occorrenze
@@ -397,11 +614,14 @@ public class MyMultiset<E> implements Multiset<E> {
                 else {
                     prec.next = temp.next;
                 }
+                this.nElementiEffettivo--;
+                if(this.voci != null) this.scollegaFrequenza(temp);
 
             }
             // se vanno diminuite le occorrenze
             else {
                 temp.occorrenze -= 1;
+                if(this.voci != null) this.spostaFrequenza(temp);
             }
 
             this.nElementi--;
@@ -420,6 +640,10 @@ public class MyMultiset<E> implements Multiset<E> {
             throw new NullPointerException("Elemento inesistente.");
         if(count < 0) 
             throw new IllegalArgumentException("Numero di occorrenze negativo non consentito.");
+
+        // senza occorrenze l'elemento non fa più parte del multinsieme
+        if(count == 0)
+            return this.remove(element, Integer.MAX_VALUE);
         
         Element<E> temp; // sentinella
         int oldOccorrenze = 0;
@@ -439,12 +663,15 @@ public class MyMultiset<E> implements Multiset<E> {
             }
             else throw new IllegalArgumentException("Limite fisico per un intero di occorrenze raggiunto.");
 
-            if(oldOccorrenze != temp.occorrenze) 
-                this.numeroModifiche++; // se le occorrenze sono cambiate      
+            if(oldOccorrenze != temp.occorrenze) { // se le occorrenze sono cambiate
+                this.numeroModifiche++;
+                if(this.voci != null) this.spostaFrequenza(temp);
+            }
             
         }
         else {
-            this.add(element, count);
+            // add aggiorna già il numero di elementi
+            return this.add(element, count);
         }
         
         this.nElementi -= oldOccorrenze;
@@ -482,6 +709,63 @@ public class MyMultiset<E> implements Multiset<E> {
         return new Itr();
     }
 
+    /**
+     * Restituisce un iteratore sulle coppie (elemento, numero di occorrenze)
+     * di questo multinsieme: ogni elemento distinto viene restituito una sola
+     * volta, per cui scorrere il multinsieme costa Θ(m + n) con m la
+     * dimensione della tabella e n il numero di elementi distinti,
+     * indipendentemente dal numero di occorrenze. La tabella non si riduce
+     * con le rimozioni, per cui m dipende dal massimo numero di elementi
+     * distinti raggiunto. Le coppie restituite sono immutabili e riportano il
+     * numero di occorrenze al momento della chiamata di next. L'iteratore è
+     * fail-fast come quello restituito da iterator() e non supporta remove.
+     *
+     * @return un iteratore sulle coppie (elemento, numero di occorrenze)
+     */
+    public Iterator<Entry<E>> entryIterator() {
+        return new EntryItr();
+    }
+
+    /**
+     * Restituisce una vista delle coppie (elemento, numero di occorrenze) di
+     * questo multinsieme, basata su entryIterator(). La vista non è
+     * modificabile, ma riflette le modifiche successive del multinsieme.
+     *
+     * @return l'insieme delle coppie (elemento, numero di occorrenze)
+     */
+    public Set<Entry<E>> entrySet() {
+        return new EntrySet();
+    }
+
+    /**
+     * Esegue l'azione data su ogni elemento distinto di questo multinsieme e
+     * sul suo numero di occorrenze, senza allocare oggetti, in un tempo
+     * Θ(m + n) con m la dimensione della tabella e n il numero di elementi
+     * distinti.
+     *
+     * @param action
+     *                   l'azione da eseguire
+     * @throws NullPointerException
+     *                                             se action è null
+     * @throws ConcurrentModificationException
+     *                                             se l'azione modifica il
+     *                                             multinsieme
+     */
+    public void forEachEntry(ObjIntConsumer<? super E> action) {
+
+        if(action == null)
+            throw new NullPointerException("Azione inesistente.");
+
+        int numeroModificheAtteso = this.numeroModifiche;
+        for(int i = 0; i < this.msize; i++)
+            for(Element<E> temp = this.hashTable[i]; temp != null; temp = temp.next) {
+                action.accept(temp.item, temp.occorrenze);
+                // controllo concorrenza
+                if(numeroModificheAtteso != this.numeroModifiche)
+                    throw new ConcurrentModificationException("Lista modificata durante l'iterazione");
+            }
+    }
+
     @Override
     public boolean contains(Object element) {
 
@@ -514,7 +798,11 @@ public class MyMultiset<E> implements Multiset<E> {
         this.nElementi = 0;
         this.nElementiEffettivo = 0;
         this.numeroModifiche++;
-        this.msize = DEFAULT_DIM;
+        this.setMsize(DEFAULT_DIM);
+        // l'indice delle frequenze, se attivo, resta attivo ma vuoto
+        if(this.voci != null) this.voci = new IdentityHashMap<Element<E>, Voce<E>>();
+        this.minima = null;
+        this.massima = null;
 
     }
 
@@ -523,6 +811,213 @@ public class MyMultiset<E> implements Multiset<E> {
         return this.nElementi == 0;
     }
 
+    /**
+     * Aggiunge a questo multinsieme tutte le occorrenze degli elementi di un
+     * altro multinsieme. La tabella viene estesa una sola volta, prima di
+     * iniziare, alla dimensione sufficiente per il maggiore tra i numeri di
+     * elementi distinti dei due multinsiemi, che il risultato conterrà di
+     * sicuro; oltre questo si estende come con add, per non raddoppiare
+     * definitivamente la tabella quando i due multinsiemi hanno elementi in
+     * comune. Se other è un MyMultiset le sue liste di collisione vengono
+     * scorse direttamente, altrimenti ne vengono letti elementSet() e count().
+     * Se un elemento supererebbe Integer.MAX_VALUE occorrenze viene lanciata
+     * l'eccezione e gli elementi aggiunti fino a quel momento restano nel
+     * multinsieme, come chiamando add per ognuno.
+     *
+     * @param other
+     *                  il multinsieme di cui aggiungere le occorrenze
+     * @throws NullPointerException
+     *                                      se other è null
+     * @throws IllegalArgumentException
+     *                                      se questa operazione comporterebbe
+     *                                      più di {@code Integer.MAX_VALUE}
+     *                                      occorrenze di un elemento
+     */
+    public void addAll(Multiset<? extends E> other) {
+
+        if(other == null)
+            throw new NullPointerException("Multinsieme inesistente.");
+
+        this.addAll(other, true);
+    }
+
+    /*
+     * Implementazione di addAll(Multiset): se dimensiona è false la tabella
+     * non viene estesa prima di iniziare, perché è già stata dimensionata da
+     * merge
+     * 
+     */
+    private void addAll(Multiset<? extends E> other, boolean dimensiona) {
+
+        if(other instanceof MyMultiset) {
+            this.addAllChains((MyMultiset<? extends E>) other, dimensiona);
+            return;
+        }
+
+        Set<? extends E> elementi = other.elementSet();
+        if(dimensiona)
+            this.ensureCapacity(Math.max(this.nElementiEffettivo, elementi.size()));
+        for(E element : elementi)
+            this.add(element, other.count(element));
+    }
+
+    /**
+     * Aggiunge a questo multinsieme un'occorrenza per ogni elemento
+     * restituito da un Iterable. Se elements è un Set, e quindi ne è noto il
+     * numero di elementi distinti, la tabella viene estesa prima di iniziare
+     * alla dimensione sufficiente per il maggiore tra quel numero e gli
+     * elementi distinti di questo multinsieme; oltre questo, e se elements
+     * non è un Set, si estende man mano come con add.
+     *
+     * @param elements
+     *                     gli elementi da aggiungere
+     * @throws NullPointerException
+     *                                      se elements o uno dei suoi elementi
+     *                                      è null
+     * @throws IllegalArgumentException
+     *                                      se questa operazione comporterebbe
+     *                                      più di {@code Integer.MAX_VALUE}
+     *                                      occorrenze di un elemento
+     */
+    public void addAll(Iterable<? extends E> elements) {
+
+        if(elements == null)
+            throw new NullPointerException("Elementi inesistenti.");
+        if(elements instanceof Multiset) {
+            this.addAll((Multiset<? extends E>) elements);
+            return;
+        }
+
+        if(elements instanceof Set)
+            this.ensureCapacity(Math.max(this.nElementiEffettivo, ((Set<? extends E>) elements).size()));
+        for(E element : elements)
+            this.add(element, 1);
+    }
+
+    /**
+     * Crea un nuovo multinsieme con tutte le occorrenze dei multinsiemi dati.
+     * La tabella del risultato viene allocata una sola volta, della dimensione
+     * sufficiente per il numero stimato di elementi distinti dell'unione: per
+     * ogni multinsieme si controlla su un campione di CAMPIONE_MERGE elementi
+     * quale frazione non compare in quelli che lo precedono. Se la stima è
+     * per difetto la tabella si estende poi come con add.
+     *
+     * @param <E>
+     *                      il tipo degli elementi
+     * @param multisets
+     *                      i multinsiemi da fondere
+     * @return un nuovo multinsieme con, per ogni elemento, la somma delle sue
+     *         occorrenze nei multinsiemi dati
+     * @throws NullPointerException
+     *                                      se multisets o uno dei multinsiemi
+     *                                      è null
+     * @throws IllegalArgumentException
+     *                                      se un elemento avrebbe più di
+     *                                      {@code Integer.MAX_VALUE}
+     *                                      occorrenze
+     */
+    @SafeVarargs
+    public static <E> MyMultiset<E> merge(Multiset<? extends E>... multisets) {
+
+        if(multisets == null)
+            throw new NullPointerException("Multinsiemi inesistenti.");
+
+        double distinti = 0;
+        for(int i = 0; i < multisets.length; i++) {
+            Multiset<? extends E> m = multisets[i];
+            if(m == null)
+                throw new NullPointerException("Multinsieme inesistente.");
+
+            // campione degli elementi e numero di elementi distinti
+            List<Object> campione = new ArrayList<Object>(CAMPIONE_MERGE);
+            int n;
+            if(m instanceof MyMultiset) {
+                MyMultiset<? extends E> mm = (MyMultiset<? extends E>) m;
+                n = mm.nElementiEffettivo;
+                for(int j = 0; j < mm.msize && campione.size() < CAMPIONE_MERGE; j++)
+                    for(Element<? extends E> temp = mm.hashTable[j]; temp != null && campione.size() < CAMPIONE_MERGE; temp = temp.next)
+                        campione.add(temp.item);
+            }
+            else {
+                Set<? extends E> elementi = m.elementSet();
+                n = elementi.size();
+                for(Iterator<? extends E> itr = elementi.iterator(); itr.hasNext() && campione.size() < CAMPIONE_MERGE;)
+                    campione.add(itr.next());
+            }
+
+            // frazione del campione che non compare nei multinsiemi precedenti
+            int nuovi = 0;
+            for(Object element : campione) {
+                int j = 0;
+                while(j < i && !multisets[j].contains(element)) j++;
+                if(j == i) nuovi++;
+            }
+            distinti += campione.isEmpty() ? 0 : (double) n * nuovi / campione.size();
+        }
+
+        MyMultiset<E> ret = new MyMultiset<E>();
+        ret.ensureCapacity((long) Math.ceil(distinti));
+        for(Multiset<? extends E> m : multisets)
+            ret.addAll(m, false);
+        return ret;
+    }
+
+    /**
+     * Restituisce i k elementi con più occorrenze in questo multinsieme, in
+     * ordine di numero di occorrenze decrescente (l'ordine tra elementi con lo
+     * stesso numero di occorrenze non è specificato). Se il multinsieme
+     * contiene meno di k elementi distinti li restituisce tutti.
+     *
+     * @param k
+     *              il numero di elementi da restituire
+     * @return una lista di al più k elementi distinti
+     * @throws IllegalArgumentException
+     *                                      se k è negativo
+     */
+    public List<E> topK(int k) {
+
+        if(k < 0)
+            throw new IllegalArgumentException("Numero di elementi negativo non consentito.");
+
+        this.attivaIndiceFrequenze();
+        List<E> ret = new ArrayList<E>(Math.min(k, this.nElementiEffettivo));
+
+        // scorro i gruppi dal più frequente finché non ho k elementi
+        for(Frequenza<E> f = this.massima; f != null && ret.size() < k; f = f.prec)
+            for(Voce<E> v = f.primo; v != null && ret.size() < k; v = v.succ)
+                ret.add(v.element.item);
+
+        return ret;
+    }
+
+    /**
+     * Restituisce gli elementi di questo multinsieme con almeno un certo
+     * numero di occorrenze, in ordine di numero di occorrenze decrescente
+     * (l'ordine tra elementi con lo stesso numero di occorrenze non è
+     * specificato).
+     *
+     * @param threshold
+     *                      il numero minimo di occorrenze
+     * @return la lista degli elementi con almeno threshold occorrenze
+     * @throws IllegalArgumentException
+     *                                      se threshold è negativo
+     */
+    public List<E> elementsWithCountAtLeast(int threshold) {
+
+        if(threshold < 0)
+            throw new IllegalArgumentException("Numero di occorrenze negativo non consentito.");
+
+        this.attivaIndiceFrequenze();
+        List<E> ret = new ArrayList<E>();
+
+        // scorro i gruppi dal più frequente finché hanno abbastanza occorrenze
+        for(Frequenza<E> f = this.massima; f != null && f.occorrenze >= threshold; f = f.prec)
+            for(Voce<E> v = f.primo; v != null; v = v.succ)
+                ret.add(v.element.item);
+
+        return ret;
+    }
+
     /*
      * Due multinsiemi sono uguali se e solo se contengono esattamente gli
      * stessi elementi (utilizzando l'equals della classe E) con le stesse
@@ -587,8 +1082,8 @@ public class MyMultiset<E> implements Multiset<E> {
      */
     private int computeHash(E element) {
 
-        // metodo della moltiplicazione floor(m * partefrazionaria(key * A))
-        return (int)Math.floor(this.msize * (element.hashCode()*A_VALUE - Math.floor((element.hashCode()*A_VALUE))));
+        // metodo della moltiplicazione floor(m * partefrazionaria(key * A)) sugli interi
+        return (element.hashCode() * A_VALUE) >>> this.shift;
     }
 
     /*
@@ -609,40 +1104,275 @@ public class MyMultiset<E> implements Multiset<E> {
      */
     private void extend() {
 
+        // alla dimensione massima la tabella non viene più estesa
+        if(this.msize == MAX_DIM) {
+            this.soglia = Integer.MAX_VALUE;
+            return;
+        }
+
+        this.rehash(this.msize * 2); // radoppio le dim della tabella
+
+    }
+
+    /*
+     * Aggiunge le occorrenze di un altro MyMultiset scorrendone direttamente
+     * le liste di collisione
+     * 
+     */
+    private void addAllChains(MyMultiset<? extends E> other, boolean dimensiona) {
+
+        // aggiungere un multinsieme a se stesso ne raddoppia le occorrenze
+        if(other == this) {
+            for(Element<E> temp : this.hashTable)
+                for(; temp != null; temp = temp.next)
+                    if(checkMax(2L * temp.occorrenze))
+                        throw new IllegalArgumentException("Limite fisico per un intero di occorrenze raggiunto.");
+            for(Element<E> temp : this.hashTable)
+                for(; temp != null; temp = temp.next)
+                    this.add(temp.item, temp.occorrenze);
+            return;
+        }
+
+        if(dimensiona)
+            this.ensureCapacity(Math.max(this.nElementiEffettivo, other.nElementiEffettivo));
+
+        // se questo multinsieme è vuoto gli elementi di other sono tutti nuovi
+        // e distinti: li inserisco in testa senza scorrere le liste
+        boolean nuovi = this.nElementiEffettivo == 0 && this.voci == null;
+        for(Element<? extends E> temp : other.hashTable)
+            for(; temp != null; temp = temp.next) {
+                if(nuovi) {
+                    int hash = computeHash(temp.item);
+                    this.hashTable[hash] = new Element<E>(temp.item, temp.occorrenze, this.hashTable[hash]);
+                    this.nElementiEffettivo++;
+                    this.nElementi += temp.occorrenze;
+                }
+                else
+                    this.add(temp.item, temp.occorrenze);
+            }
+        if(nuovi && other.nElementiEffettivo > 0)
+            this.numeroModifiche++;
+    }
+
+    /*
+     * Estende la tabella, se necessario, con un'unica riallocazione alla
+     * dimensione che contiene il numero di elementi distinti indicato senza
+     * superare il fattore di carico
+     * 
+     */
+    private void ensureCapacity(long elementiEffettivi) {
+
+        int dim = this.msize;
+        while(dim < MAX_DIM && elementiEffettivi > (long) (dim * LOAD_FACTOR)) dim *= 2;
+        if(dim > this.msize)
+            this.rehash(dim);
+    }
+
+    /*
+     * Alloca una tabella di dimensione dim, potenza di 2, e vi riposiziona
+     * gli elementi
+     * 
+     */
+    private void rehash(int dim) {
+
         Element<E>[] oldHash = this.hashTable;
-        this.hashTable = (Element<E>[])new Element[this.msize*2]; // alloco una nuova tabella dalla dimensione doppia
+        this.hashTable = (Element<E>[])new Element<?>[dim]; // alloco la nuova tabella
         Element<E> temp, next;
 
-        int oldSize = this.msize; // salvo le vecchie dimensioni
-        this.msize = this.msize * 2; // radoppio le dim della tabella
+        this.setMsize(dim);
+        if(dim == MAX_DIM)
+            this.soglia = Integer.MAX_VALUE; // la tabella non viene più estesa
 
-        for(int i=0; i<oldSize; i++) { // scorro l'hash table
+        for(int i=0; i<oldHash.length; i++) { // scorro l'hash table
 
-            temp = oldHash[i]; // prendo l'elemento di indice
-            next = oldHash[i];
-            
             // scorro dal primo eventuale elemento l'intera lista di collisioni
-            while(temp != null){ 
-                
+            for(temp = oldHash[i]; temp != null; temp = next) {
+
                 int hash = computeHash(temp.item);
                 next = temp.next;
-                temp.next = null;
 
-                if(this.hashTable[hash] != null) { // se l'indice non è libero
+                // diventa la testa della lista nella nuova posizione
+                temp.next = this.hashTable[hash];
+                this.hashTable[hash] = temp;
+            }
 
-                    // attacco dopo la testa
-                    temp.next = this.hashTable[hash].next;
-                    this.hashTable[hash].next = temp;
+        }
 
-                }
-                else   // altrimenti va nella posizione corrispondente al risultato della funzione hash
-                    this.hashTable[hash] = temp;
-                
-                temp = next;
+    }
+
+    /*
+     * Aggiorna la dimensione della tabella e i valori che ne dipendono
+     * 
+     */
+    private void setMsize(int msize) {
+
+        this.msize = msize;
+        this.soglia = (int) (msize * LOAD_FACTOR);
+        this.shift = Integer.numberOfLeadingZeros(msize) + 1;
+    }
+
+    /*
+     * Costruisce l'indice delle frequenze, se non è già attivo, ordinando gli
+     * elementi per numero di occorrenze
+     * 
+     */
+    private void attivaIndiceFrequenze() {
+
+        if(this.voci != null) return;
+
+        Element<E>[] elementi = (Element<E>[])new Element<?>[this.nElementiEffettivo];
+        int n = 0;
+        for(Element<E> temp : this.hashTable)
+            for(; temp != null; temp = temp.next)
+                elementi[n++] = temp;
+        Arrays.sort(elementi, (a, b) -> Integer.compare(a.occorrenze, b.occorrenze));
+
+        // in ordine crescente ogni elemento va nel gruppo più frequente o in uno nuovo dopo di esso
+        this.voci = new IdentityHashMap<Element<E>, Voce<E>>(n);
+        for(Element<E> temp : elementi) {
+            Voce<E> voce = new Voce<E>(temp);
+            this.voci.put(temp, voce);
+            this.collegaFrequenza(voce, this.massima);
+        }
+    }
+
+    /*
+     * Inserisce nell'indice delle frequenze un elemento nuovo
+     * 
+     */
+    private void inserisciFrequenza(Element<E> element) {
+
+        Voce<E> voce = new Voce<E>(element);
+        this.voci.put(element, voce);
+
+        // parto dal gruppo meno frequente: di solito un nuovo elemento ha poche occorrenze
+        Frequenza<E> f = null;
+        Frequenza<E> g = this.minima;
+        while(g != null && g.occorrenze <= element.occorrenze) {
+            f = g;
+            g = g.succ;
+        }
+        this.collegaFrequenza(voce, f);
+    }
+
+    /*
+     * Sposta nel gruppo giusto un elemento dell'indice delle frequenze di cui
+     * sono appena cambiate le occorrenze, scorrendo i gruppi a partire dal suo
+     * 
+     */
+    private void spostaFrequenza(Element<E> element) {
+
+        Voce<E> voce = this.voci.get(element);
+        Frequenza<E> f = voce.frequenza;
+        this.scollegaVoce(voce);
+
+        // ultimo gruppo con al più le occorrenze dell'elemento: parto da f se è
+        // ancora presente, altrimenti dal suo precedente
+        Frequenza<E> p = f.primo != null ? f : f.prec;
+        if(element.occorrenze > f.occorrenze) {
+            Frequenza<E> g = p == null ? this.minima : p.succ;
+            while(g != null && g.occorrenze <= element.occorrenze) {
+                p = g;
+                g = g.succ;
             }
+        }
+        else
+            while(p != null && p.occorrenze > element.occorrenze) p = p.prec;
+
+        this.collegaFrequenza(voce, p);
+    }
+
+    /*
+     * Toglie dall'indice delle frequenze un elemento eliminato dal multinsieme
+     * 
+     */
+    private void scollegaFrequenza(Element<E> element) {
+
+        this.scollegaVoce(this.voci.remove(element));
+    }
+
+    /*
+     * Aggiunge la voce al gruppo f se il suo elemento ha le stesse occorrenze,
+     * altrimenti a un nuovo gruppo inserito subito dopo f (all'inizio se f è
+     * null)
+     * 
+     */
+    private void collegaFrequenza(Voce<E> voce, Frequenza<E> f) {
+
+        int occorrenze = voce.element.occorrenze;
+        if(f == null || f.occorrenze != occorrenze) {
+            Frequenza<E> nuova = new Frequenza<E>(occorrenze);
+            nuova.prec = f;
+            nuova.succ = f == null ? this.minima : f.succ;
+            if(nuova.prec == null) this.minima = nuova;
+            else nuova.prec.succ = nuova;
+            if(nuova.succ == null) this.massima = nuova;
+            else nuova.succ.prec = nuova;
+            f = nuova;
+        }
+
+        // la voce diventa la prima del gruppo
+        voce.frequenza = f;
+        voce.prec = null;
+        voce.succ = f.primo;
+        if(f.primo != null) f.primo.prec = voce;
+        f.primo = voce;
+    }
+
+    /*
+     * Toglie la voce dal suo gruppo e il gruppo dall'indice se resta vuoto.
+     * I puntatori del gruppo tolto restano validi per spostaFrequenza
+     * 
+     */
+    private void scollegaVoce(Voce<E> voce) {
+
+        Frequenza<E> f = voce.frequenza;
+        if(voce.prec != null) voce.prec.succ = voce.succ;
+        else f.primo = voce.succ;
+        if(voce.succ != null) voce.succ.prec = voce.prec;
+        voce.frequenza = null;
+        voce.prec = null;
+        voce.succ = null;
+
+        if(f.primo == null) {
+            if(f.prec != null) f.prec.succ = f.succ;
+            else this.minima = f.succ;
+            if(f.succ != null) f.succ.prec = f.prec;
+            else this.massima = f.prec;
+        }
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected int getTableSize() {
+        return this.msize;
+    }
 
-        }        
+    /*
+     * Only for JUnit testing purposes.
+     * Lunghezza media delle liste di collisione non vuote
+     */
+    protected double getAverageChainLength() {
+        int nonVuote = 0, elementi = 0;
+        for(Element<E> temp : this.hashTable) {
+            if(temp != null) nonVuote++;
+            for(; temp != null; temp = temp.next) elementi++;
+        }
+        return nonVuote == 0 ? 0 : (double) elementi / nonVuote;
+    }
 
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected int getMaxChainLength() {
+        int max = 0;
+        for(Element<E> temp : this.hashTable) {
+            int lunghezza = 0;
+            for(; temp != null; temp = temp.next) lunghezza++;
+            max = Math.max(max, lunghezza);
+        }
+        return max;
     }
 
 }
@@ -2,11 +2,16 @@ package it.unicam.cs.asdl2324.mp1;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -614,4 +619,362 @@ public class MyMultisetTest {
         assertEquals(true, m1.equals(m2));
     }
 
+    @Test
+    public void testSetCountNoElementSize() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        assertEquals(0, m.setCount(3, 4));
+        assertEquals(4, m.size());
+    }
+
+    @Test
+    public void testExtendLoadFactor() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        // 6 elementi distinti su 8 celle: fattore di carico 0.75
+        for (int i = 0; i < 6; i++)
+            m.add(i, 2);
+        assertEquals(8, m.getTableSize());
+        m.add(6);
+        assertEquals(16, m.getTableSize());
+        // le occorrenze aggiunte ad elementi presenti non estendono la tabella
+        for (int i = 0; i < 7; i++)
+            m.add(i, 100);
+        assertEquals(16, m.getTableSize());
+        for (int i = 0; i < 7; i++)
+            assertEquals(i == 6 ? 101 : 102, m.count(i));
+    }
+
+    @Test
+    public void testExtendAfterRemove() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        // gli elementi rimossi non contano per il fattore di carico
+        for (int i = 0; i < 100; i++) {
+            m.add(i);
+            m.remove(i);
+        }
+        assertEquals(8, m.getTableSize());
+        for (int i = 0; i < 10000; i++)
+            m.add(i);
+        assertTrue(m.getAverageChainLength() < 2);
+        assertEquals(10000, m.size());
+    }
+
+    @Test
+    public void testSetCountToZeroRemoves() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        m.add(2, 3);
+        m.add(4);
+        assertEquals(3, m.setCount(2, 0));
+        assertFalse(m.contains(2));
+        assertEquals(Set.of(4), m.elementSet());
+        Iterator<Integer> itr = m.iterator();
+        assertEquals(4, itr.next());
+        assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void testTopK() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        assertThrows(IllegalArgumentException.class, () -> m.topK(-1));
+        assertTrue(m.topK(3).isEmpty());
+        m.add(1, 5);
+        m.add(2, 1);
+        m.add(3, 9);
+        m.add(4, 5);
+        List<Integer> top = m.topK(3);
+        assertEquals(3, top.size());
+        assertEquals(3, top.get(0));
+        assertEquals(Set.of(1, 4), new HashSet<Integer>(top.subList(1, 3)));
+        assertEquals(List.of(3), m.topK(1));
+        assertEquals(4, m.topK(10).size());
+        assertTrue(m.topK(0).isEmpty());
+        // l'indice segue le modifiche successive
+        m.add(2, 20);
+        m.remove(3, 8);
+        m.setCount(4, 7);
+        assertEquals(List.of(2, 4, 1, 3), m.topK(4));
+        m.remove(2, 20);
+        assertEquals(List.of(4, 1), m.topK(2));
+        m.clear();
+        assertTrue(m.topK(2).isEmpty());
+        m.add(8);
+        assertEquals(List.of(8), m.topK(2));
+    }
+
+    @Test
+    public void testElementsWithCountAtLeast() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        assertThrows(IllegalArgumentException.class, () -> m.elementsWithCountAtLeast(-1));
+        m.add(1, 5);
+        m.add(2, 1);
+        m.add(3, 9);
+        assertEquals(List.of(3, 1), m.elementsWithCountAtLeast(5));
+        assertEquals(3, m.elementsWithCountAtLeast(0).size());
+        assertTrue(m.elementsWithCountAtLeast(10).isEmpty());
+        m.add(2, 9);
+        assertEquals(List.of(2, 3), m.elementsWithCountAtLeast(9));
+    }
+
+    @Test
+    public void testTopKRandom() {
+        Random random = new Random(14);
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        // l'indice viene costruito a metà delle modifiche e poi mantenuto
+        for (int i = 0; i < 40000; i++) {
+            if (i == 20000)
+                m.topK(1);
+            int key = random.nextInt(300);
+            int n = random.nextInt(5);
+            int old = expected.getOrDefault(key, 0);
+            switch (random.nextInt(4)) {
+            case 0:
+                m.add(key, n);
+                expected.put(key, old + n);
+                break;
+            case 1:
+                m.remove(key, n);
+                expected.put(key, Math.max(0, old - n));
+                break;
+            case 2:
+                m.remove(key);
+                expected.put(key, Math.max(0, old - 1));
+                break;
+            default:
+                m.setCount(key, n);
+                expected.put(key, n);
+            }
+            expected.remove(key, 0);
+            if (i % 1000 == 999) {
+                List<Integer> counts = new ArrayList<Integer>(expected.values());
+                counts.sort((a, b) -> b - a);
+                List<Integer> top = m.topK(20);
+                assertEquals(Math.min(20, counts.size()), top.size());
+                for (int j = 0; j < top.size(); j++)
+                    assertEquals(counts.get(j), m.count(top.get(j)));
+                int threshold = counts.isEmpty() ? 1 : counts.get(counts.size() / 2);
+                Set<Integer> atLeast = new HashSet<Integer>();
+                for (Map.Entry<Integer, Integer> e : expected.entrySet())
+                    if (e.getValue() >= threshold)
+                        atLeast.add(e.getKey());
+                assertEquals(atLeast, new HashSet<Integer>(m.elementsWithCountAtLeast(threshold)));
+            }
+        }
+    }
+
+    @Test
+    public void testAddAllMultiset() {
+        MyMultiset<Integer> m1 = new MyMultiset<Integer>();
+        m1.add(1, 2);
+        m1.add(2);
+        MyMultiset<Integer> m2 = new MyMultiset<Integer>();
+        m2.add(2, 3);
+        m2.add(3, 4);
+        m1.addAll(m2);
+        assertEquals(2, m1.count(1));
+        assertEquals(4, m1.count(2));
+        assertEquals(4, m1.count(3));
+        assertEquals(10, m1.size());
+        // il multinsieme aggiunto non cambia
+        assertEquals(7, m2.size());
+        assertThrows(NullPointerException.class, () -> m1.addAll((Multiset<Integer>) null));
+        m2.add(3, Integer.MAX_VALUE - 4);
+        assertThrows(IllegalArgumentException.class, () -> m1.addAll(m2));
+    }
+
+    @Test
+    public void testAddAllOverlappingKeepsTableSize() {
+        MyMultiset<Integer> m1 = new MyMultiset<Integer>();
+        MyMultiset<Integer> m2 = new MyMultiset<Integer>();
+        Set<Integer> s = new HashSet<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            m1.add(i);
+            m2.add(i, 2);
+            s.add(i);
+        }
+        assertEquals(2048, m1.getTableSize());
+        // 1000 + 1000 distinti estenderebbero la tabella, ma sono gli stessi
+        m1.addAll(m2);
+        m1.addAll(s);
+        OpenAddressingMultiset<Integer> m4 = new OpenAddressingMultiset<Integer>();
+        for (int i = 0; i < 1000; i++)
+            m4.add(i, 2);
+        m1.addAll(m4);
+        assertEquals(2048, m1.getTableSize());
+        assertEquals(1000, m1.elementSet().size());
+        for (int i = 0; i < 1000; i++)
+            assertEquals(6, m1.count(i));
+        // la crescita oltre il maggiore dei due si gestisce come con add
+        MyMultiset<Integer> m3 = new MyMultiset<Integer>();
+        for (int i = 500; i < 2000; i++)
+            m3.add(i);
+        m1.addAll(m3);
+        assertEquals(2000, m1.elementSet().size());
+        assertEquals(4096, m1.getTableSize());
+    }
+
+    @Test
+    public void testAddAllEmptyTarget() {
+        MyMultiset<Integer> m1 = new MyMultiset<Integer>();
+        MyMultiset<Integer> m2 = new MyMultiset<Integer>();
+        for (int i = 0; i < 1000; i++)
+            m2.add(i, i % 3 + 1);
+        Iterator<Integer> itr = m1.iterator();
+        m1.addAll(m2);
+        assertThrows(ConcurrentModificationException.class, () -> itr.next());
+        assertEquals(m2.size(), m1.size());
+        assertEquals(m2.elementSet(), m1.elementSet());
+        for (int i = 0; i < 1000; i++)
+            assertEquals(i % 3 + 1, m1.count(i));
+        // la tabella è stata estesa una volta sola alla dimensione sufficiente
+        assertEquals(2048, m1.getTableSize());
+        m1.add(5000);
+        assertEquals(1001, m1.elementSet().size());
+    }
+
+    @Test
+    public void testAddAllSelf() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        m.add(1, 2);
+        m.add(2, 5);
+        m.addAll(m);
+        assertEquals(4, m.count(1));
+        assertEquals(10, m.count(2));
+        assertEquals(14, m.size());
+        m.add(3, Integer.MAX_VALUE - 1);
+        assertThrows(IllegalArgumentException.class, () -> m.addAll(m));
+        // l'eccezione è lanciata prima di ogni modifica
+        assertEquals(4, m.count(1));
+    }
+
+    @Test
+    public void testAddAllIterable() {
+        MyMultiset<String> m = new MyMultiset<String>();
+        m.add("a");
+        m.addAll(List.of("a", "b", "a", "c"));
+        assertEquals(3, m.count("a"));
+        assertEquals(1, m.count("b"));
+        assertEquals(5, m.size());
+        m.addAll(Set.of("x", "y"));
+        assertEquals(7, m.size());
+        assertThrows(NullPointerException.class, () -> m.addAll((Iterable<String>) null));
+        List<String> conNull = new ArrayList<String>();
+        conNull.add(null);
+        assertThrows(NullPointerException.class, () -> m.addAll(conNull));
+    }
+
+    @Test
+    public void testMerge() {
+        MyMultiset<Integer> m1 = new MyMultiset<Integer>();
+        MyMultiset<Integer> m2 = new MyMultiset<Integer>();
+        OpenAddressingMultiset<Integer> m3 = new OpenAddressingMultiset<Integer>();
+        m1.add(1, 2);
+        m2.add(1, 3);
+        m2.add(2);
+        m3.add(2, 4);
+        m3.add(3);
+        MyMultiset<Integer> m = MyMultiset.merge(m1, m2, m3);
+        assertEquals(5, m.count(1));
+        assertEquals(5, m.count(2));
+        assertEquals(1, m.count(3));
+        assertEquals(11, m.size());
+        assertTrue(MyMultiset.<Integer>merge().isEmpty());
+        // multinsiemi uguali: la tabella è dimensionata per l'unione
+        MyMultiset<Integer> big = new MyMultiset<Integer>();
+        for (int i = 0; i < 1000; i++)
+            big.add(i);
+        assertEquals(2048, MyMultiset.merge(big, big, big, big).getTableSize());
+        MyMultiset<Integer> other = new MyMultiset<Integer>();
+        for (int i = 1000; i < 2000; i++)
+            other.add(i);
+        assertEquals(4096, MyMultiset.merge(big, other).getTableSize());
+        assertThrows(NullPointerException.class, () -> MyMultiset.merge(m1, null));
+    }
+
+    @Test
+    public void testEntryIterator() {
+        MyMultiset<String> m = new MyMultiset<String>();
+        assertFalse(m.entryIterator().hasNext());
+        assertThrows(NoSuchElementException.class, () -> m.entryIterator().next());
+        Map<String, Integer> expected = new HashMap<String, Integer>();
+        for (int i = 0; i < 100; i++) {
+            m.add("e" + i, i + 1);
+            expected.put("e" + i, i + 1);
+        }
+        m.add("big", 1_000_000);
+        expected.put("big", 1_000_000);
+        Map<String, Integer> found = new HashMap<String, Integer>();
+        Iterator<MyMultiset.Entry<String>> it = m.entryIterator();
+        while (it.hasNext()) {
+            MyMultiset.Entry<String> e = it.next();
+            assertNull(found.put(e.getElement(), e.getCount()));
+        }
+        assertEquals(expected, found);
+        // fail-fast
+        Iterator<MyMultiset.Entry<String>> it2 = m.entryIterator();
+        it2.next();
+        m.add("e1");
+        assertThrows(ConcurrentModificationException.class, () -> it2.next());
+    }
+
+    @Test
+    public void testEntrySet() {
+        MyMultiset<String> m = new MyMultiset<String>();
+        m.add("a", 3);
+        m.add("b");
+        Set<MyMultiset.Entry<String>> entries = m.entrySet();
+        assertEquals(2, entries.size());
+        MyMultiset<String> m2 = new MyMultiset<String>();
+        m2.add("b");
+        m2.add("a", 3);
+        assertEquals(entries, m2.entrySet());
+        assertEquals(entries.hashCode(), m2.entrySet().hashCode());
+        assertTrue(entries.containsAll(m2.entrySet()));
+        m2.add("a");
+        assertNotEquals(entries, m2.entrySet());
+        assertFalse(entries.contains(m2.entrySet().iterator().next().getElement()));
+        // la vista riflette le modifiche del multinsieme
+        m.remove("b");
+        assertEquals(1, entries.size());
+        m.clear();
+        assertTrue(entries.isEmpty());
+    }
+
+    @Test
+    public void testEntrySnapshot() {
+        MyMultiset<String> m = new MyMultiset<String>();
+        m.add("a", 3);
+        m.add("b");
+        Set<MyMultiset.Entry<String>> held = new HashSet<MyMultiset.Entry<String>>();
+        Iterator<MyMultiset.Entry<String>> it = m.entryIterator();
+        while (it.hasNext())
+            held.add(it.next());
+        MyMultiset.Entry<String> a = null;
+        for (MyMultiset.Entry<String> e : held)
+            if (e.getElement().equals("a"))
+                a = e;
+        // le coppie non cambiano con le modifiche del multinsieme
+        m.add("a", 2);
+        m.remove("b");
+        assertEquals(3, a.getCount());
+        assertTrue(held.contains(a));
+        assertEquals(2, held.size());
+        assertFalse(m.entrySet().contains(a));
+        assertEquals(5, m.entryIterator().next().getCount());
+    }
+
+    @Test
+    public void testForEachEntry() {
+        MyMultiset<Integer> m = new MyMultiset<Integer>();
+        for (int i = 0; i < 1000; i++)
+            m.add(i % 10, i);
+        Map<Integer, Integer> found = new HashMap<Integer, Integer>();
+        m.forEachEntry((e, n) -> assertNull(found.put(e, n)));
+        assertEquals(10, found.size());
+        for (int k = 0; k < 10; k++)
+            assertEquals(m.count(k), (int) found.get(k));
+        assertThrows(NullPointerException.class, () -> m.forEachEntry(null));
+        assertThrows(ConcurrentModificationException.class, () -> m.forEachEntry((e, n) -> m.add(e)));
+        new MyMultiset<Integer>().forEachEntry((e, n) -> fail());
+    }
+
 }
@@ -0,0 +1,480 @@
+package it.unicam.cs.asdl2324.mp1;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Questa classe OpenAddressingMultiset implementa l'interfaccia Multiset con
+ * una tabella hash a indirizzamento aperto memorizzata in due array paralleli:
+ * un array di Object per gli elementi distinti e un array di int per il
+ * rispettivo numero di occorrenze. A differenza di MyMultiset non viene
+ * allocato un nodo per ogni elemento distinto: una ricerca legge al più una
+ * sequenza di celle contigue dei due array, senza seguire puntatori a oggetti
+ * sparsi nello heap, e lo spazio occupato per elemento si riduce ai due slot
+ * degli array.
+ *
+ * Le collisioni sono risolte con la scansione lineare. La posizione di
+ * partenza di un elemento è data dal metodo della moltiplicazione nella
+ * versione intera (hashing di Fibonacci): si moltiplica l'hashCode
+ * dell'elemento per floor(2^32 * (sqrt(5) - 1)/2) e se ne prendono i bit più
+ * significativi, tanti quanti ne servono per indicizzare la tabella. Le
+ * rimozioni non lasciano segnaposti ma spostano all'indietro gli elementi
+ * successivi dello stesso blocco (backward-shift deletion), così la lunghezza
+ * delle scansioni dipende solo dagli elementi presenti.
+ *
+ * La tabella ha sempre dimensione pari a una potenza di 2 (inizialmente 16, o
+ * quella sufficiente per il numero di elementi distinti previsto passato al
+ * costruttore) e raddoppia quando il numero di elementi distinti supera i 3/4
+ * delle celle. Tutte le operazioni base (add, remove, setCount, contains,
+ * count) hanno un costo medio costante; il raddoppio ha un costo lineare nel
+ * numero di elementi distinti ma ammortizzato costante per inserimento.
+ *
+ * L'iteratore non espande le occorrenze: mantiene la cella corrente e il
+ * numero di occorrenze ancora da restituire per essa.
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ * @param <E>
+ *                il tipo degli elementi del multiset
+ */
+@SuppressWarnings({"unchecked"})
+public class OpenAddressingMultiset<E> implements Multiset<E> {
+
+    // Fattore di carico massimo oltre il quale la tabella viene raddoppiata
+    private static final double LOAD_FACTOR = 0.75;
+
+    // Dimensione di partenza della tabella hash
+    private static final int DEFAULT_DIM = 16;
+
+    // Dimensione massima della tabella hash
+    private static final int MAX_DIM = 1 << 30;
+
+    // floor(2^32 * (sqrt(5) - 1)/2), costante del metodo della moltiplicazione
+    private static final int A_VALUE = 0x9E3779B9;
+
+    // N. modifiche usato per l'iteratore fail-fast
+    private int numeroModifiche;
+
+    // Elementi distinti, null nelle celle libere
+    private Object[] chiavi;
+
+    // Occorrenze dell'elemento nella stessa posizione di chiavi
+    private int[] occorrenze;
+
+    // Numero di elementi "virtuali" cioè che prende conto anche delle occorrenze di ogni elemento
+    private long nElementi;
+
+    // Numero di elementi distinti memorizzati nella tabella
+    private int nElementiEffettivo;
+
+    // Numero di elementi distinti oltre il quale la tabella viene raddoppiata
+    private int soglia;
+
+    // 32 - log2 della dimensione della tabella, per il calcolo della posizione
+    private int shift;
+
+    private class Itr implements Iterator<E> {
+
+        // posizione della cella su cui si sta iterando
+        private int index;
+
+        // occorrenze ancora da restituire per la cella index
+        private int occorrenza;
+
+        // var di appoggio per le modifiche attese
+        private int numeroModificheAtteso;
+
+        private Itr() {
+            this.numeroModificheAtteso = OpenAddressingMultiset.this.numeroModifiche;
+            this.index = -1;
+            this.avanza();
+        }
+
+        /*
+         * Porta index sulla cella occupata successiva, o oltre la fine della
+         * tabella se non ce ne sono altre
+         */
+        private void avanza() {
+            Object[] chiavi = OpenAddressingMultiset.this.chiavi;
+            while(++this.index < chiavi.length && chiavi[this.index] == null);
+            if(this.index < chiavi.length)
+                this.occorrenza = OpenAddressingMultiset.this.occorrenze[this.index];
+            else
+                this.occorrenza = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.occorrenza > 0;
+        }
+
+        @Override
+        public E next() {
+            // controllo concorrenza
+            if (this.numeroModificheAtteso != OpenAddressingMultiset.this.numeroModifiche) {
+                throw new ConcurrentModificationException("Lista modificata durante l'iterazione");
+            }
+
+            // controllo hasNext()
+            if (!hasNext()) throw new NoSuchElementException("Richiesta di next quando hasNext è falso");
+
+            E item = (E) OpenAddressingMultiset.this.chiavi[this.index];
+            // terminate le occorrenze della cella passo alla successiva
+            if(--this.occorrenza == 0)
+                this.avanza();
+            return item;
+        }
+
+    }
+
+    /**
+     * Crea un multiset vuoto.
+     */
+    public OpenAddressingMultiset() {
+        this.alloca(DEFAULT_DIM);
+    }
+
+    /**
+     * Crea un multiset vuoto con una tabella già sufficiente a contenere il
+     * numero di elementi distinti indicato senza raddoppi.
+     *
+     * @param elementiDistinti
+     *                             numero di elementi distinti previsto
+     * @throws IllegalArgumentException
+     *                                      se elementiDistinti è negativo
+     */
+    public OpenAddressingMultiset(int elementiDistinti) {
+        if(elementiDistinti < 0)
+            throw new IllegalArgumentException("Numero di elementi negativo non consentito.");
+        int dim = DEFAULT_DIM;
+        while(dim < MAX_DIM && elementiDistinti > (int) (dim * LOAD_FACTOR)) dim *= 2;
+        this.alloca(dim);
+    }
+
+    @Override
+    public int size() {
+        // il numero di occorrenze complessive può superare il massimo di un intero
+        return (int) Math.min(this.nElementi, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int count(Object element) {
+
+        if(element == null)
+            throw new NullPointerException("Elemento inesistente.");
+
+        int i = this.indexOf(element);
+        return this.chiavi[i] == null ? 0 : this.occorrenze[i];
+    }
+
+    @Override
+    public int add(E element, int occurrences) {
+
+        if(element == null)
+            throw new NullPointerException("Elemento inesistente.");
+        if(occurrences < 0)
+            throw new IllegalArgumentException("Numero di occorrenze negativo non consentito.");
+
+        int i = this.indexOf(element);
+
+        // già presente: aggiorno le occorrenze nella cella trovata
+        if(this.chiavi[i] != null) {
+            int oldOccorrenze = this.occorrenze[i];
+            if(checkMax((long) oldOccorrenze + occurrences))
+                throw new IllegalArgumentException("Limite fisico per un intero di occorrenze raggiunto.");
+            if(occurrences != 0) {
+                this.occorrenze[i] = oldOccorrenze + occurrences;
+                this.nElementi += occurrences;
+                this.numeroModifiche++;
+            }
+            return oldOccorrenze;
+        }
+
+        // non presente: occupo la cella libera in cui si è fermata la scansione
+        if(occurrences != 0)
+            this.inserisci(i, element, occurrences);
+        return 0;
+    }
+
+    @Override
+    public void add(E element) {
+        this.add(element, 1);
+    }
+
+    @Override
+    public int remove(Object element, int occurrences) {
+
+        if(element == null)
+            throw new NullPointerException("Elemento inesistente.");
+        if(occurrences < 0)
+            throw new IllegalArgumentException("Numero di occorrenze negativo non consentito.");
+
+        int i = this.indexOf(element);
+        if(this.chiavi[i] == null)
+            return 0;
+
+        int oldOccorrenze = this.occorrenze[i];
+        // se va rimosso
+        if(occurrences >= oldOccorrenze) {
+            this.nElementi -= oldOccorrenze;
+            this.elimina(i);
+            this.numeroModifiche++;
+        }
+        // se vanno solo diminuite le occorrenze
+        else if(occurrences > 0) {
+            this.occorrenze[i] = oldOccorrenze - occurrences;
+            this.nElementi -= occurrences;
+            this.numeroModifiche++;
+        }
+        return oldOccorrenze;
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        return this.remove(element, 1) > 0;
+    }
+
+    @Override
+    public int setCount(E element, int count) {
+
+        if(element == null)
+            throw new NullPointerException("Elemento inesistente.");
+        if(count < 0)
+            throw new IllegalArgumentException("Numero di occorrenze negativo non consentito.");
+
+        int i = this.indexOf(element);
+
+        // non presente: equivale ad aggiungere count occorrenze
+        if(this.chiavi[i] == null) {
+            if(count != 0)
+                this.inserisci(i, element, count);
+            return 0;
+        }
+
+        int oldOccorrenze = this.occorrenze[i];
+        if(count == 0) {
+            this.elimina(i);
+        }
+        else
+            this.occorrenze[i] = count;
+        this.nElementi += count - oldOccorrenze;
+        if(oldOccorrenze != count)
+            this.numeroModifiche++; // se le occorrenze sono cambiate
+        return oldOccorrenze;
+    }
+
+    @Override
+    public Set<E> elementSet() {
+
+        Set<E> retSet = new HashSet<E>(); // set di appoggio
+
+        for(Object chiave : this.chiavi)
+            if(chiave != null)
+                retSet.add((E) chiave);
+
+        return retSet;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    @Override
+    public boolean contains(Object element) {
+
+        if(element == null)
+            throw new NullPointerException("Elemento inesistente.");
+
+        return this.chiavi[this.indexOf(element)] != null;
+    }
+
+    @Override
+    public void clear() {
+
+        // resetto i dati inizializzati dal costruttore
+        this.alloca(DEFAULT_DIM);
+        this.nElementi = 0;
+        this.nElementiEffettivo = 0;
+        this.numeroModifiche++;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.nElementi == 0;
+    }
+
+    /*
+     * Due multinsiemi sono uguali se e solo se contengono esattamente gli
+     * stessi elementi (utilizzando l'equals della classe E) con le stesse
+     * molteplicità.
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null)
+            return false;
+        if (this == obj)
+            return true;
+        if (!(obj instanceof OpenAddressingMultiset))
+            return false;
+        OpenAddressingMultiset<?> other = (OpenAddressingMultiset<?>) obj;
+        if (this.nElementi != other.nElementi
+                || this.nElementiEffettivo != other.nElementiEffettivo)
+            return false;
+        // stessi elementi distinti: basta confrontare le occorrenze di ognuno
+        for (int i = 0; i < this.chiavi.length; i++)
+            if (this.chiavi[i] != null
+                    && other.count(this.chiavi[i]) != this.occorrenze[i])
+                return false;
+        return true;
+    }
+
+    /*
+     * Da ridefinire in accordo con la ridefinizione di equals: la somma non
+     * dipende dalla posizione degli elementi nella tabella.
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+
+        for (int i = 0; i < this.chiavi.length; i++)
+            if (this.chiavi[i] != null)
+                hashCode += this.chiavi[i].hashCode() ^ this.occorrenze[i];
+
+        return hashCode;
+    }
+
+    /*
+     * Metodo per il calcolo della posizione di partenza
+     *
+     */
+    private int computeHash(Object element) {
+
+        // metodo della moltiplicazione sugli interi: bit alti di key * A
+        return (element.hashCode() * A_VALUE) >>> this.shift;
+    }
+
+    /*
+     * Restituisce la posizione dell'elemento nella tabella se è presente,
+     * altrimenti la cella libera in cui la scansione si è fermata, dove
+     * l'elemento andrebbe inserito
+     *
+     */
+    private int indexOf(Object element) {
+
+        Object[] chiavi = this.chiavi;
+        int mask = chiavi.length - 1;
+        int i = this.computeHash(element);
+        Object chiave;
+        while((chiave = chiavi[i]) != null && chiave != element && !chiave.equals(element))
+            i = (i + 1) & mask;
+        return i;
+    }
+
+    /*
+     * Inserisce un nuovo elemento nella cella libera i trovata da indexOf e,
+     * se necessario, raddoppia la tabella
+     *
+     */
+    private void inserisci(int i, Object element, int occurrences) {
+
+        if(this.nElementiEffettivo == this.chiavi.length - 1)
+            throw new IllegalStateException("Dimensione massima della tabella raggiunta.");
+        this.chiavi[i] = element;
+        this.occorrenze[i] = occurrences;
+        this.nElementi += occurrences;
+        this.numeroModifiche++;
+        if(++this.nElementiEffettivo > this.soglia)
+            this.extend();
+    }
+
+    /*
+     * Libera la cella di posizione free e sposta all'indietro gli elementi
+     * successivi dello stesso blocco la cui posizione di partenza non si trova
+     * (ciclicamente) tra free e la loro posizione attuale
+     *
+     */
+    private void elimina(int free) {
+
+        Object[] chiavi = this.chiavi;
+        int mask = chiavi.length - 1;
+        int j = free;
+        Object chiave;
+        while((chiave = chiavi[j = (j + 1) & mask]) != null) {
+            // distanze cicliche dalla posizione di partenza
+            if(((j - this.computeHash(chiave)) & mask) >= ((j - free) & mask)) {
+                chiavi[free] = chiave;
+                this.occorrenze[free] = this.occorrenze[j];
+                free = j;
+            }
+        }
+        chiavi[free] = null;
+        this.occorrenze[free] = 0;
+        this.nElementiEffettivo--;
+    }
+
+    /*
+     * Alloca una tabella vuota di dimensione dim, potenza di 2
+     *
+     */
+    private void alloca(int dim) {
+
+        this.chiavi = new Object[dim];
+        this.occorrenze = new int[dim];
+        this.shift = Integer.numberOfLeadingZeros(dim) + 1;
+        // alla dimensione massima si tiene libera almeno una cella per terminare le scansioni
+        this.soglia = dim == MAX_DIM ? dim - 1 : (int) (dim * LOAD_FACTOR);
+    }
+
+    /*
+     * Metodo per check delle occorrenze
+     * Utilizzo un cast a long per verificare che il valore superi la soglia costante massima per
+     * un intero.
+     *
+     */
+    private boolean checkMax(long occurrences) {
+
+        return occurrences > Integer.MAX_VALUE;
+    }
+
+    /*
+     * Metodo per estensione dimensione array: raddoppia la tabella e
+     * riposiziona gli elementi distinti con le loro occorrenze
+     *
+     */
+    private void extend() {
+
+        if(this.chiavi.length == MAX_DIM)
+            return;
+        Object[] oldChiavi = this.chiavi;
+        int[] oldOccorrenze = this.occorrenze;
+        this.alloca(oldChiavi.length * 2);
+        int mask = this.chiavi.length - 1;
+
+        for(int j = 0; j < oldChiavi.length; j++) {
+            Object chiave = oldChiavi[j];
+            if(chiave != null) {
+                // gli elementi sono distinti: basta trovare la prima cella libera
+                int i = this.computeHash(chiave);
+                while(this.chiavi[i] != null) i = (i + 1) & mask;
+                this.chiavi[i] = chiave;
+                this.occorrenze[i] = oldOccorrenze[j];
+            }
+        }
+    }
+
+    /*
+     * Only for JUnit testing purposes.
+     */
+    protected int getCapacity() {
+        return this.chiavi.length;
+    }
+
+}
@@ -0,0 +1,279 @@
+package it.unicam.cs.asdl2324.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per OpenAddressingMultiset
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class OpenAddressingMultisetTest {
+
+    @Test
+    public void testConstructor() {
+        OpenAddressingMultiset<Integer> m = new OpenAddressingMultiset<Integer>();
+        assertTrue(m.isEmpty());
+        assertEquals(0, m.size());
+        assertThrows(IllegalArgumentException.class,
+                () -> new OpenAddressingMultiset<Integer>(-1));
+    }
+
+    @Test
+    public void testNull() {
+        OpenAddressingMultiset<Integer> m = new OpenAddressingMultiset<Integer>();
+        assertThrows(NullPointerException.class, () -> m.count(null));
+        assertThrows(NullPointerException.class, () -> m.add(null));
+        assertThrows(NullPointerException.class, () -> m.add(null, 2));
+        assertThrows(NullPointerException.class, () -> m.remove(null));
+        assertThrows(NullPointerException.class, () -> m.remove(null, 2));
+        assertThrows(NullPointerException.class, () -> m.setCount(null, 2));
+        assertThrows(NullPointerException.class, () -> m.contains(null));
+    }
+
+    @Test
+    public void testNegOccurrences() {
+        OpenAddressingMultiset<Integer> m = new OpenAddressingMultiset<Integer>();
+        assertThrows(IllegalArgumentException.class, () -> m.add(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> m.remove(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> m.setCount(1, -1));
+    }
+
+    @Test
+    public void testAddEInt() {
+        OpenAddressingMultiset<Integer> m = new OpenAddressingMultiset<Integer>();
+        assertEquals(0, m.add(2, 0));
+        assertFalse(m.contains(2));
+        assertEquals(0, m.add(2, 3));
+        assertEquals(3, m.add(2, 4));
+        assertEquals(7, m.add(2, 0));
+        m.add(5);
+        assertEquals(7, m.count(2));
+        assertEquals(1, m.count(5));
+        assertEquals(8, m.size());
+    }
+
+    @Test
+    public void testAddEIntMoreThanMAX_VALUE() {
+        OpenAddressingMultiset<Integer> m = new OpenAddressingMultiset<Integer>();
+        m.add(3, Integer.MAX_VALUE);
+        assertThrows(IllegalArgumentException.class, () -> m.add(3, 1));
+        assertEquals(Integer.MAX_VALUE, m.count(3));
+    }
+
+    @Test
+    public void testSizeMoreThanMAX_VALUE() {
+        OpenAddressingMultiset<Integer> m = new OpenAddressingMultiset<Integer>();
+        m.add(1, Integer.MAX_VALUE);
+        m.add(2, Integer.MAX_VALUE);
+        assertEquals(Integer.MAX_VALUE, m.size());
+        m.remove(1, Integer.MAX_VALUE);
+        assertEquals(Integer.MAX_VALUE, m.size());
+        m.remove(2, 1);
+        assertEquals(Integer.MAX_VALUE - 1, m.size());
+    }
+
+    @Test
+    public void testRemoveObjectInt() {
+        OpenAddressingMultiset<Integer> m = new OpenAddressingMultiset<Integer>();
+        m.add(2, 5);
+        assertEquals(0, m.remove(3, 2));
+        assertEquals(5, m.remove(2, 0));
+        assertEquals(5, m.remove(2, 2));
+        assertEquals(3, m.count(2));
+        assertEquals(3, m.remove(2, 10));
+        assertFalse(m.contains(2));
+        assertTrue(m.isEmpty());
+    }
+
+    @Test
+    public void testRemoveObject() {
+        OpenAddressingMultiset<Integer> m = new OpenAddressingMultiset<Integer>();
+        m.add(2, 2);
+        assertFalse(m.remove(3));
+        assertTrue(m.remove(2));
+        assertEquals(1, m.count(2));
+        assertTrue(m.remove(2));
+        assertFalse(m.contains(2));
+        assertFalse(m.remove(2));
+    }
+
+    @Test
+    public void testSetCount() {
+        OpenAddressingMultiset<Integer> m = new OpenAddressingMultiset<Integer>();
+        assertEquals(0, m.setCount(3, 0));
+        assertFalse(m.contains(3));
+        assertEquals(0, m.setCount(3, 4));
+        assertEquals(4, m.setCount(3, 2));
+        assertEquals(2, m.size());
+        assertEquals(2, m.setCount(3, 0));
+        assertFalse(m.contains(3));
+        assertTrue(m.isEmpty());
+    }
+
+    @Test
+    public void testCollisionsAndRemovals() {
+        // chiavi con lo stesso hashCode finiscono nello stesso blocco
+        OpenAddressingMultiset<String> m = new OpenAddressingMultiset<String>();
+        String[] keys = { "Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB" };
+        for (int i = 0; i < keys.length; i++)
+            m.add(keys[i], i + 1);
+        assertEquals(4, m.remove("AaBB", 4));
+        assertEquals(1, m.remove("Aa", 1));
+        for (int i = 0; i < keys.length; i++)
+            if (!keys[i].equals("AaBB") && !keys[i].equals("Aa"))
+                assertEquals(i + 1, m.count(keys[i]));
+    }
+
+    @Test
+    public void testRandomAgainstHashMap() {
+        Random random = new Random(11);
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        OpenAddressingMultiset<Integer> m = new OpenAddressingMultiset<Integer>();
+        long size = 0;
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(5000);
+            int n = random.nextInt(4);
+            int old = expected.getOrDefault(key, 0);
+            int ret;
+            switch (random.nextInt(3)) {
+            case 0:
+                ret = m.add(key, n);
+                if (old + n > 0)
+                    expected.put(key, old + n);
+                size += n;
+                break;
+            case 1:
+                ret = m.remove(key, n);
+                if (n >= old)
+                    expected.remove(key);
+                else
+                    expected.put(key, old - n);
+                size -= Math.min(n, old);
+                break;
+            default:
+                ret = m.setCount(key, n);
+                if (n == 0)
+                    expected.remove(key);
+                else
+                    expected.put(key, n);
+                size += n - old;
+            }
+            assertEquals(old, ret);
+        }
+        assertEquals(size, m.size());
+        assertEquals(expected.keySet(), m.elementSet());
+        for (Map.Entry<Integer, Integer> e : expected.entrySet())
+            assertEquals(e.getValue(), m.count(e.getKey()));
+    }
+
+    @Test
+    public void testCapacity() {
+        OpenAddressingMultiset<Integer> m = new OpenAddressingMultiset<Integer>(1000);
+        int capacity = m.getCapacity();
+        assertEquals(2048, capacity);
+        for (int i = 0; i < 1000; i++)
+            m.add(i, 3);
+        assertEquals(capacity, m.getCapacity());
+        m.add(1000);
+        m.add(1001);
+        for (int i = 0; i < 600; i++)
+            m.add(-i - 1);
+        assertEquals(2 * capacity, m.getCapacity());
+        m.clear();
+        assertEquals(16, m.getCapacity());
+    }
+
+    @Test
+    public void testIteratorSequence() {
+        OpenAddressingMultiset<Integer> m = new OpenAddressingMultiset<Integer>();
+        m.add(1, 3);
+        m.add(3, 2);
+        m.add(7, 1);
+        Map<Integer, Integer> seen = new HashMap<Integer, Integer>();
+        Iterator<Integer> itr = m.iterator();
+        Integer prec = null;
+        while (itr.hasNext()) {
+            Integer n = itr.next();
+            // le occorrenze dello stesso elemento sono consecutive
+            if (!n.equals(prec))
+                assertFalse(seen.containsKey(n));
+            seen.merge(n, 1, Integer::sum);
+            prec = n;
+        }
+        assertEquals(3, seen.get(1));
+        assertEquals(2, seen.get(3));
+        assertEquals(1, seen.get(7));
+        assertThrows(NoSuchElementException.class, () -> itr.next());
+    }
+
+    @Test
+    public void testIteratorLazy() {
+        // l'iteratore non espande le occorrenze
+        OpenAddressingMultiset<Integer> m = new OpenAddressingMultiset<Integer>();
+        m.add(1, Integer.MAX_VALUE);
+        Iterator<Integer> itr = m.iterator();
+        for (int i = 0; i < 1000; i++)
+            assertEquals(1, itr.next());
+        assertTrue(itr.hasNext());
+    }
+
+    @Test
+    public void testIteratorEmpty() {
+        OpenAddressingMultiset<Integer> m = new OpenAddressingMultiset<Integer>();
+        assertFalse(m.iterator().hasNext());
+        m.add(1);
+        m.remove(1);
+        assertFalse(m.iterator().hasNext());
+    }
+
+    @Test
+    public void testIteratorFailFast() {
+        OpenAddressingMultiset<Integer> m = new OpenAddressingMultiset<Integer>();
+        m.add(1, 3);
+        Iterator<Integer> itr = m.iterator();
+        itr.next();
+        m.add(1);
+        assertThrows(ConcurrentModificationException.class, () -> itr.next());
+        Iterator<Integer> itr2 = m.iterator();
+        itr2.next();
+        m.setCount(1, 4);
+        // setCount senza variazioni non è una modifica
+        itr2.next();
+        m.remove(1);
+        assertThrows(ConcurrentModificationException.class, () -> itr2.next());
+        Iterator<Integer> itr3 = m.iterator();
+        m.clear();
+        assertThrows(ConcurrentModificationException.class, () -> itr3.next());
+    }
+
+    @Test
+    public void testEqualsObject() {
+        OpenAddressingMultiset<Integer> m1 = new OpenAddressingMultiset<Integer>();
+        m1.add(3, 5);
+        m1.setCount(4, 7);
+        m1.setCount(5, 9);
+        // capacità e ordine di inserimento diversi
+        OpenAddressingMultiset<Integer> m2 = new OpenAddressingMultiset<Integer>(1000);
+        m2.add(5, 9);
+        m2.add(3);
+        m2.setCount(3, 5);
+        m2.add(4);
+        m2.add(4, 6);
+        assertEquals(m1, m2);
+        assertEquals(m1.hashCode(), m2.hashCode());
+        m2.remove(4);
+        assertNotEquals(m1, m2);
+        assertEquals(new OpenAddressingMultiset<Integer>(), new OpenAddressingMultiset<Integer>());
+    }
+
+}
@@ -0,0 +1,328 @@
+package it.unicam.cs.asdl2324.mp1;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Questa classe SketchMultiset realizza un multinsieme approssimato di
+ * dimensione fissa tramite un Count-Min sketch: una matrice di contatori con
+ * depth righe e width colonne e una funzione hash indipendente per ogni riga.
+ * Aggiungere occorrenze di un elemento incrementa, in ogni riga, il contatore
+ * della colonna data dalla funzione hash della riga; il numero di occorrenze
+ * stimato è il minimo dei contatori dell'elemento nelle varie righe.
+ *
+ * Dati epsilon e delta, width = e / epsilon (arrotondato alla potenza di 2
+ * successiva) e depth = ln(1 / delta) (arrotondato per eccesso). Detto N il
+ * numero complessivo di occorrenze aggiunte, per ogni elemento x la stima
+ * count(x) soddisfa:
+ * <ul>
+ * <li>count(x) >= occorrenze effettive di x, sempre;</li>
+ * <li>count(x) <= occorrenze effettive di x + epsilon * N, con probabilità
+ * almeno 1 - delta.</li>
+ * </ul>
+ * Gli aggiornamenti sono conservativi: ogni contatore dell'elemento viene
+ * portato al più alla nuova stima, invece di essere incrementato, il che
+ * riduce la sovrastima senza perdere le due garanzie. Elementi con lo stesso
+ * hashCode hanno sempre la stessa stima.
+ *
+ * La memoria occupata è fissa, 8 * width * depth byte per i contatori,
+ * indipendentemente dal numero di elementi distinti; add e count costano
+ * Θ(depth). Due sketch con gli stessi epsilon, delta e seme possono essere
+ * fusi con merge sommandone i contatori, per aggregare conteggi calcolati
+ * separatamente: il risultato ha le stesse garanzie rispetto alla somma delle
+ * occorrenze.
+ *
+ * Lo sketch non memorizza gli elementi: remove, setCount, elementSet e
+ * iterator non sono supportati. contains(x) equivale a count(x) > 0 e può
+ * quindi restituire true per elementi mai aggiunti. Il limite di
+ * Integer.MAX_VALUE occorrenze non viene controllato: i contatori sono long e
+ * le stime restituite sono limitate a Integer.MAX_VALUE.
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ * @param <E>
+ *                il tipo degli elementi del multiset
+ */
+public class SketchMultiset<E> implements Multiset<E> {
+
+    // Seme di default delle funzioni hash delle righe
+    private static final long DEFAULT_SEED = 0x5DEECE66DL;
+
+    // Parametri richiesti
+    private final double epsilon;
+    private final double delta;
+    private final long seed;
+
+    // Dimensioni della matrice
+    private final int width;
+    private final int depth;
+
+    // 64 - log2(width), per il calcolo della colonna
+    private final int shift;
+
+    // Semi delle funzioni hash di ogni riga
+    private final long[] semi;
+
+    // Contatori, riga per riga
+    private final long[] contatori;
+
+    // Numero complessivo di occorrenze aggiunte
+    private long nElementi;
+
+    /**
+     * Crea uno sketch vuoto con le garanzie di errore indicate e il seme di
+     * default.
+     *
+     * @param epsilon
+     *                    l'errore massimo, in frazione del numero complessivo
+     *                    di occorrenze
+     * @param delta
+     *                    la probabilità che l'errore su un elemento superi il
+     *                    massimo
+     * @throws IllegalArgumentException
+     *                                      se epsilon o delta non sono
+     *                                      compresi tra 0 e 1 esclusi
+     */
+    public SketchMultiset(double epsilon, double delta) {
+        this(epsilon, delta, DEFAULT_SEED);
+    }
+
+    /**
+     * Crea uno sketch vuoto con le garanzie di errore indicate e le funzioni
+     * hash generate dal seme dato. Solo sketch creati con lo stesso seme
+     * possono essere fusi.
+     *
+     * @param epsilon
+     *                    l'errore massimo, in frazione del numero complessivo
+     *                    di occorrenze
+     * @param delta
+     *                    la probabilità che l'errore su un elemento superi il
+     *                    massimo
+     * @param seed
+     *                    il seme delle funzioni hash
+     * @throws IllegalArgumentException
+     *                                      se epsilon o delta non sono
+     *                                      compresi tra 0 e 1 esclusi, o se
+     *                                      la matrice risultante è troppo
+     *                                      grande
+     */
+    public SketchMultiset(double epsilon, double delta, long seed) {
+        if(!(epsilon > 0 && epsilon < 1) || !(delta > 0 && delta < 1))
+            throw new IllegalArgumentException("Parametri dello sketch non validi.");
+        double w = Math.ceil(Math.E / epsilon);
+        int d = (int) Math.ceil(Math.log(1 / delta));
+        if(w > (1 << 29) || w * d > (1 << 29))
+            throw new IllegalArgumentException("Sketch troppo grande.");
+        this.epsilon = epsilon;
+        this.delta = delta;
+        this.seed = seed;
+        this.width = Integer.highestOneBit((int) w * 2 - 1);
+        this.depth = Math.max(1, d);
+        this.shift = 64 - Integer.numberOfTrailingZeros(this.width);
+        this.semi = new long[this.depth];
+        SplittableRandom random = new SplittableRandom(seed);
+        for(int i = 0; i < this.depth; i++)
+            this.semi[i] = random.nextLong();
+        this.contatori = new long[this.width * this.depth];
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(this.nElementi, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Restituisce una stima per eccesso del numero di occorrenze
+     * dell'elemento, con le garanzie descritte nella documentazione della
+     * classe.
+     */
+    @Override
+    public int count(Object element) {
+
+        if(element == null)
+            throw new NullPointerException("Elemento inesistente.");
+
+        return (int) Math.min(this.stima(element.hashCode()), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Aggiunge le occorrenze dell'elemento e restituisce la stima del numero
+     * di occorrenze precedente.
+     */
+    @Override
+    public int add(E element, int occurrences) {
+
+        if(element == null)
+            throw new NullPointerException("Elemento inesistente.");
+        if(occurrences < 0)
+            throw new IllegalArgumentException("Numero di occorrenze negativo non consentito.");
+
+        int h = element.hashCode();
+        long oldStima = this.stima(h);
+        if(occurrences != 0) {
+            // aggiornamento conservativo: nessun contatore supera la nuova stima
+            long nuovaStima = oldStima + occurrences;
+            for(int i = 0; i < this.depth; i++) {
+                int j = this.cella(i, h);
+                if(this.contatori[j] < nuovaStima)
+                    this.contatori[j] = nuovaStima;
+            }
+            this.nElementi += occurrences;
+        }
+        return (int) Math.min(oldStima, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void add(E element) {
+        this.add(element, 1);
+    }
+
+    /**
+     * Fonde in questo sketch le occorrenze di un altro sketch creato con gli
+     * stessi parametri.
+     *
+     * @param other
+     *                  lo sketch da fondere
+     * @throws NullPointerException
+     *                                      se other è null
+     * @throws IllegalArgumentException
+     *                                      se other ha epsilon, delta o seme
+     *                                      diversi
+     */
+    public void merge(SketchMultiset<? extends E> other) {
+
+        if(other == null)
+            throw new NullPointerException("Sketch inesistente.");
+        if(other.width != this.width || other.depth != this.depth || other.seed != this.seed)
+            throw new IllegalArgumentException("Sketch con parametri diversi.");
+
+        for(int j = 0; j < this.contatori.length; j++)
+            this.contatori[j] += other.contatori[j];
+        this.nElementi += other.nElementi;
+    }
+
+    /**
+     * Operazione non supportata: lo sketch non permette di sottrarre
+     * occorrenze mantenendo la stima per eccesso.
+     */
+    @Override
+    public int remove(Object element, int occurrences) {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    /**
+     * Operazione non supportata: lo sketch non permette di sottrarre
+     * occorrenze mantenendo la stima per eccesso.
+     */
+    @Override
+    public boolean remove(Object element) {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    /**
+     * Operazione non supportata: lo sketch non permette di sottrarre
+     * occorrenze mantenendo la stima per eccesso.
+     */
+    @Override
+    public int setCount(E element, int count) {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    /**
+     * Operazione non supportata: lo sketch non memorizza gli elementi.
+     */
+    @Override
+    public Set<E> elementSet() {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    /**
+     * Operazione non supportata: lo sketch non memorizza gli elementi.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        throw new UnsupportedOperationException("Operazione non supportata");
+    }
+
+    /**
+     * Può restituire true anche per elementi mai aggiunti, se i loro
+     * contatori sono condivisi con elementi presenti in tutte le righe.
+     */
+    @Override
+    public boolean contains(Object element) {
+        return this.count(element) > 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.contatori, 0);
+        this.nElementi = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.nElementi == 0;
+    }
+
+    /**
+     * @return l'errore massimo richiesto, in frazione del numero complessivo
+     *         di occorrenze
+     */
+    public double getEpsilon() {
+        return this.epsilon;
+    }
+
+    /**
+     * @return la probabilità richiesta che l'errore superi il massimo
+     */
+    public double getDelta() {
+        return this.delta;
+    }
+
+    /**
+     * @return il numero di colonne della matrice
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * @return il numero di righe della matrice
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * @return la memoria occupata dai contatori, in byte
+     */
+    public long getMemoryBytes() {
+        return (long) Long.BYTES * this.contatori.length;
+    }
+
+    /*
+     * Minimo dei contatori dell'elemento con l'hashCode dato
+     */
+    private long stima(int h) {
+        long min = Long.MAX_VALUE;
+        for(int i = 0; i < this.depth; i++)
+            min = Math.min(min, this.contatori[this.cella(i, h)]);
+        return min;
+    }
+
+    /*
+     * Posizione nei contatori della colonna della riga i per l'hashCode h: i
+     * bit alti di un rimescolamento (il passo finale di SplitMix64) di h
+     * combinato con il seme della riga
+     */
+    private int cella(int i, int h) {
+        long z = h + this.semi[i];
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return i * this.width + (int) (z >>> this.shift);
+    }
+
+}
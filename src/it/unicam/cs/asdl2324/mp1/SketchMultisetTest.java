@@ -0,0 +1,135 @@
+package it.unicam.cs.asdl2324.mp1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per SketchMultiset
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class SketchMultisetTest {
+
+    @Test
+    public void testConstructor() {
+        assertThrows(IllegalArgumentException.class, () -> new SketchMultiset<Integer>(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new SketchMultiset<Integer>(0.01, 1));
+        assertThrows(IllegalArgumentException.class, () -> new SketchMultiset<Integer>(1e-12, 0.01));
+        SketchMultiset<Integer> m = new SketchMultiset<Integer>(0.001, 0.01);
+        assertTrue(m.isEmpty());
+        assertEquals(0, m.count(5));
+        assertFalse(m.contains(5));
+    }
+
+    @Test
+    public void testMemory() {
+        // width = e / 0.001 = 2719 -> 4096, depth = ln(100) = 4.6 -> 5
+        SketchMultiset<Integer> m = new SketchMultiset<Integer>(0.001, 0.01);
+        assertEquals(4096, m.getWidth());
+        assertEquals(5, m.getDepth());
+        assertEquals(8L * 4096 * 5, m.getMemoryBytes());
+        // la memoria non dipende dagli elementi aggiunti
+        for (int i = 0; i < 100000; i++)
+            m.add(i);
+        assertEquals(8L * 4096 * 5, m.getMemoryBytes());
+        SketchMultiset<Integer> m2 = new SketchMultiset<Integer>(0.0001, 0.001);
+        assertEquals(32768, m2.getWidth());
+        assertEquals(7, m2.getDepth());
+    }
+
+    @Test
+    public void testNullAndUnsupported() {
+        SketchMultiset<Integer> m = new SketchMultiset<Integer>(0.01, 0.01);
+        assertThrows(NullPointerException.class, () -> m.add(null));
+        assertThrows(NullPointerException.class, () -> m.count(null));
+        assertThrows(IllegalArgumentException.class, () -> m.add(1, -1));
+        assertThrows(UnsupportedOperationException.class, () -> m.remove(1));
+        assertThrows(UnsupportedOperationException.class, () -> m.remove(1, 2));
+        assertThrows(UnsupportedOperationException.class, () -> m.setCount(1, 2));
+        assertThrows(UnsupportedOperationException.class, () -> m.elementSet());
+        assertThrows(UnsupportedOperationException.class, () -> m.iterator());
+    }
+
+    @Test
+    public void testAddExact() {
+        // con pochi elementi e molte colonne le stime sono esatte
+        SketchMultiset<String> m = new SketchMultiset<String>(0.0001, 0.001);
+        assertEquals(0, m.add("a", 3));
+        assertEquals(3, m.add("a", 2));
+        m.add("b");
+        assertEquals(0, m.add("c", 0));
+        assertEquals(5, m.count("a"));
+        assertEquals(1, m.count("b"));
+        assertEquals(0, m.count("c"));
+        assertEquals(6, m.size());
+        m.clear();
+        assertTrue(m.isEmpty());
+        assertEquals(0, m.count("a"));
+    }
+
+    @Test
+    public void testErrorBounds() {
+        double epsilon = 0.001;
+        double delta = 0.01;
+        SketchMultiset<Integer> m = new SketchMultiset<Integer>(epsilon, delta);
+        Map<Integer, Integer> exact = new HashMap<Integer, Integer>();
+        Random random = new Random(15);
+        int n = 500000;
+        // distribuzione sbilanciata su 50000 elementi
+        for (int i = 0; i < n; i++) {
+            double r = random.nextDouble();
+            int key = (int) (50000 * r * r * r);
+            m.add(key);
+            exact.merge(key, 1, Integer::sum);
+        }
+        assertEquals(n, m.size());
+        int oltre = 0;
+        for (Map.Entry<Integer, Integer> e : exact.entrySet()) {
+            int stima = m.count(e.getKey());
+            // mai una sottostima
+            assertTrue(stima >= e.getValue());
+            if (stima > e.getValue() + epsilon * n)
+                oltre++;
+        }
+        // gli errori oltre epsilon * N riguardano al più una frazione delta
+        assertTrue(oltre <= delta * exact.size(), oltre + " stime oltre il limite");
+    }
+
+    @Test
+    public void testMerge() {
+        SketchMultiset<Integer> a = new SketchMultiset<Integer>(0.001, 0.01, 7);
+        SketchMultiset<Integer> b = new SketchMultiset<Integer>(0.001, 0.01, 7);
+        SketchMultiset<Integer> all = new SketchMultiset<Integer>(0.001, 0.01, 7);
+        Map<Integer, Integer> exact = new HashMap<Integer, Integer>();
+        Random random = new Random(16);
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(20000);
+            (i % 2 == 0 ? a : b).add(key);
+            all.add(key);
+            exact.merge(key, 1, Integer::sum);
+        }
+        a.merge(b);
+        assertEquals(100000, a.size());
+        int oltre = 0;
+        for (Map.Entry<Integer, Integer> e : exact.entrySet()) {
+            assertTrue(a.count(e.getKey()) >= e.getValue());
+            assertTrue(all.count(e.getKey()) >= e.getValue());
+            if (a.count(e.getKey()) > e.getValue() + 0.001 * 100000)
+                oltre++;
+        }
+        // lo sketch fuso ha le garanzie di uno sketch costruito direttamente
+        assertTrue(oltre <= 0.01 * exact.size(), oltre + " stime oltre il limite");
+        assertThrows(IllegalArgumentException.class,
+                () -> a.merge(new SketchMultiset<Integer>(0.001, 0.01, 8)));
+        assertThrows(IllegalArgumentException.class,
+                () -> a.merge(new SketchMultiset<Integer>(0.01, 0.01, 7)));
+        assertThrows(NullPointerException.class, () -> a.merge(null));
+    }
+
+}
@@ -0,0 +1,106 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+
+/**
+ * Misura le operazioni per indice di AdjacencyMatrixUndirectedGraph su un
+ * grafo con NODES nodi: addEdge(int, int) e getEdge(int, int) su OPS coppie
+ * casuali di indici, poi removeNode(int) di REMOVALS nodi casuali. Per ogni
+ * operazione sono riportati il tempo complessivo in millisecondi e il tempo
+ * medio in microsecondi, più il tempo di inserimento dei nodi. I dati sono
+ * scritti sul file adjacencymatrix.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente) e con il numero di nodi, di operazioni sugli archi e di
+ * cancellazioni come parametri successivi (altrimenti si usano NODES, OPS e
+ * REMOVALS).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class AdjacencyMatrixEvaluationFramework {
+
+    /**
+     * Numero di default di nodi
+     */
+    public static final int NODES = 20_000;
+
+    /**
+     * Numero di default di addEdge e di getEdge
+     */
+    public static final int OPS = 50_000;
+
+    /**
+     * Numero di default di cancellazioni di nodi
+     */
+    public static final int REMOVALS = 200;
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : NODES;
+        int ops = args.length > 2 ? Integer.parseInt(args[2]) : OPS;
+        int removals = args.length > 3 ? Integer.parseInt(args[3]) : REMOVALS;
+        PrintStream o = null;
+        try {
+            o = new PrintStream(
+                    new File(dirName + "/" + "adjacencymatrix.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "adjacencymatrix.csv");
+            System.exit(1);
+        }
+        o.println("Operation,Nodes,Ops,Ms,UsPerOp");
+        SplittableRandom random = new SplittableRandom(n);
+        int[] a = new int[ops];
+        int[] b = new int[ops];
+        for (int k = 0; k < ops; k++) {
+            a[k] = random.nextInt(n);
+            b[k] = random.nextInt(n);
+        }
+
+        AdjacencyMatrixUndirectedGraph<Integer> g = new AdjacencyMatrixUndirectedGraph<Integer>();
+        System.gc();
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++)
+            g.addNode(i);
+        print(o, "addNode", n, n, System.nanoTime() - start);
+
+        System.gc();
+        start = System.nanoTime();
+        for (int k = 0; k < ops; k++)
+            g.addWeightedEdge(a[k], b[k], k);
+        print(o, "addEdge(int,int)", n, ops, System.nanoTime() - start);
+
+        // coppie diverse da quelle inserite, in gran parte non collegate
+        for (int k = 0; k < ops; k += 2)
+            b[k] = random.nextInt(n);
+        long trovati = 0;
+        System.gc();
+        start = System.nanoTime();
+        for (int k = 0; k < ops; k++)
+            if (g.getEdge(a[k], b[k]) != null)
+                trovati++;
+        print(o, "getEdge(int,int)", n, ops, System.nanoTime() - start);
+
+        System.gc();
+        start = System.nanoTime();
+        for (int k = 0; k < removals; k++)
+            g.removeNode(random.nextInt(g.nodeCount()));
+        print(o, "removeNode(int)", n, removals, System.nanoTime() - start);
+        System.out.println("(" + trovati + " archi trovati)");
+        o.close();
+    } // end main
+
+    private static void print(PrintStream o, String operation, int n, int ops,
+            long nanos) {
+        o.println(operation + "," + n + "," + ops + "," + nanos / 1_000_000
+                + "," + nanos / 1_000 / ops);
+        System.out.println(operation + ": " + nanos / 1_000_000 + " ms, "
+                + nanos / 1_000 / ops + " us/op");
+    }
+
+}
@@ -24,8 +24,17 @@ import java.util.Set;
  * ma tramite ArrayList.
  * 
  * Gli oggetti GraphNode<L>, cioè i nodi, sono memorizzati in una mappa che
- * associa ad ogni nodo l'indice assegnato in fase di inserimento. Il dominio
- * della mappa rappresenta quindi l'insieme dei nodi.
+ * associa ad ogni nodo la propria riga (e colonna) nella matrice. Il dominio
+ * della mappa rappresenta quindi l'insieme dei nodi. Finché non viene
+ * cancellato nessun nodo la riga di ogni nodo coincide con il suo indice. Per
+ * cancellare un nodo in un tempo O(nodeCount()) la sua riga e la sua colonna
+ * vengono sostituite dall'ultima riga e dall'ultima colonna della matrice,
+ * senza spostare le altre, mentre gli indici dei nodi successivi a quello
+ * cancellato vengono decrementati di uno come richiesto da Graph<L>. Per
+ * questo indici e righe sono associati ai nodi separatamente: una lista dà il
+ * nodo di ogni indice, una mappa l'indice di ogni nodo e un'altra lista il
+ * nodo di ogni riga, per cui tutti i metodi che usano indici, righe o nodi
+ * trovano l'elemento corrispondente in tempo costante.
  * 
  * Gli archi sono memorizzati nella matrice di adiacenza. A differenza della
  * rappresentazione standard con matrice di adiacenza, la posizione i,j della
@@ -50,8 +59,8 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
      */
 
     /*
-     * Insieme dei nodi e associazione di ogni nodo con il proprio indice nella
-     * matrice di adiacenza
+     * Insieme dei nodi e associazione di ogni nodo con la propria riga (e
+     * colonna) nella matrice di adiacenza
      */
     protected Map<GraphNode<L>, Integer> nodesIndex;
 
@@ -63,12 +72,26 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
      */
     protected ArrayList<ArrayList<GraphEdge<L>>> matrix;
 
+    /*
+     * Nodo di ogni indice, nell'ordine di inserimento
+     */
+    private ArrayList<GraphNode<L>> nodesList;
+
+    /*
+     * Indice di ogni nodo
+     */
+    private Map<GraphNode<L>, Integer> indexOfNode;
+
+    /*
+     * Nodo di ogni riga della matrice
+     */
+    private ArrayList<GraphNode<L>> rowNodes;
+
     /**
      * Crea un grafo vuoto.
      */
     public AdjacencyMatrixUndirectedGraph() {
-        this.matrix = new ArrayList<ArrayList<GraphEdge<L>>>();
-        this.nodesIndex = new HashMap<GraphNode<L>, Integer>();
+        this.clear();
     }
 
     @Override
@@ -96,6 +119,9 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
     public void clear() {
         this.matrix = new ArrayList<ArrayList<GraphEdge<L>>>();
         this.nodesIndex = new HashMap<GraphNode<L>, Integer>();
+        this.nodesList = new ArrayList<GraphNode<L>>();
+        this.indexOfNode = new HashMap<GraphNode<L>, Integer>();
+        this.rowNodes = new ArrayList<GraphNode<L>>();
     }
 
     @Override
@@ -115,8 +141,11 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         if(this.nodesIndex.containsKey(node))
             return false; 
 
-        // aggiungo un nuovo indice
+        // aggiungo un nuovo indice, uguale alla nuova riga
         this.nodesIndex.put(node, this.nodeCount());
+        this.indexOfNode.put(node, this.nodesList.size());
+        this.nodesList.add(node);
+        this.rowNodes.add(node);
 
         // aggiorno la dimensione in "larghezza" della matrice (+1 in ogni riga)
         for ( ArrayList<GraphEdge<L>> item : this.matrix ) {
@@ -164,27 +193,8 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
             throw new NullPointerException("Puntatore a nodo null");
         if(!this.nodesIndex.containsKey(node))
             throw new IllegalArgumentException("Nodo inesistente"); 
-        
-        // indice del nodo ricercare e rimuovere
-        int index = this.nodesIndex.get(node);
 
-        // rimuovo la riga con gli archi del nodo
-        this.matrix.remove(index);
-        
-        // rimuovo il nodo e indice dalla hash table
-        this.nodesIndex.remove(node);
-
-        // controllo i nodi con indice superiore a quello rimosso
-        // e lo diminuisco di 1 riutilizzando cosi' l'indice rimosso
-        for ( GraphNode<L> temp : this.nodesIndex.keySet())
-            if(this.nodesIndex.get(temp) > index) // se indice > indicerimosso
-                this.nodesIndex.put(temp, this.nodesIndex.get(temp)-1);
-        
-        // aggiorno la dimensione in "larghezza" della matrice
-        // lascio il lavoro di "restringimento" all'ArrayList
-        for ( ArrayList<GraphEdge<L>> item : this.matrix ) {
-            item.remove(index);
-        }
+        this.rimuovi(node);
     }
 
     /*
@@ -216,25 +226,42 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
 
         // Utilizzo il metodo getNode che recupera il nodo
         // ed esegue i controlli necessari
-        GraphNode<L> node = this.getNode(i);
+        this.rimuovi(this.getNode(i));
 
-        // rimuovo la riga di indice corrispondente
-        this.matrix.remove(i);
+    }
 
-        // rimuovo il nodo e indice dalla hash table
-        this.nodesIndex.remove(node);
+    /*
+     * Rimuove un nodo presente nel grafo. La riga e la colonna del nodo sono
+     * sostituite dall'ultima riga e dall'ultima colonna della matrice, che
+     * vengono poi tolte, in un tempo O(nodeCount()) senza spostare gli archi
+     * delle altre righe. Gli indici dei nodi successivi vengono decrementati.
+     */
+    private void rimuovi(GraphNode<L> node) {
+
+        int row = this.nodesIndex.remove(node);
+        int last = this.matrix.size() - 1;
+
+        // sposto l'ultima riga al posto di quella del nodo
+        ArrayList<GraphEdge<L>> lastRow = this.matrix.remove(last);
+        GraphNode<L> lastNode = this.rowNodes.remove(last);
+        if(row != last) {
+            this.matrix.set(row, lastRow);
+            this.rowNodes.set(row, lastNode);
+            this.nodesIndex.put(lastNode, row);
+        }
 
-        // controllo i nodi con indice superiore a quello rimosso
-        // e lo diminuisco di 1 riutilizzando cosi' l'indice rimosso
-        for ( GraphNode<L> temp : this.nodesIndex.keySet())
-            if(this.nodesIndex.get(temp) > i) // se indice > indicerimosso
-                this.nodesIndex.put(temp, this.nodesIndex.get(temp)-1);
-        
-        // aggiorno la dimensione in "larghezza" della matrice
+        // e in ogni riga l'ultima colonna al posto di quella del nodo
         for ( ArrayList<GraphEdge<L>> item : this.matrix ) {
-            item.remove(i);
+            if(row != last)
+                item.set(row, item.get(last));
+            item.remove(last);
         }
 
+        // diminuisco di 1 gli indici dei nodi successivi
+        int index = this.indexOfNode.remove(node);
+        this.nodesList.remove(index);
+        for ( int k = index; k < this.nodesList.size(); k++ )
+            this.indexOfNode.put(this.nodesList.get(k), k);
     }
 
     @Override
@@ -243,13 +270,11 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         if(node == null)
             throw new NullPointerException("Puntatore a nodo null");
         
-        // scorro tra tutte le chiavi e il trovo nodo uguale
-        for ( GraphNode<L> temp : this.nodesIndex.keySet())
-            if(node.equals(temp)) 
-                return temp;
+        // recupero il nodo memorizzato tramite la sua riga
+        Integer row = this.nodesIndex.get(node);
 
         // se non lo trovo ritorno null
-        return null;
+        return row == null ? null : this.rowNodes.get(row);
 
     }
 
@@ -272,13 +297,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         if(i < 0 || i > this.nodeCount() - 1)
             throw new IndexOutOfBoundsException("Indice non compreso nella dimensione");
 
-        // scorro tra tutte le chiavi e il trovo quella con il valore intero uguale
-        for ( GraphNode<L> temp : this.nodesIndex.keySet())
-            if(this.nodesIndex.get(temp) == i) 
-                return temp;
-
-        // se non lo trovo ritorno null        
-        return null;
+        return this.nodesList.get(i);
 
     }
 
@@ -291,7 +310,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
             throw new IllegalArgumentException("Nodo inesistente"); 
 
         // ritorno l'indice associato alla chiave
-        return this.nodesIndex.get(node);
+        return this.indexOfNode.get(node);
 
     }
 
@@ -308,7 +327,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
             throw new IllegalArgumentException("Nodo inesistente"); 
 
         // ritorno l'indice associato alla chiave
-        return this.nodesIndex.get(node);
+        return this.indexOfNode.get(node);
 
     }
 
@@ -327,13 +346,13 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         if (edge.isDirected())
             throw new IllegalArgumentException("Arco orientato"); 
 
-        // ottengo gli indici dei nodi che costituiscono l'arco
-        int indexNodo1 = this.getNodeIndexOf(edge.getNode1());
-        int indexNodo2 = this.getNodeIndexOf(edge.getNode2());
+        // ottengo le righe dei nodi che costituiscono l'arco
+        int indexNodo1 = this.nodesIndex.get(edge.getNode1());
+        int indexNodo2 = this.nodesIndex.get(edge.getNode2());
 
         // essendo il grafo non orientato è sufficiente 
-        // controllare che almeno in una riga non sia giò presente
-        if(!this.matrix.get(indexNodo1).contains(edge)) {
+        // controllare che la posizione non sia già occupata
+        if(this.matrix.get(indexNodo1).get(indexNodo2) == null) {
             // setto gli edge nella posizione della matrice corrispondente
             this.matrix.get(indexNodo1).set(indexNodo2, edge);
             this.matrix.get(indexNodo2).set(indexNodo1, edge);
@@ -456,17 +475,13 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         if (!nodesIndex.containsKey(edge.getNode1()) || !nodesIndex.containsKey(edge.getNode2()))
             throw new IllegalArgumentException("Almeno un nodo non esistente nel grafo");
 
-        // ottengo l'indice dei due nodi
-        int indexNodo1 = this.getNodeIndexOf(edge.getNode1());
-        int indexNodo2 = this.getNodeIndexOf(edge.getNode2());
-
-        // ottengo l'indice dell'edge nella rispettiva riga della matrice
-        int indexEdge1 = this.matrix.get(indexNodo1).indexOf(edge);
-        int indexEdge2 = this.matrix.get(indexNodo2).indexOf(edge);
+        // ottengo la riga dei due nodi
+        int indexNodo1 = this.nodesIndex.get(edge.getNode1());
+        int indexNodo2 = this.nodesIndex.get(edge.getNode2());
 
         // setto a null la posizioni corrispondenti
-        this.matrix.get(indexNodo1).set(indexEdge1, null);
-        this.matrix.get(indexNodo2).set(indexEdge2, null);
+        this.matrix.get(indexNodo1).set(indexNodo2, null);
+        this.matrix.get(indexNodo2).set(indexNodo1, null);
     }
 
     @Override
@@ -517,17 +532,15 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         if (!nodesIndex.containsKey(edge.getNode1()) || !nodesIndex.containsKey(edge.getNode2()))
             throw new IllegalArgumentException("Almeno un nodo non esistente nel grafo");
             
-        // ottengo l'indice di un nodo    
-        int indexNodo = this.getNodeIndexOf(edge.getNode1());
-        int indexEdge;
-        
-        // se l'indice associato all'edge nella riga della matrice corrispondente al nodo
-        // è maggiore di -1 e pertanto esiste, ritorno quel nodo della matrice
-        if((indexEdge = this.matrix.get(indexNodo).indexOf(edge)) > -1)
-            return this.matrix.get(indexNodo).get(indexEdge);
-        else
+        // un arco orientato non può essere presente
+        if(edge.isDirected())
             return null;
 
+        // ritorno l'elemento della matrice nella riga e nella colonna
+        // dei due nodi, null se non sono collegati
+        return this.matrix.get(this.nodesIndex.get(edge.getNode1()))
+                .get(this.nodesIndex.get(edge.getNode2()));
+
     }
 
     @Override
@@ -589,8 +602,8 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         // set contenitore dei nodi adiacenti
         Set<GraphNode<L>> adjNodes = new HashSet<GraphNode<L>>();
 
-        // ottengo l'indice del nodo
-        int indexNodo = this.getNodeIndexOf(node);
+        // ottengo la riga del nodo
+        int indexNodo = this.nodesIndex.get(node);
 
         // scorro la riga corrispondente nella matrice 
         for( GraphEdge<L> edge : this.matrix.get(indexNodo)) {
@@ -657,7 +670,7 @@ public class AdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
         Set<GraphEdge<L>> edges = new HashSet<GraphEdge<L>>();
         // scorro ed aggiungo al set tutti gli edge non null
         // contenuti nella rispettiva riga della matrice
-        for( GraphEdge<L> edge : this.matrix.get(this.getNodeIndexOf(node)) ) {
+        for( GraphEdge<L> edge : this.matrix.get(this.nodesIndex.get(node)) ) {
             if(edge != null)
                 edges.add(edge);
         }
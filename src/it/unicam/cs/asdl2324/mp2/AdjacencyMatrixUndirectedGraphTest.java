@@ -258,6 +258,40 @@ class AdjacencyMatrixUndirectedGraphTest {
         assertTrue(g.getEdge("c", "c") == null);
     }
 
+    @Test
+    final void testRemoveNodeMovesLastRow() {
+        AdjacencyMatrixUndirectedGraph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
+        GraphNode<String> nd = new GraphNode<String>("d");
+        g.addNode("a");
+        g.addNode("b");
+        g.addNode("c");
+        g.addNode(nd);
+        g.addWeightedEdge("a", "d", 1.5);
+        g.addEdge("d", "d");
+        g.addEdge("b", "c");
+        g.addEdge("c", "d");
+        g.removeNode("b");
+        // l'ultima riga prende il posto di quella del nodo cancellato
+        assertTrue(g.matrix.size() == 3);
+        assertTrue(g.nodesIndex.get(nd) == 1);
+        // mentre gli indici seguono l'ordine di inserimento
+        assertTrue(g.getNodeIndexOf("c") == 1);
+        assertTrue(g.getNodeIndexOf("d") == 2);
+        assertSame(nd, g.getNode(2));
+        assertSame(nd, g.getNode(new GraphNode<String>("d")));
+        assertTrue(g.getEdge(0, 2).getWeight() == 1.5);
+        assertTrue(g.getEdge(2, 2) != null);
+        assertTrue(g.getEdge(1, 2) != null);
+        assertTrue(g.getEdge(0, 1) == null);
+        assertTrue(g.getEdge(1, 1) == null);
+        g.removeNode(0);
+        assertTrue(g.getNodeIndexOf("c") == 0);
+        assertTrue(g.getNodeIndexOf("d") == 1);
+        assertTrue(g.getEdge(0, 1) != null);
+        assertTrue(g.getEdge(1, 1) != null);
+        assertTrue(g.getEdgesOf("d").size() == 2);
+    }
+
     @Test
     final void testGetNode() {
         Graph<String> g = new AdjacencyMatrixUndirectedGraph<String>();
@@ -0,0 +1,156 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Confronta la memoria occupata e il tempo delle interrogazioni di
+ * AdjacencyMatrixUndirectedGraph e BitsetAdjacencyMatrixUndirectedGraph su
+ * grafi casuali con n nodi e DEGREE * n / 2 archi. Per ogni grafo sono
+ * riportati i megabyte di heap occupati dopo la costruzione, il tempo di
+ * costruzione in millisecondi e il tempo medio in nanosecondi di getDegreeOf
+ * e del calcolo del numero di vicini comuni di due nodi, con retainAll tra gli
+ * insiemi di nodi adiacenti per AdjacencyMatrixUndirectedGraph e con
+ * getCommonNeighboursCount per BitsetAdjacencyMatrixUndirectedGraph. I dati
+ * sono scritti sul file bitsetmatrix.csv.
+ *
+ * Le dimensioni in SIZES sono misurate su AdjacencyMatrixUndirectedGraph con
+ * archi pesati e su BitsetAdjacencyMatrixUndirectedGraph sia con archi non
+ * pesati sia con archi pesati. La dimensione BITSET_ONLY, per cui la matrice
+ * di GraphEdge non entra in memoria (4 * n² byte di soli riferimenti), è
+ * misurata solo sul grafo compatto, creato con la capacità esatta, e con archi
+ * non pesati, perché anche il triangolo dei pesi occupa 4 * n * (n + 1) byte.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente), con le dimensioni separate da virgole come secondo
+ * parametro e con la dimensione da misurare solo sul grafo compatto come
+ * terzo parametro (0 per non misurarla).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class BitsetAdjacencyMatrixEvaluationFramework {
+
+    /**
+     * Dimensioni di default misurate su entrambi i grafi
+     */
+    public static final int[] SIZES = { 1_000, 2_000, 5_000, 10_000 };
+
+    /**
+     * Dimensione di default misurata solo sul grafo compatto
+     */
+    public static final int BITSET_ONLY = 50_000;
+
+    /**
+     * Grado medio dei nodi
+     */
+    public static final int DEGREE = 20;
+
+    /**
+     * Numero di interrogazioni per ogni tipo
+     */
+    public static final int QUERIES = 2_000;
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int[] sizes = SIZES;
+        if (args.length > 1) {
+            String[] s = args[1].split(",");
+            sizes = new int[s.length];
+            for (int i = 0; i < s.length; i++)
+                sizes[i] = Integer.parseInt(s[i]);
+        }
+        int bitsetOnly = args.length > 2 ? Integer.parseInt(args[2])
+                : BITSET_ONLY;
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "bitsetmatrix.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "bitsetmatrix.csv");
+            System.exit(1);
+        }
+        o.println("Graph,Nodes,Edges,Weighted,MB,BuildMs,DegreeNs,CommonNs");
+
+        for (int n : sizes) {
+            misura(o, AdjacencyMatrixUndirectedGraph::new, n, true);
+            misura(o, BitsetAdjacencyMatrixUndirectedGraph::new, n, false);
+            misura(o, BitsetAdjacencyMatrixUndirectedGraph::new, n, true);
+        }
+        if (bitsetOnly > 0)
+            misura(o, () -> new BitsetAdjacencyMatrixUndirectedGraph<Integer>(
+                    bitsetOnly), bitsetOnly, false);
+        o.close();
+    } // end main
+
+    /*
+     * Costruisce il grafo casuale con n nodi in un grafo vuoto creato dal
+     * costruttore dato e misura memoria e interrogazioni
+     */
+    private static void misura(PrintStream o, Supplier<Graph<Integer>> nuovo,
+            int n, boolean weighted) {
+        SplittableRandom random = new SplittableRandom(n);
+        long prima = memoriaUsata();
+        long start = System.nanoTime();
+        Graph<Integer> g = nuovo.get();
+        for (int i = 0; i < n; i++)
+            g.addNode(i);
+        for (long k = 0; k < (long) DEGREE * n / 2; k++) {
+            int i = random.nextInt(n);
+            int j = random.nextInt(n);
+            if (weighted)
+                g.addWeightedEdge(i, j, random.nextDouble());
+            else
+                g.addEdge(i, j);
+        }
+        long build = System.nanoTime() - start;
+        long memoria = memoriaUsata() - prima;
+
+        int[] a = new int[QUERIES];
+        int[] b = new int[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            a[q] = random.nextInt(n);
+            b[q] = random.nextInt(n);
+        }
+        long check = 0;
+        start = System.nanoTime();
+        for (int q = 0; q < QUERIES; q++)
+            check += g.getDegreeOf(a[q]);
+        long degree = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int q = 0; q < QUERIES; q++)
+            check += viciniComuni(g, a[q], b[q]);
+        long common = System.nanoTime() - start;
+
+        String name = g.getClass().getSimpleName();
+        o.println(name + "," + n + "," + g.getEdges().size() + "," + weighted
+                + "," + memoria / (1 << 20) + "," + build / 1_000_000 + ","
+                + degree / QUERIES + "," + common / QUERIES);
+        System.out.println(name + " n=" + n + " weighted=" + weighted + ": "
+                + memoria / (1 << 20) + " MB, build " + build / 1_000_000
+                + " ms, degree " + degree / QUERIES + " ns, common "
+                + common / QUERIES + " ns (" + check + ")");
+    }
+
+    private static int viciniComuni(Graph<Integer> g, int i, int j) {
+        if (g instanceof BitsetAdjacencyMatrixUndirectedGraph)
+            return ((BitsetAdjacencyMatrixUndirectedGraph<Integer>) g)
+                    .getCommonNeighboursCount(i, j);
+        Set<GraphNode<Integer>> comuni = g.getAdjacentNodesOf(i);
+        comuni.retainAll(g.getAdjacentNodesOf(j));
+        return comuni.size();
+    }
+
+    private static long memoriaUsata() {
+        Runtime r = Runtime.getRuntime();
+        for (int k = 0; k < 3; k++)
+            System.gc();
+        return r.totalMemory() - r.freeMemory();
+    }
+
+}
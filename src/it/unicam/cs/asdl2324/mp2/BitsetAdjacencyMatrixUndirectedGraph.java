@@ -0,0 +1,689 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe che implementa un grafo non orientato tramite una matrice di
+ * adiacenza compatta. Come in <code>AdjacencyMatrixUndirectedGraph</code> i
+ * nodi sono indicizzati da 0 a nodeCount() - 1 nell'ordine di inserimento e,
+ * quando un nodo viene cancellato, gli indici dei nodi successivi sono
+ * decrementati di uno. Non sono accettate etichette null o duplicate.
+ *
+ * La matrice però non contiene oggetti GraphEdge<L> ma un bit per posizione:
+ * la riga i è una sequenza di long in cui il bit j vale 1 se i nodi i e j sono
+ * collegati da un arco. Tutte le righe sono memorizzate una dopo l'altra in un
+ * unico array, ciascuna con lo stesso numero di long. Poiché il grafo non è
+ * orientato il peso dell'arco tra i e j, con j <= i, è memorizzato una volta
+ * sola nella posizione i * (i + 1) / 2 + j di un array di double che contiene
+ * il triangolo inferiore della matrice dei pesi riga dopo riga. L'array dei
+ * pesi viene creato solo al primo inserimento di un arco pesato; gli archi non
+ * pesati hanno peso Double.NaN.
+ *
+ * Per n nodi la matrice occupa n² / 8 byte e i pesi, se presenti, 4 * n * (n +
+ * 1) byte, contro i 4 * n² byte dei soli riferimenti di una matrice di
+ * GraphEdge<L> più gli archi stessi. Gli oggetti GraphEdge<L> non sono
+ * memorizzati ma creati quando vengono richiesti. Il grado di un nodo, i nodi
+ * adiacenti e il numero di vicini comuni di due nodi si calcolano su 64
+ * posizioni alla volta con Long.bitCount e Long.numberOfTrailingZeros, in un
+ * tempo O(n / 64).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public class BitsetAdjacencyMatrixUndirectedGraph<L> extends Graph<L> {
+
+    /*
+     * Numero minimo di nodi per cui è allocata la matrice
+     */
+    private static final int MIN_CAPACITY = 64;
+
+    /*
+     * Associazione di ogni nodo con il proprio indice
+     */
+    private final Map<GraphNode<L>, Integer> nodesIndex;
+
+    /*
+     * Nodo di ogni indice
+     */
+    private final List<GraphNode<L>> nodes;
+
+    /*
+     * Matrice di adiacenza: la riga i occupa le posizioni da i * words
+     * compreso a (i + 1) * words escluso
+     */
+    private long[] bits;
+
+    /*
+     * Numero di long di ogni riga
+     */
+    private int words;
+
+    /*
+     * Triangolo inferiore della matrice dei pesi, null se non è mai stato
+     * inserito un arco pesato
+     */
+    private double[] weights;
+
+    /*
+     * Numero di archi
+     */
+    private int edges;
+
+    /**
+     * Crea un grafo vuoto.
+     */
+    public BitsetAdjacencyMatrixUndirectedGraph() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Crea un grafo vuoto in grado di contenere il numero di nodi dato senza
+     * riallocare la matrice.
+     *
+     * @param capacity
+     *                     il numero di nodi previsto
+     * @throws IllegalArgumentException
+     *                                      se capacity è negativo
+     */
+    public BitsetAdjacencyMatrixUndirectedGraph(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacità negativa");
+        this.nodesIndex = new HashMap<GraphNode<L>, Integer>();
+        this.nodes = new ArrayList<GraphNode<L>>();
+        this.words = (Math.max(capacity, MIN_CAPACITY) + 63) >>> 6;
+        this.bits = new long[this.allocazione(this.words)];
+    }
+
+    @Override
+    public int nodeCount() {
+        return this.nodes.size();
+    }
+
+    @Override
+    public int edgeCount() {
+        return this.edges;
+    }
+
+    /*
+     * Mantiene la capacità della matrice
+     */
+    @Override
+    public void clear() {
+        this.nodesIndex.clear();
+        this.nodes.clear();
+        Arrays.fill(this.bits, 0);
+        this.weights = null;
+        this.edges = 0;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+    /*
+     * Gli indici dei nodi vanno assegnati nell'ordine di inserimento a partire
+     * da zero
+     */
+    @Override
+    public boolean addNode(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Puntatore a nodo null");
+        if (this.nodesIndex.containsKey(node))
+            return false;
+
+        int n = this.nodes.size();
+        if (n == this.words * 64)
+            this.ingrandisci();
+        if (this.weights != null)
+            this.riservaPesi(n + 1);
+        // la nuova riga e la nuova colonna sono già a zero
+        this.nodesIndex.put(node, n);
+        this.nodes.add(node);
+        return true;
+    }
+
+    @Override
+    public boolean addNode(L label) {
+        if (label == null)
+            throw new NullPointerException("Puntatore a etichetta null");
+        return this.addNode(new GraphNode<L>(label));
+    }
+
+    /*
+     * Gli indici dei nodi il cui valore sia maggiore dell'indice del nodo da
+     * cancellare devono essere decrementati di uno dopo la cancellazione del
+     * nodo
+     */
+    @Override
+    public void removeNode(GraphNode<L> node) {
+        this.removeNode(this.indiceDi(node));
+    }
+
+    @Override
+    public void removeNode(L label) {
+        if (label == null)
+            throw new NullPointerException("Puntatore a etichetta null");
+        this.removeNode(new GraphNode<L>(label));
+    }
+
+    /*
+     * Le righe successive a quella di i salgono di una posizione e in ogni
+     * riga i bit successivi alla colonna i scendono di una posizione, in un
+     * tempo Θ(n² / 64); il triangolo dei pesi viene compattato in un tempo
+     * Θ(n²)
+     */
+    @Override
+    public void removeNode(int i) {
+        this.controllaIndice(i);
+        int n = this.nodes.size();
+        this.edges -= this.grado(i);
+
+        int w = this.words;
+        System.arraycopy(this.bits, (i + 1) * w, this.bits, i * w, (n - i - 1) * w);
+        Arrays.fill(this.bits, (n - 1) * w, n * w, 0);
+        int parola = i >>> 6;
+        long basso = (1L << (i & 63)) - 1;
+        for (int r = 0; r < n - 1; r++) {
+            int base = r * w;
+            long x = this.bits[base + parola];
+            this.bits[base + parola] = (x & basso) | ((x >>> 1) & ~basso);
+            for (int k = parola + 1; k < w; k++) {
+                this.bits[base + k - 1] |= this.bits[base + k] << 63;
+                this.bits[base + k] >>>= 1;
+            }
+        }
+
+        if (this.weights != null) {
+            // le righe precedenti a i non cambiano posizione
+            int pos = triangolo(i, 0);
+            for (int r = i + 1; r < n; r++)
+                for (int c = 0; c <= r; c++)
+                    if (c != i)
+                        this.weights[pos++] = this.weights[triangolo(r, c)];
+        }
+
+        this.nodesIndex.remove(this.nodes.remove(i));
+        for (int k = i; k < n - 1; k++)
+            this.nodesIndex.put(this.nodes.get(k), k);
+    }
+
+    @Override
+    public GraphNode<L> getNode(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Puntatore a nodo null");
+        Integer i = this.nodesIndex.get(node);
+        return i == null ? null : this.nodes.get(i);
+    }
+
+    @Override
+    public GraphNode<L> getNode(L label) {
+        if (label == null)
+            throw new NullPointerException("Puntatore a etichetta null");
+        return this.getNode(new GraphNode<L>(label));
+    }
+
+    @Override
+    public GraphNode<L> getNode(int i) {
+        this.controllaIndice(i);
+        return this.nodes.get(i);
+    }
+
+    @Override
+    public int getNodeIndexOf(GraphNode<L> node) {
+        return this.indiceDi(node);
+    }
+
+    @Override
+    public int getNodeIndexOf(L label) {
+        if (label == null)
+            throw new NullPointerException("Puntatore a etichetta null");
+        return this.indiceDi(new GraphNode<L>(label));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getNodes() {
+        return Collections.unmodifiableSet(this.nodesIndex.keySet());
+    }
+
+    /*
+     * Se l'arco è già presente non viene modificato, nemmeno nel peso
+     */
+    @Override
+    public boolean addEdge(GraphEdge<L> edge) {
+        if (edge == null)
+            throw new NullPointerException("Tentativo di aggiungere un arco null");
+        if (!this.nodesIndex.containsKey(edge.getNode1()) || !this.nodesIndex.containsKey(edge.getNode2()))
+            throw new IllegalArgumentException("Almeno un nodo inesistente nel grafo");
+        if (edge.isDirected())
+            throw new IllegalArgumentException("Arco orientato");
+        return this.aggiungi(this.nodesIndex.get(edge.getNode1()),
+                this.nodesIndex.get(edge.getNode2()), edge.getWeight());
+    }
+
+    @Override
+    public boolean addEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        if (node1 == null || node2 == null)
+            throw new NullPointerException("Tentativo di aggiungere un arco null");
+        return this.addEdge(new GraphEdge<L>(node1, node2, false));
+    }
+
+    @Override
+    public boolean addWeightedEdge(GraphNode<L> node1, GraphNode<L> node2,
+            double weight) {
+        if (node1 == null || node2 == null)
+            throw new NullPointerException("Tentativo di aggiungere un arco null");
+        return this.addEdge(new GraphEdge<L>(node1, node2, false, weight));
+    }
+
+    @Override
+    public boolean addEdge(L label1, L label2) {
+        if (label1 == null || label2 == null)
+            throw new NullPointerException("Tentativo di aggiungere un arco null");
+        return this.addEdge(new GraphEdge<L>(new GraphNode<L>(label1),
+                new GraphNode<L>(label2), false));
+    }
+
+    @Override
+    public boolean addWeightedEdge(L label1, L label2, double weight) {
+        if (label1 == null || label2 == null)
+            throw new NullPointerException("Tentativo di aggiungere un arco null");
+        return this.addEdge(new GraphEdge<L>(new GraphNode<L>(label1),
+                new GraphNode<L>(label2), false, weight));
+    }
+
+    @Override
+    public boolean addEdge(int i, int j) {
+        this.controllaIndice(i);
+        this.controllaIndice(j);
+        return this.aggiungi(i, j, Double.NaN);
+    }
+
+    @Override
+    public boolean addWeightedEdge(int i, int j, double weight) {
+        this.controllaIndice(i);
+        this.controllaIndice(j);
+        return this.aggiungi(i, j, weight);
+    }
+
+    @Override
+    public void removeEdge(GraphEdge<L> edge) {
+        if (edge == null)
+            throw new NullPointerException("Tentativo di modificare un arco null");
+        if (!this.nodesIndex.containsKey(edge.getNode1()) || !this.nodesIndex.containsKey(edge.getNode2()))
+            throw new IllegalArgumentException("Almeno un nodo non esistente nel grafo");
+        if (edge.isDirected())
+            throw new IllegalArgumentException("Arco non esistente nel grafo");
+        this.removeEdge((int) this.nodesIndex.get(edge.getNode1()),
+                (int) this.nodesIndex.get(edge.getNode2()));
+    }
+
+    @Override
+    public void removeEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        if (node1 == null || node2 == null)
+            throw new NullPointerException("Tentativo di modificare un arco null");
+        this.removeEdge(new GraphEdge<L>(node1, node2, false));
+    }
+
+    @Override
+    public void removeEdge(L label1, L label2) {
+        if (label1 == null || label2 == null)
+            throw new NullPointerException("Tentativo di modificare un arco null");
+        this.removeEdge(new GraphEdge<L>(new GraphNode<L>(label1),
+                new GraphNode<L>(label2), false));
+    }
+
+    @Override
+    public void removeEdge(int i, int j) {
+        this.controllaIndice(i);
+        this.controllaIndice(j);
+        if (!this.adiacenti(i, j))
+            throw new IllegalArgumentException("Arco non esistente nel grafo");
+        this.bits[i * this.words + (j >>> 6)] &= ~(1L << j);
+        this.bits[j * this.words + (i >>> 6)] &= ~(1L << i);
+        this.edges--;
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphEdge<L> edge) {
+        if (edge == null)
+            throw new NullPointerException("Puntatore ad arco null");
+        if (!this.nodesIndex.containsKey(edge.getNode1()) || !this.nodesIndex.containsKey(edge.getNode2()))
+            throw new IllegalArgumentException("Almeno un nodo non esistente nel grafo");
+        if (edge.isDirected())
+            return null;
+        return this.getEdge((int) this.nodesIndex.get(edge.getNode1()),
+                (int) this.nodesIndex.get(edge.getNode2()));
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        if (node1 == null || node2 == null)
+            throw new NullPointerException("Puntatore a nodo null");
+        return this.getEdge(new GraphEdge<L>(node1, node2, false));
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(L label1, L label2) {
+        if (label1 == null || label2 == null)
+            throw new NullPointerException("Puntatore a etichetta null");
+        return this.getEdge(new GraphEdge<L>(new GraphNode<L>(label1),
+                new GraphNode<L>(label2), false));
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(int i, int j) {
+        this.controllaIndice(i);
+        this.controllaIndice(j);
+        return this.adiacenti(i, j) ? this.arco(i, j) : null;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(GraphNode<L> node) {
+        return this.getAdjacentNodesOf(this.indiceDi(node));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(L label) {
+        return this.getAdjacentNodesOf(this.getNodeIndexOf(label));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(int i) {
+        Set<GraphNode<L>> adjNodes = new HashSet<GraphNode<L>>();
+        for (int j : this.getAdjacentIndicesOf(i))
+            adjNodes.add(this.nodes.get(j));
+        return adjNodes;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(L label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(GraphNode<L> node) {
+        return this.getEdgesOf(this.indiceDi(node));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(L label) {
+        return this.getEdgesOf(this.getNodeIndexOf(label));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(int i) {
+        Set<GraphEdge<L>> edges = new HashSet<GraphEdge<L>>();
+        for (int j : this.getAdjacentIndicesOf(i))
+            edges.add(this.arco(i, j));
+        return edges;
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(L label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdges() {
+        Set<GraphEdge<L>> edges = new HashSet<GraphEdge<L>>(this.edges * 4 / 3 + 1);
+        // ogni arco una volta sola, dal triangolo inferiore
+        for (int i = 0; i < this.nodes.size(); i++) {
+            int base = i * this.words;
+            for (int k = 0; k <= i >>> 6; k++) {
+                long x = this.bits[base + k];
+                if (k == i >>> 6)
+                    x &= -1L >>> (63 - (i & 63));
+                while (x != 0) {
+                    edges.add(this.arco(i, (k << 6) + Long.numberOfTrailingZeros(x)));
+                    x &= x - 1;
+                }
+            }
+        }
+        return edges;
+    }
+
+    /*
+     * Il grado è il numero di bit a 1 nella riga del nodo
+     */
+    @Override
+    public int getDegreeOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException(
+                    "Tentativo di calcolare il grado di un nodo null");
+        Integer i = this.nodesIndex.get(node);
+        if (i == null)
+            throw new IllegalArgumentException(
+                    "Tentativo di calcolare il grado di un nodo non "
+                            + "presente in questo grafo");
+        return this.grado(i);
+    }
+
+    @Override
+    public int getDegreeOf(L label) {
+        if (label == null)
+            throw new NullPointerException(
+                    "Tentativo di calcolare il grado di un nodo null");
+        return this.getDegreeOf(new GraphNode<L>(label));
+    }
+
+    @Override
+    public int getDegreeOf(int i) {
+        if (i < 0 || i >= this.nodes.size())
+            throw new IndexOutOfBoundsException(
+                    "Tentativo di calcolare il grado di un nodo con indice "
+                            + "non valido");
+        return this.grado(i);
+    }
+
+    /**
+     * Determina se i nodi di indici dati sono collegati da un arco, senza
+     * creare l'arco.
+     *
+     * @param i
+     *              l'indice del primo nodo
+     * @param j
+     *              l'indice del secondo nodo
+     * @return true se esiste l'arco tra i due nodi
+     * @throws IndexOutOfBoundsException
+     *                                       se almeno uno degli indici non è
+     *                                       valido
+     */
+    public boolean areAdjacent(int i, int j) {
+        this.controllaIndice(i);
+        this.controllaIndice(j);
+        return this.adiacenti(i, j);
+    }
+
+    /**
+     * Restituisce gli indici dei nodi adiacenti al nodo di indice dato, in
+     * ordine crescente.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return gli indici dei nodi adiacenti
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int[] getAdjacentIndicesOf(int i) {
+        this.controllaIndice(i);
+        int[] adj = new int[this.grado(i)];
+        int base = i * this.words;
+        int a = 0;
+        for (int k = 0; k < this.words; k++) {
+            long x = this.bits[base + k];
+            while (x != 0) {
+                adj[a++] = (k << 6) + Long.numberOfTrailingZeros(x);
+                x &= x - 1;
+            }
+        }
+        return adj;
+    }
+
+    /**
+     * Restituisce il numero di nodi adiacenti sia al nodo di indice i sia al
+     * nodo di indice j, contando l'intersezione delle due righe 64 posizioni
+     * alla volta.
+     *
+     * @param i
+     *              l'indice del primo nodo
+     * @param j
+     *              l'indice del secondo nodo
+     * @return il numero di vicini comuni dei due nodi
+     * @throws IndexOutOfBoundsException
+     *                                       se almeno uno degli indici non è
+     *                                       valido
+     */
+    public int getCommonNeighboursCount(int i, int j) {
+        this.controllaIndice(i);
+        this.controllaIndice(j);
+        int bi = i * this.words;
+        int bj = j * this.words;
+        int count = 0;
+        for (int k = 0; k < this.words; k++)
+            count += Long.bitCount(this.bits[bi + k] & this.bits[bj + k]);
+        return count;
+    }
+
+    /*
+     * Imposta i due bit dell'arco e, se necessario, il peso
+     */
+    private boolean aggiungi(int i, int j, double weight) {
+        if (this.adiacenti(i, j))
+            return false;
+        this.bits[i * this.words + (j >>> 6)] |= 1L << j;
+        this.bits[j * this.words + (i >>> 6)] |= 1L << i;
+        if (this.weights == null && !Double.isNaN(weight))
+            this.riservaPesi(this.nodes.size());
+        if (this.weights != null)
+            this.weights[triangolo(Math.max(i, j), Math.min(i, j))] = weight;
+        this.edges++;
+        return true;
+    }
+
+    private boolean adiacenti(int i, int j) {
+        return (this.bits[i * this.words + (j >>> 6)] & (1L << j)) != 0;
+    }
+
+    private int grado(int i) {
+        int base = i * this.words;
+        int count = 0;
+        for (int k = 0; k < this.words; k++)
+            count += Long.bitCount(this.bits[base + k]);
+        return count;
+    }
+
+    /*
+     * Arco tra i nodi di indici i e j, che devono essere adiacenti
+     */
+    private GraphEdge<L> arco(int i, int j) {
+        double weight = this.weights == null ? Double.NaN
+                : this.weights[triangolo(Math.max(i, j), Math.min(i, j))];
+        return new GraphEdge<L>(this.nodes.get(i), this.nodes.get(j), false, weight);
+    }
+
+    /*
+     * Posizione nel triangolo dei pesi dell'elemento (i, j), con j <= i
+     */
+    private static int triangolo(int i, int j) {
+        return (int) ((long) i * (i + 1) / 2 + j);
+    }
+
+    /*
+     * Fa crescere il triangolo dei pesi fino a contenere le righe di n nodi,
+     * creandolo se non esiste; le nuove posizioni valgono Double.NaN
+     */
+    private void riservaPesi(int n) {
+        long richiesti = (long) n * (n + 1) / 2;
+        if (richiesti > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("Numero massimo di nodi con archi pesati raggiunto");
+        int vecchi = this.weights == null ? 0 : triangolo(n - 1, 0);
+        if (this.weights == null || richiesti > this.weights.length) {
+            long capacita = Math.max(richiesti, this.weights == null ? 0
+                    : this.weights.length + (long) this.weights.length / 2);
+            capacita = Math.min(capacita, Integer.MAX_VALUE - 8);
+            this.weights = this.weights == null ? new double[(int) capacita]
+                    : Arrays.copyOf(this.weights, (int) capacita);
+        }
+        Arrays.fill(this.weights, vecchi, (int) richiesti, Double.NaN);
+    }
+
+    /*
+     * Aumenta di metà il numero di colonne della matrice e copia le righe
+     * nelle nuove posizioni
+     */
+    private void ingrandisci() {
+        int w = this.words + (this.words + 1) / 2;
+        long[] nuovi = new long[this.allocazione(w)];
+        for (int r = 0; r < this.nodes.size(); r++)
+            System.arraycopy(this.bits, r * this.words, nuovi, r * w, this.words);
+        this.bits = nuovi;
+        this.words = w;
+    }
+
+    /*
+     * Dimensione della matrice con righe di w long
+     */
+    private int allocazione(int w) {
+        long size = (long) w * w * 64;
+        if (size > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("Numero massimo di nodi raggiunto");
+        return (int) size;
+    }
+
+    /*
+     * Indice di un nodo del grafo, con le eccezioni dei metodi che ricevono un
+     * nodo
+     */
+    private int indiceDi(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Puntatore a nodo null");
+        Integer i = this.nodesIndex.get(node);
+        if (i == null)
+            throw new IllegalArgumentException("Nodo inesistente");
+        return i;
+    }
+
+    private void controllaIndice(int i) {
+        if (i < 0 || i >= this.nodes.size())
+            throw new IndexOutOfBoundsException("Indice non compreso nella dimensione");
+    }
+
+}
@@ -0,0 +1,189 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe BitsetAdjacencyMatrixUndirectedGraph.
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+class BitsetAdjacencyMatrixUndirectedGraphTest {
+
+    /*
+     * Controlla che i due grafi abbiano gli stessi nodi con gli stessi indici
+     * e gli stessi archi con gli stessi pesi
+     */
+    private void assertSameGraph(AdjacencyMatrixUndirectedGraph<Integer> g,
+            BitsetAdjacencyMatrixUndirectedGraph<Integer> b) {
+        assertEquals(g.nodeCount(), b.nodeCount());
+        // edgeCount di AdjacencyMatrixUndirectedGraph conta mezzo ogni cappio
+        assertEquals(g.getEdges().size(), b.edgeCount());
+        assertEquals(g.getNodes(), b.getNodes());
+        assertEquals(g.getEdges(), b.getEdges());
+        for (int i = 0; i < g.nodeCount(); i++) {
+            assertEquals(g.getNode(i), b.getNode(i));
+            assertEquals(g.getDegreeOf(i), b.getDegreeOf(i));
+            assertEquals(g.getAdjacentNodesOf(i), b.getAdjacentNodesOf(i));
+            for (int j = 0; j < g.nodeCount(); j++) {
+                GraphEdge<Integer> e = g.getEdge(i, j);
+                GraphEdge<Integer> f = b.getEdge(i, j);
+                assertEquals(e, f);
+                assertEquals(e != null, b.areAdjacent(i, j));
+                if (e != null)
+                    assertEquals(e.getWeight(), f.getWeight());
+            }
+        }
+    }
+
+    @Test
+    final void testAddAndRemoveNode() {
+        BitsetAdjacencyMatrixUndirectedGraph<String> g = new BitsetAdjacencyMatrixUndirectedGraph<String>();
+        assertTrue(g.isEmpty());
+        assertThrows(NullPointerException.class,
+                () -> g.removeNode((GraphNode<String>) null));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.removeNode(0));
+        GraphNode<String> nc = new GraphNode<String>("c");
+        assertTrue(g.addNode("a"));
+        assertTrue(g.addNode("b"));
+        assertTrue(g.addNode(nc));
+        assertTrue(g.addNode("d"));
+        assertFalse(g.addNode("a"));
+        assertSame(nc, g.getNode("c"));
+        assertSame(nc, g.getNode(2));
+        g.addEdge("a", "b");
+        g.addEdge("b", "c");
+        g.addEdge("a", "a");
+        g.addEdge("b", "d");
+        g.addEdge("a", "d");
+        g.addEdge("c", "d");
+        assertEquals(6, g.edgeCount());
+        assertEquals(3, g.getDegreeOf("b"));
+        assertEquals(3, g.getDegreeOf("a"));
+        assertThrows(IllegalArgumentException.class, () -> g.removeNode("e"));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.removeNode(4));
+        g.removeNode("b");
+        assertEquals(0, g.getNodeIndexOf("a"));
+        assertEquals(1, g.getNodeIndexOf("c"));
+        assertEquals(2, g.getNodeIndexOf("d"));
+        assertEquals(3, g.nodeCount());
+        assertEquals(3, g.edgeCount());
+        assertNull(g.getNode("b"));
+        assertNotNull(g.getEdge("a", "a"));
+        assertNotNull(g.getEdge("a", "d"));
+        assertNotNull(g.getEdge("c", "d"));
+        assertNull(g.getEdge("c", "a"));
+        assertNull(g.getEdge("d", "d"));
+        g.removeNode(0);
+        assertEquals(0, g.getNodeIndexOf("c"));
+        assertEquals(1, g.getNodeIndexOf("d"));
+        assertEquals(1, g.edgeCount());
+        assertNotNull(g.getEdge(0, 1));
+        g.clear();
+        assertTrue(g.isEmpty());
+        assertEquals(0, g.edgeCount());
+    }
+
+    @Test
+    final void testEdges() {
+        BitsetAdjacencyMatrixUndirectedGraph<String> g = new BitsetAdjacencyMatrixUndirectedGraph<String>();
+        g.addNode("s");
+        g.addNode("u");
+        g.addNode("x");
+        assertTrue(g.addEdge("s", "u"));
+        assertFalse(g.addWeightedEdge("u", "s", 3));
+        assertTrue(Double.isNaN(g.getEdge("s", "u").getWeight()));
+        assertTrue(g.addWeightedEdge("u", "x", 2.5));
+        assertEquals(2.5, g.getEdge("x", "u").getWeight());
+        assertTrue(Double.isNaN(g.getEdge("s", "u").getWeight()));
+        assertEquals(2, g.edgeCount());
+        assertThrows(IllegalArgumentException.class,
+                () -> g.addEdge("s", "y"));
+        assertThrows(IllegalArgumentException.class,
+                () -> g.addEdge(new GraphEdge<String>(new GraphNode<String>("s"),
+                        new GraphNode<String>("x"), true)));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.addEdge(0, 3));
+        assertThrows(IllegalArgumentException.class,
+                () -> g.removeEdge("s", "x"));
+        g.removeEdge(2, 1);
+        assertNull(g.getEdge("u", "x"));
+        assertEquals(1, g.edgeCount());
+        assertThrows(UnsupportedOperationException.class,
+                () -> g.getIngoingEdgesOf("s"));
+    }
+
+    @Test
+    final void testWordParallelQueries() {
+        // più di 64 nodi per usare più long per riga
+        BitsetAdjacencyMatrixUndirectedGraph<Integer> g = new BitsetAdjacencyMatrixUndirectedGraph<Integer>(10);
+        for (int i = 0; i < 200; i++)
+            g.addNode(i);
+        for (int i = 0; i < 200; i += 3)
+            g.addEdge(0, i);
+        for (int i = 0; i < 200; i += 5)
+            g.addEdge(1, i);
+        assertEquals(68, g.getDegreeOf(0));
+        assertEquals(40, g.getDegreeOf(1));
+        // i multipli di 15, compreso 0 grazie al cappio
+        assertEquals(14, g.getCommonNeighboursCount(0, 1));
+        int[] adj = g.getAdjacentIndicesOf(1);
+        assertEquals(40, adj.length);
+        for (int k = 0; k < adj.length; k++)
+            assertEquals(5 * k, adj[k]);
+        assertTrue(g.areAdjacent(198, 0));
+        assertFalse(g.areAdjacent(199, 0));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> g.getCommonNeighboursCount(0, 200));
+    }
+
+    @Test
+    final void testSameAsAdjacencyMatrix() {
+        Random random = new Random(24);
+        AdjacencyMatrixUndirectedGraph<Integer> g = new AdjacencyMatrixUndirectedGraph<Integer>();
+        BitsetAdjacencyMatrixUndirectedGraph<Integer> b = new BitsetAdjacencyMatrixUndirectedGraph<Integer>();
+        int label = 0;
+        for (int step = 0; step < 3000; step++) {
+            int r = random.nextInt(100);
+            int n = g.nodeCount();
+            if (r < 10 || n < 2) {
+                assertEquals(g.addNode(label), b.addNode(label));
+                label++;
+            } else if (r < 13) {
+                int i = random.nextInt(n);
+                g.removeNode(i);
+                b.removeNode(i);
+            } else if (r < 80) {
+                int i = random.nextInt(n);
+                int j = random.nextInt(n);
+                if (random.nextBoolean())
+                    assertEquals(g.addEdge(i, j), b.addEdge(i, j));
+                else {
+                    double w = random.nextInt(100);
+                    assertEquals(g.addWeightedEdge(i, j, w),
+                            b.addWeightedEdge(i, j, w));
+                }
+            } else {
+                int i = random.nextInt(n);
+                int j = random.nextInt(n);
+                if (g.getEdge(i, j) != null) {
+                    g.removeEdge(i, j);
+                    b.removeEdge(i, j);
+                }
+            }
+        }
+        assertTrue(g.nodeCount() > 64);
+        assertSameGraph(g, b);
+        for (int i = 0; i < g.nodeCount(); i++)
+            for (int j = 0; j < g.nodeCount(); j++) {
+                Set<GraphNode<Integer>> comuni = g.getAdjacentNodesOf(i);
+                comuni.retainAll(g.getAdjacentNodesOf(j));
+                assertEquals(comuni.size(), b.getCommonNeighboursCount(i, j));
+            }
+    }
+
+}
@@ -0,0 +1,155 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Misura le componenti connesse di un grafo casuale con NODES nodi e EDGES
+ * archi, calcolate con una union per arco. Sono confrontati IntDisjointSets,
+ * con gli archi scorsi da un solo thread, e ConcurrentIntDisjointSets, con gli
+ * archi divisi tra i thread di un ForkJoinPool con parallelismo crescente.
+ * Per ogni configurazione sono riportati il tempo in millisecondi, il
+ * throughput in milioni di archi al secondo e il numero di componenti. I dati
+ * sono scritti sul file concurrentdisjointsets.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente), con il numero di nodi e di archi come secondo e terzo
+ * parametro (altrimenti si usano NODES e EDGES) e con i livelli di
+ * parallelismo da provare come parametri successivi (altrimenti 1, 2, 4, ...
+ * fino al numero di processori). Con i valori di default servono circa 1 GB
+ * di heap (-Xmx).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class ConcurrentDisjointSetsEvaluationFramework {
+
+    /**
+     * Numero di default di nodi
+     */
+    public static final int NODES = 10_000_000;
+
+    /**
+     * Numero di default di archi
+     */
+    public static final int EDGES = 100_000_000;
+
+    /**
+     * Numero di archi sotto il quale un task non viene più diviso
+     */
+    public static final int THRESHOLD = 1 << 16;
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int nodes = args.length > 1 ? Integer.parseInt(args[1]) : NODES;
+        int edges = args.length > 2 ? Integer.parseInt(args[2]) : EDGES;
+        int[] parallelism;
+        if (args.length > 3) {
+            parallelism = new int[args.length - 3];
+            for (int i = 3; i < args.length; i++)
+                parallelism[i - 3] = Integer.parseInt(args[i]);
+        } else {
+            int cpus = Runtime.getRuntime().availableProcessors();
+            parallelism = new int[32 - Integer.numberOfLeadingZeros(cpus)];
+            for (int i = 0; i < parallelism.length; i++)
+                parallelism[i] = 1 << i;
+        }
+        PrintStream o = null;
+        try {
+            o = new PrintStream(
+                    new File(dirName + "/" + "concurrentdisjointsets.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "concurrentdisjointsets.csv");
+            System.exit(1);
+        }
+        o.println("Implementation,Parallelism,Nodes,Edges,Ms,MEdges,Components");
+        // estremi degli archi, generati una volta sola fuori dalle misure
+        int[] from = new int[edges];
+        int[] to = new int[edges];
+        SplittableRandom random = new SplittableRandom(edges);
+        for (int i = 0; i < edges; i++) {
+            from[i] = random.nextInt(nodes);
+            to[i] = random.nextInt(nodes);
+        }
+
+        System.gc();
+        long start = System.nanoTime();
+        IntDisjointSets seq = new IntDisjointSets(nodes);
+        seq.makeSets(nodes);
+        for (int i = 0; i < edges; i++)
+            seq.union(from[i], to[i]);
+        long t = System.nanoTime() - start;
+        int components = seq.getNumberOfSets();
+        print(o, "IntDisjointSets", 1, nodes, edges, t, components);
+        seq = null;
+
+        for (int p : parallelism) {
+            ForkJoinPool pool = new ForkJoinPool(p);
+            System.gc();
+            start = System.nanoTime();
+            ConcurrentIntDisjointSets ds = new ConcurrentIntDisjointSets(nodes);
+            pool.invoke(new Unioni(ds, from, to, 0, edges));
+            t = System.nanoTime() - start;
+            pool.shutdown();
+            if (ds.getNumberOfSets() != components)
+                throw new IllegalStateException("Componenti diverse");
+            print(o, "ConcurrentIntDisjointSets", p, nodes, edges, t,
+                    components);
+        }
+        o.close();
+    } // end main
+
+    /*
+     * Esegue le union degli archi da lo a hi, dividendoli a metà finché sono
+     * più di THRESHOLD
+     */
+    private static class Unioni extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ConcurrentIntDisjointSets ds;
+        private final int[] from;
+        private final int[] to;
+        private final int lo;
+        private final int hi;
+
+        Unioni(ConcurrentIntDisjointSets ds, int[] from, int[] to, int lo,
+                int hi) {
+            this.ds = ds;
+            this.from = from;
+            this.to = to;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= THRESHOLD) {
+                for (int i = lo; i < hi; i++)
+                    ds.union(from[i], to[i]);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new Unioni(ds, from, to, lo, mid),
+                    new Unioni(ds, from, to, mid, hi));
+        }
+
+    }
+
+    private static void print(PrintStream o, String name, int p, int nodes,
+            int edges, long nanos, int components) {
+        double medges = edges * 1000.0 / nanos;
+        o.println(name + "," + p + "," + nodes + "," + edges + ","
+                + nanos / 1_000_000 + "," + medges + "," + components);
+        System.out.println(name + " " + p + " thread: " + nanos / 1_000_000
+                + " ms, " + medges + " Marchi/s, " + components
+                + " componenti");
+    }
+
+}
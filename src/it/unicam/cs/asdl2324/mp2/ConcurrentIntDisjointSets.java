@@ -0,0 +1,231 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Collezione di insiemi disgiunti degli interi 0, 1, ..., n - 1 utilizzabile
+ * da più thread contemporaneamente senza lock, secondo lo schema di Anderson e
+ * Woll e di Jayanti e Tarjan. Come in <code>IntDisjointSets</code> gli insiemi
+ * sono alberi memorizzati in un array di parent, qui un
+ * <code>AtomicIntegerArray</code> modificato solo con compareAndSet:
+ * <ul>
+ * <li>findSet risale l'albero con il dimezzamento del cammino: ogni nodo
+ * visitato viene collegato al nonno con una compareAndSet, che se fallisce
+ * viene semplicemente ignorata perché un altro thread ha già accorciato il
+ * cammino. findSet non ripete mai un passo e termina in un numero di passi
+ * limitato dall'altezza dell'albero, indipendentemente dagli altri
+ * thread;</li>
+ * <li>union cerca le due radici e collega quella di priorità minore
+ * all'altra con una compareAndSet che riesce solo se è ancora una radice;
+ * altrimenti un'altra union l'ha appena collegata e si riprova dalle nuove
+ * radici.</li>
+ * </ul>
+ * Il rango non può essere aggiornato insieme al parent con una sola
+ * compareAndSet: al suo posto si usa il collegamento casuale, con una
+ * priorità fissa per ogni elemento ottenuta rimescolando l'indice. Un albero
+ * viene collegato sotto una radice di priorità maggiore, il che mantiene
+ * l'altezza attesa logaritmica e dà, con il dimezzamento del cammino, un costo
+ * atteso O(α(n)) per operazione anche con più thread.
+ *
+ * Gli elementi sono creati tutti nel costruttore, perché far crescere l'array
+ * mentre altri thread lo usano richiederebbe una sincronizzazione.
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class ConcurrentIntDisjointSets {
+
+    // Parent di ogni elemento, uguale all'elemento stesso per le radici
+    private final AtomicIntegerArray parent;
+
+    // Seme del rimescolamento delle priorità
+    private final int seed;
+
+    /**
+     * Costruisce n insiemi singoletto con elementi 0, 1, ..., n - 1.
+     *
+     * @param n
+     *              il numero di elementi
+     * @throws IllegalArgumentException
+     *                                      se n è negativo
+     */
+    public ConcurrentIntDisjointSets(int n) {
+        this(n, 0x2545F491);
+    }
+
+    /**
+     * Costruisce n insiemi singoletto con elementi 0, 1, ..., n - 1 e le
+     * priorità generate dal seme dato.
+     *
+     * @param n
+     *                 il numero di elementi
+     * @param seed
+     *                 il seme delle priorità
+     * @throws IllegalArgumentException
+     *                                      se n è negativo
+     */
+    public ConcurrentIntDisjointSets(int n, int seed) {
+        if(n < 0)
+            throw new IllegalArgumentException("Numero di elementi negativo");
+        this.parent = new AtomicIntegerArray(n);
+        for(int i = 0; i < n; i++)
+            this.parent.set(i, i);
+        this.seed = seed;
+    }
+
+    /**
+     * Determina se un elemento è presente.
+     *
+     * @param e
+     *              l'elemento da cercare
+     * @return true se 0 <= e < size()
+     */
+    public boolean isPresent(int e) {
+        return e >= 0 && e < this.parent.length();
+    }
+
+    /**
+     * Restituisce il rappresentante dell'insieme disgiunto in cui si trova
+     * l'elemento. Se altri thread eseguono union nel frattempo il
+     * rappresentante restituito è stato la radice dell'albero di e in un
+     * istante della chiamata.
+     *
+     * @param e
+     *              l'elemento di cui cercare l'insieme disgiunto
+     * @return la radice dell'albero che contiene e
+     * @throws IllegalArgumentException
+     *                                      se l'elemento non è presente
+     */
+    public int findSet(int e) {
+        if(!this.isPresent(e))
+            throw new IllegalArgumentException("Elemento non appartenente a nessun insieme");
+        return this.find(e);
+    }
+
+    /**
+     * Unisce gli insiemi disgiunti di cui fanno parte i due elementi. La
+     * radice di priorità minore viene collegata all'altra.
+     *
+     * @param e1
+     *               un elemento del primo insieme da unire
+     * @param e2
+     *               un elemento del secondo insieme da unire
+     * @return true se questa chiamata ha unito i due insiemi, false se i due
+     *         elementi erano già nello stesso insieme
+     * @throws IllegalArgumentException
+     *                                      se almeno uno dei due elementi non
+     *                                      è presente
+     */
+    public boolean union(int e1, int e2) {
+        if(!this.isPresent(e1) || !this.isPresent(e2))
+            throw new IllegalArgumentException("Uno dei due elementi non presenti");
+
+        while(true) {
+            e1 = this.find(e1);
+            e2 = this.find(e2);
+            if(e1 == e2)
+                return false;
+            // collego la radice di priorità minore
+            if(this.precede(e1, e2)) {
+                if(this.parent.compareAndSet(e1, e1, e2))
+                    return true;
+            }
+            else if(this.parent.compareAndSet(e2, e2, e1))
+                return true;
+            // una delle due non è più una radice: riprovo
+        }
+    }
+
+    /**
+     * Determina se due elementi sono nello stesso insieme disgiunto.
+     *
+     * @param e1
+     *               il primo elemento
+     * @param e2
+     *               il secondo elemento
+     * @return true se i due elementi sono nello stesso insieme
+     * @throws IllegalArgumentException
+     *                                      se almeno uno dei due elementi non
+     *                                      è presente
+     */
+    public boolean sameSet(int e1, int e2) {
+        if(!this.isPresent(e1) || !this.isPresent(e2))
+            throw new IllegalArgumentException("Uno dei due elementi non presenti");
+
+        while(true) {
+            e1 = this.find(e1);
+            e2 = this.find(e2);
+            if(e1 == e2)
+                return true;
+            // se e1 è ancora una radice i due insiemi erano distinti quando
+            // è stata trovata e2
+            if(this.parent.get(e1) == e1)
+                return false;
+        }
+    }
+
+    /**
+     * @return il numero di elementi
+     */
+    public int size() {
+        return this.parent.length();
+    }
+
+    /**
+     * Conta le radici in un tempo Θ(n). Il risultato è esatto solo se nessun
+     * thread sta eseguendo union.
+     *
+     * @return il numero di insiemi disgiunti correnti
+     */
+    public int getNumberOfSets() {
+        int sets = 0;
+        for(int i = 0; i < this.parent.length(); i++)
+            if(this.parent.get(i) == i)
+                sets++;
+        return sets;
+    }
+
+    /*
+     * Risale fino alla radice dimezzando il cammino
+     */
+    private int find(int e) {
+        int p = this.parent.get(e);
+        while(p != e) {
+            int gp = this.parent.get(p);
+            if(gp == p)
+                return p;
+            // collego e al nonno; se fallisce un altro thread l'ha già fatto
+            this.parent.compareAndSet(e, p, gp);
+            e = gp;
+            p = this.parent.get(e);
+        }
+        return e;
+    }
+
+    /*
+     * Ordine totale tra gli elementi: la priorità rimescolata, a parità
+     * l'indice
+     */
+    private boolean precede(int a, int b) {
+        int pa = this.priorita(a);
+        int pb = this.priorita(b);
+        return pa < pb || (pa == pb && a < b);
+    }
+
+    /*
+     * Priorità pseudo-casuale di un elemento: il passo finale di MurmurHash3
+     * applicato all'indice combinato con il seme
+     */
+    private int priorita(int e) {
+        int h = e ^ this.seed;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+}
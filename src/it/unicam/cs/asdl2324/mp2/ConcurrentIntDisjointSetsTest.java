@@ -0,0 +1,98 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe ConcurrentIntDisjointSets.
+ * 
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+class ConcurrentIntDisjointSetsTest {
+
+    @Test
+    final void testSequential() {
+        ConcurrentIntDisjointSets ds = new ConcurrentIntDisjointSets(5);
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentIntDisjointSets(-1));
+        assertEquals(5, ds.size());
+        assertEquals(5, ds.getNumberOfSets());
+        assertTrue(ds.isPresent(4));
+        assertFalse(ds.isPresent(5));
+        assertThrows(IllegalArgumentException.class, () -> ds.findSet(5));
+        assertThrows(IllegalArgumentException.class, () -> ds.union(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> ds.sameSet(0, 5));
+        assertEquals(3, ds.findSet(3));
+        assertFalse(ds.sameSet(0, 1));
+        assertTrue(ds.union(0, 1));
+        assertFalse(ds.union(1, 0));
+        assertTrue(ds.sameSet(0, 1));
+        assertTrue(ds.union(2, 3));
+        assertTrue(ds.union(3, 1));
+        assertEquals(2, ds.getNumberOfSets());
+        assertEquals(ds.findSet(0), ds.findSet(2));
+        assertFalse(ds.sameSet(4, 0));
+    }
+
+    @Test
+    final void testStress() throws InterruptedException {
+        int n = 20000;
+        int m = 16000;
+        int threads = 8;
+        SplittableRandom random = new SplittableRandom(19);
+        int[] pairs = new int[2 * m];
+        for (int i = 0; i < 2 * m; i++)
+            pairs[i] = random.nextInt(n);
+        for (int round = 0; round < 5; round++) {
+            ConcurrentIntDisjointSets ds = new ConcurrentIntDisjointSets(n, round);
+            AtomicInteger unite = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                final int offset = t;
+                // ogni thread esegue tutte le unioni, a partire da punti diversi
+                workers[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int k = 0; k < m; k++) {
+                        int i = (k + offset * m / threads) % m;
+                        if (ds.union(pairs[2 * i], pairs[2 * i + 1]))
+                            unite.incrementAndGet();
+                        ds.sameSet(pairs[2 * i], pairs[(2 * i + 3) % (2 * m)]);
+                    }
+                });
+                workers[t].start();
+            }
+            start.countDown();
+            for (Thread w : workers)
+                w.join();
+
+            IntDisjointSets seq = new IntDisjointSets(n);
+            seq.makeSets(n);
+            for (int i = 0; i < m; i++)
+                seq.union(pairs[2 * i], pairs[2 * i + 1]);
+            // ogni unione riuscita ha unito due insiemi distinti
+            assertEquals(n - seq.getNumberOfSets(), unite.get());
+            assertEquals(seq.getNumberOfSets(), ds.getNumberOfSets());
+            // le due partizioni coincidono
+            Map<Integer, Integer> radici = new HashMap<Integer, Integer>();
+            for (int i = 0; i < n; i++) {
+                Integer r = radici.putIfAbsent(seq.findSet(i), ds.findSet(i));
+                if (r != null)
+                    assertEquals((int) r, ds.findSet(i));
+            }
+            assertEquals(seq.getNumberOfSets(), radici.size());
+        }
+    }
+
+}
@@ -0,0 +1,686 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Classe che implementa un grafo non orientato immutabile in formato CSR
+ * (compressed sparse row). I nodi sono indicizzati da 0 a nodeCount() - 1 e le
+ * liste di adiacenza di tutti i nodi sono memorizzate una dopo l'altra in due
+ * array paralleli: targets, con l'indice del nodo adiacente, e weights, con il
+ * peso dell'arco (Double.NaN se l'arco non è pesato). La lista del nodo i
+ * occupa le posizioni da offsets[i] compreso a offsets[i + 1] escluso ed è
+ * ordinata per indice del nodo adiacente. Ogni arco compare nelle liste di
+ * entrambi i nodi, tranne i cappi che compaiono una volta sola.
+ *
+ * Rispetto a una mappa di insiemi di archi la memoria occupata è di 4 * (n +
+ * 1) + 24 * m byte per n nodi e m archi più i nodi, la tabella etichetta →
+ * indice e l'array indice → nodo; gli oggetti GraphEdge non sono memorizzati
+ * ma creati quando vengono richiesti dai metodi dell'interfaccia Graph. Gli
+ * algoritmi possono invece scorrere le adiacenze per indice senza allocare
+ * nulla:
+ *
+ * <pre>
+ * for (int k = g.getAdjacencyStart(i); k &lt; g.getAdjacencyEnd(i); k++)
+ *     visita(g.getAdjacentIndex(k), g.getAdjacencyWeight(k));
+ * </pre>
+ *
+ * Il grafo si costruisce una volta sola, a partire da un altro grafo non
+ * orientato (anche dell'esercitazione 12, con fromLabels) o dagli estremi e
+ * dai pesi di una sequenza di archi, con un
+ * ordinamento per conteggio in un tempo Θ(n + m) più l'ordinamento delle
+ * singole liste. In seguito getEdge costa O(log grado) e getDegreeOf O(1).
+ * Tutti i metodi che modificano il grafo lanciano
+ * UnsupportedOperationException.
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ * @param <L>
+ *                tipo delle etichette dei nodi del grafo
+ */
+public class CsrGraph<L> extends Graph<L> {
+
+    /*
+     * Nodo di ogni indice
+     */
+    private final GraphNode<L>[] nodes;
+
+    /*
+     * Indice di ogni etichetta
+     */
+    private final Map<L, Integer> labelsIndex;
+
+    /*
+     * Inizio della lista di adiacenza di ogni nodo in targets e weights;
+     * offsets[nodeCount()] è la lunghezza complessiva delle liste
+     */
+    private final int[] offsets;
+
+    /*
+     * Nodi adiacenti e pesi degli archi, lista dopo lista
+     */
+    private final int[] targets;
+    private final double[] weights;
+
+    /*
+     * Numero di archi
+     */
+    private final int edges;
+
+    /*
+     * Insieme dei nodi, creato alla prima richiesta
+     */
+    private Set<GraphNode<L>> nodeSet;
+
+    /**
+     * Crea una copia in formato CSR di un grafo non orientato, in cui ogni
+     * nodo ha lo stesso indice che ha nel grafo dato.
+     *
+     * @param g
+     *              il grafo da copiare
+     * @throws NullPointerException
+     *                                      se il grafo è null
+     * @throws IllegalArgumentException
+     *                                      se il grafo è orientato
+     */
+    public CsrGraph(Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Puntatore a grafo null");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Grafo orientato");
+
+        int n = g.nodeCount();
+        this.nodes = nuoviNodi(n);
+        this.labelsIndex = new HashMap<L, Integer>(n * 4 / 3 + 1);
+        for (GraphNode<L> node : g.getNodes()) {
+            int i = g.getNodeIndexOf(node);
+            this.nodes[i] = node;
+            this.labelsIndex.put(node.getLabel(), i);
+        }
+
+        Set<GraphEdge<L>> archi = g.getEdges();
+        int m = archi.size();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        double[] w = new double[m];
+        int k = 0;
+        for (GraphEdge<L> edge : archi) {
+            from[k] = this.labelsIndex.get(edge.getNode1().getLabel());
+            to[k] = this.labelsIndex.get(edge.getNode2().getLabel());
+            w[k++] = edge.getWeight();
+        }
+
+        this.offsets = new int[n + 1];
+        Liste liste = costruisci(n, from, to, w, this.offsets);
+        this.targets = liste.targets;
+        this.weights = liste.weights;
+        this.edges = liste.edges;
+    }
+
+    /**
+     * Crea una copia in formato CSR di un grafo non orientato
+     * dell'esercitazione 12, ad esempio MapAdjacentListUndirectedGraph, che
+     * non associa indici ai nodi. Gli indici vengono assegnati nell'ordine in
+     * cui getNodes() restituisce i nodi e gli estremi degli archi sono
+     * ricavati dalle loro etichette, senza chiamare getNodeIndexOf.
+     *
+     * @param <L>
+     *              tipo delle etichette dei nodi
+     * @param g
+     *              il grafo da copiare
+     * @return il grafo in formato CSR
+     * @throws NullPointerException
+     *                                      se il grafo è null
+     * @throws IllegalArgumentException
+     *                                      se il grafo è orientato
+     */
+    public static <L> CsrGraph<L> fromLabels(
+            it.unicam.cs.asdl2324.es12.Graph<L> g) {
+        if (g == null)
+            throw new NullPointerException("Puntatore a grafo null");
+        if (g.isDirected())
+            throw new IllegalArgumentException("Grafo orientato");
+
+        int n = g.nodeCount();
+        List<L> labels = new ArrayList<L>(n);
+        Map<L, Integer> indici = new HashMap<L, Integer>(n * 4 / 3 + 1);
+        for (it.unicam.cs.asdl2324.es12.GraphNode<L> node : g.getNodes()) {
+            indici.put(node.getLabel(), labels.size());
+            labels.add(node.getLabel());
+        }
+
+        Set<it.unicam.cs.asdl2324.es12.GraphEdge<L>> archi = g.getEdges();
+        int m = archi.size();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        double[] w = new double[m];
+        int k = 0;
+        for (it.unicam.cs.asdl2324.es12.GraphEdge<L> edge : archi) {
+            from[k] = indici.get(edge.getNode1().getLabel());
+            to[k] = indici.get(edge.getNode2().getLabel());
+            w[k++] = edge.getWeight();
+        }
+        return new CsrGraph<L>(labels, from, to, w);
+    }
+
+    /**
+     * Crea un grafo in formato CSR a partire da una sequenza di archi, dati
+     * dagli indici dei nodi estremi. Il nodo di indice i ha etichetta
+     * labels.get(i). Gli archi ripetuti sono considerati una volta sola, con il
+     * peso della prima occorrenza.
+     *
+     * @param labels
+     *                    le etichette dei nodi
+     * @param from
+     *                    il primo estremo di ogni arco
+     * @param to
+     *                    il secondo estremo di ogni arco
+     * @param weights
+     *                    il peso di ogni arco, oppure null se gli archi non
+     *                    sono pesati
+     * @throws NullPointerException
+     *                                       se labels, from, to o una
+     *                                       etichetta sono null
+     * @throws IllegalArgumentException
+     *                                       se ci sono etichette ripetute o
+     *                                       se from, to e weights hanno
+     *                                       lunghezze diverse
+     * @throws IndexOutOfBoundsException
+     *                                       se un estremo non è l'indice di
+     *                                       un nodo
+     */
+    public CsrGraph(List<L> labels, int[] from, int[] to, double[] weights) {
+        if (labels == null || from == null || to == null)
+            throw new NullPointerException("Puntatore null");
+        if (from.length != to.length
+                || (weights != null && weights.length != from.length))
+            throw new IllegalArgumentException("Lunghezze diverse degli array degli archi");
+
+        int n = labels.size();
+        this.nodes = nuoviNodi(n);
+        this.labelsIndex = new HashMap<L, Integer>(n * 4 / 3 + 1);
+        int i = 0;
+        for (L label : labels) {
+            if (label == null)
+                throw new NullPointerException("Puntatore a etichetta null");
+            if (this.labelsIndex.put(label, i) != null)
+                throw new IllegalArgumentException("Etichetta ripetuta");
+            this.nodes[i++] = new GraphNode<L>(label);
+        }
+        for (int k = 0; k < from.length; k++)
+            if (from[k] < 0 || from[k] >= n || to[k] < 0 || to[k] >= n)
+                throw new IndexOutOfBoundsException("Indice non compreso nella dimensione");
+
+        double[] w = weights;
+        if (w == null) {
+            w = new double[from.length];
+            Arrays.fill(w, Double.NaN);
+        }
+        this.offsets = new int[n + 1];
+        Liste liste = costruisci(n, from, to, w, this.offsets);
+        this.targets = liste.targets;
+        this.weights = liste.weights;
+        this.edges = liste.edges;
+    }
+
+    /*
+     * Liste di adiacenza prodotte da costruisci
+     */
+    private static class Liste {
+        private int[] targets;
+        private double[] weights;
+        private int edges;
+    }
+
+    /*
+     * Costruisce le liste di adiacenza di n nodi dagli archi dati, riempiendo
+     * offsets: distribuisce gli archi nelle liste con un ordinamento per
+     * conteggio, ordina ogni lista per nodo adiacente e ne toglie gli archi
+     * ripetuti
+     */
+    private static Liste costruisci(int n, int[] from, int[] to, double[] w,
+            int[] offsets) {
+        // grado di ogni nodo, i cappi contano una volta sola
+        for (int k = 0; k < from.length; k++) {
+            offsets[from[k] + 1]++;
+            if (from[k] != to[k])
+                offsets[to[k] + 1]++;
+        }
+        for (int i = 0; i < n; i++)
+            offsets[i + 1] += offsets[i];
+
+        int[] targets = new int[offsets[n]];
+        double[] weights = new double[offsets[n]];
+        int[] pos = Arrays.copyOf(offsets, n);
+        for (int k = 0; k < from.length; k++) {
+            int p = pos[from[k]]++;
+            targets[p] = to[k];
+            weights[p] = w[k];
+            if (from[k] != to[k]) {
+                p = pos[to[k]]++;
+                targets[p] = from[k];
+                weights[p] = w[k];
+            }
+        }
+
+        // ordino ogni lista e la ricopio senza ripetizioni
+        int maxGrado = 0;
+        for (int i = 0; i < n; i++)
+            maxGrado = Math.max(maxGrado, offsets[i + 1] - offsets[i]);
+        long[] chiavi = new long[maxGrado];
+        int[] t = new int[maxGrado];
+        double[] pesi = new double[maxGrado];
+        int scritti = 0;
+        int loops = 0;
+        for (int i = 0; i < n; i++) {
+            int start = offsets[i];
+            int d = offsets[i + 1] - start;
+            // a parità di nodo adiacente la posizione mantiene il primo arco
+            for (int k = 0; k < d; k++)
+                chiavi[k] = ((long) targets[start + k] << 32) | k;
+            Arrays.sort(chiavi, 0, d);
+            for (int k = 0; k < d; k++) {
+                int j = (int) chiavi[k];
+                t[k] = targets[start + j];
+                pesi[k] = weights[start + j];
+            }
+            offsets[i] = scritti;
+            for (int k = 0; k < d; k++)
+                if (k == 0 || t[k] != t[k - 1]) {
+                    targets[scritti] = t[k];
+                    weights[scritti++] = pesi[k];
+                    if (t[k] == i)
+                        loops++;
+                }
+        }
+        offsets[n] = scritti;
+
+        Liste liste = new Liste();
+        liste.targets = scritti == targets.length ? targets : Arrays.copyOf(targets, scritti);
+        liste.weights = scritti == weights.length ? weights : Arrays.copyOf(weights, scritti);
+        liste.edges = (scritti + loops) / 2;
+        return liste;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static <L> GraphNode<L>[] nuoviNodi(int n) {
+        return (GraphNode<L>[]) new GraphNode[n];
+    }
+
+    /**
+     * Restituisce la posizione del primo nodo adiacente al nodo di indice i.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return la posizione, da passare a getAdjacentIndex e
+     *         getAdjacencyWeight, del primo nodo adiacente
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getAdjacencyStart(int i) {
+        this.controllaIndice(i);
+        return this.offsets[i];
+    }
+
+    /**
+     * Restituisce la posizione successiva all'ultimo nodo adiacente al nodo di
+     * indice i.
+     *
+     * @param i
+     *              l'indice del nodo
+     * @return la posizione successiva all'ultimo nodo adiacente
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non è valido
+     */
+    public int getAdjacencyEnd(int i) {
+        this.controllaIndice(i);
+        return this.offsets[i + 1];
+    }
+
+    /**
+     * Restituisce l'indice del nodo adiacente in una posizione delle liste di
+     * adiacenza.
+     *
+     * @param k
+     *              la posizione, compresa tra getAdjacencyStart(i) e
+     *              getAdjacencyEnd(i) per un nodo i
+     * @return l'indice del nodo adiacente
+     * @throws ArrayIndexOutOfBoundsException
+     *                                            se la posizione non è valida
+     */
+    public int getAdjacentIndex(int k) {
+        return this.targets[k];
+    }
+
+    /**
+     * Restituisce il peso dell'arco in una posizione delle liste di
+     * adiacenza.
+     *
+     * @param k
+     *              la posizione, compresa tra getAdjacencyStart(i) e
+     *              getAdjacencyEnd(i) per un nodo i
+     * @return il peso dell'arco, Double.NaN se non è pesato
+     * @throws ArrayIndexOutOfBoundsException
+     *                                            se la posizione non è valida
+     */
+    public double getAdjacencyWeight(int k) {
+        return this.weights[k];
+    }
+
+    @Override
+    public int nodeCount() {
+        return this.nodes.length;
+    }
+
+    @Override
+    public int edgeCount() {
+        return this.edges;
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+    @Override
+    public boolean addNode(GraphNode<L> node) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public boolean addNode(L label) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public void removeNode(GraphNode<L> node) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public void removeNode(L label) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public void removeNode(int i) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public GraphNode<L> getNode(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Puntatore a nodo null");
+        Integer i = this.labelsIndex.get(node.getLabel());
+        return i == null ? null : this.nodes[i];
+    }
+
+    @Override
+    public GraphNode<L> getNode(L label) {
+        if (label == null)
+            throw new NullPointerException("Puntatore a etichetta null");
+        Integer i = this.labelsIndex.get(label);
+        return i == null ? null : this.nodes[i];
+    }
+
+    @Override
+    public GraphNode<L> getNode(int i) {
+        this.controllaIndice(i);
+        return this.nodes[i];
+    }
+
+    @Override
+    public int getNodeIndexOf(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Puntatore a nodo null");
+        return this.getNodeIndexOf(node.getLabel());
+    }
+
+    @Override
+    public int getNodeIndexOf(L label) {
+        if (label == null)
+            throw new NullPointerException("Puntatore a etichetta null");
+        Integer i = this.labelsIndex.get(label);
+        if (i == null)
+            throw new IllegalArgumentException("Nodo inesistente");
+        return i;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getNodes() {
+        if (this.nodeSet == null)
+            this.nodeSet = Collections.unmodifiableSet(
+                    new HashSet<GraphNode<L>>(Arrays.asList(this.nodes)));
+        return this.nodeSet;
+    }
+
+    @Override
+    public boolean addEdge(GraphEdge<L> edge) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public boolean addEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public boolean addWeightedEdge(GraphNode<L> node1, GraphNode<L> node2,
+            double weight) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public boolean addEdge(L label1, L label2) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public boolean addWeightedEdge(L label1, L label2, double weight) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public boolean addEdge(int i, int j) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public boolean addWeightedEdge(int i, int j, double weight) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public void removeEdge(GraphEdge<L> edge) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public void removeEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public void removeEdge(L label1, L label2) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public void removeEdge(int i, int j) {
+        throw new UnsupportedOperationException("Operazione non supportata in un grafo immutabile");
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphEdge<L> edge) {
+        if (edge == null)
+            throw new NullPointerException("Puntatore ad arco null");
+        if (edge.isDirected())
+            return null;
+        return this.getEdge(edge.getNode1(), edge.getNode2());
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(GraphNode<L> node1, GraphNode<L> node2) {
+        if (node1 == null || node2 == null)
+            throw new NullPointerException("Puntatore a nodo null");
+        return this.getEdge(node1.getLabel(), node2.getLabel());
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(L label1, L label2) {
+        if (label1 == null || label2 == null)
+            throw new NullPointerException("Puntatore a etichetta null");
+        Integer i = this.labelsIndex.get(label1);
+        Integer j = this.labelsIndex.get(label2);
+        if (i == null || j == null)
+            throw new IllegalArgumentException("Almeno un nodo non esistente nel grafo");
+        return this.getEdge((int) i, (int) j);
+    }
+
+    @Override
+    public GraphEdge<L> getEdge(int i, int j) {
+        this.controllaIndice(i);
+        this.controllaIndice(j);
+        int k = Arrays.binarySearch(this.targets, this.offsets[i], this.offsets[i + 1], j);
+        return k < 0 ? null : this.arco(i, k);
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(GraphNode<L> node) {
+        return this.getAdjacentNodesOf(this.indiceDi(node));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(L label) {
+        return this.getAdjacentNodesOf(this.getNodeIndexOf(label));
+    }
+
+    @Override
+    public Set<GraphNode<L>> getAdjacentNodesOf(int i) {
+        this.controllaIndice(i);
+        Set<GraphNode<L>> adjNodes = new HashSet<GraphNode<L>>();
+        for (int k = this.offsets[i]; k < this.offsets[i + 1]; k++)
+            adjNodes.add(this.nodes[this.targets[k]]);
+        return adjNodes;
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(L label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphNode<L>> getPredecessorNodesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(GraphNode<L> node) {
+        return this.getEdgesOf(this.indiceDi(node));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(L label) {
+        return this.getEdgesOf(this.getNodeIndexOf(label));
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdgesOf(int i) {
+        this.controllaIndice(i);
+        Set<GraphEdge<L>> edges = new HashSet<GraphEdge<L>>();
+        for (int k = this.offsets[i]; k < this.offsets[i + 1]; k++)
+            edges.add(this.arco(i, k));
+        return edges;
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(GraphNode<L> node) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(L label) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getIngoingEdgesOf(int i) {
+        throw new UnsupportedOperationException(
+                "Operazione non supportata in un grafo non orientato");
+    }
+
+    @Override
+    public Set<GraphEdge<L>> getEdges() {
+        Set<GraphEdge<L>> edges = new HashSet<GraphEdge<L>>(this.edges * 4 / 3 + 1);
+        // ogni arco una volta sola, dalla lista del nodo di indice minore
+        for (int i = 0; i < this.nodes.length; i++)
+            for (int k = this.offsets[i]; k < this.offsets[i + 1]; k++)
+                if (this.targets[k] >= i)
+                    edges.add(this.arco(i, k));
+        return edges;
+    }
+
+    /*
+     * Il grado è la lunghezza della lista di adiacenza
+     */
+    @Override
+    public int getDegreeOf(int i) {
+        try {
+            this.controllaIndice(i);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IndexOutOfBoundsException(
+                    "Tentativo di calcolare il grado di un nodo con indice "
+                            + "non valido");
+        }
+        return this.offsets[i + 1] - this.offsets[i];
+    }
+
+    /*
+     * Arco tra il nodo di indice i e quello in posizione k della sua lista
+     */
+    private GraphEdge<L> arco(int i, int k) {
+        return new GraphEdge<L>(this.nodes[i], this.nodes[this.targets[k]], false, this.weights[k]);
+    }
+
+    /*
+     * Indice di un nodo del grafo, con le eccezioni dei metodi che ricevono un
+     * nodo
+     */
+    private int indiceDi(GraphNode<L> node) {
+        if (node == null)
+            throw new NullPointerException("Puntatore a nodo null");
+        Integer i = this.labelsIndex.get(node.getLabel());
+        if (i == null)
+            throw new IllegalArgumentException("Nodo inesistente");
+        return i;
+    }
+
+    private void controllaIndice(int i) {
+        if (i < 0 || i >= this.nodes.length)
+            throw new IndexOutOfBoundsException("Indice non compreso nella dimensione");
+    }
+
+}
@@ -0,0 +1,371 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+import it.unicam.cs.asdl2324.es12.MapAdjacentListUndirectedGraph;
+
+/**
+ * Confronta CsrGraph con MapAdjacentListUndirectedGraph (esercitazione 12) su
+ * un grafo casuale connesso con NODES nodi e EDGES archi di peso casuale:
+ * gli archi di un albero casuale più archi tra coppie casuali di nodi. Per
+ * entrambi i grafi vengono misurati:
+ * <ul>
+ * <li>BFS: visita in ampiezza da un nodo;</li>
+ * <li>Prim: albero di copertura minimo con una coda con priorità binaria in
+ * cui i nodi vengono reinseriti quando la distanza diminuisce;</li>
+ * <li>Kruskal: albero di copertura minimo ordinando gli archi per peso.</li>
+ * </ul>
+ * Sul grafo a mappa gli algoritmi usano l'interfaccia Graph, con oggetti
+ * GraphNode e GraphEdge, una PriorityQueue e IndexedDisjointSets; su CsrGraph
+ * scorrono le adiacenze per indice, con una coda con priorità su array di
+ * primitivi e IntDisjointSets. Per Kruskal viene misurata anche la classe
+ * KruskalMST applicata al CsrGraph tramite l'interfaccia Graph. Per ciascuno
+ * sono riportati il tempo in millisecondi e, per controllo, il numero di nodi
+ * visitati o il peso dell'albero trovato. I dati sono scritti sul file
+ * csrgraph.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente) e con il numero di nodi e di archi come secondo e terzo
+ * parametro (altrimenti si usano NODES e EDGES).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class CsrGraphEvaluationFramework {
+
+    /**
+     * Numero di default di nodi
+     */
+    public static final int NODES = 200_000;
+
+    /**
+     * Numero di default di archi
+     */
+    public static final int EDGES = 1_000_000;
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : NODES;
+        int m = args.length > 2 ? Integer.parseInt(args[2]) : EDGES;
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "csrgraph.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "csrgraph.csv");
+            System.exit(1);
+        }
+        o.println("Graph,Algorithm,Nodes,Edges,Ms,Check");
+
+        // archi di un albero casuale e poi archi casuali, senza ripetizioni
+        SplittableRandom random = new SplittableRandom(m);
+        int[] from = new int[m];
+        int[] to = new int[m];
+        double[] w = new double[m];
+        Map<Long, Boolean> presenti = new HashMap<Long, Boolean>();
+        for (int k = 0; k < m; k++) {
+            int a, b;
+            do {
+                a = k < n - 1 ? k + 1 : random.nextInt(n);
+                b = k < n - 1 ? random.nextInt(k + 1) : random.nextInt(n);
+            } while (a == b || presenti.put((long) Math.min(a, b) * n
+                    + Math.max(a, b), Boolean.TRUE) != null);
+            from[k] = a;
+            to[k] = b;
+            w[k] = random.nextDouble();
+        }
+        presenti = null;
+        List<Integer> labels = new ArrayList<Integer>(n);
+        for (int i = 0; i < n; i++)
+            labels.add(i);
+
+        long start = System.nanoTime();
+        MapAdjacentListUndirectedGraph<Integer> map = new MapAdjacentListUndirectedGraph<Integer>();
+        List<it.unicam.cs.asdl2324.es12.GraphNode<Integer>> mapNodes = new ArrayList<it.unicam.cs.asdl2324.es12.GraphNode<Integer>>(n);
+        for (int i = 0; i < n; i++) {
+            mapNodes.add(new it.unicam.cs.asdl2324.es12.GraphNode<Integer>(i));
+            map.addNode(mapNodes.get(i));
+        }
+        for (int k = 0; k < m; k++)
+            map.addEdge(new it.unicam.cs.asdl2324.es12.GraphEdge<Integer>(
+                    mapNodes.get(from[k]), mapNodes.get(to[k]), false, w[k]));
+        print(o, "Map", "Build", n, m, System.nanoTime() - start, map.edgeCount());
+
+        start = System.nanoTime();
+        CsrGraph<Integer> csr = new CsrGraph<Integer>(labels, from, to, w);
+        print(o, "Csr", "Build", n, m, System.nanoTime() - start, csr.edgeCount());
+
+        System.gc();
+        start = System.nanoTime();
+        int visitati = bfs(map, mapNodes.get(0));
+        print(o, "Map", "BFS", n, m, System.nanoTime() - start, visitati);
+        System.gc();
+        start = System.nanoTime();
+        visitati = bfs(csr, 0);
+        print(o, "Csr", "BFS", n, m, System.nanoTime() - start, visitati);
+
+        System.gc();
+        start = System.nanoTime();
+        double peso = prim(map, mapNodes.get(0));
+        print(o, "Map", "Prim", n, m, System.nanoTime() - start, peso);
+        System.gc();
+        start = System.nanoTime();
+        peso = prim(csr, 0);
+        print(o, "Csr", "Prim", n, m, System.nanoTime() - start, peso);
+
+        System.gc();
+        start = System.nanoTime();
+        peso = kruskal(map);
+        print(o, "Map", "Kruskal", n, m, System.nanoTime() - start, peso);
+        System.gc();
+        start = System.nanoTime();
+        peso = 0;
+        for (GraphEdge<Integer> e : new KruskalMST<Integer>().computeMSP(csr))
+            peso += e.getWeight();
+        print(o, "Csr", "KruskalMST", n, m, System.nanoTime() - start, peso);
+        System.gc();
+        start = System.nanoTime();
+        peso = kruskal(csr);
+        print(o, "Csr", "Kruskal", n, m, System.nanoTime() - start, peso);
+        o.close();
+    } // end main
+
+    /*
+     * Visita in ampiezza del grafo a mappa, restituisce il numero di nodi
+     * raggiunti
+     */
+    private static <L> int bfs(MapAdjacentListUndirectedGraph<L> g,
+            it.unicam.cs.asdl2324.es12.GraphNode<L> s) {
+        for (it.unicam.cs.asdl2324.es12.GraphNode<L> u : g.getNodes())
+            u.setColor(0);
+        ArrayDeque<it.unicam.cs.asdl2324.es12.GraphNode<L>> coda = new ArrayDeque<it.unicam.cs.asdl2324.es12.GraphNode<L>>();
+        s.setColor(1);
+        coda.add(s);
+        int visitati = 0;
+        while (!coda.isEmpty()) {
+            it.unicam.cs.asdl2324.es12.GraphNode<L> u = coda.poll();
+            visitati++;
+            for (it.unicam.cs.asdl2324.es12.GraphNode<L> v : g.getAdjacentNodesOf(u))
+                if (v.getColor() == 0) {
+                    v.setColor(1);
+                    coda.add(v);
+                }
+        }
+        return visitati;
+    }
+
+    /*
+     * Visita in ampiezza di CsrGraph per indice
+     */
+    private static int bfs(CsrGraph<?> g, int s) {
+        int n = g.nodeCount();
+        boolean[] scoperto = new boolean[n];
+        int[] coda = new int[n];
+        int testa = 0, fine = 0;
+        scoperto[s] = true;
+        coda[fine++] = s;
+        while (testa < fine) {
+            int u = coda[testa++];
+            for (int k = g.getAdjacencyStart(u); k < g.getAdjacencyEnd(u); k++) {
+                int v = g.getAdjacentIndex(k);
+                if (!scoperto[v]) {
+                    scoperto[v] = true;
+                    coda[fine++] = v;
+                }
+            }
+        }
+        return fine;
+    }
+
+    /*
+     * Prim sul grafo a mappa, restituisce il peso dell'albero
+     */
+    private static <L> double prim(MapAdjacentListUndirectedGraph<L> g,
+            it.unicam.cs.asdl2324.es12.GraphNode<L> s) {
+        for (it.unicam.cs.asdl2324.es12.GraphNode<L> u : g.getNodes()) {
+            u.setColor(0);
+            u.setFloatingPointDistance(Double.POSITIVE_INFINITY);
+        }
+        // coppie (nodo, distanza al momento dell'inserimento)
+        PriorityQueue<Object[]> coda = new PriorityQueue<Object[]>(
+                Comparator.comparingDouble((Object[] x) -> (Double) x[1]));
+        s.setFloatingPointDistance(0);
+        coda.add(new Object[] { s, 0.0 });
+        double peso = 0;
+        while (!coda.isEmpty()) {
+            @SuppressWarnings("unchecked")
+            it.unicam.cs.asdl2324.es12.GraphNode<L> u = (it.unicam.cs.asdl2324.es12.GraphNode<L>) coda.poll()[0];
+            if (u.getColor() == 2)
+                continue;
+            u.setColor(2);
+            peso += u.getFloatingPointDistance();
+            for (it.unicam.cs.asdl2324.es12.GraphEdge<L> e : g.getEdgesOf(u)) {
+                it.unicam.cs.asdl2324.es12.GraphNode<L> v = e.getNode1() == u ? e.getNode2() : e.getNode1();
+                if (v.getColor() != 2 && e.getWeight() < v.getFloatingPointDistance()) {
+                    v.setFloatingPointDistance(e.getWeight());
+                    coda.add(new Object[] { v, e.getWeight() });
+                }
+            }
+        }
+        return peso;
+    }
+
+    /*
+     * Prim su CsrGraph per indice, con una coda con priorità binaria su array
+     * di chiavi e di nodi
+     */
+    private static double prim(CsrGraph<?> g, int s) {
+        int n = g.nodeCount();
+        double[] distanza = new double[n];
+        java.util.Arrays.fill(distanza, Double.POSITIVE_INFINITY);
+        boolean[] nelAlbero = new boolean[n];
+        // ogni nodo entra in coda al più una volta per ogni arco
+        int capacita = n + 2 * g.edgeCount() + 1;
+        double[] chiavi = new double[capacita];
+        int[] nodi = new int[capacita];
+        int size = 0;
+        distanza[s] = 0;
+        chiavi[0] = 0;
+        nodi[0] = s;
+        size = 1;
+        double peso = 0;
+        while (size > 0) {
+            int u = nodi[0];
+            // estrazione del minimo: l'ultimo scende dalla radice
+            size--;
+            double kx = chiavi[size];
+            int nx = nodi[size];
+            int i = 0;
+            while (2 * i + 1 < size) {
+                int c = 2 * i + 1;
+                if (c + 1 < size && chiavi[c + 1] < chiavi[c])
+                    c++;
+                if (chiavi[c] >= kx)
+                    break;
+                chiavi[i] = chiavi[c];
+                nodi[i] = nodi[c];
+                i = c;
+            }
+            chiavi[i] = kx;
+            nodi[i] = nx;
+            if (nelAlbero[u])
+                continue;
+            nelAlbero[u] = true;
+            peso += distanza[u];
+            for (int k = g.getAdjacencyStart(u); k < g.getAdjacencyEnd(u); k++) {
+                int v = g.getAdjacentIndex(k);
+                double wv = g.getAdjacencyWeight(k);
+                if (!nelAlbero[v] && wv < distanza[v]) {
+                    distanza[v] = wv;
+                    // inserimento: il nuovo risale verso la radice
+                    int j = size++;
+                    while (j > 0 && chiavi[(j - 1) / 2] > wv) {
+                        chiavi[j] = chiavi[(j - 1) / 2];
+                        nodi[j] = nodi[(j - 1) / 2];
+                        j = (j - 1) / 2;
+                    }
+                    chiavi[j] = wv;
+                    nodi[j] = v;
+                }
+            }
+        }
+        return peso;
+    }
+
+    /*
+     * Kruskal sul grafo a mappa, restituisce il peso dell'albero
+     */
+    private static <L> double kruskal(MapAdjacentListUndirectedGraph<L> g) {
+        IndexedDisjointSets<it.unicam.cs.asdl2324.es12.GraphNode<L>> ds = new IndexedDisjointSets<it.unicam.cs.asdl2324.es12.GraphNode<L>>(g.nodeCount());
+        for (it.unicam.cs.asdl2324.es12.GraphNode<L> u : g.getNodes())
+            ds.makeSet(u);
+        List<it.unicam.cs.asdl2324.es12.GraphEdge<L>> archi = new ArrayList<it.unicam.cs.asdl2324.es12.GraphEdge<L>>(g.getEdges());
+        archi.sort(Comparator.comparingDouble(
+                (it.unicam.cs.asdl2324.es12.GraphEdge<L> e) -> e.getWeight()));
+        double peso = 0;
+        for (it.unicam.cs.asdl2324.es12.GraphEdge<L> e : archi)
+            if (!ds.findSet(e.getNode1()).equals(ds.findSet(e.getNode2()))) {
+                ds.union(e.getNode1(), e.getNode2());
+                peso += e.getWeight();
+            }
+        return peso;
+    }
+
+    /*
+     * Kruskal su CsrGraph per indice: ordina le posizioni degli archi (una
+     * per arco, dalla lista del nodo di indice minore) per peso
+     */
+    private static double kruskal(CsrGraph<?> g) {
+        int n = g.nodeCount();
+        int m = 0;
+        int[] archi = new int[g.edgeCount()];
+        int[] sorgente = new int[g.edgeCount()];
+        for (int u = 0; u < n; u++)
+            for (int k = g.getAdjacencyStart(u); k < g.getAdjacencyEnd(u); k++)
+                if (g.getAdjacentIndex(k) > u) {
+                    sorgente[m] = u;
+                    archi[m++] = k;
+                }
+        // i pesi non negativi hanno lo stesso ordine dei loro bit come long:
+        // ordino i numeri degli archi con un radix sort su 16 bit per passata
+        long[] bits = new long[m];
+        int[] ordine = new int[m];
+        for (int e = 0; e < m; e++) {
+            bits[e] = Double.doubleToLongBits(g.getAdjacencyWeight(archi[e]));
+            ordine[e] = e;
+        }
+        long[] bitsAux = new long[m];
+        int[] ordineAux = new int[m];
+        int[] conteggi = new int[1 << 16];
+        for (int shift = 0; shift < 64; shift += 16) {
+            java.util.Arrays.fill(conteggi, 0);
+            for (int e = 0; e < m; e++)
+                conteggi[(int) (bits[e] >>> shift) & 0xFFFF]++;
+            for (int c = 0, somma = 0; c < conteggi.length; c++) {
+                int t = conteggi[c];
+                conteggi[c] = somma;
+                somma += t;
+            }
+            for (int e = 0; e < m; e++) {
+                int pos = conteggi[(int) (bits[e] >>> shift) & 0xFFFF]++;
+                bitsAux[pos] = bits[e];
+                ordineAux[pos] = ordine[e];
+            }
+            long[] tb = bits;
+            bits = bitsAux;
+            bitsAux = tb;
+            int[] to = ordine;
+            ordine = ordineAux;
+            ordineAux = to;
+        }
+        IntDisjointSets ds = new IntDisjointSets(n);
+        ds.makeSets(n);
+        double peso = 0;
+        for (int i = 0; i < m; i++) {
+            int e = ordine[i];
+            if (ds.union(sorgente[e], g.getAdjacentIndex(archi[e])))
+                peso += g.getAdjacencyWeight(archi[e]);
+        }
+        return peso;
+    }
+
+    private static void print(PrintStream o, String graph, String algorithm,
+            int n, int m, long nanos, double check) {
+        o.println(graph + "," + algorithm + "," + n + "," + m + ","
+                + nanos / 1_000_000 + "," + check);
+        System.out.println(graph + " " + algorithm + ": " + nanos / 1_000_000
+                + " ms (" + check + ")");
+    }
+
+}
@@ -0,0 +1,166 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe CsrGraph.
+ * 
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+class CsrGraphTest {
+
+    /*
+     * Grafo del libro di testo Cormen et al. (terza edizione) Figura 23.4
+     */
+    private AdjacencyMatrixUndirectedGraph<String> cormen() {
+        AdjacencyMatrixUndirectedGraph<String> gr = new AdjacencyMatrixUndirectedGraph<String>();
+        for (String l : new String[] { "a", "b", "c", "d", "e", "f", "g", "h", "i" })
+            gr.addNode(l);
+        gr.addWeightedEdge("a", "b", 4);
+        gr.addWeightedEdge("a", "h", 8.5);
+        gr.addWeightedEdge("b", "h", 11);
+        gr.addWeightedEdge("b", "c", 8);
+        gr.addWeightedEdge("c", "i", 2);
+        gr.addWeightedEdge("c", "d", 7);
+        gr.addWeightedEdge("c", "f", 4);
+        gr.addWeightedEdge("d", "f", 14);
+        gr.addWeightedEdge("d", "e", 9);
+        gr.addWeightedEdge("e", "f", 10);
+        gr.addWeightedEdge("f", "g", 2);
+        gr.addWeightedEdge("g", "i", 6);
+        gr.addWeightedEdge("g", "h", 1);
+        gr.addWeightedEdge("h", "i", 7);
+        return gr;
+    }
+
+    @Test
+    final void testFromLabels() {
+        AdjacencyMatrixUndirectedGraph<String> gr = cormen();
+        it.unicam.cs.asdl2324.es12.MapAdjacentListUndirectedGraph<String> map = new it.unicam.cs.asdl2324.es12.MapAdjacentListUndirectedGraph<String>();
+        for (GraphNode<String> node : gr.getNodes())
+            map.addNode(new it.unicam.cs.asdl2324.es12.GraphNode<String>(node.getLabel()));
+        for (GraphEdge<String> e : gr.getEdges())
+            map.addEdge(new it.unicam.cs.asdl2324.es12.GraphEdge<String>(
+                    map.getNodeOf(e.getNode1().getLabel()),
+                    map.getNodeOf(e.getNode2().getLabel()), false,
+                    e.getWeight()));
+        // un nodo isolato e un arco non pesato
+        map.addNode(new it.unicam.cs.asdl2324.es12.GraphNode<String>("z"));
+        map.addNode(new it.unicam.cs.asdl2324.es12.GraphNode<String>("y"));
+        map.addEdge(new it.unicam.cs.asdl2324.es12.GraphEdge<String>(
+                map.getNodeOf("y"), map.getNodeOf("a"), false));
+
+        CsrGraph<String> csr = CsrGraph.fromLabels(map);
+        assertEquals(map.nodeCount(), csr.nodeCount());
+        assertEquals(map.edgeCount(), csr.edgeCount());
+        for (GraphEdge<String> e : gr.getEdges())
+            assertEquals(e.getWeight(), csr.getEdge(e.getNode1().getLabel(),
+                    e.getNode2().getLabel()).getWeight());
+        assertEquals(0, csr.getDegreeOf("z"));
+        assertTrue(Double.isNaN(csr.getEdge("a", "y").getWeight()));
+        assertEquals(gr.getDegreeOf("a") + 1, csr.getDegreeOf("a"));
+        assertThrows(NullPointerException.class,
+                () -> CsrGraph.fromLabels(null));
+    }
+
+    @Test
+    final void testFromGraph() {
+        AdjacencyMatrixUndirectedGraph<String> gr = cormen();
+        CsrGraph<String> csr = new CsrGraph<String>(gr);
+        assertEquals(gr.nodeCount(), csr.nodeCount());
+        assertEquals(gr.edgeCount(), csr.edgeCount());
+        assertFalse(csr.isDirected());
+        assertEquals(gr.getNodes(), csr.getNodes());
+        assertEquals(gr.getEdges(), csr.getEdges());
+        for (int i = 0; i < gr.nodeCount(); i++) {
+            assertEquals(gr.getNode(i), csr.getNode(i));
+            assertEquals(i, csr.getNodeIndexOf(gr.getNode(i)));
+            assertEquals(gr.getAdjacentNodesOf(i), csr.getAdjacentNodesOf(i));
+            assertEquals(gr.getEdgesOf(i), csr.getEdgesOf(i));
+            assertEquals(gr.getDegreeOf(i), csr.getDegreeOf(i));
+            for (int j = 0; j < gr.nodeCount(); j++) {
+                GraphEdge<String> e = gr.getEdge(i, j);
+                GraphEdge<String> c = csr.getEdge(i, j);
+                assertEquals(e, c);
+                if (e != null)
+                    assertEquals(e.getWeight(), c.getWeight());
+            }
+        }
+        assertEquals(8.5, csr.getEdge("h", "a").getWeight());
+        assertNull(csr.getEdge("a", "c"));
+        assertEquals(new KruskalMST<String>().computeMSP(gr),
+                new KruskalMST<String>().computeMSP(csr));
+        assertThrows(NullPointerException.class, () -> new CsrGraph<String>(null));
+    }
+
+    @Test
+    final void testFromEdges() {
+        List<String> labels = Arrays.asList("a", "b", "c", "d");
+        // arco ripetuto (il secondo in ordine inverso) e cappio
+        int[] from = { 0, 1, 2, 0, 3 };
+        int[] to = { 1, 2, 1, 3, 3 };
+        double[] w = { 1, 2, 5, 3, 4 };
+        CsrGraph<String> g = new CsrGraph<String>(labels, from, to, w);
+        assertEquals(4, g.nodeCount());
+        assertEquals(4, g.edgeCount());
+        assertEquals(4, g.getEdges().size());
+        assertEquals(2, g.getEdge("c", "b").getWeight());
+        assertEquals(4, g.getEdge(3, 3).getWeight());
+        assertEquals(2, g.getDegreeOf(0));
+        assertEquals(2, g.getDegreeOf(3));
+        assertEquals(1, g.getDegreeOf(2));
+        // liste ordinate per indice del nodo adiacente
+        int[] adj = new int[g.getAdjacencyEnd(0) - g.getAdjacencyStart(0)];
+        for (int k = g.getAdjacencyStart(0); k < g.getAdjacencyEnd(0); k++)
+            adj[k - g.getAdjacencyStart(0)] = g.getAdjacentIndex(k);
+        assertArrayEquals(new int[] { 1, 3 }, adj);
+        assertEquals(3, g.getAdjacencyWeight(g.getAdjacencyStart(0) + 1));
+        Set<GraphNode<String>> adj3 = new HashSet<GraphNode<String>>();
+        adj3.add(new GraphNode<String>("a"));
+        adj3.add(new GraphNode<String>("d"));
+        assertEquals(adj3, g.getAdjacentNodesOf("d"));
+
+        CsrGraph<String> u = new CsrGraph<String>(labels, from, to, null);
+        assertFalse(u.getEdge(0, 1).hasWeight());
+        assertTrue(Double.isNaN(u.getAdjacencyWeight(0)));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsrGraph<String>(Arrays.asList("a", "a"), new int[0], new int[0], null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CsrGraph<String>(labels, from, new int[1], null));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> new CsrGraph<String>(labels, new int[] { 0 }, new int[] { 4 }, null));
+        assertThrows(NullPointerException.class,
+                () -> new CsrGraph<String>(Arrays.asList("a", null), new int[0], new int[0], null));
+    }
+
+    @Test
+    final void testExceptions() {
+        CsrGraph<String> g = new CsrGraph<String>(cormen());
+        assertThrows(UnsupportedOperationException.class, () -> g.addNode("z"));
+        assertThrows(UnsupportedOperationException.class, () -> g.addEdge(0, 1));
+        assertThrows(UnsupportedOperationException.class, () -> g.removeNode(0));
+        assertThrows(UnsupportedOperationException.class, () -> g.removeEdge("a", "b"));
+        assertThrows(UnsupportedOperationException.class, () -> g.clear());
+        assertThrows(UnsupportedOperationException.class, () -> g.getPredecessorNodesOf(0));
+        assertThrows(UnsupportedOperationException.class, () -> g.getIngoingEdgesOf("a"));
+        assertThrows(UnsupportedOperationException.class, () -> g.getNodes().clear());
+        assertThrows(IndexOutOfBoundsException.class, () -> g.getNode(9));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.getAdjacencyStart(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.getDegreeOf(9));
+        assertThrows(IllegalArgumentException.class, () -> g.getNodeIndexOf("z"));
+        assertThrows(IllegalArgumentException.class, () -> g.getEdge("a", "z"));
+        assertThrows(IllegalArgumentException.class, () -> g.getEdgesOf("z"));
+        assertThrows(NullPointerException.class, () -> g.getNode((String) null));
+        assertNull(g.getNode("z"));
+    }
+
+}
@@ -0,0 +1,118 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+
+/**
+ * Misura le implementazioni degli insiemi disgiunti su N elementi: N
+ * chiamate a makeSet, N chiamate a union su coppie di elementi casuali e N
+ * chiamate a findSet su elementi casuali. Sono confrontati:
+ * <ul>
+ * <li>ForestDisjointSets su elementi Integer;</li>
+ * <li>IndexedDisjointSets su elementi Integer, tramite l'interfaccia
+ * DisjointSets;</li>
+ * <li>IntDisjointSets direttamente sugli indici.</li>
+ * </ul>
+ * Per ciascuno sono riportati i tempi in millisecondi delle tre fasi. I dati
+ * sono scritti sul file disjointsets.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente) e con i numeri di elementi da provare come parametri
+ * successivi (altrimenti si usano quelli di SIZES).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class DisjointSetsEvaluationFramework {
+
+    /**
+     * Numeri di elementi di default
+     */
+    public static final int[] SIZES = { 100_000, 1_000_000, 4_000_000 };
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int[] sizes = SIZES;
+        if (args.length > 1) {
+            sizes = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++)
+                sizes[i - 1] = Integer.parseInt(args[i]);
+        }
+        PrintStream o = null;
+        try {
+            o = new PrintStream(new File(dirName + "/" + "disjointsets.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "disjointsets.csv");
+            System.exit(1);
+        }
+        o.println("Implementation,N,MakeSetMs,UnionMs,FindSetMs");
+        for (int n : sizes) {
+            Integer[] keys = new Integer[n];
+            for (int i = 0; i < n; i++)
+                keys[i] = i;
+            // coppie e interrogazioni, generate una volta sola fuori dalle misure
+            int[] pairs = new int[2 * n];
+            int[] queries = new int[n];
+            SplittableRandom random = new SplittableRandom(n);
+            for (int i = 0; i < 2 * n; i++)
+                pairs[i] = random.nextInt(n);
+            for (int i = 0; i < n; i++)
+                queries[i] = random.nextInt(n);
+
+            run(o, "ForestDisjointSets", new ForestDisjointSets<Integer>(),
+                    keys, pairs, queries);
+            run(o, "IndexedDisjointSets",
+                    new IndexedDisjointSets<Integer>(), keys, pairs, queries);
+
+            System.gc();
+            long[] t = new long[4];
+            t[0] = System.nanoTime();
+            IntDisjointSets ints = new IntDisjointSets(n);
+            ints.makeSets(n);
+            t[1] = System.nanoTime();
+            for (int i = 0; i < n; i++)
+                ints.union(pairs[2 * i], pairs[2 * i + 1]);
+            t[2] = System.nanoTime();
+            long check = 0;
+            for (int i = 0; i < n; i++)
+                check += ints.findSet(queries[i]);
+            t[3] = System.nanoTime();
+            print(o, "IntDisjointSets", n, t, check);
+        }
+        o.close();
+    } // end main
+
+    private static void run(PrintStream o, String name, DisjointSets<Integer> ds,
+            Integer[] keys, int[] pairs, int[] queries) {
+        int n = keys.length;
+        System.gc();
+        long[] t = new long[4];
+        t[0] = System.nanoTime();
+        for (int i = 0; i < n; i++)
+            ds.makeSet(keys[i]);
+        t[1] = System.nanoTime();
+        for (int i = 0; i < n; i++)
+            ds.union(keys[pairs[2 * i]], keys[pairs[2 * i + 1]]);
+        t[2] = System.nanoTime();
+        long check = 0;
+        for (int i = 0; i < n; i++)
+            check += ds.findSet(keys[queries[i]]);
+        t[3] = System.nanoTime();
+        print(o, name, n, t, check);
+    }
+
+    private static void print(PrintStream o, String name, int n, long[] t,
+            long check) {
+        o.println(name + "," + n + "," + (t[1] - t[0]) / 1_000_000 + ","
+                + (t[2] - t[1]) / 1_000_000 + "," + (t[3] - t[2]) / 1_000_000);
+        System.out.println(name + " " + n + ": makeSet "
+                + (t[1] - t[0]) / 1_000_000 + " ms, union "
+                + (t[2] - t[1]) / 1_000_000 + " ms, findSet "
+                + (t[3] - t[2]) / 1_000_000 + " ms (" + check + ")");
+    }
+
+}
@@ -14,6 +14,12 @@ import java.util.HashSet;
  * vedano le istruzioni o il libro di testo Cormen et al. (terza edizione)
  * Capitolo 21 Sezione 3.
  * 
+ * I nodi di ogni insieme sono inoltre concatenati in una lista circolare,
+ * fusa in tempo costante dall'unione, e le radici mantengono il numero di
+ * elementi del proprio insieme: elencare gli elementi di un insieme costa
+ * quindi Θ(|insieme|), elencare i rappresentanti Θ(numero di insiemi) e
+ * conoscere la cardinalità di un insieme O(α(n)).
+ * 
  * @author Luca Tesei (template) CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it (implementazione)
  *
  * @param <E>
@@ -27,6 +33,11 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
      * i test JUnit.
      */
     protected Map<E, Node<E>> currentElements;
+
+    /*
+     * Insieme dei rappresentanti correnti, aggiornato da makeSet e union.
+     */
+    private Set<E> representatives;
     
     /*
      * Classe interna statica che rappresenta i nodi degli alberi della foresta.
@@ -51,9 +62,21 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
          */
         protected int rank;
 
+        /*
+         * Il successivo di questo nodo nella lista circolare dei nodi del suo
+         * insieme. Nel caso di un insieme singoletto punta al nodo stesso.
+         */
+        protected Node<E> next;
+
+        /*
+         * Il numero di elementi dell'insieme di cui questo nodo è radice,
+         * significativo solo per le radici.
+         */
+        protected int size;
+
         /**
-         * Costruisce un nodo radice con parent che punta a se stesso e rango
-         * zero.
+         * Costruisce un nodo radice con parent e successivo che puntano a se
+         * stesso, rango zero e un solo elemento.
          * 
          * @param item
          *                 l'elemento conservato in questo nodo
@@ -63,6 +86,8 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
             this.item = item;
             this.parent = this;
             this.rank = 0;
+            this.next = this;
+            this.size = 1;
         }
 
     }
@@ -74,6 +99,7 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
     public ForestDisjointSets() {
 
         this.currentElements = new HashMap<E, Node<E>>();
+        this.representatives = new HashSet<E>();
 
     }
 
@@ -102,6 +128,7 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
         
         // creo un nuovo nodo e lo mappo nella tabella hash con la relativa chiave
         this.currentElements.put(e, new Node<E>(e));
+        this.representatives.add(e);
 
     }
 
@@ -141,6 +168,9 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
      * il rango della radice dell'albero di cui fa parte e1 sia uguale al rango
      * della radice dell'albero di cui fa parte e2 il rappresentante dell'unione
      * sarà il rappresentante dell'insieme di cui fa parte e2.
+     * 
+     * Le liste circolari dei due insiemi vengono fuse scambiando i successivi
+     * delle due radici, in un tempo costante.
      */
     @Override
     public void union(E e1, E e2) {
@@ -157,28 +187,32 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
         Node<E> node2 = this.currentElements.get(this.findSet(e2));
 
         // se il rank del nodo 1 è più alto allora è lui il rappresentante
-        if(node1.rank > node2.rank)
+        if(node1.rank > node2.rank) {
             node2.parent = node1;
+            node1.size += node2.size;
+            this.representatives.remove(node2.item);
+        }
         else {
         // altrimenti è il nodo2
             node1.parent = node2;
+            node2.size += node1.size;
+            this.representatives.remove(node1.item);
             // se dovessero essere uguali è sempre il nodo 2 a cui aumenta anche il rango
             if(node1.rank == node2.rank) 
                 node2.rank+=1;
         }
+
+        // scambiando i successivi le due liste circolari diventano una sola
+        Node<E> temp = node1.next;
+        node1.next = node2.next;
+        node2.next = temp;
     }
 
     @Override
     public Set<E> getCurrentRepresentatives() {
         
-        Set<E> rep = new HashSet<E>();
-
-        // aggiungo tutte le etichette dei nodi il cui parent è sé stesso
-        for ( E temp : this.currentElements.keySet() )
-            if(this.currentElements.get(temp).parent == this.currentElements.get(temp))
-                rep.add(temp);
-
-        return rep;
+        // copia dell'insieme mantenuto da makeSet e union, in un tempo pari al numero di insiemi
+        return new HashSet<E>(this.representatives);
 
     }
 
@@ -190,19 +224,48 @@ public class ForestDisjointSets<E> implements DisjointSets<E> {
         if(!this.isPresent(e))
             throw new IllegalArgumentException("Elemento non appartenente a nessun insieme");
 
+        Node<E> node = this.currentElements.get(e);
         Set<E> rep = new HashSet<E>();
 
-        // aggiungo tutte le etichette dei nodi il cui parent è lo stesso di quello passato
-        for ( E temp : this.currentElements.keySet() )
-            if(this.findSet(temp) == this.findSet(e))
-                rep.add(temp);
+        // scorro la lista circolare dell'insieme a partire dal nodo di e
+        Node<E> temp = node;
+        do {
+            rep.add(temp.item);
+            temp = temp.next;
+        } while(temp != node);
 
         return rep;
     }
 
+    /**
+     * Restituisce il numero di elementi dell'insieme disgiunto di cui fa
+     * parte un certo elemento.
+     * 
+     * @param e
+     *              l'elemento di cui si vuole conoscere la cardinalità
+     *              dell'insieme disgiunto
+     * @return il numero di elementi dell'insieme di cui fa parte e
+     * @throws NullPointerException
+     *                                      se l'elemento passato è null
+     * @throws IllegalArgumentException
+     *                                      se l'elemento passato non è
+     *                                      contenuto in nessun insieme
+     *                                      disgiunto
+     */
+    public int getCardinalityOfSetContaining(E e) {
+
+        if(e == null)
+            throw new NullPointerException("Puntatore null");
+        if(!this.isPresent(e))
+            throw new IllegalArgumentException("Elemento non appartenente a nessun insieme");
+
+        return this.currentElements.get(this.findSet(e)).size;
+    }
+
     @Override
     public void clear() {
         this.currentElements = new HashMap<E, Node<E>>();
+        this.representatives = new HashSet<E>();
     }
 
 }
@@ -3,6 +3,7 @@ package it.unicam.cs.asdl2324.mp2;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
 
 import org.junit.jupiter.api.Test;
@@ -643,4 +644,52 @@ class ForestDisjointSetsTest {
         assertTrue(ds.getCurrentRepresentatives().isEmpty());
         assertTrue(ds.currentElements.isEmpty());
     }
+
+    @Test
+    final void testGetCardinalityOfSetContaining() {
+        ForestDisjointSets<Integer> ds = new ForestDisjointSets<Integer>();
+        assertThrows(NullPointerException.class,
+                () -> ds.getCardinalityOfSetContaining(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ds.getCardinalityOfSetContaining(1));
+        for (int i = 1; i <= 5; i++)
+            ds.makeSet(i);
+        assertEquals(1, ds.getCardinalityOfSetContaining(1));
+        ds.union(1, 2);
+        ds.union(3, 4);
+        assertEquals(2, ds.getCardinalityOfSetContaining(1));
+        assertEquals(2, ds.getCardinalityOfSetContaining(4));
+        ds.union(4, 2);
+        ds.union(2, 1);
+        for (int i = 1; i <= 4; i++)
+            assertEquals(4, ds.getCardinalityOfSetContaining(i));
+        assertEquals(1, ds.getCardinalityOfSetContaining(5));
+        ds.clear();
+        ds.makeSet(1);
+        assertEquals(1, ds.getCardinalityOfSetContaining(1));
+    }
+
+    @Test
+    final void testSetsAgainstFindSet() {
+        ForestDisjointSets<Integer> ds = new ForestDisjointSets<Integer>();
+        Random random = new Random(20);
+        int n = 300;
+        for (int i = 0; i < n; i++)
+            ds.makeSet(i);
+        for (int k = 0; k < 250; k++) {
+            ds.union(random.nextInt(n), random.nextInt(n));
+            // rappresentanti ed elementi coerenti con findSet
+            Set<Integer> controlSet = new HashSet<Integer>();
+            for (int i = 0; i < n; i++)
+                controlSet.add(ds.findSet(i));
+            assertEquals(controlSet, ds.getCurrentRepresentatives());
+            int e = random.nextInt(n);
+            Set<Integer> members = new HashSet<Integer>();
+            for (int i = 0; i < n; i++)
+                if (ds.findSet(i).equals(ds.findSet(e)))
+                    members.add(i);
+            assertEquals(members, ds.getCurrentElementsOfSetContaining(e));
+            assertEquals(members.size(), ds.getCardinalityOfSetContaining(e));
+        }
+    }
 }
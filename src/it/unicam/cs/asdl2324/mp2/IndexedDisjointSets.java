@@ -0,0 +1,183 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Implementazione dell'interfaccia <code>DisjointSets<E></code> che associa,
+ * una volta sola in makeSet, ad ogni elemento un indice intero consecutivo e
+ * delega le operazioni a un <code>IntDisjointSets</code>. Rispetto a
+ * <code>ForestDisjointSets</code> ogni operazione consulta la mappa solo per
+ * tradurre gli elementi passati, non a ogni livello dell'albero, e non alloca
+ * un nodo per elemento.
+ *
+ * Chi esegue molte operazioni sugli stessi elementi, ad esempio Kruskal sugli
+ * estremi degli archi, può tradurli una volta sola con indexOf e lavorare poi
+ * direttamente sugli indici con getIntDisjointSets(), senza più passare dalla
+ * mappa.
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ * @param <E>
+ *                il tipo degli elementi degli insiemi disgiunti
+ */
+public class IndexedDisjointSets<E> implements DisjointSets<E> {
+
+    // Indice di ogni elemento inserito
+    private final Map<E, Integer> indici;
+
+    // Elemento di ogni indice
+    private final List<E> elementi;
+
+    // Insiemi disgiunti degli indici
+    private final IntDisjointSets sets;
+
+    /**
+     * Costruisce una collezione vuota di insiemi disgiunti.
+     */
+    public IndexedDisjointSets() {
+        this.indici = new HashMap<E, Integer>();
+        this.elementi = new ArrayList<E>();
+        this.sets = new IntDisjointSets();
+    }
+
+    /**
+     * Costruisce una collezione vuota di insiemi disgiunti in grado di
+     * contenere il numero di elementi dato senza riallocare.
+     *
+     * @param capacity
+     *                     il numero di elementi previsto
+     * @throws IllegalArgumentException
+     *                                      se capacity è negativo
+     */
+    public IndexedDisjointSets(int capacity) {
+        this.sets = new IntDisjointSets(capacity);
+        this.indici = new HashMap<E, Integer>((int) Math.min(Integer.MAX_VALUE, capacity * 4L / 3 + 1));
+        this.elementi = new ArrayList<E>(capacity);
+    }
+
+    @Override
+    public boolean isPresent(E e) {
+        if(e == null)
+            throw new NullPointerException("Puntatore null");
+        return this.indici.containsKey(e);
+    }
+
+    @Override
+    public void makeSet(E e) {
+        if(e == null)
+            throw new NullPointerException("Puntatore null");
+        if(this.indici.containsKey(e))
+            throw new IllegalArgumentException("Elemento presente in uno degli insiemi");
+
+        this.indici.put(e, this.sets.makeSet());
+        this.elementi.add(e);
+    }
+
+    @Override
+    public E findSet(E e) {
+        if(e == null)
+            throw new NullPointerException("Puntatore null");
+        Integer i = this.indici.get(e);
+        if(i == null)
+            return null;
+        return this.elementi.get(this.sets.findSet(i));
+    }
+
+    /*
+     * A parità di rango il rappresentante dell'unione è quello dell'insieme
+     * di e2, come in ForestDisjointSets.
+     */
+    @Override
+    public void union(E e1, E e2) {
+        if(e1 == null || e2 == null)
+            throw new NullPointerException("Puntatore null");
+        Integer i1 = this.indici.get(e1);
+        Integer i2 = this.indici.get(e2);
+        if(i1 == null || i2 == null)
+            throw new IllegalArgumentException("Uno dei due elementi non presenti");
+        this.sets.union(i1, i2);
+    }
+
+    @Override
+    public Set<E> getCurrentRepresentatives() {
+        Set<E> rep = new HashSet<E>();
+        for(int i = 0; i < this.sets.size(); i++)
+            if(this.sets.getParent(i) == i)
+                rep.add(this.elementi.get(i));
+        return rep;
+    }
+
+    @Override
+    public Set<E> getCurrentElementsOfSetContaining(E e) {
+        if(e == null)
+            throw new NullPointerException("Puntatore null");
+        Integer i = this.indici.get(e);
+        if(i == null)
+            throw new IllegalArgumentException("Elemento non appartenente a nessun insieme");
+
+        Set<E> rep = new HashSet<E>();
+        int root = this.sets.findSet(i);
+        for(int j = 0; j < this.sets.size(); j++)
+            if(this.sets.findSet(j) == root)
+                rep.add(this.elementi.get(j));
+        return rep;
+    }
+
+    @Override
+    public void clear() {
+        this.indici.clear();
+        this.elementi.clear();
+        this.sets.clear();
+    }
+
+    /**
+     * Restituisce l'indice associato a un elemento in makeSet.
+     *
+     * @param e
+     *              l'elemento
+     * @return l'indice di e nella collezione restituita da
+     *         getIntDisjointSets(), o -1 se e non è presente
+     * @throws NullPointerException
+     *                                  se l'elemento passato è null
+     */
+    public int indexOf(E e) {
+        if(e == null)
+            throw new NullPointerException("Puntatore null");
+        Integer i = this.indici.get(e);
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * Restituisce l'elemento associato a un indice.
+     *
+     * @param i
+     *              l'indice
+     * @return l'elemento di indice i
+     * @throws IndexOutOfBoundsException
+     *                                       se l'indice non corrisponde a
+     *                                       nessun elemento
+     */
+    public E get(int i) {
+        return this.elementi.get(i);
+    }
+
+    /**
+     * Restituisce la collezione di insiemi disgiunti degli indici su cui
+     * opera questa collezione. Le unioni eseguite sugli indici sono visibili
+     * da questa collezione e viceversa; non devono invece essere creati nuovi
+     * elementi direttamente sulla collezione restituita.
+     *
+     * @return la collezione di insiemi disgiunti degli indici
+     */
+    public IntDisjointSets getIntDisjointSets() {
+        return this.sets;
+    }
+
+}
@@ -0,0 +1,73 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe IndexedDisjointSets.
+ * 
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+class IndexedDisjointSetsTest {
+
+    @Test
+    final void testMakeSetIsPresent() {
+        IndexedDisjointSets<String> ds = new IndexedDisjointSets<String>();
+        assertTrue(ds.getCurrentRepresentatives().isEmpty());
+        assertFalse(ds.isPresent("a"));
+        ds.makeSet("a");
+        ds.makeSet("b");
+        assertTrue(ds.isPresent("a"));
+        assertEquals(0, ds.indexOf("a"));
+        assertEquals(1, ds.indexOf("b"));
+        assertEquals(-1, ds.indexOf("c"));
+        assertEquals("b", ds.get(1));
+        assertThrows(NullPointerException.class, () -> ds.makeSet(null));
+        assertThrows(NullPointerException.class, () -> ds.isPresent(null));
+        assertThrows(NullPointerException.class, () -> ds.indexOf(null));
+        assertThrows(IllegalArgumentException.class, () -> ds.makeSet("a"));
+    }
+
+    @Test
+    final void testFindSetUnion() {
+        IndexedDisjointSets<String> ds = new IndexedDisjointSets<String>(3);
+        ds.makeSet("a");
+        ds.makeSet("b");
+        ds.makeSet("c");
+        assertNull(ds.findSet("d"));
+        assertThrows(NullPointerException.class, () -> ds.findSet(null));
+        assertThrows(NullPointerException.class, () -> ds.union("a", null));
+        assertThrows(IllegalArgumentException.class, () -> ds.union("a", "d"));
+        ds.union("a", "b");
+        assertEquals("b", ds.findSet("a"));
+        ds.union("c", "a");
+        assertEquals("b", ds.findSet("c"));
+        assertEquals(Set.of("b"), ds.getCurrentRepresentatives());
+        assertEquals(Set.of("a", "b", "c"), ds.getCurrentElementsOfSetContaining("c"));
+        assertThrows(IllegalArgumentException.class, () -> ds.getCurrentElementsOfSetContaining("d"));
+        ds.clear();
+        assertFalse(ds.isPresent("a"));
+        assertTrue(ds.getCurrentRepresentatives().isEmpty());
+    }
+
+    @Test
+    final void testIntView() {
+        IndexedDisjointSets<Integer> ds = new IndexedDisjointSets<Integer>();
+        for (int i = 0; i < 10; i++)
+            ds.makeSet(i * 10);
+        IntDisjointSets ints = ds.getIntDisjointSets();
+        ints.union(ds.indexOf(0), ds.indexOf(10));
+        assertEquals(ds.findSet(0), ds.findSet(10));
+        ds.union(20, 30);
+        assertEquals(ints.findSet(2), ints.findSet(3));
+        Set<Integer> rep = new HashSet<Integer>(ds.getCurrentRepresentatives());
+        assertEquals(8, rep.size());
+        assertEquals(8, ints.getNumberOfSets());
+    }
+
+}
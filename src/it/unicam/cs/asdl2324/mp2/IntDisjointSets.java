@@ -0,0 +1,226 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.Arrays;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Collezione di insiemi disgiunti di interi rappresentati, come in
+ * <code>ForestDisjointSets</code>, da una foresta di alberi con unione per
+ * rango, ma memorizzata in due array indicizzati dagli elementi: il parent di
+ * ogni elemento in un <code>int[]</code> e il rango in un <code>byte[]</code>
+ * (il rango è al più log2 n, quindi minore di 31). Gli elementi sono gli
+ * interi 0, 1, ..., size() - 1, creati in ordine da makeSet().
+ *
+ * Non servono né una mappa né un nodo per elemento: ogni elemento occupa 5
+ * byte. findSet è iterativo e realizza il dimezzamento del cammino (path
+ * halving): ogni nodo visitato viene collegato al proprio nonno, il che
+ * dimezza la lunghezza del cammino con una sola passata e senza ricorsione.
+ * Insieme all'unione per rango dà lo stesso costo ammortizzato
+ * O(α(n)) per operazione della compressione del cammino.
+ *
+ * Per insiemi disgiunti di elementi di tipo qualsiasi si veda
+ * <code>IndexedDisjointSets</code>.
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class IntDisjointSets {
+
+    // Capacità iniziale di default
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Parent di ogni elemento, uguale all'elemento stesso per le radici
+    private int[] parent;
+
+    // Rango di ogni elemento, significativo solo per le radici
+    private byte[] rank;
+
+    // Numero di elementi
+    private int size;
+
+    // Numero di insiemi disgiunti
+    private int sets;
+
+    /**
+     * Costruisce una collezione vuota di insiemi disgiunti.
+     */
+    public IntDisjointSets() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Costruisce una collezione vuota di insiemi disgiunti in grado di
+     * contenere il numero di elementi dato senza riallocare gli array.
+     *
+     * @param capacity
+     *                     il numero di elementi previsto
+     * @throws IllegalArgumentException
+     *                                      se capacity è negativo
+     */
+    public IntDisjointSets(int capacity) {
+        if(capacity < 0)
+            throw new IllegalArgumentException("Capacità negativa");
+        this.parent = new int[capacity];
+        this.rank = new byte[capacity];
+    }
+
+    /**
+     * Crea un nuovo insieme disgiunto contenente solo un nuovo elemento, pari
+     * al numero di elementi presenti prima della chiamata.
+     *
+     * @return il nuovo elemento
+     * @throws IllegalStateException
+     *                                   se è già stato raggiunto il numero
+     *                                   massimo di elementi
+     */
+    public int makeSet() {
+        if(this.size == this.parent.length) {
+            if(this.size == Integer.MAX_VALUE - 8)
+                throw new IllegalStateException("Numero massimo di elementi raggiunto");
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8,
+                    Math.max(DEFAULT_CAPACITY, 2L * this.size));
+            this.parent = Arrays.copyOf(this.parent, capacity);
+            this.rank = Arrays.copyOf(this.rank, capacity);
+        }
+        int e = this.size++;
+        this.parent[e] = e;
+        this.rank[e] = 0;
+        this.sets++;
+        return e;
+    }
+
+    /**
+     * Crea n nuovi insiemi singoletto, con elementi consecutivi.
+     *
+     * @param n
+     *              il numero di insiemi da creare
+     * @return il primo dei nuovi elementi
+     * @throws IllegalArgumentException
+     *                                      se n è negativo
+     */
+    public int makeSets(int n) {
+        if(n < 0)
+            throw new IllegalArgumentException("Numero di elementi negativo");
+        int first = this.size;
+        if((long) first + n > this.parent.length) {
+            if((long) first + n > Integer.MAX_VALUE - 8)
+                throw new IllegalStateException("Numero massimo di elementi raggiunto");
+            this.parent = Arrays.copyOf(this.parent, first + n);
+            this.rank = Arrays.copyOf(this.rank, first + n);
+        }
+        for(int e = first; e < first + n; e++) {
+            this.parent[e] = e;
+            this.rank[e] = 0;
+        }
+        this.size += n;
+        this.sets += n;
+        return first;
+    }
+
+    /**
+     * Determina se un elemento è stato creato.
+     *
+     * @param e
+     *              l'elemento da cercare
+     * @return true se 0 <= e < size()
+     */
+    public boolean isPresent(int e) {
+        return e >= 0 && e < this.size;
+    }
+
+    /**
+     * Restituisce il rappresentante dell'insieme disgiunto in cui si trova
+     * l'elemento, dimezzando il cammino percorso.
+     *
+     * @param e
+     *              l'elemento di cui cercare l'insieme disgiunto
+     * @return la radice dell'albero che contiene e
+     * @throws IllegalArgumentException
+     *                                      se l'elemento non è presente
+     */
+    public int findSet(int e) {
+        if(!this.isPresent(e))
+            throw new IllegalArgumentException("Elemento non appartenente a nessun insieme");
+
+        int[] p = this.parent;
+        while(p[e] != e) {
+            // collego e al nonno e proseguo da questo
+            p[e] = p[p[e]];
+            e = p[e];
+        }
+        return e;
+    }
+
+    /**
+     * Unisce gli insiemi disgiunti di cui fanno parte i due elementi con
+     * l'euristica dell'unione per rango. Come in
+     * <code>ForestDisjointSets</code>, a parità di rango il rappresentante
+     * dell'unione è quello dell'insieme di e2.
+     *
+     * @param e1
+     *               un elemento del primo insieme da unire
+     * @param e2
+     *               un elemento del secondo insieme da unire
+     * @return true se gli insiemi sono stati uniti, false se i due elementi
+     *         erano già nello stesso insieme
+     * @throws IllegalArgumentException
+     *                                      se almeno uno dei due elementi non
+     *                                      è presente
+     */
+    public boolean union(int e1, int e2) {
+        int r1 = this.findSet(e1);
+        int r2 = this.findSet(e2);
+        if(r1 == r2)
+            return false;
+
+        if(this.rank[r1] > this.rank[r2])
+            this.parent[r2] = r1;
+        else {
+            this.parent[r1] = r2;
+            if(this.rank[r1] == this.rank[r2])
+                this.rank[r2]++;
+        }
+        this.sets--;
+        return true;
+    }
+
+    /**
+     * @return il numero di elementi presenti
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return il numero di insiemi disgiunti correnti
+     */
+    public int getNumberOfSets() {
+        return this.sets;
+    }
+
+    /**
+     * Cancella tutti gli insiemi disgiunti correnti, mantenendo la capacità
+     * degli array.
+     */
+    public void clear() {
+        this.size = 0;
+        this.sets = 0;
+    }
+
+    /*
+     * Rango di un elemento. Only for JUnit testing purposes.
+     */
+    protected int getRank(int e) {
+        return this.rank[e];
+    }
+
+    /*
+     * Parent di un elemento, senza compressione. Only for JUnit testing
+     * purposes.
+     */
+    protected int getParent(int e) {
+        return this.parent[e];
+    }
+
+}
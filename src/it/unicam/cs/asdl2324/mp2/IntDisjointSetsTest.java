@@ -0,0 +1,108 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe IntDisjointSets.
+ * 
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+class IntDisjointSetsTest {
+
+    @Test
+    final void testMakeSet() {
+        IntDisjointSets ds = new IntDisjointSets(0);
+        assertEquals(0, ds.size());
+        assertFalse(ds.isPresent(0));
+        for (int i = 0; i < 100; i++)
+            assertEquals(i, ds.makeSet());
+        assertEquals(100, ds.size());
+        assertEquals(100, ds.getNumberOfSets());
+        assertTrue(ds.isPresent(99));
+        assertFalse(ds.isPresent(100));
+        assertFalse(ds.isPresent(-1));
+        assertEquals(100, ds.makeSets(50));
+        assertEquals(150, ds.size());
+        assertEquals(149, ds.findSet(149));
+        assertThrows(IllegalArgumentException.class, () -> ds.makeSets(-1));
+        assertThrows(IllegalArgumentException.class, () -> new IntDisjointSets(-1));
+    }
+
+    @Test
+    final void testFindSetUnion() {
+        IntDisjointSets ds = new IntDisjointSets();
+        ds.makeSets(5);
+        assertThrows(IllegalArgumentException.class, () -> ds.findSet(5));
+        assertThrows(IllegalArgumentException.class, () -> ds.union(0, 5));
+        assertTrue(ds.union(0, 1));
+        // a parità di rango vince il rappresentante del secondo
+        assertEquals(1, ds.findSet(0));
+        assertEquals(1, ds.getRank(1));
+        assertFalse(ds.union(1, 0));
+        assertTrue(ds.union(2, 0));
+        // il rango più alto vince
+        assertEquals(1, ds.findSet(2));
+        assertTrue(ds.union(3, 4));
+        assertTrue(ds.union(3, 2));
+        assertEquals(1, ds.getNumberOfSets());
+        for (int i = 0; i < 5; i++)
+            assertEquals(ds.findSet(0), ds.findSet(i));
+        assertEquals(2, ds.getRank(ds.findSet(0)));
+        ds.clear();
+        assertEquals(0, ds.size());
+        assertEquals(0, ds.makeSet());
+        assertEquals(0, ds.getRank(0));
+        assertEquals(0, ds.findSet(0));
+    }
+
+    @Test
+    final void testPathHalving() {
+        IntDisjointSets ds = new IntDisjointSets();
+        ds.makeSets(8);
+        // albero binomiale di altezza 3 con radice 7
+        ds.union(0, 1);
+        ds.union(2, 3);
+        ds.union(4, 5);
+        ds.union(6, 7);
+        ds.union(1, 3);
+        ds.union(5, 7);
+        ds.union(3, 7);
+        assertEquals(3, ds.getRank(7));
+        assertEquals(1, ds.getParent(0));
+        assertEquals(3, ds.getParent(1));
+        assertEquals(7, ds.getParent(3));
+        assertEquals(7, ds.findSet(0));
+        // 0 è collegato al nonno 3, 1 resta su 3
+        assertEquals(3, ds.getParent(0));
+        assertEquals(3, ds.getParent(1));
+        assertEquals(7, ds.findSet(0));
+        assertEquals(7, ds.getParent(0));
+    }
+
+    @Test
+    final void testAgainstForest() {
+        Random random = new Random(18);
+        int n = 2000;
+        IntDisjointSets ds = new IntDisjointSets();
+        ForestDisjointSets<Integer> forest = new ForestDisjointSets<Integer>();
+        for (int i = 0; i < n; i++) {
+            ds.makeSet();
+            forest.makeSet(i);
+        }
+        for (int k = 0; k < 1500; k++) {
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            ds.union(a, b);
+            forest.union(a, b);
+        }
+        assertEquals(forest.getCurrentRepresentatives().size(), ds.getNumberOfSets());
+        for (int i = 0; i < n; i++)
+            assertEquals((int) forest.findSet(i), ds.findSet(i));
+    }
+
+}
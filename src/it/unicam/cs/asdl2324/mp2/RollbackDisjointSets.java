@@ -0,0 +1,269 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//ATTENZIONE: è vietato includere import a pacchetti che non siano della Java SE
+
+/**
+ * Implementazione dell'interfaccia <code>DisjointSets<E></code> che permette
+ * di annullare le operazioni eseguite. Come in
+ * <code>IndexedDisjointSets</code> ad ogni elemento è associato in makeSet un
+ * indice intero consecutivo e gli alberi della foresta sono memorizzati in un
+ * array di parent e uno di ranghi, ma:
+ * <ul>
+ * <li>findSet non comprime i cammini, in modo che ogni union modifichi solo
+ * il parent di una radice ed eventualmente il rango dell'altra. Con la sola
+ * unione per rango l'altezza degli alberi resta al più log2 n, per cui
+ * findSet e union costano O(log n);</li>
+ * <li>ogni makeSet e ogni union che unisce due insiemi distinti viene
+ * registrata in un log.</li>
+ * </ul>
+ * snapshot() restituisce la posizione corrente nel log e rollback(s) annulla,
+ * dalla più recente, tutte le operazioni registrate dopo s, ciascuna in tempo
+ * costante. Questo permette ad esempio di rispondere a domande del tipo "il
+ * grafo resta connesso senza questi archi?" senza ricostruire gli insiemi,
+ * e la connettività dinamica offline con il divide et impera sulla linea
+ * temporale delle cancellazioni degli archi.
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ * @param <E>
+ *                il tipo degli elementi degli insiemi disgiunti
+ */
+public class RollbackDisjointSets<E> implements DisjointSets<E> {
+
+    // Capacità iniziale di default degli array
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Voce del log che registra una makeSet
+    private static final int MAKE_SET = -1;
+
+    // Indice di ogni elemento inserito
+    private final Map<E, Integer> indici;
+
+    // Elemento di ogni indice
+    private final List<E> elementi;
+
+    // Parent di ogni indice, uguale all'indice stesso per le radici
+    private int[] parent;
+
+    // Rango di ogni indice, significativo solo per le radici
+    private byte[] rank;
+
+    // Numero di insiemi disgiunti
+    private int sets;
+
+    /*
+     * Log delle operazioni: MAKE_SET per una makeSet, 2 * figlio + 1 per una
+     * union che ha incrementato il rango del nuovo parent, 2 * figlio
+     * altrimenti, dove figlio è la radice collegata sotto l'altra.
+     */
+    private int[] log;
+
+    // Numero di voci del log
+    private int logSize;
+
+    /**
+     * Costruisce una collezione vuota di insiemi disgiunti.
+     */
+    public RollbackDisjointSets() {
+        this.indici = new HashMap<E, Integer>();
+        this.elementi = new ArrayList<E>();
+        this.parent = new int[DEFAULT_CAPACITY];
+        this.rank = new byte[DEFAULT_CAPACITY];
+        this.log = new int[DEFAULT_CAPACITY];
+    }
+
+    @Override
+    public boolean isPresent(E e) {
+        if(e == null)
+            throw new NullPointerException("Puntatore null");
+        return this.indici.containsKey(e);
+    }
+
+    @Override
+    public void makeSet(E e) {
+        if(e == null)
+            throw new NullPointerException("Puntatore null");
+        if(this.indici.containsKey(e))
+            throw new IllegalArgumentException("Elemento presente in uno degli insiemi");
+
+        int i = this.elementi.size();
+        if(i == this.parent.length) {
+            this.parent = Arrays.copyOf(this.parent, 2 * i);
+            this.rank = Arrays.copyOf(this.rank, 2 * i);
+        }
+        this.parent[i] = i;
+        this.rank[i] = 0;
+        this.indici.put(e, i);
+        this.elementi.add(e);
+        this.sets++;
+        this.registra(MAKE_SET);
+    }
+
+    @Override
+    public E findSet(E e) {
+        if(e == null)
+            throw new NullPointerException("Puntatore null");
+        Integer i = this.indici.get(e);
+        if(i == null)
+            return null;
+        return this.elementi.get(this.radice(i));
+    }
+
+    /*
+     * A parità di rango il rappresentante dell'unione è quello dell'insieme
+     * di e2, come in ForestDisjointSets. Un'unione di elementi già nello
+     * stesso insieme non modifica nulla e non viene registrata.
+     */
+    @Override
+    public void union(E e1, E e2) {
+        if(e1 == null || e2 == null)
+            throw new NullPointerException("Puntatore null");
+        Integer i1 = this.indici.get(e1);
+        Integer i2 = this.indici.get(e2);
+        if(i1 == null || i2 == null)
+            throw new IllegalArgumentException("Uno dei due elementi non presenti");
+
+        int r1 = this.radice(i1);
+        int r2 = this.radice(i2);
+        if(r1 == r2)
+            return;
+
+        if(this.rank[r1] > this.rank[r2]) {
+            this.parent[r2] = r1;
+            this.registra(2 * r2);
+        }
+        else if(this.rank[r1] == this.rank[r2]) {
+            this.parent[r1] = r2;
+            this.rank[r2]++;
+            this.registra(2 * r1 + 1);
+        }
+        else {
+            this.parent[r1] = r2;
+            this.registra(2 * r1);
+        }
+        this.sets--;
+    }
+
+    /**
+     * Restituisce un punto della storia delle operazioni a cui è possibile
+     * tornare con rollback.
+     *
+     * @return il numero di operazioni registrate finora
+     */
+    public int snapshot() {
+        return this.logSize;
+    }
+
+    /**
+     * Annulla, dalla più recente, tutte le makeSet e union eseguite dopo la
+     * chiamata a snapshot() che ha restituito il valore dato, in un tempo
+     * proporzionale al numero di operazioni annullate. Dopo un rollback sono
+     * ancora validi i valori di snapshot() precedenti a quello dato, non
+     * quelli successivi.
+     *
+     * @param snapshot
+     *                     il valore restituito da snapshot()
+     * @throws IllegalArgumentException
+     *                                      se snapshot è negativo o
+     *                                      successivo alla posizione corrente
+     */
+    public void rollback(int snapshot) {
+        if(snapshot < 0 || snapshot > this.logSize)
+            throw new IllegalArgumentException("Snapshot non valido");
+
+        while(this.logSize > snapshot) {
+            int voce = this.log[--this.logSize];
+            if(voce == MAKE_SET) {
+                // le makeSet si annullano in ordine inverso: è l'ultimo elemento
+                E e = this.elementi.remove(this.elementi.size() - 1);
+                this.indici.remove(e);
+            }
+            else {
+                int figlio = voce >>> 1;
+                int p = this.parent[figlio];
+                if((voce & 1) != 0)
+                    this.rank[p]--;
+                this.parent[figlio] = figlio;
+            }
+            this.sets += voce == MAKE_SET ? -1 : 1;
+        }
+    }
+
+    /**
+     * @return il numero di insiemi disgiunti correnti
+     */
+    public int getNumberOfSets() {
+        return this.sets;
+    }
+
+    @Override
+    public Set<E> getCurrentRepresentatives() {
+        Set<E> rep = new HashSet<E>();
+        for(int i = 0; i < this.elementi.size(); i++)
+            if(this.parent[i] == i)
+                rep.add(this.elementi.get(i));
+        return rep;
+    }
+
+    @Override
+    public Set<E> getCurrentElementsOfSetContaining(E e) {
+        if(e == null)
+            throw new NullPointerException("Puntatore null");
+        Integer i = this.indici.get(e);
+        if(i == null)
+            throw new IllegalArgumentException("Elemento non appartenente a nessun insieme");
+
+        Set<E> rep = new HashSet<E>();
+        int root = this.radice(i);
+        for(int j = 0; j < this.elementi.size(); j++)
+            if(this.radice(j) == root)
+                rep.add(this.elementi.get(j));
+        return rep;
+    }
+
+    /*
+     * Cancella anche il log: gli snapshot precedenti non sono più validi.
+     */
+    @Override
+    public void clear() {
+        this.indici.clear();
+        this.elementi.clear();
+        this.sets = 0;
+        this.logSize = 0;
+    }
+
+    /*
+     * Radice dell'albero di i, senza compressione del cammino
+     */
+    private int radice(int i) {
+        while(this.parent[i] != i)
+            i = this.parent[i];
+        return i;
+    }
+
+    /*
+     * Aggiunge una voce al log
+     */
+    private void registra(int voce) {
+        if(this.logSize == this.log.length)
+            this.log = Arrays.copyOf(this.log, 2 * this.logSize);
+        this.log[this.logSize++] = voce;
+    }
+
+    /*
+     * Rango della radice dell'insieme di un elemento. Only for JUnit testing
+     * purposes.
+     */
+    protected int getRank(E e) {
+        return this.rank[this.radice(this.indici.get(e))];
+    }
+
+}
@@ -0,0 +1,151 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.SplittableRandom;
+
+/**
+ * Misura una sequenza casuale di operazioni su N insiemi singoletto: union di
+ * coppie casuali (70%), salvataggio di un punto della storia (15%) e ritorno
+ * all'ultimo punto salvato (15%). Sono confrontati:
+ * <ul>
+ * <li>RollbackDisjointSets, con snapshot() e rollback();</li>
+ * <li>ForestDisjointSets ricostruita da capo a ogni ritorno, ripetendo le
+ * union eseguite fino al punto salvato.</li>
+ * </ul>
+ * La ricostruzione costa Θ(N) per ritorno, per cui per ForestDisjointSets
+ * viene eseguito solo l'inizio della sequenza. Per ciascuna sono riportati il
+ * numero di operazioni eseguite, il tempo in millisecondi e il tempo medio per
+ * operazione in microsecondi. I dati sono scritti sul file
+ * rollbackdisjointsets.csv.
+ *
+ * Il main può essere chiamato con il nome della directory di destinazione del
+ * file come primo parametro di linea di comando (altrimenti si assume la
+ * directory corrente), con il numero di elementi, di operazioni e di
+ * operazioni per la ricostruzione come parametri successivi (altrimenti si
+ * usano N, OPS e REBUILD_OPS).
+ *
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+public class RollbackDisjointSetsEvaluationFramework {
+
+    /**
+     * Numero di default di elementi
+     */
+    public static final int N = 100_000;
+
+    /**
+     * Numero di default di operazioni
+     */
+    public static final int OPS = 1_000_000;
+
+    /**
+     * Numero di default di operazioni eseguite con la ricostruzione
+     */
+    public static final int REBUILD_OPS = 20_000;
+
+    // Codici delle operazioni
+    private static final int UNION = 0;
+    private static final int SNAPSHOT = 1;
+    private static final int ROLLBACK = 2;
+
+    public static void main(String[] args) {
+        String dirName = args.length > 0 ? args[0] : ".";
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : N;
+        int ops = args.length > 2 ? Integer.parseInt(args[2]) : OPS;
+        int rebuildOps = args.length > 3 ? Integer.parseInt(args[3])
+                : REBUILD_OPS;
+        PrintStream o = null;
+        try {
+            o = new PrintStream(
+                    new File(dirName + "/" + "rollbackdisjointsets.csv"));
+        } catch (FileNotFoundException e) {
+            System.out.println("Errore creazione file di ouput" + dirName + "/"
+                    + "rollbackdisjointsets.csv");
+            System.exit(1);
+        }
+        o.println("Implementation,N,Ops,Ms,UsPerOp");
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++)
+            keys[i] = i;
+        // sequenza di operazioni, generata una volta sola fuori dalle misure
+        int[] op = new int[ops];
+        int[] a = new int[ops];
+        int[] b = new int[ops];
+        SplittableRandom random = new SplittableRandom(ops);
+        for (int i = 0; i < ops; i++) {
+            int r = random.nextInt(100);
+            op[i] = r < 70 ? UNION : r < 85 ? SNAPSHOT : ROLLBACK;
+            a[i] = random.nextInt(n);
+            b[i] = random.nextInt(n);
+        }
+
+        // pila dei punti salvati e union eseguite
+        int[] stack = new int[ops];
+        int[] done = new int[2 * ops];
+
+        System.gc();
+        long start = System.nanoTime();
+        RollbackDisjointSets<Integer> ds = new RollbackDisjointSets<Integer>();
+        for (int i = 0; i < n; i++)
+            ds.makeSet(keys[i]);
+        int top = 0;
+        for (int i = 0; i < ops; i++) {
+            if (op[i] == UNION)
+                ds.union(keys[a[i]], keys[b[i]]);
+            else if (op[i] == SNAPSHOT)
+                stack[top++] = ds.snapshot();
+            else if (top > 0)
+                ds.rollback(stack[--top]);
+        }
+        long t = System.nanoTime() - start;
+        int sets = ds.getNumberOfSets();
+        print(o, "RollbackDisjointSets", n, ops, t);
+        ds = null;
+
+        ops = Math.min(ops, rebuildOps);
+        System.gc();
+        start = System.nanoTime();
+        ForestDisjointSets<Integer> forest = new ForestDisjointSets<Integer>();
+        for (int i = 0; i < n; i++)
+            forest.makeSet(keys[i]);
+        top = 0;
+        int nDone = 0;
+        for (int i = 0; i < ops; i++) {
+            if (op[i] == UNION) {
+                forest.union(keys[a[i]], keys[b[i]]);
+                done[nDone++] = a[i];
+                done[nDone++] = b[i];
+            } else if (op[i] == SNAPSHOT)
+                stack[top++] = nDone;
+            else if (top > 0) {
+                // ricostruzione fino al punto salvato
+                nDone = stack[--top];
+                forest.clear();
+                for (int k = 0; k < n; k++)
+                    forest.makeSet(keys[k]);
+                for (int k = 0; k < nDone; k += 2)
+                    forest.union(keys[done[k]], keys[done[k + 1]]);
+            }
+        }
+        t = System.nanoTime() - start;
+        print(o, "ForestDisjointSets rebuild", n, ops, t);
+        if (ops == op.length
+                && forest.getCurrentRepresentatives().size() != sets)
+            throw new IllegalStateException("Insiemi diversi");
+        o.close();
+    } // end main
+
+    private static void print(PrintStream o, String name, int n, int ops,
+            long nanos) {
+        double us = nanos / 1000.0 / ops;
+        o.println(name + "," + n + "," + ops + "," + nanos / 1_000_000 + ","
+                + us);
+        System.out.println(name + " " + n + " elementi, " + ops
+                + " operazioni: " + nanos / 1_000_000 + " ms, " + us
+                + " us/op");
+    }
+
+}
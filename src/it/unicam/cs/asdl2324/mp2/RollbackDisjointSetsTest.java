@@ -0,0 +1,124 @@
+package it.unicam.cs.asdl2324.mp2;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Classe di test per la classe RollbackDisjointSets.
+ * 
+ * @author CAMILLETTI SAMUELE samuele.camilletti@studenti.unicam.it
+ *
+ */
+class RollbackDisjointSetsTest {
+
+    @Test
+    final void testDisjointSets() {
+        RollbackDisjointSets<String> ds = new RollbackDisjointSets<String>();
+        assertTrue(ds.getCurrentRepresentatives().isEmpty());
+        assertThrows(NullPointerException.class, () -> ds.makeSet(null));
+        ds.makeSet("a");
+        ds.makeSet("b");
+        ds.makeSet("c");
+        assertThrows(IllegalArgumentException.class, () -> ds.makeSet("a"));
+        assertThrows(IllegalArgumentException.class, () -> ds.union("a", "d"));
+        assertThrows(NullPointerException.class, () -> ds.union(null, "a"));
+        assertNull(ds.findSet("d"));
+        ds.union("a", "b");
+        // a parità di rango vince il rappresentante di e2
+        assertEquals("b", ds.findSet("a"));
+        ds.union("c", "a");
+        assertEquals("b", ds.findSet("c"));
+        assertEquals(1, ds.getRank("c"));
+        assertEquals(Set.of("b"), ds.getCurrentRepresentatives());
+        assertEquals(Set.of("a", "b", "c"), ds.getCurrentElementsOfSetContaining("a"));
+        assertThrows(IllegalArgumentException.class, () -> ds.getCurrentElementsOfSetContaining("d"));
+        ds.clear();
+        assertFalse(ds.isPresent("a"));
+        assertEquals(0, ds.snapshot());
+    }
+
+    @Test
+    final void testRollback() {
+        RollbackDisjointSets<Integer> ds = new RollbackDisjointSets<Integer>();
+        for (int i = 0; i < 4; i++)
+            ds.makeSet(i);
+        int s0 = ds.snapshot();
+        ds.union(0, 1);
+        ds.union(2, 3);
+        int s1 = ds.snapshot();
+        ds.union(1, 3);
+        // unione già avvenuta: non registrata
+        ds.union(0, 2);
+        assertEquals(s1 + 1, ds.snapshot());
+        assertEquals(1, ds.getNumberOfSets());
+        assertEquals(2, ds.getRank(0));
+        ds.makeSet(4);
+        ds.union(4, 0);
+        assertEquals(ds.findSet(0), ds.findSet(4));
+        ds.rollback(s1);
+        assertFalse(ds.isPresent(4));
+        assertEquals(2, ds.getNumberOfSets());
+        assertEquals(ds.findSet(0), ds.findSet(1));
+        assertNotEquals(ds.findSet(0), ds.findSet(2));
+        assertEquals(1, ds.getRank(0));
+        ds.rollback(s0);
+        assertEquals(4, ds.getNumberOfSets());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, ds.findSet(i));
+            assertEquals(0, ds.getRank(i));
+        }
+        // l'elemento rimosso può essere reinserito
+        ds.makeSet(4);
+        assertTrue(ds.isPresent(4));
+        ds.rollback(0);
+        assertTrue(ds.getCurrentRepresentatives().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> ds.rollback(1));
+        assertThrows(IllegalArgumentException.class, () -> ds.rollback(-1));
+    }
+
+    @Test
+    final void testRollbackAgainstRebuild() {
+        Random random = new Random(22);
+        int n = 300;
+        RollbackDisjointSets<Integer> ds = new RollbackDisjointSets<Integer>();
+        for (int i = 0; i < n; i++)
+            ds.makeSet(i);
+        // unioni eseguite e, per ogni snapshot, quante ne erano state eseguite
+        List<int[]> unioni = new ArrayList<int[]>();
+        Deque<int[]> snapshots = new ArrayDeque<int[]>();
+        for (int k = 0; k < 2000; k++) {
+            int r = random.nextInt(10);
+            if (r < 6) {
+                int[] u = { random.nextInt(n), random.nextInt(n) };
+                ds.union(u[0], u[1]);
+                unioni.add(u);
+            } else if (r < 8) {
+                snapshots.push(new int[] { ds.snapshot(), unioni.size() });
+            } else if (!snapshots.isEmpty()) {
+                int[] s = snapshots.pop();
+                ds.rollback(s[0]);
+                unioni.subList(s[1], unioni.size()).clear();
+            }
+            // confronto con una foresta ricostruita da capo
+            ForestDisjointSets<Integer> forest = new ForestDisjointSets<Integer>();
+            for (int i = 0; i < n; i++)
+                forest.makeSet(i);
+            for (int[] u : unioni)
+                forest.union(u[0], u[1]);
+            assertEquals(forest.getCurrentRepresentatives().size(), ds.getNumberOfSets());
+            int a = random.nextInt(n);
+            int b = random.nextInt(n);
+            assertEquals(forest.findSet(a).equals(forest.findSet(b)),
+                    ds.findSet(a).equals(ds.findSet(b)));
+        }
+    }
+
+}